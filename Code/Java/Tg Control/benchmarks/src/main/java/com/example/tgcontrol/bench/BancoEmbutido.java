@@ -0,0 +1,93 @@
+package com.example.tgcontrol.bench;
+
+import com.example.tgcontrol.h2.BancoTesteH2;
+import com.example.tgcontrol.utils.DatabaseConnect;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Banco H2 em memória (modo MySQL) com o esquema do TGControl e a massa do GeradorDadosSemestre (sem os arquivos
+ * Markdown, semente fixa). O banco e o esquema vêm do BancoTesteH2 (test-jar do TgControl).
+ */
+public final class BancoEmbutido {
+
+    public static final String SENHA = GeradorDadosSemestre.SENHA;
+
+    // Data fixa para a massa ser a mesma em toda execução
+    private static final LocalDateTime REFERENCIA = LocalDateTime.of(2026, 10, 18, 12, 0);
+
+    private final List<String> alunos = new ArrayList<>();
+    private final List<String> professores = new ArrayList<>();
+    private final List<int[]> tasksEmAndamento = new ArrayList<>(); // {índice do aluno, sequence_order}
+
+    private BancoEmbutido() {
+    }
+
+    /**
+     * Função: Cria o banco em memória, o esquema e a massa de dados.
+     * Necessita: Nome do banco (um por combinação de parâmetros) e a quantidade de alunos (mínimo GeradorDadosSemestre.MIN_ALUNOS).
+     * Retorna: Os emails e tasks gerados, para os benchmarks sortearem.
+     */
+    public static BancoEmbutido criar(String nome, int quantidadeAlunos) throws SQLException {
+        BancoTesteH2.criar(nome);
+
+        BancoEmbutido banco = new BancoEmbutido();
+        try (Connection conn = DatabaseConnect.getConnection()) {
+            GeradorDadosSemestre.Resultado resultado = GeradorDadosSemestre.gerar(conn, quantidadeAlunos, 42, REFERENCIA, null);
+            banco.alunos.addAll(resultado.getAlunos());
+            banco.professores.addAll(resultado.getProfessores()); // coordenadores primeiro
+            banco.tasksEmAndamento.addAll(resultado.getTasksEmAndamento());
+        } catch (IOException e) {
+            throw new SQLException("Falha inesperada do gerador sem arquivos: " + e.getMessage(), e);
+        }
+        return banco;
+    }
+
+    /**
+     * Função: Lê os usuários e tasks de um banco já populado, sem criar nada (tgcontrol.db.url aponta para ele).
+     * Retorna: Os emails e tasks existentes, no mesmo formato de criar().
+     */
+    public static BancoEmbutido lerExistente() throws SQLException {
+        BancoEmbutido banco = new BancoEmbutido();
+        try (Connection conn = DatabaseConnect.getConnection();
+             Statement stmt = conn.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery("SELECT email FROM teacher ORDER BY is_coordinator DESC, email")) {
+                while (rs.next()) {
+                    banco.professores.add(rs.getString("email"));
+                }
+            }
+            try (ResultSet rs = stmt.executeQuery("SELECT email FROM student")) {
+                while (rs.next()) {
+                    banco.alunos.add(rs.getString("email"));
+                }
+            }
+            Collections.sort(banco.alunos); // ordem do Java, para o binarySearch abaixo (a collation do banco pode diferir)
+            try (ResultSet rs = stmt.executeQuery(
+                    "SELECT student_email, sequence_order FROM task WHERE status = 'in_progress'")) {
+                while (rs.next()) {
+                    int indice = Collections.binarySearch(banco.alunos, rs.getString("student_email"));
+                    if (indice >= 0) {
+                        banco.tasksEmAndamento.add(new int[]{indice, rs.getInt("sequence_order")});
+                    }
+                }
+            }
+        }
+        if (banco.alunos.isEmpty() || banco.professores.isEmpty() || banco.tasksEmAndamento.isEmpty()) {
+            throw new SQLException("O banco informado não tem alunos, professores e tasks em andamento suficientes.");
+        }
+        return banco;
+    }
+
+    public List<String> getAlunos() { return alunos; }
+    public List<String> getProfessores() { return professores; }
+    public String getCoordenador() { return professores.get(0); }
+    public List<int[]> getTasksEmAndamento() { return tasksEmAndamento; }
+}
@@ -0,0 +1,113 @@
+package com.example.tgcontrol.bench;
+
+import com.example.tgcontrol.utils.DatabaseConnect;
+import com.example.tgcontrol.utils.DatabaseUtils;
+import com.example.tgcontrol.utils.MetricasJdbc;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Benchmarks dos caminhos mais usados do DatabaseUtils (login, seções do aluno, dashboards, notificações e upload)
+ * contra o BancoEmbutido. Cada chamada sorteia um usuário, então os caches internos da aplicação têm pouco efeito
+ * nas consultas medidas.
+ *
+ * Parâmetro "alunos" controla o tamanho da massa (200 e 2000 por padrão; outros valores com -p alunos=N).
+ * Com -Dtgcontrol.bench.semear=false o banco não é criado: os benchmarks usam o tgcontrol.db.url informado
+ * (ex: um MySQL de homologação já populado) e sorteiam entre os usuários que já existem nele.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DatabaseUtilsBenchmark {
+
+    @Param({"200", "2000"})
+    public int alunos;
+
+    private List<String> emailsAlunos;
+    private List<String> emailsProfessores;
+    private String emailCoordenador;
+    private List<int[]> tasksEmAndamento;
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        // Os logs de falha de login/consulta atrapalham a leitura dos resultados
+        Logger.getLogger("").setLevel(java.util.logging.Level.WARNING);
+        Logger.getLogger("com.example.tgcontrol").setLevel(java.util.logging.Level.SEVERE);
+        // Mede sem o proxy do MetricasJdbc, a não ser que -Dtgcontrol.jdbc.metricas=true seja pedido
+        MetricasJdbc.setAtivo(Boolean.getBoolean("tgcontrol.jdbc.metricas"));
+
+        BancoEmbutido banco = Boolean.parseBoolean(System.getProperty("tgcontrol.bench.semear", "true"))
+                ? BancoEmbutido.criar("tgcontrol_" + alunos, alunos)
+                : BancoEmbutido.lerExistente();
+        emailsAlunos = banco.getAlunos();
+        emailsProfessores = banco.getProfessores();
+        emailCoordenador = banco.getCoordenador();
+        tasksEmAndamento = banco.getTasksEmAndamento();
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        DatabaseConnect.encerrarPool();
+    }
+
+    @Benchmark
+    public Object autenticarUsuario() {
+        return DatabaseUtils.autenticarUsuario(sortear(emailsAlunos), BancoEmbutido.SENHA);
+    }
+
+    @Benchmark
+    public Object getSecoesAluno() {
+        return DatabaseUtils.getSecoesAluno(sortear(emailsAlunos));
+    }
+
+    @Benchmark
+    public Object getProfessorDashboardData() {
+        return DatabaseUtils.getProfessorDashboardData(sortear(emailsProfessores));
+    }
+
+    @Benchmark
+    public Object getProfessorTGDashboardData() {
+        return DatabaseUtils.getProfessorTGDashboardData(emailCoordenador);
+    }
+
+    @Benchmark
+    public Object listarNotificacoes() {
+        return DatabaseUtils.listarNotificacoes(sortear(emailsAlunos));
+    }
+
+    /**
+     * Cada chamada grava uma nova versão de verdade; as tabelas crescem durante a medição
+     * (alguns milhares de linhas, pouco perto da massa inicial).
+     */
+    @Benchmark
+    public void uploadNovaVersao(Blackhole bh) {
+        int[] task = sortear(tasksEmAndamento);
+        String email = emailsAlunos.get(task[0]);
+        bh.consume(DatabaseUtils.uploadNovaVersao(email, task[1], "bench.docx",
+                "Server/TGs_Markdown/" + email + "/bench.md"));
+    }
+
+    private static <T> T sortear(List<T> lista) {
+        return lista.get(ThreadLocalRandom.current().nextInt(lista.size()));
+    }
+}
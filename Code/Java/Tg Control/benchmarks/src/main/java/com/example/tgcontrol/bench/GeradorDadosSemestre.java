@@ -0,0 +1,636 @@
+package com.example.tgcontrol.bench;
+
+import com.example.tgcontrol.utils.DatabaseConnect;
+import com.example.tgcontrol.utils.ResumoDashboardUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Utilitário: Gera um semestre sintético (turmas, professores, alunos com as 6 seções padrão, entregas com várias
+ * versões, revisões, notificações e defesas) para testes de carga. Escala de 100 a 50.000 alunos.
+ * Fica no módulo de benchmarks (não vai para a aplicação), porque remover() apaga usuários em massa.
+ *
+ * Tudo é gravado com PreparedStatements em lote (rewriteBatchedStatements=true no DatabaseConnect), com um commit
+ * a cada 500 alunos. Os dados são reconhecíveis pelo domínio dos emails (DOMINIO) e pelo nome das turmas
+ * (MARCA_TURMA), o que permite removê-los depois com remover() sem tocar nos dados reais.
+ * A mesma semente e a mesma data de referência geram sempre os mesmos dados.
+ */
+public final class GeradorDadosSemestre {
+
+    private static final Logger LOGGER = Logger.getLogger(GeradorDadosSemestre.class.getName());
+
+    public static final String DOMINIO = "@gerado.fatec.sp.gov.br";
+    public static final String MARCA_TURMA = " - Turma G";
+    public static final String SENHA = "Troca123";
+    public static final int MIN_ALUNOS = 100;
+    public static final int MAX_ALUNOS = 50_000;
+
+    private static final int ALUNOS_POR_LOTE = 500;
+    private static final int ALUNOS_POR_TURMA = 40;
+    private static final int ALUNOS_POR_PROFESSOR = 15;
+    private static final int TURMAS_POR_COORDENADOR = 8;
+    private static final int SALAS_DE_DEFESA = 20;
+    private static final Path PASTA_MARKDOWN_PADRAO = Paths.get("Server", "TGs_Markdown", "gerado");
+
+    // Mesmo modelo de completarCadastroAluno
+    private static final String[] TITULOS = {
+            "Apresentação Pessoal e Acadêmica",
+            "Relatório PIM II", "Relatório PIM III", "Relatório PIM IV",
+            "Relatório PIM V", "Relatório PIM VI"
+    };
+    private static final int[] ESTAGIOS = {1, 1, 1, 1, 2, 2};
+
+    // Peso de cada quantidade de seções concluídas (0 a 6) no meio do semestre
+    private static final int[] PESOS_CONCLUIDAS = {8, 14, 18, 20, 16, 12, 12};
+
+    private static final String[] NOMES = {
+            "Ana", "Bruno", "Carla", "Daniel", "Elisa", "Fernanda", "Gabriel", "Hugo", "Isabela", "João",
+            "Júlia", "Karla", "Lucas", "Letícia", "Mariana", "Matheus", "Natália", "Otávio", "Paula", "Ricardo",
+            "Sofia", "Thiago", "Úrsula", "Vinícius", "Wagner", "Yasmin", "André", "Beatriz", "Caio", "Débora",
+            "Érica", "Fábio", "Giovana", "Heitor", "Íris", "Lívia", "Márcio", "Nicolas", "Priscila", "Rafael"
+    };
+    private static final String[] SOBRENOMES = {
+            "Silva", "Souza", "Oliveira", "Pereira", "Lima", "Costa", "Gonçalves", "Araújo", "Ribeiro", "Almeida",
+            "Conceição", "Assunção", "Gomes", "Martins", "Barros", "Cardoso", "Dias", "Esteves", "Freitas", "Garcia",
+            "Magalhães", "Brandão", "Simões", "Valente", "Teixeira", "Nunes", "Ramos", "Tavares", "Xavier", "Damião"
+    };
+    private static final String[] CURSOS = {
+            "Análise e Desenvolvimento de Sistemas", "Banco de Dados", "Gestão da Produção Industrial",
+            "Logística", "Sistemas para Internet", "Segurança da Informação"
+    };
+    private static final String[] TEMAS = {
+            "gestão de estoque para pequenos comércios", "agendamento de consultas em clínicas populares",
+            "monitoramento de consumo de energia", "controle de frota com rastreamento", "ensino de lógica de programação",
+            "doação de alimentos entre ONGs", "previsão de demanda com aprendizado de máquina",
+            "acessibilidade em aplicativos bancários", "reciclagem e coleta seletiva", "segurança em redes domésticas",
+            "otimização de rotas de entrega", "integração de sensores agrícolas", "análise de evasão escolar",
+            "marketplace de serviços autônomos", "controle de ponto com reconhecimento facial"
+    };
+    private static final String[] FRASES = {
+            "O trabalho aborda o problema de %s a partir de um levantamento com usuários reais.",
+            "Foram analisadas soluções existentes e suas limitações em relação a %s.",
+            "A arquitetura proposta separa a interface, as regras de negócio e a persistência dos dados.",
+            "Os requisitos funcionais foram priorizados com base nas entrevistas realizadas.",
+            "O banco de dados relacional foi normalizado até a terceira forma normal.",
+            "Os testes de usabilidade indicaram melhorias na navegação e na clareza das mensagens.",
+            "A metodologia adotada foi o Scrum, com sprints de duas semanas.",
+            "Os resultados preliminares mostram redução do tempo gasto nas tarefas manuais.",
+            "A validação com o orientador apontou ajustes no escopo e no cronograma.",
+            "Como próximos passos, pretende-se ampliar os testes e documentar a implantação.",
+            "A revisão bibliográfica reúne artigos recentes sobre %s.",
+            "Os indicadores escolhidos permitem comparar a situação antes e depois da solução."
+    };
+    private static final String[] COMENTARIOS_REVISAO = {
+            "Revise a introdução: o problema ainda não está claro.",
+            "Faltam referências para as afirmações da seção 2.",
+            "Detalhe melhor a metodologia e o cronograma.",
+            "Padronize as figuras e tabelas conforme a ABNT.",
+            "Bom avanço. Ajuste a conclusão para responder aos objetivos."
+    };
+    private static final String[] COMENTARIOS_APROVACAO = {
+            "Aprovado. Bom trabalho!", "Aprovado, sem ressalvas.", "Aprovado. Atenção à formatação na próxima seção."
+    };
+
+    private GeradorDadosSemestre() {
+    }
+
+    /**
+     * Resumo do que foi gerado; as listas servem para testes de carga sortearem usuários.
+     */
+    public static final class Resultado {
+        private final List<String> alunos = new ArrayList<>();
+        private final List<String> professores = new ArrayList<>();
+        private final List<String> coordenadores = new ArrayList<>();
+        private final List<int[]> tasksEmAndamento = new ArrayList<>(); // {índice do aluno, sequence_order}
+        private int entregas;
+        private int revisoes;
+        private int notificacoes;
+        private int defesas;
+        private int arquivos;
+        private long duracaoMs;
+
+        public List<String> getAlunos() { return alunos; }
+        public List<String> getProfessores() { return professores; }
+        public List<String> getCoordenadores() { return coordenadores; }
+        public List<int[]> getTasksEmAndamento() { return tasksEmAndamento; }
+        public int getEntregas() { return entregas; }
+        public int getRevisoes() { return revisoes; }
+        public int getNotificacoes() { return notificacoes; }
+        public int getDefesas() { return defesas; }
+        public int getArquivos() { return arquivos; }
+        public long getDuracaoMs() { return duracaoMs; }
+
+        @Override
+        public String toString() {
+            return String.format("%d alunos, %d professores (%d coordenadores), %d entregas, %d revisões, %d notificações, %d defesas, %d arquivos em %d ms",
+                    alunos.size(), professores.size(), coordenadores.size(), entregas, revisoes, notificacoes, defesas, arquivos, duracaoMs);
+        }
+    }
+
+    /**
+     * Função: Gera o semestre e reconstrói as tabelas de resumo.
+     * Necessita: Conexão (o gerador controla os commits), quantidade de alunos (MIN_ALUNOS a MAX_ALUNOS), semente,
+     *            data de referência ("hoje" do semestre gerado) e a pasta dos arquivos Markdown (null = não gravar arquivos,
+     *            o file_path das entregas é preenchido mesmo assim).
+     * Retorna: O Resultado. Lança SQLException se a gravação falhar (o lote em andamento é desfeito; os anteriores ficam).
+     */
+    public static Resultado gerar(Connection conn, int quantidadeAlunos, long semente, LocalDateTime referencia, Path pastaMarkdown)
+            throws SQLException, IOException {
+        if (quantidadeAlunos < MIN_ALUNOS || quantidadeAlunos > MAX_ALUNOS) {
+            throw new IllegalArgumentException("Quantidade de alunos deve ficar entre " + MIN_ALUNOS + " e " + MAX_ALUNOS + ": " + quantidadeAlunos);
+        }
+        long inicioNanos = System.nanoTime();
+        Resultado resultado = new Resultado();
+        Semestre semestre = new Semestre(referencia);
+        Random random = new Random(semente);
+
+        int quantidadeTurmas = Math.max(1, (quantidadeAlunos + ALUNOS_POR_TURMA - 1) / ALUNOS_POR_TURMA);
+        int quantidadeProfessores = Math.max(5, quantidadeAlunos / ALUNOS_POR_PROFESSOR);
+        int quantidadeCoordenadores = Math.max(1, (quantidadeTurmas + TURMAS_POR_COORDENADOR - 1) / TURMAS_POR_COORDENADOR);
+        List<String> turmas = new ArrayList<>();
+        for (int t = 0; t < quantidadeTurmas; t++) {
+            turmas.add(CURSOS[t % CURSOS.length] + MARCA_TURMA + String.format("%03d", t + 1));
+        }
+
+        boolean autoCommitOriginal = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            gravarProfessoresETurmas(conn, random, semestre, turmas, quantidadeProfessores, quantidadeCoordenadores, resultado);
+            conn.commit();
+
+            try (Lotes lotes = new Lotes(conn)) {
+                int proximaDefesa = 0;
+                for (int a = 0; a < quantidadeAlunos; a++) {
+                    int turma = a % quantidadeTurmas;
+                    String orientador = resultado.professores.get(a % resultado.professores.size());
+                    String coordenador = resultado.coordenadores.get(turma / TURMAS_POR_COORDENADOR);
+                    proximaDefesa = gerarAluno(lotes, random, semestre, pastaMarkdown, a, turmas.get(turma),
+                            orientador, coordenador, proximaDefesa, resultado);
+
+                    if ((a + 1) % ALUNOS_POR_LOTE == 0 || a == quantidadeAlunos - 1) {
+                        lotes.executar();
+                        conn.commit();
+                        LOGGER.log(Level.INFO, "Gerador: " + (a + 1) + "/" + quantidadeAlunos + " alunos gravados.");
+                    }
+                }
+            }
+        } catch (SQLException | IOException | RuntimeException e) {
+            try { conn.rollback(); } catch (SQLException ex) { LOGGER.log(Level.SEVERE, "DB FALHA (Rollback): " + ex.getMessage(), ex); }
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommitOriginal);
+        }
+
+        if (!ResumoDashboardUtils.reconstruirResumos()) {
+            throw new SQLException("Dados gerados, mas a reconstrução das tabelas de resumo falhou.");
+        }
+        resultado.duracaoMs = (System.nanoTime() - inicioNanos) / 1_000_000;
+        return resultado;
+    }
+
+    /**
+     * Função: Remove os dados gerados (usuários do DOMINIO e turmas com MARCA_TURMA), em lotes de 1000 linhas.
+     * Necessita: Conexão (commits controlados aqui).
+     * Retorna: Quantidade de usuários removidos (o resto sai em cascata).
+     */
+    public static int remover(Connection conn) throws SQLException {
+        String padraoEmail = "%" + DOMINIO;
+        int removidos = 0;
+        boolean autoCommitOriginal = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            apagarEmLotes(conn, "DELETE FROM tg_coordenacao_turma WHERE teacher_email LIKE ? LIMIT 1000", padraoEmail);
+            // Alunos primeiro: levam junto tasks, entregas, revisões, notificações e defesas
+            removidos += apagarEmLotes(conn, "DELETE FROM user WHERE email LIKE ? AND email IN (SELECT email FROM student) LIMIT 1000", padraoEmail);
+            removidos += apagarEmLotes(conn, "DELETE FROM user WHERE email LIKE ? LIMIT 1000", padraoEmail);
+            apagarEmLotes(conn, "DELETE FROM class WHERE disciplina LIKE ? LIMIT 1000", "%" + MARCA_TURMA + "%");
+        } catch (SQLException e) {
+            try { conn.rollback(); } catch (SQLException ex) { LOGGER.log(Level.SEVERE, "DB FALHA (Rollback): " + ex.getMessage(), ex); }
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommitOriginal);
+        }
+        ResumoDashboardUtils.reconstruirResumos();
+        return removidos;
+    }
+
+    private static int apagarEmLotes(Connection conn, String sql, String padrao) throws SQLException {
+        int total = 0;
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, padrao);
+            int apagadas;
+            do {
+                apagadas = stmt.executeUpdate();
+                conn.commit();
+                total += apagadas;
+            } while (apagadas > 0);
+        }
+        return total;
+    }
+
+    private static void gravarProfessoresETurmas(Connection conn, Random random, Semestre semestre, List<String> turmas,
+                                                 int quantidadeProfessores, int quantidadeCoordenadores, Resultado resultado) throws SQLException {
+        try (PreparedStatement user = conn.prepareStatement(
+                "INSERT INTO user (email, FirstName, LastName, passwordHASH, profile_picture_url, status) VALUES (?, ?, ?, ?, NULL, 'Active')");
+             PreparedStatement teacher = conn.prepareStatement("INSERT INTO teacher (email, is_coordinator) VALUES (?, ?)");
+             PreparedStatement turma = conn.prepareStatement(
+                     "INSERT INTO class (disciplina, year, semester, min_tasks, max_tasks) VALUES (?, ?, ?, 1, 6)");
+             PreparedStatement coordenacao = conn.prepareStatement(
+                     "INSERT INTO tg_coordenacao_turma (teacher_email, class_disciplina, class_year, class_semester, etapa_supervisionada) VALUES (?, ?, ?, ?, ?)")) {
+
+            for (int p = 0; p < quantidadeProfessores; p++) {
+                String nome = NOMES[random.nextInt(NOMES.length)];
+                String sobrenome = SOBRENOMES[random.nextInt(SOBRENOMES.length)];
+                String email = "prof." + paraEmail(nome) + "." + paraEmail(sobrenome) + "." + (p + 1) + DOMINIO;
+                boolean coordenador = p < quantidadeCoordenadores;
+                resultado.professores.add(email);
+                if (coordenador) {
+                    resultado.coordenadores.add(email);
+                }
+                adicionarUsuario(user, email, nome, sobrenome);
+                teacher.setString(1, email);
+                teacher.setBoolean(2, coordenador);
+                teacher.addBatch();
+            }
+            user.executeBatch();
+            teacher.executeBatch();
+
+            for (int t = 0; t < turmas.size(); t++) {
+                turma.setString(1, turmas.get(t));
+                turma.setInt(2, semestre.ano);
+                turma.setInt(3, semestre.numero);
+                turma.addBatch();
+                for (int etapa = 1; etapa <= 2; etapa++) {
+                    coordenacao.setString(1, resultado.coordenadores.get(t / TURMAS_POR_COORDENADOR));
+                    coordenacao.setString(2, turmas.get(t));
+                    coordenacao.setInt(3, semestre.ano);
+                    coordenacao.setInt(4, semestre.numero);
+                    coordenacao.setInt(5, etapa);
+                    coordenacao.addBatch();
+                }
+            }
+            turma.executeBatch();
+            coordenacao.executeBatch();
+        }
+    }
+
+    /**
+     * Gera um aluno com as 6 seções. As seções até "concluidas" estão aprovadas, a seguinte está em andamento
+     * (se o estágio do aluno permitir) e o resto está bloqueado, coerente com o trigger trg_complete_task_on_approval.
+     * Retorna o próximo horário livre de defesa.
+     */
+    private static int gerarAluno(Lotes lotes, Random random, Semestre semestre, Path pastaMarkdown, int indice,
+                                  String turma, String orientador, String coordenador, int proximaDefesa,
+                                  Resultado resultado) throws SQLException, IOException {
+        String nome = NOMES[random.nextInt(NOMES.length)];
+        String sobrenome = SOBRENOMES[random.nextInt(SOBRENOMES.length)] + " " + SOBRENOMES[random.nextInt(SOBRENOMES.length)];
+        String email = paraEmail(nome) + "." + paraEmail(sobrenome) + "." + (indice + 1) + DOMINIO;
+        String tema = TEMAS[random.nextInt(TEMAS.length)];
+        int concluidas = sortearConcluidas(random);
+        // Quem terminou o estágio 1 (4 seções) pode ainda estar aguardando a promoção
+        int estagio = concluidas > 4 || (concluidas == 4 && random.nextBoolean()) ? 2 : 1;
+        resultado.alunos.add(email);
+
+        adicionarUsuario(lotes.user, email, nome, sobrenome);
+        lotes.student.setString(1, email);
+        lotes.student.setString(2, paraEmail(nome) + indice + "@email.com");
+        lotes.student.setString(3, orientador);
+        lotes.student.setString(4, turma);
+        lotes.student.setInt(5, semestre.ano);
+        lotes.student.setInt(6, semestre.numero);
+        lotes.student.setInt(7, estagio);
+        lotes.student.addBatch();
+
+        for (int seq = 1; seq <= TITULOS.length; seq++) {
+            String status;
+            if (seq <= concluidas) {
+                status = "completed";
+            } else if (seq == concluidas + 1 && ESTAGIOS[seq - 1] <= estagio) {
+                status = "in_progress";
+            } else {
+                status = "locked";
+            }
+            lotes.task.setString(1, email);
+            lotes.task.setInt(2, seq);
+            lotes.task.setString(3, TITULOS[seq - 1]);
+            lotes.task.setString(4, seq == 1
+                    ? "Apresentação Pessoal e Acadêmica.\nTema: " + tema
+                    : "Relatório referente ao " + TITULOS[seq - 1].substring("Relatório ".length()));
+            lotes.task.setDate(5, Date.valueOf(semestre.fimJanela(seq).toLocalDate().plusDays(7)));
+            lotes.task.setString(6, status);
+            lotes.task.setInt(7, ESTAGIOS[seq - 1]);
+            lotes.task.addBatch();
+
+            if (status.equals("locked")) {
+                continue;
+            }
+            boolean emAndamento = status.equals("in_progress");
+            if (emAndamento) {
+                resultado.tasksEmAndamento.add(new int[]{resultado.alunos.size() - 1, seq});
+            }
+
+            // Em andamento: 30% sem entrega, 40% aguardando revisão, 30% com revisão pedida
+            int situacao = random.nextInt(10);
+            if (emAndamento && situacao < 3) {
+                continue;
+            }
+            boolean ultimaRevisada = !emAndamento || situacao >= 7;
+            int versoes = sortearVersoes(random);
+
+            LocalDateTime inicioJanela = semestre.inicioJanela(seq);
+            long minutosPorVersao = Duration.between(inicioJanela, semestre.fimJanela(seq)).toMinutes() / (versoes + 1);
+            for (int v = 1; v <= versoes; v++) {
+                LocalDateTime momento = inicioJanela.plusMinutes(minutosPorVersao * v - random.nextInt((int) Math.max(1, minutosPorVersao / 2)))
+                        .plusNanos(random.nextInt(1000) * 1_000_000L);
+                String caminho = gravarMarkdown(pastaMarkdown, email, nome + " " + sobrenome, tema, seq, v, random, resultado);
+
+                lotes.submission.setString(1, email);
+                lotes.submission.setInt(2, seq);
+                lotes.submission.setTimestamp(3, Timestamp.valueOf(momento));
+                lotes.submission.setString(4, caminho);
+                lotes.submission.setString(5, "secao" + seq + "_v" + v + ".md");
+                lotes.submission.setInt(6, v);
+                lotes.submission.addBatch();
+                resultado.entregas++;
+
+                boolean ultima = v == versoes;
+                if (ultima && !ultimaRevisada) {
+                    continue;
+                }
+                boolean aprovada = ultima && !emAndamento;
+                LocalDateTime momentoRevisao = momento.plusMinutes(1 + random.nextInt((int) Math.max(1, minutosPorVersao / 3)));
+                lotes.review.setString(1, email);
+                lotes.review.setInt(2, seq);
+                lotes.review.setTimestamp(3, Timestamp.valueOf(momento));
+                lotes.review.setString(4, orientador);
+                lotes.review.setTimestamp(5, Timestamp.valueOf(momentoRevisao.withNano(0)));
+                lotes.review.setString(6, aprovada ? "approved" : "revision_requested");
+                lotes.review.setString(7, aprovada
+                        ? COMENTARIOS_APROVACAO[random.nextInt(COMENTARIOS_APROVACAO.length)]
+                        : COMENTARIOS_REVISAO[random.nextInt(COMENTARIOS_REVISAO.length)]);
+                lotes.review.addBatch();
+                resultado.revisoes++;
+
+                // Mesmas mensagens de salvarAvaliacaoProfessor; as da última semana ainda não foram lidas
+                adicionarNotificacao(lotes, email, momentoRevisao, aprovada
+                                ? "Parabéns! Sua entrega para '" + TITULOS[seq - 1] + "' foi APROVADA pelo orientador."
+                                : "Atenção: Sua entrega para '" + TITULOS[seq - 1] + "' requer revisão. Veja o feedback do orientador.",
+                        email, seq, momentoRevisao.isBefore(semestre.referencia.minusDays(7)) || random.nextInt(4) == 0);
+                resultado.notificacoes++;
+            }
+            lotes.contador.setString(1, email);
+            lotes.contador.setInt(2, seq);
+            lotes.contador.setInt(3, versoes);
+            lotes.contador.addBatch();
+        }
+
+        // 70% de quem concluiu todas as seções já tem defesa marcada
+        if (concluidas == TITULOS.length && random.nextInt(10) < 7) {
+            LocalDateTime dataHora = semestre.horarioDefesa(proximaDefesa);
+            String local = "Sala " + (101 + proximaDefesa % SALAS_DE_DEFESA);
+            String statusDefesa = random.nextInt(20) == 0 ? "Cancelada"
+                    : dataHora.isBefore(semestre.referencia) ? "Concluida" : "Agendada";
+            lotes.defesa.setString(1, email);
+            lotes.defesa.setString(2, coordenador);
+            lotes.defesa.setTimestamp(3, Timestamp.valueOf(dataHora));
+            lotes.defesa.setString(4, local);
+            lotes.defesa.setString(5, "Orientador: " + orientador + "; Coordenador: " + coordenador);
+            lotes.defesa.setString(6, statusDefesa);
+            lotes.defesa.addBatch();
+            resultado.defesas++;
+
+            LocalDateTime aviso = dataHora.minusDays(10).isBefore(semestre.referencia) ? dataHora.minusDays(10) : semestre.referencia.minusHours(1);
+            adicionarNotificacao(lotes, email, aviso,
+                    "Sua defesa de TG foi agendada para: " + dataHora.format(java.time.format.DateTimeFormatter.ofPattern("dd/MM/yyyy 'às' HH:mm")) + " no local: " + local,
+                    null, 0, statusDefesa.equals("Concluida"));
+            resultado.notificacoes++;
+            proximaDefesa++;
+        }
+        return proximaDefesa;
+    }
+
+    private static void adicionarUsuario(PreparedStatement user, String email, String nome, String sobrenome) throws SQLException {
+        user.setString(1, email);
+        user.setString(2, nome);
+        user.setString(3, sobrenome);
+        user.setString(4, SENHA);
+        user.addBatch();
+    }
+
+    private static void adicionarNotificacao(Lotes lotes, String email, LocalDateTime momento, String conteudo,
+                                             String emailTask, int sequencia, boolean lida) throws SQLException {
+        lotes.notification.setString(1, email);
+        lotes.notification.setTimestamp(2, Timestamp.valueOf(momento.withNano(0)));
+        lotes.notification.setString(3, conteudo);
+        lotes.notification.setString(4, emailTask);
+        if (emailTask != null) {
+            lotes.notification.setInt(5, sequencia);
+        } else {
+            lotes.notification.setNull(5, java.sql.Types.INTEGER);
+        }
+        lotes.notification.setBoolean(6, lida);
+        lotes.notification.addBatch();
+    }
+
+    private static String gravarMarkdown(Path pasta, String email, String nomeAluno, String tema, int seq, int versao,
+                                         Random random, Resultado resultado) throws IOException {
+        String nomeArquivo = "secao" + seq + "_v" + versao + ".md";
+        Path destino = (pasta != null ? pasta : PASTA_MARKDOWN_PADRAO).resolve(email.replace("@", "_at_")).resolve(nomeArquivo);
+
+        // O texto é sorteado mesmo sem gravar, para os dados do banco não dependerem da pasta
+        StringBuilder texto = new StringBuilder();
+        texto.append("# ").append(TITULOS[seq - 1]).append("\n\n");
+        texto.append("**Aluno:** ").append(nomeAluno).append("  \n**Tema:** ").append(tema)
+                .append("  \n**Versão:** ").append(versao).append("\n\n");
+        for (String secao : new String[]{"Introdução", "Desenvolvimento", "Conclusão"}) {
+            texto.append("## ").append(secao).append("\n\n");
+            int paragrafos = secao.equals("Desenvolvimento") ? 2 + random.nextInt(2) : 1;
+            for (int p = 0; p < paragrafos; p++) {
+                // Passo 5 é primo com 12: as frases de um parágrafo não se repetem
+                int primeira = random.nextInt(FRASES.length);
+                int frases = 3 + random.nextInt(3);
+                for (int f = 0; f < frases; f++) {
+                    texto.append(String.format(FRASES[(primeira + f * 5) % FRASES.length], tema)).append(' ');
+                }
+                texto.append("\n\n");
+            }
+        }
+
+        if (pasta != null) {
+            Files.createDirectories(destino.getParent());
+            Files.writeString(destino, texto, StandardCharsets.UTF_8);
+            resultado.arquivos++;
+        }
+        return destino.toString();
+    }
+
+    private static int sortearConcluidas(Random random) {
+        int sorteio = random.nextInt(100);
+        for (int i = 0; i < PESOS_CONCLUIDAS.length; i++) {
+            sorteio -= PESOS_CONCLUIDAS[i];
+            if (sorteio < 0) {
+                return i;
+            }
+        }
+        return PESOS_CONCLUIDAS.length - 1;
+    }
+
+    // 1 versão em ~55% das seções, 2 em ~25%, 3 ou mais no restante (no máximo 5)
+    private static int sortearVersoes(Random random) {
+        int versoes = 1;
+        while (versoes < 5 && random.nextInt(100) < 45) {
+            versoes++;
+        }
+        return versoes;
+    }
+
+    // Emails só com letras sem acento: "Conceição Magalhães" -> "conceicao.magalhaes"
+    private static String paraEmail(String texto) {
+        String semAcento = Normalizer.normalize(texto, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return semAcento.toLowerCase(Locale.ROOT).replace(' ', '.');
+    }
+
+    /**
+     * Calendário do semestre gerado: começa em fevereiro ou agosto e vai até a data de referência,
+     * dividido em 6 janelas iguais (uma por seção).
+     */
+    private static final class Semestre {
+        private final LocalDateTime referencia;
+        private final LocalDateTime inicio;
+        private final int ano;
+        private final int numero;
+        private final long minutosPorJanela;
+
+        private Semestre(LocalDateTime referencia) {
+            this.referencia = referencia.withNano(0);
+            this.ano = referencia.getYear();
+            this.numero = referencia.getMonthValue() >= 8 ? 2 : 1;
+            LocalDateTime inicioCalendario = LocalDate.of(ano, numero == 2 ? 8 : 2, 1).atTime(8, 0);
+            // Referência muito perto do início: usa ao menos 6 semanas para as janelas não ficarem vazias
+            this.inicio = inicioCalendario.isBefore(this.referencia.minusWeeks(6)) ? inicioCalendario : this.referencia.minusWeeks(6);
+            this.minutosPorJanela = Duration.between(inicio, this.referencia).toMinutes() / TITULOS.length;
+        }
+
+        private LocalDateTime inicioJanela(int seq) {
+            return inicio.plusMinutes(minutosPorJanela * (seq - 1));
+        }
+
+        private LocalDateTime fimJanela(int seq) {
+            return inicio.plusMinutes(minutosPorJanela * seq);
+        }
+
+        // Horários únicos (data, local): 20 salas x 10 horários por dia, a partir de 20 dias antes da referência
+        private LocalDateTime horarioDefesa(int indice) {
+            int porDia = SALAS_DE_DEFESA * 10;
+            return referencia.toLocalDate().minusDays(20).plusDays(indice / porDia)
+                    .atTime(8 + (indice % porDia) / SALAS_DE_DEFESA, 0);
+        }
+    }
+
+    /**
+     * PreparedStatements em lote de todas as tabelas por aluno, executados na ordem das chaves estrangeiras.
+     */
+    private static final class Lotes implements AutoCloseable {
+        private final PreparedStatement user;
+        private final PreparedStatement student;
+        private final PreparedStatement task;
+        private final PreparedStatement submission;
+        private final PreparedStatement review;
+        private final PreparedStatement contador;
+        private final PreparedStatement notification;
+        private final PreparedStatement defesa;
+
+        private Lotes(Connection conn) throws SQLException {
+            user = conn.prepareStatement(
+                    "INSERT INTO user (email, FirstName, LastName, passwordHASH, profile_picture_url, status) VALUES (?, ?, ?, ?, NULL, 'Active')");
+            student = conn.prepareStatement(
+                    "INSERT INTO student (email, personal_email, advisor_email, class_disciplina, class_year, class_semester, estagio_tg_atual) VALUES (?, ?, ?, ?, ?, ?, ?)");
+            task = conn.prepareStatement(
+                    "INSERT INTO task (student_email, sequence_order, title, description, due_date, status, estagio_task) VALUES (?, ?, ?, ?, ?, ?, ?)");
+            submission = conn.prepareStatement(
+                    "INSERT INTO task_submission (student_email, sequence_order, submission_timestamp, file_path, submission_title, attempt_number) VALUES (?, ?, ?, ?, ?, ?)");
+            review = conn.prepareStatement(
+                    "INSERT INTO task_review (student_email, sequence_order, submission_timestamp, reviewer_email, review_timestamp, status, review_comment) VALUES (?, ?, ?, ?, ?, ?, ?)");
+            contador = conn.prepareStatement(
+                    "INSERT INTO task_versao_contador (student_email, sequence_order, ultima_versao) VALUES (?, ?, ?)");
+            notification = conn.prepareStatement(
+                    "INSERT INTO notification (user_email, timestamp, content, related_task_student_email, related_task_sequence_order, is_read) VALUES (?, ?, ?, ?, ?, ?)");
+            defesa = conn.prepareStatement(
+                    "INSERT INTO defesa_tg (student_email, scheduler_email, data_hora_defesa, local_defesa, banca_avaliadora, status_defesa) VALUES (?, ?, ?, ?, ?, ?)");
+        }
+
+        private void executar() throws SQLException {
+            for (PreparedStatement lote : new PreparedStatement[]{user, student, task, submission, review, contador, notification, defesa}) {
+                lote.executeBatch();
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            for (PreparedStatement lote : new PreparedStatement[]{user, student, task, submission, review, contador, notification, defesa}) {
+                lote.close();
+            }
+        }
+    }
+
+    /**
+     * Função: Gera a massa de dados no banco configurado (-Dtgcontrol.db.*), a partir da pasta da aplicação:
+     * java -cp benchmarks/target/benchmarks.jar com.example.tgcontrol.bench.GeradorDadosSemestre 1000
+     * Argumentos: [quantidade de alunos, padrão 1000] [semente, padrão 42] [--sem-arquivos] [--remover]
+     * Com --remover apenas apaga os dados gerados anteriormente.
+     */
+    public static void main(String[] args) {
+        int quantidade = 1000;
+        long semente = 42;
+        boolean gravarArquivos = true;
+        boolean apenasRemover = false;
+        List<String> numeros = new ArrayList<>();
+        for (String arg : args) {
+            switch (arg) {
+                case "--sem-arquivos" -> gravarArquivos = false;
+                case "--remover" -> apenasRemover = true;
+                default -> numeros.add(arg);
+            }
+        }
+        if (!numeros.isEmpty()) {
+            quantidade = Integer.parseInt(numeros.get(0));
+        }
+        if (numeros.size() > 1) {
+            semente = Long.parseLong(numeros.get(1));
+        }
+
+        try (Connection conn = DatabaseConnect.getConnection()) {
+            if (apenasRemover) {
+                System.out.println(remover(conn) + " usuários gerados removidos.");
+                return;
+            }
+            Resultado resultado = gerar(conn, quantidade, semente, LocalDateTime.now(), gravarArquivos ? PASTA_MARKDOWN_PADRAO : null);
+            System.out.println("Gerado: " + resultado);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "DB FALHA (Gerador de Dados): " + e.getMessage(), e);
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Gerador de Dados: falha ao gravar os arquivos Markdown: " + e.getMessage(), e);
+        } finally {
+            DatabaseConnect.encerrarPool();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.tgcontrol.bench;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma de latências em microssegundos, sem lock (várias threads registram ao mesmo tempo).
+ * Faixas log-lineares: valores até 64 µs são exatos; acima disso cada potência de 2 é dividida em 32 faixas,
+ * então os percentis têm erro de no máximo ~3%.
+ */
+public final class HistogramaLatencia {
+
+    private static final int EXATOS = 64;
+    private static final int SUBFAIXAS_BITS = 5;
+    private static final int SUBFAIXAS = 1 << SUBFAIXAS_BITS;
+    private static final int EXPOENTE_MINIMO = 6;  // 2^6 = 64
+    private static final int EXPOENTE_MAXIMO = 40; // ~12 dias, bem acima de qualquer timeout
+
+    private final AtomicLongArray contagens = new AtomicLongArray(EXATOS + (EXPOENTE_MAXIMO - EXPOENTE_MINIMO + 1) * SUBFAIXAS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong maximo = new AtomicLong();
+
+    public void registrar(long nanos) {
+        long micros = Math.max(0, nanos / 1_000);
+        contagens.incrementAndGet(indice(micros));
+        total.incrementAndGet();
+        maximo.accumulateAndGet(micros, Math::max);
+    }
+
+    public long getTotal() {
+        return total.get();
+    }
+
+    public long getMaximoMicros() {
+        return maximo.get();
+    }
+
+    /**
+     * Função: Percentil aproximado (limite superior da faixa).
+     * Necessita: O percentil entre 0 e 100.
+     * Retorna: Latência em microssegundos, ou 0 se nada foi registrado.
+     */
+    public long percentilMicros(double percentil) {
+        long quantidade = total.get();
+        if (quantidade == 0) {
+            return 0;
+        }
+        long alvo = Math.max(1, (long) Math.ceil(quantidade * percentil / 100.0));
+        long acumulado = 0;
+        for (int i = 0; i < contagens.length(); i++) {
+            acumulado += contagens.get(i);
+            if (acumulado >= alvo) {
+                return Math.min(limiteSuperior(i), maximo.get());
+            }
+        }
+        return maximo.get();
+    }
+
+    private static int indice(long micros) {
+        if (micros < EXATOS) {
+            return (int) micros;
+        }
+        int expoente = Math.min(63 - Long.numberOfLeadingZeros(micros), EXPOENTE_MAXIMO);
+        int subfaixa = (int) ((micros >>> (expoente - SUBFAIXAS_BITS)) & (SUBFAIXAS - 1));
+        return EXATOS + (expoente - EXPOENTE_MINIMO) * SUBFAIXAS + subfaixa;
+    }
+
+    private static long limiteSuperior(int indice) {
+        if (indice < EXATOS) {
+            return indice;
+        }
+        int expoente = EXPOENTE_MINIMO + (indice - EXATOS) / SUBFAIXAS;
+        int subfaixa = (indice - EXATOS) % SUBFAIXAS;
+        long largura = 1L << (expoente - SUBFAIXAS_BITS);
+        return (1L << expoente) + (subfaixa + 1) * largura - 1;
+    }
+}
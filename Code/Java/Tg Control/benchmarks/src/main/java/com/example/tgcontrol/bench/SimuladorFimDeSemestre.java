@@ -0,0 +1,342 @@
+package com.example.tgcontrol.bench;
+
+import com.example.tgcontrol.model.SecaoAluno;
+import com.example.tgcontrol.model.TipoUsuario;
+import com.example.tgcontrol.utils.DatabaseConnect;
+import com.example.tgcontrol.utils.DatabaseUtils;
+import com.example.tgcontrol.utils.FileStorageUtils;
+import com.example.tgcontrol.utils.MetricasJdbc;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Simulador de carga da última semana do semestre, sem interface: N usuários virtuais (uma virtual thread cada)
+ * repetem os fluxos reais das telas contra o BancoEmbutido (ou um banco informado em tgcontrol.db.url).
+ *   Aluno:     abre as seções, salva o Markdown da seção (FileStorageUtils), envia a nova versão, confere notificações.
+ *   Professor: abre o dashboard e os orientandos, abre o histórico de uma seção entregue e grava a avaliação.
+ * Cada degrau de usuários roda pelo tempo pedido e imprime vazão e p50/p95/p99 por operação; a tabela final
+ * aponta o degrau em que a vazão parou de crescer e a latência disparou (o "joelho").
+ *
+ * Uso: java -cp target/benchmarks.jar com.example.tgcontrol.bench.SimuladorFimDeSemestre
+ *        [--usuarios=25,50,100,200,400] [--duracao=30] [--alunos=2000] [--professores=15] [--pensar=200] [--pool=8]
+ *   --professores: % dos usuários virtuais que são orientadores; --pensar: pausa média (ms) entre ações;
+ *   --pool: tamanho máximo do pool do DatabaseConnect (o padrão da aplicação é 8).
+ * Virtual threads presas em blocos synchronized do driver aparecem com -Djdk.tracePinnedThreads=short.
+ */
+public final class SimuladorFimDeSemestre {
+
+    private static final String PREFIXO_MARKDOWN = "simulacao_";
+    private static final Path PASTA_MARKDOWN = Paths.get("Server", "TGs_Markdown");
+
+    private static final String[] OPERACOES = {
+            "login", "secoesAluno", "salvarMarkdown", "uploadNovaVersao", "notificacoes",
+            "dashboardProfessor", "orientandos", "historicoVersoes", "salvarAvaliacao"
+    };
+
+    private final List<String> alunos;
+    private final List<String> professores;
+    private final long pausaMediaMs;
+    private final AtomicLong sequenciaArquivo = new AtomicLong();
+
+    private SimuladorFimDeSemestre(BancoEmbutido banco, long pausaMediaMs) {
+        this.alunos = banco.getAlunos();
+        this.professores = banco.getProfessores();
+        this.pausaMediaMs = pausaMediaMs;
+    }
+
+    /**
+     * Latências e falhas de uma operação em um degrau.
+     */
+    private static final class Operacao {
+        private final HistogramaLatencia latencias = new HistogramaLatencia();
+        private final LongAdder falhas = new LongAdder();
+    }
+
+    /**
+     * Resultado de um degrau (quantidade fixa de usuários virtuais).
+     */
+    private static final class Degrau {
+        private final int usuarios;
+        private final Map<String, Operacao> operacoes = new LinkedHashMap<>();
+        private double segundos;
+
+        private Degrau(int usuarios) {
+            this.usuarios = usuarios;
+            for (String nome : OPERACOES) {
+                operacoes.put(nome, new Operacao());
+            }
+        }
+
+        private long totalOperacoes() {
+            return operacoes.values().stream().mapToLong(o -> o.latencias.getTotal()).sum();
+        }
+
+        private long totalFalhas() {
+            return operacoes.values().stream().mapToLong(o -> o.falhas.sum()).sum();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opcoes = lerOpcoes(args);
+        int[] degraus = Arrays.stream(opcoes.getOrDefault("usuarios", "25,50,100,200,400").split(","))
+                .mapToInt(valor -> Integer.parseInt(valor.trim())).toArray();
+        int duracaoSegundos = Integer.parseInt(opcoes.getOrDefault("duracao", "30"));
+        int quantidadeAlunos = Integer.parseInt(opcoes.getOrDefault("alunos", "2000"));
+        int percentualProfessores = Integer.parseInt(opcoes.getOrDefault("professores", "15"));
+        long pausaMs = Long.parseLong(opcoes.getOrDefault("pensar", "200"));
+        if (opcoes.containsKey("pool")) {
+            System.setProperty("tgcontrol.db.pool.maximo", opcoes.get("pool"));
+        }
+
+        // Falhas esperadas sob carga (timeouts do pool etc.) são contadas no relatório, não impressas uma a uma
+        Logger.getLogger("").setLevel(Level.WARNING);
+        Logger.getLogger("com.example.tgcontrol").setLevel(Level.OFF);
+        MetricasJdbc.setAtivo(false);
+
+        System.out.println("Preparando o banco...");
+        BancoEmbutido banco = Boolean.parseBoolean(System.getProperty("tgcontrol.bench.semear", "true"))
+                ? BancoEmbutido.criar("simulador", quantidadeAlunos)
+                : BancoEmbutido.lerExistente();
+        SimuladorFimDeSemestre simulador = new SimuladorFimDeSemestre(banco, pausaMs);
+
+        List<Degrau> resultados = new ArrayList<>();
+        try {
+            for (int usuarios : degraus) {
+                System.out.printf("%nDegrau: %d usuários virtuais por %d s%n", usuarios, duracaoSegundos);
+                Degrau degrau = simulador.executar(usuarios, duracaoSegundos, percentualProfessores);
+                imprimirDegrau(degrau);
+                System.out.println("Pool: " + DatabaseConnect.getPoolStats());
+                resultados.add(degrau);
+            }
+            imprimirResumo(resultados);
+        } finally {
+            DatabaseConnect.encerrarPool();
+            System.out.println(apagarMarkdownsGerados() + " arquivos Markdown da simulação apagados.");
+        }
+    }
+
+    private Degrau executar(int usuarios, int duracaoSegundos, int percentualProfessores) {
+        Degrau degrau = new Degrau(usuarios);
+        long inicio = System.nanoTime();
+        long fim = inicio + duracaoSegundos * 1_000_000_000L;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < usuarios; i++) {
+                boolean professor = (long) i * 100 < (long) percentualProfessores * usuarios;
+                executor.submit(() -> {
+                    if (professor) {
+                        usuarioProfessor(degrau, fim);
+                    } else {
+                        usuarioAluno(degrau, fim);
+                    }
+                });
+            }
+        }
+        degrau.segundos = (System.nanoTime() - inicio) / 1e9;
+        return degrau;
+    }
+
+    private void usuarioAluno(Degrau degrau, long fim) {
+        String email = sortear(alunos);
+        pausar(); // espalha as chegadas
+        medir(degrau, "login", () -> DatabaseUtils.autenticarUsuario(email, BancoEmbutido.SENHA),
+                tipo -> tipo != TipoUsuario.NAO_AUTENTICADO);
+
+        while (System.nanoTime() < fim) {
+            List<SecaoAluno> secoes = medir(degrau, "secoesAluno", () -> DatabaseUtils.getSecoesAluno(email), l -> !l.isEmpty());
+            SecaoAluno atual = secoes != null ? DatabaseUtils.escolherUltimaSecaoAtiva(secoes) : null;
+            pausar();
+
+            if (atual != null && "in_progress".equals(atual.getStatus())) {
+                String nomeArquivo = PREFIXO_MARKDOWN + sequenciaArquivo.incrementAndGet() + ".md";
+                String html = "<h1>" + atual.getTitulo() + "</h1><p>Versão enviada na simulação por " + email
+                        + " em " + LocalDateTime.now() + ".</p><ul><li>Introdução</li><li>Desenvolvimento</li></ul>";
+                Boolean salvo = medir(degrau, "salvarMarkdown", () -> FileStorageUtils.converterESalvarMarkdown(html, nomeArquivo), ok -> ok);
+                if (Boolean.TRUE.equals(salvo)) {
+                    medir(degrau, "uploadNovaVersao", () -> DatabaseUtils.uploadNovaVersao(email, atual.getTaskSequence(), nomeArquivo,
+                            PASTA_MARKDOWN.resolve(nomeArquivo).toString()), versao -> versao > 0);
+                }
+                pausar();
+            }
+
+            medir(degrau, "notificacoes", () -> DatabaseUtils.listarNotificacoes(email), l -> true);
+            pausar();
+        }
+    }
+
+    private void usuarioProfessor(Degrau degrau, long fim) {
+        String email = sortear(professores);
+        pausar();
+        medir(degrau, "login", () -> DatabaseUtils.autenticarUsuario(email, BancoEmbutido.SENHA),
+                tipo -> tipo != TipoUsuario.NAO_AUTENTICADO);
+
+        while (System.nanoTime() < fim) {
+            medir(degrau, "dashboardProfessor", () -> DatabaseUtils.getProfessorDashboardData(email), dados -> dados != null);
+            List<Map<String, String>> orientandos = medir(degrau, "orientandos", () -> DatabaseUtils.getAdviseesDisplayInfo(email), l -> true);
+            pausar();
+            if (orientandos == null || orientandos.isEmpty()) {
+                continue;
+            }
+
+            String aluno = sortear(orientandos).get("email");
+            List<SecaoAluno> secoes = medir(degrau, "secoesAluno", () -> DatabaseUtils.getSecoesAluno(aluno), l -> !l.isEmpty());
+            SecaoAluno emAndamento = secoes == null ? null : secoes.stream().filter(s -> "in_progress".equals(s.getStatus())).findFirst().orElse(null);
+            if (emAndamento == null) {
+                pausar();
+                continue;
+            }
+            int sequencia = emAndamento.getTaskSequence();
+            medir(degrau, "historicoVersoes", () -> DatabaseUtils.getHistoricoVersoes(aluno, sequencia), l -> true);
+            LocalDateTime ultimaEntrega = DatabaseUtils.getUltimaDataSubmissao(aluno, sequencia);
+            pausar();
+
+            if (ultimaEntrega != null) {
+                // Como no fim do semestre real: a maioria das avaliações pede ajustes
+                boolean aprovar = ThreadLocalRandom.current().nextInt(10) < 3;
+                medir(degrau, "salvarAvaliacao", () -> DatabaseUtils.salvarAvaliacaoProfessor(aluno, sequencia, ultimaEntrega, email,
+                        aprovar ? "approved" : "revision_requested", aprovar ? "Aprovado." : "Revise a formatação."), ok -> ok);
+                pausar();
+            }
+        }
+    }
+
+    // Mede uma chamada; as falhas (retorno de erro ou exceção) também entram na latência. Retorna null se houve exceção.
+    private static <T> T medir(Degrau degrau, String nome, Supplier<T> chamada, Predicate<T> sucesso) {
+        Operacao operacao = degrau.operacoes.get(nome);
+        long inicio = System.nanoTime();
+        T resultado = null;
+        boolean ok;
+        try {
+            resultado = chamada.get();
+            ok = resultado != null && sucesso.test(resultado);
+        } catch (RuntimeException e) {
+            ok = false;
+        }
+        operacao.latencias.registrar(System.nanoTime() - inicio);
+        if (!ok) {
+            operacao.falhas.increment();
+        }
+        return resultado;
+    }
+
+    // Pausa de "pensar" com distribuição exponencial (chegadas independentes, como usuários reais)
+    private void pausar() {
+        if (pausaMediaMs <= 0) {
+            return;
+        }
+        double sorteio = ThreadLocalRandom.current().nextDouble();
+        long pausa = (long) (-Math.log(1 - sorteio) * pausaMediaMs);
+        try {
+            Thread.sleep(Math.min(pausa, pausaMediaMs * 10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void imprimirDegrau(Degrau degrau) {
+        System.out.printf("%-20s %9s %9s %8s %10s %10s %10s %10s%n", "operação", "chamadas", "ops/s", "falhas", "p50 ms", "p95 ms", "p99 ms", "máx ms");
+        for (Map.Entry<String, Operacao> entrada : degrau.operacoes.entrySet()) {
+            HistogramaLatencia h = entrada.getValue().latencias;
+            if (h.getTotal() == 0) {
+                continue;
+            }
+            System.out.printf("%-20s %9d %9.1f %8d %10.2f %10.2f %10.2f %10.2f%n", entrada.getKey(), h.getTotal(),
+                    h.getTotal() / degrau.segundos, entrada.getValue().falhas.sum(),
+                    h.percentilMicros(50) / 1000.0, h.percentilMicros(95) / 1000.0, h.percentilMicros(99) / 1000.0,
+                    h.getMaximoMicros() / 1000.0);
+        }
+    }
+
+    /**
+     * Tabela por degrau com as duas operações críticas. O joelho é o primeiro degrau em que a vazão total
+     * cresce menos de 10% enquanto o p95 do upload ou da avaliação mais que dobra em relação ao degrau anterior.
+     */
+    private static void imprimirResumo(List<Degrau> degraus) {
+        System.out.printf("%n%-9s %10s %8s %14s %14s %18s %18s%n", "usuários", "ops/s", "falhas",
+                "upload p95 ms", "upload p99 ms", "avaliação p95 ms", "avaliação p99 ms");
+        Degrau anterior = null;
+        Integer joelho = null;
+        for (Degrau degrau : degraus) {
+            HistogramaLatencia upload = degrau.operacoes.get("uploadNovaVersao").latencias;
+            HistogramaLatencia avaliacao = degrau.operacoes.get("salvarAvaliacao").latencias;
+            double vazao = degrau.totalOperacoes() / degrau.segundos;
+            System.out.printf("%-9d %10.1f %8d %14.2f %14.2f %18.2f %18.2f%n", degrau.usuarios, vazao, degrau.totalFalhas(),
+                    upload.percentilMicros(95) / 1000.0, upload.percentilMicros(99) / 1000.0,
+                    avaliacao.percentilMicros(95) / 1000.0, avaliacao.percentilMicros(99) / 1000.0);
+
+            if (anterior != null && joelho == null) {
+                double vazaoAnterior = anterior.totalOperacoes() / anterior.segundos;
+                boolean vazaoEstagnou = vazao < vazaoAnterior * 1.10;
+                boolean latenciaDisparou =
+                        upload.percentilMicros(95) > 2 * anterior.operacoes.get("uploadNovaVersao").latencias.percentilMicros(95)
+                                || avaliacao.percentilMicros(95) > 2 * anterior.operacoes.get("salvarAvaliacao").latencias.percentilMicros(95);
+                if (vazaoEstagnou && latenciaDisparou) {
+                    joelho = degrau.usuarios;
+                }
+            }
+            anterior = degrau;
+        }
+        System.out.println(joelho != null
+                ? "Joelho provável entre " + anterior(degraus, joelho) + " e " + joelho + " usuários virtuais."
+                : "Nenhum joelho nos degraus medidos; aumente --usuarios.");
+    }
+
+    private static int anterior(List<Degrau> degraus, int usuarios) {
+        for (int i = 1; i < degraus.size(); i++) {
+            if (degraus.get(i).usuarios == usuarios) {
+                return degraus.get(i - 1).usuarios;
+            }
+        }
+        return usuarios;
+    }
+
+    private static int apagarMarkdownsGerados() {
+        int apagados = 0;
+        if (!Files.isDirectory(PASTA_MARKDOWN)) {
+            return 0;
+        }
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(PASTA_MARKDOWN, PREFIXO_MARKDOWN + "*.md")) {
+            for (Path arquivo : arquivos) {
+                Files.deleteIfExists(arquivo);
+                apagados++;
+            }
+        } catch (IOException e) {
+            System.err.println("Não foi possível apagar os arquivos da simulação: " + e.getMessage());
+        }
+        return apagados;
+    }
+
+    private static Map<String, String> lerOpcoes(String[] args) {
+        Map<String, String> opcoes = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Opção inválida: " + arg + " (use --nome=valor)");
+            }
+            opcoes.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        return opcoes;
+    }
+
+    private static <T> T sortear(List<T> lista) {
+        return lista.get(ThreadLocalRandom.current().nextInt(lista.size()));
+    }
+}
@@ -1,5 +1,13 @@
 package com.example.tgcontrol;
 
+import com.example.tgcontrol.utils.ConfirmacaoLeituraBuffer;
+import com.example.tgcontrol.utils.DadosReferenciaCache;
+import com.example.tgcontrol.utils.DatabaseAsync;
+import com.example.tgcontrol.utils.DatabaseConnect;
+import com.example.tgcontrol.utils.DiretorioCache;
+import com.example.tgcontrol.utils.IndiceTextoTG;
+import com.example.tgcontrol.utils.NotificacaoPoller;
+import com.example.tgcontrol.utils.OutboxNotificacao;
 import com.example.tgcontrol.utils.UIUtils;
 import javafx.application.Application;
 import javafx.stage.Stage;
@@ -13,9 +21,23 @@ public class Launcher extends Application {
     @Override
     public void start(Stage stage) throws IOException {
         Launcher.primaryStage = stage;
+        DadosReferenciaCache.iniciar();
+        stage.focusedProperty().addListener((obs, antes, emFoco) -> NotificacaoPoller.setJanelaEmFoco(emFoco));
         UIUtils.loadNewScene(stage, "GeralScenes/login_User.fxml");
     }
 
+    @Override
+    public void stop() {
+        NotificacaoPoller.parar();
+        ConfirmacaoLeituraBuffer.encerrar();
+        OutboxNotificacao.encerrar();
+        IndiceTextoTG.encerrar();
+        DiretorioCache.encerrar();
+        DadosReferenciaCache.encerrar();
+        DatabaseAsync.encerrar();
+        DatabaseConnect.encerrarPool();
+    }
+
     public static Stage getPrimaryStage() {
         return primaryStage;
     }
@@ -2,6 +2,9 @@ package com.example.tgcontrol.controllers.Alunos;
 
 import com.example.tgcontrol.model.TipoUsuario;
 import com.example.tgcontrol.model.Turma;
+import com.example.tgcontrol.model.UsuarioResumo;
+import com.example.tgcontrol.utils.DadosReferenciaCache;
+import com.example.tgcontrol.utils.DatabaseAsync;
 import com.example.tgcontrol.utils.DatabaseUtils;
 import com.example.tgcontrol.utils.FileStorageUtils;
 import com.example.tgcontrol.utils.SessaoManager;
@@ -16,12 +19,11 @@ import javafx.scene.image.ImageView;
 import javafx.scene.layout.VBox;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
+import javafx.util.StringConverter;
 
 import java.io.File;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public class Forms_Aluno_C {
 
@@ -29,7 +31,7 @@ public class Forms_Aluno_C {
     @FXML private Button btnCarregarFoto;
     @FXML private TextField txtEmailPessoal;
     @FXML private ComboBox<Turma> cbTurma;
-    @FXML private ComboBox<String> cbOrientador;
+    @FXML private ComboBox<UsuarioResumo> cbOrientador;
     @FXML private ChoiceBox<String> cbTipoTG;
     @FXML private VBox vboxProblema;
     @FXML private TextField txtProblema;
@@ -40,8 +42,6 @@ public class Forms_Aluno_C {
     private File fotoPerfilFile;
     private File acordoFile;
 
-    private static final Pattern PROF_PATTERN = Pattern.compile("\\(([^)]+)\\)");
-
     @FXML
     public void initialize() {
         try {
@@ -49,9 +49,28 @@ public class Forms_Aluno_C {
             imgFotoPerfil.setImage(placeholder);
         } catch (Exception e) { e.printStackTrace(); }
 
-        cbTurma.setItems(FXCollections.observableArrayList(DatabaseUtils.getListaTurmas()));
+        cbTurma.setItems(FXCollections.observableArrayList(DadosReferenciaCache.getTurmas()));
+
+        cbOrientador.setDisable(true);
+        DatabaseAsync.carregar(DatabaseAsync.getProfessoresResumo(), professores -> {
+            if (professores == null) {
+                cbOrientador.setPromptText("Não foi possível carregar os professores");
+                return;
+            }
+            cbOrientador.setItems(FXCollections.observableArrayList(professores));
+            cbOrientador.setDisable(false);
+        }, erro -> cbOrientador.setPromptText("Não foi possível carregar os professores"));
+        cbOrientador.setConverter(new StringConverter<>() {
+            @Override
+            public String toString(UsuarioResumo professor) {
+                return professor == null ? "" : String.format("%s (%s)", professor.getNomeCompleto(), professor.getEmail());
+            }
 
-        cbOrientador.setItems(FXCollections.observableArrayList(DatabaseUtils.getListaProfessores()));
+            @Override
+            public UsuarioResumo fromString(String texto) {
+                return null;
+            }
+        });
 
         cbTipoTG.setItems(FXCollections.observableArrayList("Artigo Tecnológico", "Relatório Técnico", "Outro"));
         cbTipoTG.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) -> {
@@ -98,7 +117,7 @@ public class Forms_Aluno_C {
             return;
         }
 
-        String orientadorStr = extrairEmail(cbOrientador.getValue(), PROF_PATTERN);
+        String orientadorStr = cbOrientador.getValue() != null ? cbOrientador.getValue().getEmail() : null;
         Turma turmaSelecionada = cbTurma.getValue();
 
         if (txtEmailPessoal.getText().isBlank() || cbTipoTG.getValue() == null || orientadorStr == null || turmaSelecionada == null || acordoFile == null) {
@@ -145,10 +164,4 @@ public class Forms_Aluno_C {
         } else {
         }
     }
-
-    private String extrairEmail(String valorComboBox, Pattern pattern) {
-        if (valorComboBox == null) return null;
-        Matcher matcher = pattern.matcher(valorComboBox);
-        return matcher.find() ? matcher.group(1) : null;
-    }
 }
\ No newline at end of file
@@ -14,6 +14,7 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 
 import java.net.URL;
+import java.util.List;
 import java.util.Map;
 import java.util.ResourceBundle;
 import java.util.logging.Level;
@@ -61,7 +62,9 @@ public class Home_Aluno_C implements Initializable {
         }
 
         Map<String, Integer> configAluno = DatabaseUtils.getEstagioEConfigAluno(emailAluno);
-        ultimaSecao = DatabaseUtils.getUltimaSecaoAtiva(emailAluno);
+        // Uma única leitura da view; a seção mais relevante é escolhida em memória
+        List<SecaoAluno> secoes = DatabaseUtils.getSecoesAluno(emailAluno);
+        ultimaSecao = DatabaseUtils.escolherUltimaSecaoAtiva(secoes);
 
         if (configAluno != null && ultimaSecao != null) {
             int maxTasks = configAluno.getOrDefault("maxTasks", 6);
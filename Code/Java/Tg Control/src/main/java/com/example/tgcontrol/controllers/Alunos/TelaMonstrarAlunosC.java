@@ -1,6 +1,11 @@
 package com.example.tgcontrol.controllers.Alunos;
 
-import com.example.tgcontrol.utils.DatabaseConnect;
+import com.example.tgcontrol.model.TipoUsuario;
+import com.example.tgcontrol.model.UsuarioResumo;
+import com.example.tgcontrol.utils.DatabaseAsync;
+import javafx.animation.PauseTransition;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.geometry.Insets;
@@ -8,167 +13,229 @@ import javafx.geometry.Pos;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
 import javafx.scene.control.TextField;
 import javafx.scene.layout.HBox;
-import javafx.scene.layout.VBox;
 import javafx.scene.text.Font;
 import javafx.stage.Stage;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
+import javafx.util.Duration;
+
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 public class TelaMonstrarAlunosC {
 
-    public class TelaMostrarAlunosC {
+    private static final Logger LOGGER = Logger.getLogger(TelaMonstrarAlunosC.class.getName());
 
-        @FXML
-        private VBox VBoxListaAlunos;
+    // Tamanho de cada página buscada no banco; a próxima é pedida quando faltam MARGEM_PROXIMA_PAGINA linhas para o fim
+    private static final int TAMANHO_PAGINA = 50;
+    private static final int MARGEM_PROXIMA_PAGINA = 10;
 
-        @FXML
-        private TextField TextFieldNomePesquisa;
+    private static final Map<String, TipoUsuario> FILTROS_TIPO = new LinkedHashMap<>();
+    private static final Map<String, String> FILTROS_STATUS = new LinkedHashMap<>();
 
-        @FXML
-        public void initialize() {
-            List<Aluno> alunos = carregarAlunosDoBanco();
-            carregarAlunos(alunos);
-        }
+    static {
+        FILTROS_TIPO.put("Todos os tipos", null);
+        FILTROS_TIPO.put("Aluno", TipoUsuario.ALUNO);
+        FILTROS_TIPO.put("Professor Orientador", TipoUsuario.PROFESSOR);
+        FILTROS_TIPO.put("Professor Coordenador de TG", TipoUsuario.PROFESSOR_TG);
+        FILTROS_TIPO.put("Perfil Incompleto", TipoUsuario.PERFIL_INCOMPLETO);
 
-        private List<Aluno> carregarAlunosDoBanco() {
-            List<Aluno> alunos = new ArrayList<>();
-            String sql = "SELECT FirstName, LastName, registration_timestamp, status, email FROM user";
+        FILTROS_STATUS.put("Todos", null);
+        FILTROS_STATUS.put("Ativos", "Active");
+        FILTROS_STATUS.put("Inativos", "Inactive");
+    }
 
-            try (Connection conn = DatabaseConnect.getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(sql);
-                 ResultSet rs = stmt.executeQuery()) {
+    @FXML
+    private ListView<UsuarioResumo> ListViewUsuarios;
 
-                DateTimeFormatter inputFormat = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-                DateTimeFormatter outputFormat = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    @FXML
+    private TextField TextFieldNomePesquisa;
 
-                while (rs.next()) {
+    @FXML
+    private ComboBox<String> ComboBoxTipo;
 
-                    String nome = rs.getString("FirstName") + " " + rs.getString("LastName");
+    @FXML
+    private ComboBox<String> ComboBoxStatus;
 
-                    String timestamp = rs.getString("registration_timestamp");
-                    LocalDateTime ldt = LocalDateTime.parse(timestamp, inputFormat);
-                    String data = ldt.format(outputFormat);
+    private final ObservableList<UsuarioResumo> usuarios = FXCollections.observableArrayList();
 
-                    String tipo = rs.getString("status");
-                    String email = rs.getString("email");
+    // Espera o usuário parar de digitar antes de consultar o banco
+    private final PauseTransition atrasoPesquisa = new PauseTransition(Duration.millis(300));
 
-                    alunos.add(new Aluno(nome, data, tipo, email));
-                }
+    // Incrementado a cada nova pesquisa: respostas de pesquisas anteriores são descartadas
+    private int geracaoPesquisa = 0;
+    private boolean carregandoPagina = false;
+    private boolean temMaisPaginas = false;
 
-            } catch (SQLException e) {
-                e.printStackTrace();
-            }
+    @FXML
+    public void initialize() {
+        ComboBoxTipo.setItems(FXCollections.observableArrayList(FILTROS_TIPO.keySet()));
+        ComboBoxTipo.getSelectionModel().selectFirst();
+        ComboBoxStatus.setItems(FXCollections.observableArrayList(FILTROS_STATUS.keySet()));
+        ComboBoxStatus.getSelectionModel().selectFirst();
 
-            return alunos;
-        }
+        // ListView é virtualizada: só as linhas visíveis têm controles, mesmo com milhares de usuários carregados
+        ListViewUsuarios.setItems(usuarios);
+        ListViewUsuarios.setCellFactory(lista -> new UsuarioCell());
+        ListViewUsuarios.setPlaceholder(new Label("Carregando usuários..."));
 
-        private void carregarAlunos(List<Aluno> alunos) {
+        atrasoPesquisa.setOnFinished(e -> pesquisar());
+        TextFieldNomePesquisa.textProperty().addListener((obs, antigo, novo) -> atrasoPesquisa.playFromStart());
+        TextFieldNomePesquisa.setOnAction(e -> onPesquisar());
+        ComboBoxTipo.setOnAction(e -> pesquisar());
+        ComboBoxStatus.setOnAction(e -> pesquisar());
 
-            VBoxListaAlunos.getChildren().removeIf(
-                    node -> node instanceof HBox && VBoxListaAlunos.getChildren().indexOf(node) != 0
-            );
+        pesquisar();
+    }
 
-            for (Aluno aluno : alunos) {
-
-                HBox alunoBox = new HBox();
-                alunoBox.setAlignment(Pos.CENTER_LEFT);
-                alunoBox.setPrefHeight(60);
-                alunoBox.setStyle("-fx-background-color: #FFFFFF; -fx-border-color: transparent transparent #999999 transparent;");
-                alunoBox.setPadding(new Insets(0, 0, 0, 20));
-                alunoBox.setSpacing(10);
-
-                Label nome = new Label(aluno.getNome());
-                nome.setPrefWidth(438);
-                nome.setPrefHeight(60);
-                nome.setFont(Font.font(24));
-
-                Label data = new Label(aluno.getData());
-                data.setPrefWidth(153);
-                data.setPrefHeight(60);
-                data.setFont(Font.font(24));
-
-                Label tipo = new Label(aluno.getTipo());
-                tipo.setPrefWidth(472);
-                tipo.setPrefHeight(60);
-                tipo.setFont(Font.font(24));
-                tipo.setAlignment(Pos.CENTER);
-
-                Button btnAnalisar = new Button("Analisar");
-                btnAnalisar.setPrefWidth(187);
-                btnAnalisar.setPrefHeight(40);
-                btnAnalisar.setStyle(
-                        "-fx-background-color: #FFFFFF; -fx-border-color: #E0D6D6; " +
-                                "-fx-background-radius: 8px; -fx-border-radius: 8px;"
-                );
-
-                btnAnalisar.setOnAction(e -> analisarAluno(aluno));
-
-                alunoBox.getChildren().addAll(nome, data, tipo, btnAnalisar);
-                VBoxListaAlunos.getChildren().add(alunoBox);
-            }
+    @FXML
+    private void onPesquisar() {
+        atrasoPesquisa.stop();
+        pesquisar();
+    }
+
+    private void pesquisar() {
+        geracaoPesquisa++;
+        usuarios.clear();
+        temMaisPaginas = true;
+        carregandoPagina = false;
+        ListViewUsuarios.setPlaceholder(new Label("Carregando usuários..."));
+        carregarProximaPagina();
+    }
+
+    private void carregarProximaPagina() {
+        if (carregandoPagina || !temMaisPaginas) {
+            return;
         }
+        carregandoPagina = true;
+
+        int geracao = geracaoPesquisa;
+        UsuarioResumo ultimo = usuarios.isEmpty() ? null : usuarios.get(usuarios.size() - 1);
+
+        DatabaseAsync.carregar(DatabaseAsync.buscarUsuarios(
+                TextFieldNomePesquisa.getText(),
+                FILTROS_STATUS.get(ComboBoxStatus.getValue()),
+                FILTROS_TIPO.get(ComboBoxTipo.getValue()),
+                ultimo,
+                TAMANHO_PAGINA
+        ), pagina -> {
+            if (geracao != geracaoPesquisa) {
+                return;
+            }
+            carregandoPagina = false;
+            temMaisPaginas = pagina.size() == TAMANHO_PAGINA;
+            usuarios.addAll(pagina);
+            if (usuarios.isEmpty()) {
+                ListViewUsuarios.setPlaceholder(new Label("Nenhum usuário encontrado."));
+            }
+        }, erro -> {
+            if (geracao == geracaoPesquisa) {
+                carregandoPagina = false;
+                ListViewUsuarios.setPlaceholder(new Label("Não foi possível carregar os usuários."));
+            }
+        });
+    }
 
-        private void analisarAluno(Aluno aluno) {
-            try {
-                FXMLLoader loader = new FXMLLoader(
-                        getClass().getResource("/com/exemple/tgcontrol/TelaUsuarioEspecifico.fxml")
-                );
+    private static String descreverTipo(UsuarioResumo usuario) {
+        String tipo = switch (usuario.getTipo()) {
+            case ALUNO -> "Aluno";
+            case PROFESSOR -> "Professor Orientador";
+            case PROFESSOR_TG -> "Professor Coordenador de TG";
+            default -> "Perfil Incompleto";
+        };
+        return usuario.isAtivo() ? tipo : tipo + " (Inativo)";
+    }
 
-                Parent root = loader.load();
+    private void analisarAluno(UsuarioResumo usuario) {
+        try {
+            FXMLLoader loader = new FXMLLoader(
+                    getClass().getResource("/com/example/tgcontrol/Scenes/AlunoScenes/TelaUsuarioEspecifico.fxml")
+            );
 
-                TelaUsuarioEspecificoC controller = loader.getController();
-                controller.setEmailUsuario(aluno.getEmail());
+            Parent root = loader.load();
 
-                Stage stage = new Stage();
-                stage.setScene(new Scene(root));
-                stage.show();
+            TelaUsuarioEspecificoC controller = loader.getController();
+            controller.setEmailUsuario(usuario.getEmail());
 
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
+            Stage stage = new Stage();
+            stage.setScene(new Scene(root));
+            stage.show();
+
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Erro ao abrir os detalhes do usuário " + usuario.getEmail(), e);
         }
+    }
 
-        public static class Aluno {
-            private final String nome;
-            private final String data;
-            private final String tipo;
-            private final String email;
-
-            public Aluno(String nome, String data, String tipo, String email) {
-                this.nome = nome;
-                this.data = data;
-                this.tipo = tipo;
-                this.email = email;
-            }
+    /**
+     * Linha da listagem. Os controles são criados uma vez por célula e reaproveitados ao rolar.
+     */
+    private class UsuarioCell extends ListCell<UsuarioResumo> {
+        private final HBox alunoBox = new HBox();
+        private final Label nome = new Label();
+        private final Label data = new Label();
+        private final Label tipo = new Label();
+        private final Button btnAnalisar = new Button("Analisar");
+
+        private UsuarioCell() {
+            alunoBox.setAlignment(Pos.CENTER_LEFT);
+            alunoBox.setPrefHeight(60);
+            alunoBox.setStyle("-fx-background-color: #FFFFFF; -fx-border-color: transparent transparent #999999 transparent;");
+            alunoBox.setPadding(new Insets(0, 0, 0, 20));
+            alunoBox.setSpacing(10);
+
+            nome.setPrefWidth(438);
+            nome.setPrefHeight(60);
+            nome.setFont(Font.font(24));
+
+            data.setPrefWidth(153);
+            data.setPrefHeight(60);
+            data.setFont(Font.font(24));
+
+            tipo.setPrefWidth(472);
+            tipo.setPrefHeight(60);
+            tipo.setFont(Font.font(24));
+            tipo.setAlignment(Pos.CENTER);
+
+            btnAnalisar.setPrefWidth(187);
+            btnAnalisar.setPrefHeight(40);
+            btnAnalisar.setStyle(
+                    "-fx-background-color: #FFFFFF; -fx-border-color: #E0D6D6; " +
+                            "-fx-background-radius: 8px; -fx-border-radius: 8px;"
+            );
+            btnAnalisar.setOnAction(e -> {
+                if (getItem() != null) {
+                    analisarAluno(getItem());
+                }
+            });
 
-            public String getNome() {
-                return nome;
-            }
+            alunoBox.getChildren().addAll(nome, data, tipo, btnAnalisar);
+            setPadding(Insets.EMPTY);
+        }
 
-            public String getData() {
-                return data;
+        @Override
+        protected void updateItem(UsuarioResumo usuario, boolean empty) {
+            super.updateItem(usuario, empty);
+            if (empty || usuario == null) {
+                setGraphic(null);
+                return;
             }
 
-            public String getTipo() {
-                return tipo;
-            }
+            nome.setText(usuario.getNomeCompleto());
+            data.setText(usuario.getDataCadastro() != null ? usuario.getDataCadastro().toLocalDate().toString() : "-");
+            tipo.setText(descreverTipo(usuario));
+            setGraphic(alunoBox);
 
-            public String getEmail() {
-                return email;
+            // Chegando perto do fim do que já foi carregado: busca a próxima página
+            if (getIndex() >= usuarios.size() - MARGEM_PROXIMA_PAGINA) {
+                carregarProximaPagina();
             }
         }
-
     }
-
 }
-
-
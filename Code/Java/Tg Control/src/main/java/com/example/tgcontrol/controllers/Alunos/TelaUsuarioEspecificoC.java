@@ -106,26 +106,28 @@ public class TelaUsuarioEspecificoC {
                 // BUSCA NA TABELA USER
                 // ==========================
                 String sqlUser = "SELECT FirstName, LastName, email, registration_timestamp FROM user WHERE email = ?";
-                PreparedStatement stmt = conn.prepareStatement(sqlUser);
-                stmt.setString(1, emailUsuario);
-                ResultSet rs = stmt.executeQuery();
+                try (PreparedStatement stmt = conn.prepareStatement(sqlUser)) {
+                    stmt.setString(1, emailUsuario);
+                    try (ResultSet rs = stmt.executeQuery()) {
 
-                if (rs.next()) {
+                        if (rs.next()) {
 
-                    String nomeCompleto = rs.getString("FirstName") + " " + rs.getString("LastName");
-                    String email = rs.getString("email");
-                    String timestamp = rs.getString("registration_timestamp");
+                            String nomeCompleto = rs.getString("FirstName") + " " + rs.getString("LastName");
+                            String email = rs.getString("email");
+                            String timestamp = rs.getString("registration_timestamp");
 
-                    DateTimeFormatter inputFormat = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-                    DateTimeFormatter outputFormat = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+                            DateTimeFormatter inputFormat = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+                            DateTimeFormatter outputFormat = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
-                    LocalDateTime ldt = LocalDateTime.parse(timestamp, inputFormat);
-                    String dataCadastro = ldt.format(outputFormat);
+                            LocalDateTime ldt = LocalDateTime.parse(timestamp, inputFormat);
+                            String dataCadastro = ldt.format(outputFormat);
 
-                    // Preenche tela
-                    labelValor1.setText(nomeCompleto);
-                    labelValor2.setText(email);
-                    labelValor5.setText(dataCadastro);
+                            // Preenche tela
+                            labelValor1.setText(nomeCompleto);
+                            labelValor2.setText(email);
+                            labelValor5.setText(dataCadastro);
+                        }
+                    }
                 }
 
 
@@ -135,42 +137,46 @@ public class TelaUsuarioEspecificoC {
 
                 // --- VERIFICAR SE ESTÁ NA TABELA TEACHER ---
                 String sqlTeacher = "SELECT is_coordinator FROM teacher WHERE email = ?";
-                PreparedStatement stmtTeacher = conn.prepareStatement(sqlTeacher);
-                stmtTeacher.setString(1, emailUsuario);
-                ResultSet rsTeacher = stmtTeacher.executeQuery();
+                try (PreparedStatement stmtTeacher = conn.prepareStatement(sqlTeacher)) {
+                    stmtTeacher.setString(1, emailUsuario);
+                    try (ResultSet rsTeacher = stmtTeacher.executeQuery()) {
 
-                if (rsTeacher.next()) {
+                        if (rsTeacher.next()) {
 
-                    // ---------- USUÁRIO É PROFESSOR ----------
-                    labelValor4.setText("PROFESSOR");
+                            // ---------- USUÁRIO É PROFESSOR ----------
+                            labelValor4.setText("PROFESSOR");
 
-                    boolean isCoordinator = rsTeacher.getBoolean("is_coordinator");
+                            boolean isCoordinator = rsTeacher.getBoolean("is_coordinator");
 
-                    if (isCoordinator) {
-                        labelValor3.setText("Coordenador");
-                    } else {
-                        labelValor3.setText("Professor");
-                    }
+                            if (isCoordinator) {
+                                labelValor3.setText("Coordenador");
+                            } else {
+                                labelValor3.setText("Professor");
+                            }
 
-                    return;
+                            return;
+                        }
+                    }
                 }
 
 
                 // --- VERIFICAR SE ESTÁ NA TABELA STUDENT ---
                 String sqlStudent = "SELECT class_disciplina FROM student WHERE email = ?";
-                PreparedStatement stmtStudent = conn.prepareStatement(sqlStudent);
-                stmtStudent.setString(1, emailUsuario);
-                ResultSet rsStudent = stmtStudent.executeQuery();
+                try (PreparedStatement stmtStudent = conn.prepareStatement(sqlStudent)) {
+                    stmtStudent.setString(1, emailUsuario);
+                    try (ResultSet rsStudent = stmtStudent.executeQuery()) {
 
-                if (rsStudent.next()) {
+                        if (rsStudent.next()) {
 
-                    // ---------- USUÁRIO É ALUNO ----------
-                    labelValor4.setText("ALUNO");
+                            // ---------- USUÁRIO É ALUNO ----------
+                            labelValor4.setText("ALUNO");
 
-                    String disciplina = rsStudent.getString("class_disciplina");
-                    labelValor3.setText(disciplina);
+                            String disciplina = rsStudent.getString("class_disciplina");
+                            labelValor3.setText(disciplina);
 
-                    return;
+                            return;
+                        }
+                    }
                 }
 
             } catch (Exception e) {
@@ -2,15 +2,18 @@ package com.example.tgcontrol.controllers;
 
 import com.example.tgcontrol.model.TipoUsuario;
 import com.example.tgcontrol.utils.DatabaseUtils;
+import com.example.tgcontrol.utils.NotificacaoPoller;
 import com.example.tgcontrol.utils.SessaoManager;
 import com.example.tgcontrol.utils.UIUtils;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
+import javafx.geometry.Pos;
 import javafx.geometry.Side;
 import javafx.scene.Node;
 import javafx.scene.control.Button;
 import javafx.scene.control.ContextMenu;
+import javafx.scene.control.Label;
 import javafx.scene.control.MenuItem;
 import javafx.scene.control.SeparatorMenuItem; // Import SeparatorMenuItem
 import javafx.scene.image.Image;
@@ -39,6 +42,11 @@ public abstract class BaseNavbarController implements Initializable {
     @FXML
     protected Button profileMenuButton;
 
+    @FXML
+    protected Button notificationButton;
+
+    private Label badgeNotificacoes;
+
     private static final String DEFAULT_PROFILE_IMAGE_RESOURCE_PATH = "/com/example/tgcontrol/SceneImages/Navbar Images/UserSymbol.png";
 
 
@@ -58,6 +66,39 @@ public abstract class BaseNavbarController implements Initializable {
 
         loadProfileImage();
         applyCircularClipToProfileImage();
+        iniciarBadgeNotificacoes();
+    }
+
+    /**
+     * Função: Coloca um contador sobre o ícone de notificações e liga o NotificacaoPoller a ele.
+     */
+    private void iniciarBadgeNotificacoes() {
+        String userEmail = SessaoManager.getInstance().getEmailUsuario();
+        if (notificationButton == null || userEmail == null || userEmail.isEmpty()) {
+            return;
+        }
+
+        badgeNotificacoes = new Label();
+        badgeNotificacoes.setMouseTransparent(true);
+        badgeNotificacoes.setStyle("-fx-background-color: #D32F2F; -fx-background-radius: 8px; -fx-text-fill: white; " +
+                "-fx-font-size: 9px; -fx-font-weight: bold; -fx-padding: 0 3 0 3;");
+        badgeNotificacoes.setTranslateX(8);
+        badgeNotificacoes.setTranslateY(-6);
+        badgeNotificacoes.setVisible(false);
+
+        StackPane icone = new StackPane(notificationButton.getGraphic(), badgeNotificacoes);
+        StackPane.setAlignment(badgeNotificacoes, Pos.TOP_RIGHT);
+        notificationButton.setGraphic(icone);
+
+        NotificacaoPoller.iniciar(userEmail, this::atualizarBadgeNotificacoes);
+    }
+
+    private void atualizarBadgeNotificacoes(int naoLidas) {
+        if (badgeNotificacoes == null) {
+            return;
+        }
+        badgeNotificacoes.setText(naoLidas > 99 ? "99+" : String.valueOf(naoLidas));
+        badgeNotificacoes.setVisible(naoLidas > 0);
     }
 
 
@@ -128,15 +169,46 @@ public abstract class BaseNavbarController implements Initializable {
             UIUtils.loadFxml("GeralScenes/profile_User_Details.fxml");
         });
 
+        // A busca lista todos os usuários e turmas: só para professores
+        MenuItem buscarItem = null;
+        MenuItem buscarTgsItem = null;
+        TipoUsuario tipo = SessaoManager.getInstance().getTipoUsuario();
+        if (tipo == TipoUsuario.PROFESSOR || tipo == TipoUsuario.PROFESSOR_TG) {
+            buscarItem = new MenuItem("Buscar");
+            buscarItem.setOnAction(e -> {
+                UIUtils.loadFxml("GeralScenes/search_User.fxml");
+            });
+
+            buscarTgsItem = new MenuItem("Buscar nos TGs");
+            buscarTgsItem.setOnAction(e -> {
+                UIUtils.loadFxml("ProfessorScenes/buscaTGs_Professor.fxml");
+            });
+        }
+
+        // Métricas de banco e do pool: só para o coordenador de TG
+        MenuItem diagnosticoItem = null;
+        if (tipo == TipoUsuario.PROFESSOR_TG) {
+            diagnosticoItem = new MenuItem("Diagnóstico");
+            diagnosticoItem.setOnAction(e -> {
+                UIUtils.loadFxml("GeralScenes/diagnostico_User.fxml");
+            });
+        }
+
         MenuItem sairItem = new MenuItem("Sair");
         sairItem.setOnAction(e -> {
             sair(event);
         });
 
         contextMenu.getItems().add(perfilItem);
+        if (buscarItem != null) {
+            contextMenu.getItems().addAll(buscarItem, buscarTgsItem);
+        }
         if (historicoItem != null) {
             contextMenu.getItems().add(historicoItem);
         }
+        if (diagnosticoItem != null) {
+            contextMenu.getItems().add(diagnosticoItem);
+        }
         contextMenu.getItems().addAll(new SeparatorMenuItem(), sairItem);
 
 
@@ -146,6 +218,7 @@ public abstract class BaseNavbarController implements Initializable {
 
     @FXML
     public void sair(ActionEvent actionEvent) {
+        NotificacaoPoller.parar();
         SessaoManager.getInstance().encerrarSessao();
         Stage stage = (Stage) ((Node) actionEvent.getSource()).getScene().getWindow();
         UIUtils.loadNewScene(stage, "GeralScenes/login_User.fxml");
@@ -0,0 +1,46 @@
+package com.example.tgcontrol.controllers.Geral;
+
+import com.example.tgcontrol.utils.DatabaseAsync;
+import com.example.tgcontrol.utils.MetricasJdbc;
+import javafx.fxml.FXML;
+import javafx.fxml.Initializable;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.TextArea;
+
+import java.net.URL;
+import java.util.ResourceBundle;
+
+/**
+ * Controlador: Janela de diagnóstico com as métricas JDBC (MetricasJdbc), o pool de conexões e os caches.
+ */
+public class Diagnostico_User_C implements Initializable {
+
+    @FXML
+    private TextArea txtRelatorio;
+    @FXML
+    private CheckBox chkMetricasAtivas;
+
+    @Override
+    public void initialize(URL url, ResourceBundle resourceBundle) {
+        chkMetricasAtivas.setSelected(MetricasJdbc.isAtivo());
+        atualizar();
+    }
+
+    @FXML
+    public void atualizar() {
+        // O relatório consulta as estatísticas do pool, então é montado fora da thread do JavaFX
+        DatabaseAsync.carregar(MetricasJdbc::gerarRelatorio, txtRelatorio::setText);
+    }
+
+    @FXML
+    public void zerar() {
+        MetricasJdbc.limpar();
+        atualizar();
+    }
+
+    @FXML
+    public void alternarMetricas() {
+        MetricasJdbc.setAtivo(chkMetricasAtivas.isSelected());
+        atualizar();
+    }
+}
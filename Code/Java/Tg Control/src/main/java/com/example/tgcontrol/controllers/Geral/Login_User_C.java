@@ -3,6 +3,8 @@ package com.example.tgcontrol.controllers.Geral;
 import com.example.tgcontrol.utils.SessaoManager;
 import com.example.tgcontrol.model.TipoUsuario;
 import com.example.tgcontrol.utils.DatabaseUtils;
+import com.example.tgcontrol.utils.DiretorioCache;
+import com.example.tgcontrol.utils.IndiceTextoTG;
 import com.example.tgcontrol.utils.UIUtils;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
@@ -38,9 +40,14 @@ public class Login_User_C {
                     fxmlParaCarregar = "AlunoScenes/navbar_Aluno.fxml";
                     break;
                 case PROFESSOR:
+                    // Só professores usam as buscas de usuários e de TGs
+                    DiretorioCache.iniciar();
+                    IndiceTextoTG.iniciar();
                     fxmlParaCarregar = "ProfessorScenes/navbar_Professor.fxml";
                     break;
                 case PROFESSOR_TG:
+                    DiretorioCache.iniciar();
+                    IndiceTextoTG.iniciar();
                     fxmlParaCarregar = "ProfessorTGScenes/navbar_ProfessorTG.fxml";
                     break;
                 case PERFIL_INCOMPLETO:
@@ -1,13 +1,18 @@
 package com.example.tgcontrol.controllers.Geral;
 
 import com.example.tgcontrol.model.Notification;
-import com.example.tgcontrol.utils.DatabaseUtils;
+import com.example.tgcontrol.utils.ConfirmacaoLeituraBuffer;
+import com.example.tgcontrol.utils.DatabaseAsync;
+import com.example.tgcontrol.utils.NotificacaoPoller;
 import com.example.tgcontrol.utils.SessaoManager;
+import com.example.tgcontrol.utils.UIUtils;
 import javafx.animation.FadeTransition;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.BorderPane;
@@ -16,7 +21,6 @@ import javafx.util.Duration;
 import java.net.URL;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 import java.util.ResourceBundle;
 
 public class Notification_User_C implements Initializable {
@@ -36,9 +40,16 @@ public class Notification_User_C implements Initializable {
     @FXML
     private Button btnMarcarTodas;
 
+    private static final int TAMANHO_PAGINA = 50;
+
     private final ObservableList<Notification> listaNotificacoes = FXCollections.observableArrayList();
     private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
 
+    // Estado da paginação: as páginas chegam conforme a rolagem da tabela
+    private boolean carregandoPagina = false;
+    private boolean temMaisPaginas = true;
+    private int totalNaoLidas = 0;
+
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
         // Inicialização das colunas
@@ -93,6 +104,7 @@ public class Notification_User_C implements Initializable {
         });
 
         tvNotificacoes.setItems(listaNotificacoes);
+        configurarCarregamentoPorRolagem();
         carregarNotificacoes();
 
         // Animação leve ao abrir a tela (Fade-in)
@@ -103,7 +115,7 @@ public class Notification_User_C implements Initializable {
     }
 
     /**
-     * Função: Busca no banco e exibe as notificações na tela.
+     * Função: Busca no banco e exibe a primeira página de notificações e o total de não lidas.
      */
     public void carregarNotificacoes() {
         String emailUsuario = SessaoManager.getInstance().getEmailUsuario();
@@ -113,26 +125,72 @@ public class Notification_User_C implements Initializable {
             return;
         }
 
-        List<Notification> notificacoes = DatabaseUtils.listarNotificacoes(emailUsuario);
         listaNotificacoes.clear();
-        listaNotificacoes.addAll(notificacoes);
+        temMaisPaginas = true;
+        tvNotificacoes.setPlaceholder(new Label("Carregando notificações..."));
+        lblContadorNaoLidas.setText("Carregando...");
+
+        carregarProximaPagina();
+        DatabaseAsync.carregar(DatabaseAsync.contarNotificacoesNaoLidas(emailUsuario), total -> {
+            totalNaoLidas = total;
+            NotificacaoPoller.setNaoLidas(total);
+            atualizarContadorNaoLidas();
+        }, erro -> lblContadorNaoLidas.setText(""));
+    }
 
-        atualizarContadorNaoLidas();
+    /**
+     * Função: Busca a página seguinte à última notificação exibida (paginação por chave).
+     */
+    private void carregarProximaPagina() {
+        String emailUsuario = SessaoManager.getInstance().getEmailUsuario();
+        if (emailUsuario == null || carregandoPagina || !temMaisPaginas) {
+            return;
+        }
+
+        carregandoPagina = true;
+        Notification ultima = listaNotificacoes.isEmpty() ? null : listaNotificacoes.get(listaNotificacoes.size() - 1);
+
+        DatabaseAsync.carregar(DatabaseAsync.listarNotificacoesPagina(emailUsuario, ultima, TAMANHO_PAGINA), pagina -> {
+            carregandoPagina = false;
+            temMaisPaginas = pagina.size() == TAMANHO_PAGINA;
+            listaNotificacoes.addAll(pagina);
+            tvNotificacoes.setPlaceholder(new Label("Nenhuma notificação."));
+        }, erro -> {
+            carregandoPagina = false;
+            tvNotificacoes.setPlaceholder(new Label("Não foi possível carregar as notificações."));
+        });
+    }
+
+    /**
+     * Função: Carrega a próxima página quando a barra de rolagem da tabela chega perto do fim.
+     * A barra só existe depois que a tabela ganha skin, por isso a busca é feita nesse momento.
+     */
+    private void configurarCarregamentoPorRolagem() {
+        tvNotificacoes.skinProperty().addListener((obs, oldSkin, newSkin) -> {
+            for (Node node : tvNotificacoes.lookupAll(".scroll-bar")) {
+                if (node instanceof ScrollBar barra && barra.getOrientation() == Orientation.VERTICAL) {
+                    barra.valueProperty().addListener((o, antigo, valor) -> {
+                        if (valor.doubleValue() >= barra.getMax() * 0.9) {
+                            carregarProximaPagina();
+                        }
+                    });
+                }
+            }
+        });
     }
 
     /**
-     * Função: Atualiza o campo is_read para TRUE para uma notificação.
+     * Função: Marca uma notificação como lida na tela na hora; a gravação no banco é feita em lote
+     * pelo ConfirmacaoLeituraBuffer.
      * @param notification A notificação a ser marcada como lida.
      */
     private void marcarComoLida(Notification notification) {
-        if (DatabaseUtils.marcarComoLida(notification.getNotificationId())) {
-            notification.setIsRead(true);
-            tvNotificacoes.refresh(); // Atualiza a visualização da linha
-            atualizarContadorNaoLidas();
-        } else {
-            // Exibir erro
-            System.err.println("Falha ao marcar notificação como lida: " + notification.getNotificationId());
-        }
+        notification.setIsRead(true);
+        tvNotificacoes.refresh(); // Atualiza a visualização da linha
+        totalNaoLidas = Math.max(0, totalNaoLidas - 1);
+        NotificacaoPoller.ajustarNaoLidas(-1);
+        atualizarContadorNaoLidas();
+        ConfirmacaoLeituraBuffer.registrar(notification.getNotificationId());
     }
 
     /**
@@ -142,23 +200,31 @@ public class Notification_User_C implements Initializable {
     public void marcarTodasComoLidas() {
         String emailUsuario = SessaoManager.getInstance().getEmailUsuario();
         if (emailUsuario != null) {
-            if (DatabaseUtils.marcarTodasComoLidas(emailUsuario)) {
-                // Atualiza o estado na lista local sem recarregar tudo
-                listaNotificacoes.forEach(n -> n.setIsRead(true));
-                tvNotificacoes.refresh();
+            btnMarcarTodas.setDisable(true);
+            DatabaseAsync.carregar(DatabaseAsync.marcarTodasComoLidas(emailUsuario), sucesso -> {
+                if (sucesso) {
+                    // Atualiza o estado na lista local sem recarregar tudo
+                    listaNotificacoes.forEach(n -> n.setIsRead(true));
+                    tvNotificacoes.refresh();
+                    totalNaoLidas = 0;
+                    NotificacaoPoller.setNaoLidas(0);
+                } else {
+                    // Exibir erro
+                    System.err.println("Falha ao marcar todas como lidas.");
+                }
                 atualizarContadorNaoLidas();
-            } else {
-                // Exibir erro
-                System.err.println("Falha ao marcar todas como lidas.");
-            }
+            }, erro -> {
+                btnMarcarTodas.setDisable(false);
+                UIUtils.showAlert("Erro", "Não foi possível marcar as notificações como lidas.");
+            });
         }
     }
 
     /**
-     * Função: Conta e exibe o número de notificações não lidas.
+     * Função: Exibe o número de notificações não lidas (contado no banco, não só nas páginas carregadas).
      */
     private void atualizarContadorNaoLidas() {
-        long naoLidas = listaNotificacoes.stream().filter(n -> !n.isIsRead()).count();
+        int naoLidas = totalNaoLidas;
         lblContadorNaoLidas.setText(String.format("Você tem %d notificações não lidas.", naoLidas));
         btnMarcarTodas.setDisable(naoLidas == 0);
         // Opcional: Aqui seria o ponto de integração com o menu principal para exibir o contador.
@@ -2,9 +2,11 @@ package com.example.tgcontrol.controllers.Geral;
 
 import com.example.tgcontrol.model.TipoUsuario;
 import com.example.tgcontrol.model.Turma;
+import com.example.tgcontrol.utils.DatabaseAsync;
 import com.example.tgcontrol.utils.DatabaseUtils;
 import com.example.tgcontrol.utils.FileStorageUtils;
 import com.example.tgcontrol.utils.SessaoManager;
+import com.example.tgcontrol.utils.TipoUsuarioCache;
 import com.example.tgcontrol.utils.UIUtils;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
@@ -20,6 +22,7 @@ import javafx.stage.Stage;
 
 import java.io.File;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -64,7 +67,10 @@ public class Profile_User_Details_C {
         lblEmail.setText(this.targetUserEmail);
         carregarFotoPerfil(urlFoto);
 
-        Map<String, String> studentDetails = DatabaseUtils.getStudentDisplayDetails(this.targetUserEmail);
+        TipoUsuario tipoUser = TipoUsuarioCache.getTipo(this.targetUserEmail);
+        Map<String, String> studentDetails = tipoUser == TipoUsuario.ALUNO
+                ? DatabaseUtils.getStudentDisplayDetails(this.targetUserEmail)
+                : null;
         boolean isTargetUserStudent = studentDetails != null;
 
         vboxStudentDetails.setVisible(isTargetUserStudent);
@@ -76,7 +82,6 @@ public class Profile_User_Details_C {
             lblOrientador.setText(studentDetails.getOrDefault("advisor_name", "N/A"));
             configurarStatusEBotaoDefesa(this.targetUserEmail);
         } else {
-            TipoUsuario tipoUser = DatabaseUtils.autenticarUsuario(this.targetUserEmail, "Troca123");
             String tipoProfessor = "Usuário sem Perfil Completo";
 
             if (tipoUser == TipoUsuario.PROFESSOR_TG) {
@@ -96,8 +101,41 @@ public class Profile_User_Details_C {
     }
 
     private void configurarStatusEBotaoDefesa(String emailAluno) {
-        boolean tgConcluido = DatabaseUtils.isTgConcluido(emailAluno);
+        lblStatusTG.setText("Carregando...");
+        lblStatusTG.setStyle("-fx-font-weight: bold;");
+        btnSolicitarDefesa.setVisible(false);
+        btnSolicitarDefesa.setManaged(false);
+
+        DatabaseAsync.carregar(consultarTgConcluido(emailAluno), tgConcluido -> {
+            // Ignora a resposta se a tela já mostra outro usuário
+            if (emailAluno.equals(targetUserEmail)) {
+                exibirStatusEBotaoDefesa(tgConcluido);
+            }
+        }, erro -> {
+            if (emailAluno.equals(targetUserEmail)) {
+                lblStatusTG.setText("Não foi possível verificar");
+            }
+        });
+    }
+
+    // Pela lista de onde o perfil foi aberto (turma da coordenação ou orientandos), que fica em cache para os
+    // próximos perfis; o aluno fora dela (ou vendo o próprio perfil) é consultado sozinho
+    private CompletableFuture<Boolean> consultarTgConcluido(String emailAluno) {
+        Turma turmaSelecionada = SessaoManager.getInstance().getTurmaSelecionada();
+        CompletableFuture<Map<String, Boolean>> lista;
+        if (viewerTipo == TipoUsuario.PROFESSOR_TG && turmaSelecionada != null) {
+            lista = DatabaseAsync.getTgsConcluidosTurma(turmaSelecionada.getDisciplina(), turmaSelecionada.getAno(), turmaSelecionada.getSemestre());
+        } else if (viewerTipo == TipoUsuario.PROFESSOR || viewerTipo == TipoUsuario.PROFESSOR_TG) {
+            lista = DatabaseAsync.getTgsConcluidosOrientandos(viewerEmail);
+        } else {
+            return DatabaseAsync.isTgConcluido(emailAluno);
+        }
+        return lista.thenCompose(concluidos -> concluidos.containsKey(emailAluno)
+                ? CompletableFuture.completedFuture(concluidos.get(emailAluno))
+                : DatabaseAsync.isTgConcluido(emailAluno));
+    }
 
+    private void exibirStatusEBotaoDefesa(boolean tgConcluido) {
         if (tgConcluido) {
             lblStatusTG.setText("Concluído (Pronto para Defesa)");
             lblStatusTG.setStyle("-fx-font-weight: bold; -fx-text-fill: #4CAF50;");
@@ -0,0 +1,116 @@
+package com.example.tgcontrol.controllers.Geral;
+
+import com.example.tgcontrol.model.TipoUsuario;
+import com.example.tgcontrol.model.Turma;
+import com.example.tgcontrol.model.UsuarioResumo;
+import com.example.tgcontrol.utils.DatabaseAsync;
+import com.example.tgcontrol.utils.DiretorioCache;
+import com.example.tgcontrol.utils.SessaoManager;
+import com.example.tgcontrol.utils.UIUtils;
+import javafx.collections.FXCollections;
+import javafx.fxml.FXML;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TextField;
+import javafx.scene.input.MouseButton;
+import javafx.scene.layout.StackPane;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Controlador: Busca de usuários e turmas enquanto se digita, sobre o índice em memória (DiretorioCache).
+ * Depois de carregado, cada tecla consulta só a memória. A consulta roda na thread do banco (DatabaseAsync)
+ * porque a primeira pode ainda precisar carregar o diretório.
+ */
+public class Search_User_C {
+
+    private static final Logger LOGGER = Logger.getLogger(Search_User_C.class.getName());
+    private static final int MAXIMO_RESULTADOS = 50;
+
+    @FXML private TextField txtBusca;
+    @FXML private ListView<UsuarioResumo> lvUsuarios;
+    @FXML private ListView<Turma> lvTurmas;
+
+    // Descarta respostas de teclas anteriores que chegarem depois da atual
+    private int geracaoBusca = 0;
+
+    @FXML
+    public void initialize() {
+        lvUsuarios.setPlaceholder(new Label("Nenhum usuário encontrado."));
+        lvTurmas.setPlaceholder(new Label("Nenhuma turma encontrada."));
+
+        lvUsuarios.setCellFactory(lista -> new ListCell<>() {
+            @Override
+            protected void updateItem(UsuarioResumo usuario, boolean empty) {
+                super.updateItem(usuario, empty);
+                if (empty || usuario == null) {
+                    setText(null);
+                } else {
+                    setText(String.format("%s (%s)", usuario.getNomeCompleto(), usuario.getEmail()));
+                }
+            }
+        });
+
+        lvUsuarios.setOnMouseClicked(e -> {
+            UsuarioResumo usuario = lvUsuarios.getSelectionModel().getSelectedItem();
+            if (e.getButton() == MouseButton.PRIMARY && e.getClickCount() == 2 && usuario != null) {
+                abrirPerfil(usuario.getEmail());
+            }
+        });
+
+        lvTurmas.setOnMouseClicked(e -> {
+            Turma turma = lvTurmas.getSelectionModel().getSelectedItem();
+            if (e.getButton() == MouseButton.PRIMARY && e.getClickCount() == 2 && turma != null
+                    && SessaoManager.getInstance().getTipoUsuario() == TipoUsuario.PROFESSOR_TG) {
+                SessaoManager.getInstance().setTurmaSelecionada(turma);
+                UIUtils.loadFxml("ProfessorScenes/coordinations_Professor.fxml");
+            }
+        });
+
+        txtBusca.textProperty().addListener((obs, antigo, novo) -> buscar(novo));
+        buscar("");
+    }
+
+    private void buscar(String texto) {
+        int geracao = ++geracaoBusca;
+        DatabaseAsync.carregar(DatabaseAsync.executar(() -> DiretorioCache.buscarUsuarios(texto, MAXIMO_RESULTADOS)), usuarios -> {
+            if (geracao == geracaoBusca) {
+                lvUsuarios.setItems(FXCollections.observableArrayList(usuarios));
+                lvUsuarios.setPlaceholder(new Label(DiretorioCache.isCarregado()
+                        ? "Nenhum usuário encontrado."
+                        : "Não foi possível carregar os usuários. Tente novamente em instantes."));
+            }
+        });
+        DatabaseAsync.carregar(DatabaseAsync.executar(() -> DiretorioCache.buscarTurmas(texto, MAXIMO_RESULTADOS)), turmas -> {
+            if (geracao == geracaoBusca) {
+                lvTurmas.setItems(FXCollections.observableArrayList(turmas));
+            }
+        });
+    }
+
+    private void abrirPerfil(String email) {
+        try {
+            FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/example/tgcontrol/Scenes/GeralScenes/profile_User_Details.fxml"));
+            Parent novaTela = loader.load();
+
+            Profile_User_Details_C controller = loader.getController();
+            controller.setUserData(email);
+
+            StackPane contentArea = (StackPane) txtBusca.getScene().lookup("#contentArea");
+            if (contentArea != null) {
+                contentArea.getChildren().clear();
+                contentArea.getChildren().add(novaTela);
+            } else {
+                LOGGER.log(Level.SEVERE, "Falha ao encontrar #contentArea para navegação.");
+                UIUtils.showAlert("Erro de Navegação", "Não foi possível encontrar a área de conteúdo.");
+            }
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Falha ao carregar tela de perfil.", e);
+            UIUtils.showAlert("Erro", "Não foi possível carregar a tela de perfil.");
+        }
+    }
+}
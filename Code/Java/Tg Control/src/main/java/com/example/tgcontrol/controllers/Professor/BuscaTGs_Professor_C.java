@@ -0,0 +1,192 @@
+package com.example.tgcontrol.controllers.Professor;
+
+import com.example.tgcontrol.model.EntregaTG;
+import com.example.tgcontrol.model.ResultadoBuscaTG;
+import com.example.tgcontrol.model.TipoUsuario;
+import com.example.tgcontrol.model.Turma;
+import com.example.tgcontrol.model.UsuarioResumo;
+import com.example.tgcontrol.utils.DadosReferenciaCache;
+import com.example.tgcontrol.utils.DatabaseAsync;
+import com.example.tgcontrol.utils.DatabaseUtils;
+import com.example.tgcontrol.utils.DiretorioCache;
+import com.example.tgcontrol.utils.IndiceTextoTG;
+import com.example.tgcontrol.utils.SessaoManager;
+import javafx.animation.PauseTransition;
+import javafx.collections.FXCollections;
+import javafx.fxml.FXML;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TextArea;
+import javafx.scene.control.TextField;
+import javafx.scene.input.MouseButton;
+import javafx.scene.layout.VBox;
+import javafx.util.Duration;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Controlador: Busca de texto nas versões entregues dos TGs (IndiceTextoTG).
+ * O coordenador de TG pode buscar em todos os alunos, nos seus orientandos ou em uma turma;
+ * o professor orientador só nos seus orientandos.
+ */
+public class BuscaTGs_Professor_C {
+
+    private static final int MAXIMO_RESULTADOS = 50;
+    private static final String FILTRO_TODOS = "Todos os alunos";
+    private static final String FILTRO_ORIENTANDOS = "Meus orientandos";
+
+    @FXML private TextField txtBusca;
+    @FXML private ComboBox<String> cbFiltro;
+    @FXML private ListView<ResultadoBuscaTG> lvResultados;
+    @FXML private TextArea txtConteudo;
+    @FXML private Label lblConteudo;
+
+    private final Map<String, Turma> turmasPorDescricao = new LinkedHashMap<>();
+
+    // Alunos de cada filtro, buscados uma vez por tela (preenchido pela thread do banco)
+    private final Map<String, Set<String>> alunosPorFiltro = new ConcurrentHashMap<>();
+
+    private final PauseTransition atrasoBusca = new PauseTransition(Duration.millis(300));
+    private int geracaoBusca = 0;
+
+    @FXML
+    public void initialize() {
+        if (SessaoManager.getInstance().getTipoUsuario() == TipoUsuario.PROFESSOR_TG) {
+            cbFiltro.getItems().add(FILTRO_TODOS);
+            cbFiltro.getItems().add(FILTRO_ORIENTANDOS);
+            for (Turma turma : DadosReferenciaCache.getTurmas()) {
+                turmasPorDescricao.put(turma.getDescricaoTurma(), turma);
+            }
+            cbFiltro.getItems().addAll(turmasPorDescricao.keySet());
+        } else {
+            cbFiltro.getItems().add(FILTRO_ORIENTANDOS);
+        }
+        cbFiltro.getSelectionModel().selectFirst();
+
+        lvResultados.setCellFactory(lista -> new ResultadoCell());
+        lvResultados.setPlaceholder(new Label("Digite palavras ou uma \"frase entre aspas\"."));
+        lvResultados.setOnMouseClicked(e -> {
+            ResultadoBuscaTG resultado = lvResultados.getSelectionModel().getSelectedItem();
+            if (e.getButton() == MouseButton.PRIMARY && e.getClickCount() == 2 && resultado != null) {
+                exibirConteudo(resultado.getEntrega());
+            }
+        });
+
+        atrasoBusca.setOnFinished(e -> buscar());
+        txtBusca.textProperty().addListener((obs, antigo, novo) -> atrasoBusca.playFromStart());
+        txtBusca.setOnAction(e -> {
+            atrasoBusca.stop();
+            buscar();
+        });
+        cbFiltro.setOnAction(e -> buscar());
+    }
+
+    private void buscar() {
+        int geracao = ++geracaoBusca;
+        String consulta = txtBusca.getText();
+        String filtro = cbFiltro.getValue();
+
+        if (consulta == null || consulta.isBlank()) {
+            lvResultados.getItems().clear();
+            lvResultados.setPlaceholder(new Label("Digite palavras ou uma \"frase entre aspas\"."));
+            return;
+        }
+
+        DatabaseAsync.carregar(DatabaseAsync.executar(() -> {
+            List<ResultadoBuscaTG> resultados = IndiceTextoTG.buscar(consulta, alunosDoFiltro(filtro), MAXIMO_RESULTADOS);
+            // Carrega o diretório aqui, fora da thread do JavaFX, para as células só lerem da memória
+            resultados.forEach(r -> DiretorioCache.getUsuario(r.getEntrega().getEmailAluno()));
+            return resultados;
+        }), resultados -> {
+            if (geracao != geracaoBusca) {
+                return;
+            }
+            lvResultados.setItems(FXCollections.observableArrayList(resultados));
+            lvResultados.setPlaceholder(new Label(IndiceTextoTG.isPronto()
+                    ? "Nenhum TG encontrado."
+                    : "Nenhum TG encontrado. O índice ainda está sendo preparado; tente novamente em instantes."));
+        }, erro -> {
+            if (geracao == geracaoBusca) {
+                lvResultados.getItems().clear();
+                lvResultados.setPlaceholder(new Label("Não foi possível realizar a busca."));
+            }
+        });
+    }
+
+    // Executado na thread do banco. null = sem filtro
+    private Set<String> alunosDoFiltro(String filtro) {
+        if (FILTRO_TODOS.equals(filtro)) {
+            return null;
+        }
+        Set<String> emails = alunosPorFiltro.get(filtro);
+        if (emails != null) {
+            return emails;
+        }
+        List<Map<String, String>> alunos;
+        Turma turma = turmasPorDescricao.get(filtro);
+        if (turma != null) {
+            alunos = DatabaseUtils.getStudentsByClass(turma.getDisciplina(), turma.getAno(), turma.getSemestre());
+        } else {
+            alunos = DatabaseUtils.getAdviseesDisplayInfo(SessaoManager.getInstance().getEmailUsuario());
+        }
+        emails = new HashSet<>();
+        for (Map<String, String> aluno : alunos) {
+            emails.add(aluno.get("email"));
+        }
+        // As consultas devolvem lista vazia também em caso de erro: só guarda o que veio preenchido,
+        // para uma falha passageira não deixar o filtro sem resultados até sair da tela
+        if (!emails.isEmpty()) {
+            alunosPorFiltro.put(filtro, emails);
+        }
+        return emails;
+    }
+
+    private void exibirConteudo(EntregaTG entrega) {
+        lblConteudo.setText(descreverEntrega(entrega));
+        txtConteudo.setText("Carregando...");
+        DatabaseAsync.carregar(DatabaseAsync.executar(() -> IndiceTextoTG.lerArquivo(entrega.getCaminhoArquivo())),
+                texto -> txtConteudo.setText(texto != null ? texto : "Arquivo não encontrado no servidor."),
+                erro -> txtConteudo.setText("Não foi possível ler o arquivo."));
+    }
+
+    private static String descreverEntrega(EntregaTG entrega) {
+        UsuarioResumo aluno = DiretorioCache.getUsuario(entrega.getEmailAluno());
+        String nome = aluno != null ? aluno.getNomeCompleto() : entrega.getEmailAluno();
+        return nome + " - Seção " + entrega.getSequencia() + ", versão " + entrega.getVersao();
+    }
+
+    /**
+     * Linha do resultado: aluno, seção e versão, e o trecho encontrado.
+     */
+    private static class ResultadoCell extends ListCell<ResultadoBuscaTG> {
+        private final Label titulo = new Label();
+        private final Label trecho = new Label();
+        private final VBox caixa = new VBox(4, titulo, trecho);
+
+        private ResultadoCell() {
+            titulo.setStyle("-fx-font-weight: bold; -fx-font-size: 14px;");
+            trecho.setStyle("-fx-text-fill: #555555;");
+            trecho.setWrapText(true);
+            trecho.setMaxWidth(520);
+        }
+
+        @Override
+        protected void updateItem(ResultadoBuscaTG resultado, boolean empty) {
+            super.updateItem(resultado, empty);
+            if (empty || resultado == null) {
+                setGraphic(null);
+                return;
+            }
+            titulo.setText(descreverEntrega(resultado.getEntrega()));
+            trecho.setText(resultado.getTrecho());
+            setGraphic(caixa);
+        }
+    }
+}
@@ -2,9 +2,10 @@ package com.example.tgcontrol.controllers.Professor;
 
 import com.example.tgcontrol.controllers.Geral.Profile_User_Details_C;
 import com.example.tgcontrol.model.SecaoAluno;
+import com.example.tgcontrol.model.SecoesTurma;
 import com.example.tgcontrol.model.TipoUsuario;
 import com.example.tgcontrol.model.Turma;
-import com.example.tgcontrol.utils.DatabaseUtils;
+import com.example.tgcontrol.utils.DatabaseAsync;
 import com.example.tgcontrol.utils.SessaoManager;
 import com.example.tgcontrol.utils.UIUtils;
 import javafx.collections.FXCollections;
@@ -23,12 +24,15 @@ import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
+import javafx.stage.Window;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -48,13 +52,17 @@ public class Cordinations_Professor_C {
     @FXML private Button btnVisualizarPerfil;
 
     private List<Map<String, String>> allStudentsData = new ArrayList<>();
+    // Nome exibido na lista -> dados do aluno (o primeiro com o nome, como a busca linear anterior)
+    private final Map<String, Map<String, String>> alunosPorNome = new HashMap<>();
+    // Seções de todos os alunos da lista, carregadas numa única consulta ao abrir a tela (null até chegar)
+    private SecoesTurma secoesDaLista;
+    // Cards já montados por aluno: voltar a um aluno não recarrega os FXMLs
+    private final Map<String, List<Parent>> cardsPorAluno = new HashMap<>();
     private static final String DEFAULT_PROFILE_IMAGE_PATH = "/com/example/tgcontrol/SceneImages/Task Images/fotoPerfil2Symbol.png";
 
 
     @FXML
     private void initialize() {
-        carregarListaDeAlunos();
-
         studentListView.getSelectionModel().selectedItemProperty().addListener(
                 (obs, oldSelection, newSelection) -> {
                     if (newSelection != null) {
@@ -75,13 +83,13 @@ public class Cordinations_Professor_C {
                 }
         );
 
-        if (!allStudentsData.isEmpty()) {
-            studentListView.getSelectionModel().selectFirst();
-        } else {
-            studentNameLabel.setText("[Nenhum Aluno]");
-            courseLabel.setText("");
-            loadDefaultProfileImage();
-        }
+        studentNameLabel.setText("[Nenhum Aluno]");
+        courseLabel.setText("");
+        btnAgendarDefesa.setVisible(false);
+        btnAgendarDefesa.setManaged(false);
+        loadDefaultProfileImage();
+
+        carregarListaDeAlunos();
     }
 
     private void carregarListaDeAlunos() {
@@ -93,14 +101,54 @@ public class Cordinations_Professor_C {
             return;
         }
 
+        studentListView.setPlaceholder(new Label("Carregando alunos..."));
+        secoesDaLista = null;
+        cardsPorAluno.clear();
+
+        CompletableFuture<List<Map<String, String>>> consulta;
+        CompletableFuture<SecoesTurma> consultaSecoes;
         if (turmaSelecionada != null) {
-            allStudentsData = DatabaseUtils.getStudentsByClass(
+            consulta = DatabaseAsync.getStudentsByClass(
+                    turmaSelecionada.getDisciplina(),
+                    turmaSelecionada.getAno(),
+                    turmaSelecionada.getSemestre()
+            );
+            consultaSecoes = DatabaseAsync.getSecoesTurma(
                     turmaSelecionada.getDisciplina(),
                     turmaSelecionada.getAno(),
                     turmaSelecionada.getSemestre()
             );
         } else {
-            allStudentsData = DatabaseUtils.getAdviseesDisplayInfo(emailProfessor);
+            consulta = DatabaseAsync.getAdviseesDisplayInfo(emailProfessor);
+            consultaSecoes = DatabaseAsync.getSecoesOrientandos(emailProfessor);
+        }
+
+        DatabaseAsync.carregar(consulta, this::exibirListaDeAlunos,
+                erro -> studentListView.setPlaceholder(new Label("Não foi possível carregar os alunos.")));
+        // Se falhar, cada aluno continua sendo carregado individualmente ao ser selecionado
+        DatabaseAsync.carregar(consultaSecoes, this::receberSecoesDaLista);
+    }
+
+    private void receberSecoesDaLista(SecoesTurma secoes) {
+        if (secoes == null) {
+            return;
+        }
+        secoesDaLista = secoes;
+        cardsPorAluno.clear();
+
+        // O primeiro aluno costuma ser selecionado antes da fotografia chegar
+        String emailSelecionado = getEmailSelecionado();
+        if (emailSelecionado != null && secoes.contemAluno(emailSelecionado)) {
+            exibirSecoesDoAluno(emailSelecionado, secoes.getSecoes(emailSelecionado));
+            exibirBotaoDefesa(emailSelecionado, secoes.isTgConcluido(emailSelecionado));
+        }
+    }
+
+    private void exibirListaDeAlunos(List<Map<String, String>> alunos) {
+        allStudentsData = alunos;
+        alunosPorNome.clear();
+        for (Map<String, String> aluno : alunos) {
+            alunosPorNome.putIfAbsent(aluno.get("nomeCompleto"), aluno);
         }
 
         studentListView.setItems(FXCollections.observableArrayList(
@@ -109,14 +157,13 @@ public class Cordinations_Professor_C {
 
         if (allStudentsData.isEmpty()) {
             studentListView.setPlaceholder(new Label("Nenhum aluno encontrado neste filtro."));
+        } else {
+            studentListView.getSelectionModel().selectFirst();
         }
     }
 
     private Map<String, String> findStudentData(String nomeAluno) {
-        return allStudentsData.stream()
-                .filter(data -> nomeAluno.equals(data.get("nomeCompleto")))
-                .findFirst()
-                .orElse(null);
+        return alunosPorNome.get(nomeAluno);
     }
 
     private void atualizarPainelDireito(Map<String, String> studentData) {
@@ -130,14 +177,16 @@ public class Cordinations_Professor_C {
 
         TipoUsuario tipoLogado = SessaoManager.getInstance().getTipoUsuario();
 
-        boolean isTgConcluido = DatabaseUtils.isTgConcluido(emailAluno);
+        btnAgendarDefesa.setVisible(false);
+        btnAgendarDefesa.setManaged(false);
 
-        if (tipoLogado == TipoUsuario.PROFESSOR_TG && isTgConcluido) {
-            btnAgendarDefesa.setVisible(true);
-            btnAgendarDefesa.setManaged(true);
-        } else {
-            btnAgendarDefesa.setVisible(false);
-            btnAgendarDefesa.setManaged(false);
+        if (tipoLogado == TipoUsuario.PROFESSOR_TG) {
+            if (secoesDaLista != null && secoesDaLista.contemAluno(emailAluno)) {
+                exibirBotaoDefesa(emailAluno, secoesDaLista.isTgConcluido(emailAluno));
+            } else {
+                DatabaseAsync.carregar(consultarTgsConcluidosDaLista(),
+                        concluidos -> exibirBotaoDefesa(emailAluno, Boolean.TRUE.equals(concluidos.get(emailAluno))));
+            }
         }
 
         if (profileImageView != null && imageUrl != null && !imageUrl.isBlank()) {
@@ -158,6 +207,28 @@ public class Cordinations_Professor_C {
         }
     }
 
+    // Conclusão do TG de todos os alunos da lista (turma selecionada ou orientandos), numa consulta com cache
+    private CompletableFuture<Map<String, Boolean>> consultarTgsConcluidosDaLista() {
+        Turma turmaSelecionada = SessaoManager.getInstance().getTurmaSelecionada();
+        if (turmaSelecionada != null) {
+            return DatabaseAsync.getTgsConcluidosTurma(
+                    turmaSelecionada.getDisciplina(),
+                    turmaSelecionada.getAno(),
+                    turmaSelecionada.getSemestre()
+            );
+        }
+        return DatabaseAsync.getTgsConcluidosOrientandos(SessaoManager.getInstance().getEmailUsuario());
+    }
+
+    private void exibirBotaoDefesa(String emailAluno, boolean isTgConcluido) {
+        // Ignora a resposta se o usuário já selecionou outro aluno
+        if (isTgConcluido && emailAluno.equals(getEmailSelecionado())
+                && SessaoManager.getInstance().getTipoUsuario() == TipoUsuario.PROFESSOR_TG) {
+            btnAgendarDefesa.setVisible(true);
+            btnAgendarDefesa.setManaged(true);
+        }
+    }
+
     private void loadDefaultProfileImage() {
         if (profileImageView != null) {
             try {
@@ -169,26 +240,60 @@ public class Cordinations_Professor_C {
         }
     }
 
+    private String getEmailSelecionado() {
+        String nomeSelecionado = studentListView.getSelectionModel().getSelectedItem();
+        Map<String, String> dados = nomeSelecionado != null ? findStudentData(nomeSelecionado) : null;
+        return dados != null ? dados.get("email") : null;
+    }
+
     private void carregarSecoesDoAluno(String emailAluno) {
+        if (secoesDaLista != null && secoesDaLista.contemAluno(emailAluno)) {
+            exibirSecoesDoAluno(emailAluno, secoesDaLista.getSecoes(emailAluno));
+            return;
+        }
+
         sectionsContainer.getChildren().clear();
+        sectionsContainer.getChildren().add(new Label("Carregando seções..."));
+
+        DatabaseAsync.carregar(DatabaseAsync.getSecoesAluno(emailAluno), listaSecoes -> {
+            if (emailAluno.equals(getEmailSelecionado())) {
+                exibirSecoesDoAluno(emailAluno, listaSecoes);
+            }
+        }, erro -> {
+            if (emailAluno.equals(getEmailSelecionado())) {
+                sectionsContainer.getChildren().setAll(new Label("Não foi possível carregar as seções."));
+            }
+        });
+    }
 
-        List<SecaoAluno> listaSecoes = DatabaseUtils.getSecoesAluno(emailAluno);
+    private void exibirSecoesDoAluno(String emailAluno, List<SecaoAluno> listaSecoes) {
+        sectionsContainer.getChildren().clear();
 
         if (listaSecoes == null || listaSecoes.isEmpty()) {
             sectionsContainer.getChildren().add(new Label("Nenhuma seção cadastrada para este aluno."));
             return;
         }
 
-        for (SecaoAluno secao : listaSecoes) {
-            try {
-                adicionarCard(secao);
-            } catch (IOException e) {
-                LOGGER.log(Level.SEVERE, "Erro ao carregar o FXML do card para a seção: " + secao.getTitulo(), e);
+        List<Parent> cards = cardsPorAluno.get(emailAluno);
+        if (cards == null) {
+            cards = new ArrayList<>();
+            for (SecaoAluno secao : listaSecoes) {
+                try {
+                    cards.add(criarCard(secao));
+                } catch (IOException e) {
+                    LOGGER.log(Level.SEVERE, "Erro ao carregar o FXML do card para a seção: " + secao.getTitulo(), e);
+                }
             }
+            cardsPorAluno.put(emailAluno, cards);
         }
+        sectionsContainer.getChildren().setAll(cards);
     }
 
     public void adicionarCard(SecaoAluno secao) throws IOException {
+        sectionsContainer.getChildren().add(criarCard(secao));
+    }
+
+    private Parent criarCard(SecaoAluno secao) throws IOException {
         String caminhoFxml = "/com/example/tgcontrol/Scenes/ProfessorScenes/card_secao_Professor.fxml";
         FXMLLoader loader = new FXMLLoader(getClass().getResource(caminhoFxml));
 
@@ -203,7 +308,7 @@ public class Cordinations_Professor_C {
         String nomeAlunoAtual = studentNameLabel.getText();
         controller.configurar(secao, nomeAlunoAtual);
 
-        sectionsContainer.getChildren().add(card);
+        return card;
     }
 
     @FXML
@@ -218,12 +323,24 @@ public class Cordinations_Professor_C {
 
         String emailAluno = selectedStudentData.get("email");
         String nomeAluno = selectedStudentData.get("nomeCompleto");
+        Window janela = ((Node) actionEvent.getSource()).getScene().getWindow();
+
+        // Confere de novo (uma avaliação pode ter mudado o estado), fora da thread do JavaFX
+        btnAgendarDefesa.setDisable(true);
+        DatabaseAsync.carregar(consultarTgsConcluidosDaLista(), concluidos -> {
+            btnAgendarDefesa.setDisable(false);
+            if (!Boolean.TRUE.equals(concluidos.get(emailAluno))) {
+                UIUtils.showAlert("Aviso", "O TG do aluno ainda não foi marcado como Concluído.");
+                return;
+            }
+            abrirAgendamento(emailAluno, nomeAluno, janela);
+        }, erro -> {
+            btnAgendarDefesa.setDisable(false);
+            UIUtils.showAlert("Erro", "Não foi possível verificar a conclusão do TG.");
+        });
+    }
 
-        if (!DatabaseUtils.isTgConcluido(emailAluno)) {
-            UIUtils.showAlert("Aviso", "O TG do aluno ainda não foi marcado como Concluído.");
-            return;
-        }
-
+    private void abrirAgendamento(String emailAluno, String nomeAluno, Window janela) {
         try {
             String fxmlPath = "/com/example/tgcontrol/Scenes/ProfessorTGScenes/agendar_Defesa_TG.fxml";
             FXMLLoader loader = new FXMLLoader(getClass().getResource(fxmlPath));
@@ -236,7 +353,7 @@ public class Cordinations_Professor_C {
             popupStage.setScene(new Scene(root));
             popupStage.setTitle("Agendar Defesa");
             popupStage.initModality(Modality.APPLICATION_MODAL);
-            popupStage.initOwner(((Node) actionEvent.getSource()).getScene().getWindow());
+            popupStage.initOwner(janela);
             popupStage.setResizable(false);
             popupStage.showAndWait();
 
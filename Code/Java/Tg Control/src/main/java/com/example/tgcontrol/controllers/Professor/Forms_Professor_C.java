@@ -2,8 +2,11 @@ package com.example.tgcontrol.controllers.Professor;
 
 import com.example.tgcontrol.model.TipoUsuario;
 import com.example.tgcontrol.model.Turma;
+import com.example.tgcontrol.utils.DadosReferenciaCache;
 import com.example.tgcontrol.utils.DatabaseUtils;
+import com.example.tgcontrol.utils.DiretorioCache;
 import com.example.tgcontrol.utils.FileStorageUtils;
+import com.example.tgcontrol.utils.IndiceTextoTG;
 import com.example.tgcontrol.utils.SessaoManager;
 import com.example.tgcontrol.utils.UIUtils;
 import javafx.collections.FXCollections;
@@ -80,7 +83,10 @@ public class Forms_Professor_C {
     }
 
     private void carregarTurmas() {
-        List<Turma> turmasFromDB = DatabaseUtils.getListaTurmas();
+        // A lista do cache é compartilhada; cada Turma é copiada porque esta tela marca as etapas nela
+        List<Turma> turmasFromDB = DadosReferenciaCache.getTurmas().stream()
+                .map(t -> new Turma(t.getDisciplina(), t.getAno(), t.getSemestre()))
+                .toList();
         turmasDisponiveis.setAll(turmasFromDB);
     }
 
@@ -138,6 +144,8 @@ public class Forms_Professor_C {
         if (sucesso) {
             TipoUsuario tipoUsuario = isCoordenador ? TipoUsuario.PROFESSOR_TG : TipoUsuario.PROFESSOR;
             SessaoManager.getInstance().iniciarSessao(emailProfessor, tipoUsuario);
+            DiretorioCache.iniciar();
+            IndiceTextoTG.iniciar();
             UIUtils.showAlert("Sucesso", "Cadastro de professor concluído!");
 
             Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
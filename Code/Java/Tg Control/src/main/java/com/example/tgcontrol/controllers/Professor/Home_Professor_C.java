@@ -3,7 +3,7 @@ package com.example.tgcontrol.controllers.Professor;
 import com.example.tgcontrol.model.DashboardData;
 import com.example.tgcontrol.utils.SessaoManager;
 import com.example.tgcontrol.model.TrabalhoPendente;
-import com.example.tgcontrol.utils.DatabaseUtils;
+import com.example.tgcontrol.utils.DatabaseAsync;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -23,6 +23,8 @@ import java.util.logging.Logger;
 
 public class Home_Professor_C implements Initializable {
 
+    private static final Logger LOGGER = Logger.getLogger(Home_Professor_C.class.getName());
+
     @FXML private Label lblTotalAlunos;
     @FXML private Label lblTgsConcluidos;
     @FXML private Label lblPendentes;
@@ -116,8 +118,28 @@ public class Home_Professor_C implements Initializable {
 
     private void carregarDadosDoDashboard() {
         String emailUsuario = SessaoManager.getInstance().getEmailUsuario();
-        DashboardData dados = DatabaseUtils.getProfessorDashboardData(emailUsuario);
 
+        lblTotalAlunos.setText("...");
+        lblTgsConcluidos.setText("...");
+        lblPendentes.setText("...");
+        tabelaTgs.setPlaceholder(new Label("Carregando..."));
+        tabelaTgs.setVisible(true);
+        placeholderContainer.setVisible(false);
+
+        DatabaseAsync.carregar(DatabaseAsync.getProfessorDashboardData(emailUsuario), this::exibirDadosDoDashboard,
+                this::exibirFalhaDoDashboard);
+    }
+
+    private void exibirFalhaDoDashboard(Throwable erro) {
+        LOGGER.log(Level.SEVERE, "Falha ao carregar o dashboard do professor.", erro);
+        lblTotalAlunos.setText("-");
+        lblTgsConcluidos.setText("-");
+        lblPendentes.setText("-");
+        tabelaTgs.getItems().clear();
+        tabelaTgs.setPlaceholder(new Label("Não foi possível carregar o dashboard."));
+    }
+
+    private void exibirDadosDoDashboard(DashboardData dados) {
         lblTotalAlunos.setText(String.valueOf(dados.getTotalAlunos()));
         lblTgsConcluidos.setText(String.valueOf(dados.getTgsConcluidos()));
         lblPendentes.setText(String.valueOf(dados.getPendentes()));
@@ -3,7 +3,7 @@ package com.example.tgcontrol.controllers.ProfessorTG;
 import com.example.tgcontrol.model.DashboardTgData;
 import com.example.tgcontrol.model.TrabalhoPendente;
 import com.example.tgcontrol.utils.SessaoManager;
-import com.example.tgcontrol.utils.DatabaseUtils;
+import com.example.tgcontrol.utils.DatabaseAsync;
 import javafx.collections.FXCollections;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
@@ -105,8 +105,24 @@ public class Home_ProfessorTG_C implements Initializable {
             return;
         }
 
-        DashboardTgData dados = DatabaseUtils.getProfessorTGDashboardData(emailProfessorTg);
-        atualizarUI(dados);
+        lblTotalAlunos.setText("...");
+        lblTgsConcluidos.setText("...");
+        lblTotalOrientandos.setText("...");
+        tabelaPendentes.setPlaceholder(new Label("Carregando..."));
+        tabelaPendentes.setVisible(true);
+        placeholderContainer.setVisible(false);
+
+        DatabaseAsync.carregar(DatabaseAsync.getProfessorTGDashboardData(emailProfessorTg), this::atualizarUI,
+                this::exibirFalhaDoDashboard);
+    }
+
+    private void exibirFalhaDoDashboard(Throwable erro) {
+        LOGGER.log(Level.SEVERE, "Falha ao carregar o dashboard do professor de TG.", erro);
+        lblTotalAlunos.setText("-");
+        lblTgsConcluidos.setText("-");
+        lblTotalOrientandos.setText("-");
+        tabelaPendentes.getItems().clear();
+        tabelaPendentes.setPlaceholder(new Label("Não foi possível carregar o dashboard."));
     }
 
     private void atualizarUI(DashboardTgData dados) {
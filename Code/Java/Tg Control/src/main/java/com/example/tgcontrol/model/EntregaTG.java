@@ -0,0 +1,37 @@
+package com.example.tgcontrol.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Uma versão entregue (linha de task_submission), como indexada pela busca de texto nos TGs.
+ */
+public class EntregaTG {
+    private final String emailAluno;
+    private final int sequencia;
+    private final int versao;
+    private final String caminhoArquivo;
+    private final LocalDateTime dataEntrega; // null quando vem do índice em disco, que não guarda a data
+
+    public EntregaTG(String emailAluno, int sequencia, int versao, String caminhoArquivo) {
+        this(emailAluno, sequencia, versao, caminhoArquivo, null);
+    }
+
+    public EntregaTG(String emailAluno, int sequencia, int versao, String caminhoArquivo, LocalDateTime dataEntrega) {
+        this.emailAluno = emailAluno;
+        this.sequencia = sequencia;
+        this.versao = versao;
+        this.caminhoArquivo = caminhoArquivo;
+        this.dataEntrega = dataEntrega;
+    }
+
+    public String getEmailAluno() { return emailAluno; }
+    public int getSequencia() { return sequencia; }
+    public int getVersao() { return versao; }
+    public String getCaminhoArquivo() { return caminhoArquivo; }
+    public LocalDateTime getDataEntrega() { return dataEntrega; }
+
+    /**
+     * Retorna: Identificador único da versão (aluno + seção + número da versão).
+     */
+    public String getChave() { return emailAluno + "#" + sequencia + "#" + versao; }
+}
@@ -4,55 +4,50 @@ import javafx.beans.property.*;
 import java.time.LocalDateTime;
 
 public class Notification {
-    private final IntegerProperty notificationId;
-    private final StringProperty userEmail;
-    private final ObjectProperty<LocalDateTime> timestamp;
-    private final StringProperty content;
-    private final StringProperty relatedTaskStudentEmail;
-    private final IntegerProperty relatedTaskSequenceOrder;
+    // Apenas isRead muda depois de carregada; os demais campos são simples para manter cada linha leve
+    private final int notificationId;
+    private final String userEmail;
+    private final LocalDateTime timestamp;
+    private final String content;
+    private final String relatedTaskStudentEmail;
+    private final int relatedTaskSequenceOrder;
     private final BooleanProperty isRead;
 
     // Construtor para carregar do banco de dados
     public Notification(int notificationId, String userEmail, LocalDateTime timestamp, String content,
                         String relatedTaskStudentEmail, int relatedTaskSequenceOrder, boolean isRead) {
-        this.notificationId = new SimpleIntegerProperty(notificationId);
-        this.userEmail = new SimpleStringProperty(userEmail);
-        this.timestamp = new SimpleObjectProperty<>(timestamp);
-        this.content = new SimpleStringProperty(content);
-        this.relatedTaskStudentEmail = new SimpleStringProperty(relatedTaskStudentEmail);
-        this.relatedTaskSequenceOrder = new SimpleIntegerProperty(relatedTaskSequenceOrder);
+        this.notificationId = notificationId;
+        this.userEmail = userEmail;
+        this.timestamp = timestamp;
+        this.content = content;
+        this.relatedTaskStudentEmail = relatedTaskStudentEmail;
+        this.relatedTaskSequenceOrder = relatedTaskSequenceOrder;
         this.isRead = new SimpleBooleanProperty(isRead);
     }
 
     // Construtor para criar nova notificação (sem ID e com isRead = false)
     public Notification(String userEmail, String content, String relatedTaskStudentEmail, int relatedTaskSequenceOrder) {
-        this.notificationId = new SimpleIntegerProperty(0); // Será gerado pelo banco
-        this.userEmail = new SimpleStringProperty(userEmail);
-        this.timestamp = new SimpleObjectProperty<>(LocalDateTime.now()); // Será atualizado pelo banco
-        this.content = new SimpleStringProperty(content);
-        this.relatedTaskStudentEmail = new SimpleStringProperty(relatedTaskStudentEmail);
-        this.relatedTaskSequenceOrder = new SimpleIntegerProperty(relatedTaskSequenceOrder);
-        this.isRead = new SimpleBooleanProperty(false);
+        this(0, userEmail, LocalDateTime.now(), content, relatedTaskStudentEmail, relatedTaskSequenceOrder, false); // ID e data serão gerados pelo banco
     }
 
     // Getters para os valores
-    public int getNotificationId() { return notificationId.get(); }
-    public String getUserEmail() { return userEmail.get(); }
-    public LocalDateTime getTimestamp() { return timestamp.get(); }
-    public String getContent() { return content.get(); }
-    public String getRelatedTaskStudentEmail() { return relatedTaskStudentEmail.get(); }
-    public int getRelatedTaskSequenceOrder() { return relatedTaskSequenceOrder.get(); }
+    public int getNotificationId() { return notificationId; }
+    public String getUserEmail() { return userEmail; }
+    public LocalDateTime getTimestamp() { return timestamp; }
+    public String getContent() { return content; }
+    public String getRelatedTaskStudentEmail() { return relatedTaskStudentEmail; }
+    public int getRelatedTaskSequenceOrder() { return relatedTaskSequenceOrder; }
     public boolean isIsRead() { return isRead.get(); }
 
     // Setters
     public void setIsRead(boolean isRead) { this.isRead.set(isRead); }
 
-    // Property Getters para TableView
-    public IntegerProperty notificationIdProperty() { return notificationId; }
-    public StringProperty userEmailProperty() { return userEmail; }
-    public ObjectProperty<LocalDateTime> timestampProperty() { return timestamp; }
-    public StringProperty contentProperty() { return content; }
-    public StringProperty relatedTaskStudentEmailProperty() { return relatedTaskStudentEmail; }
-    public IntegerProperty relatedTaskSequenceOrderProperty() { return relatedTaskSequenceOrder; }
+    // Property Getters para TableView (os de valor fixo são criados só quando pedidos)
+    public IntegerProperty notificationIdProperty() { return new SimpleIntegerProperty(notificationId); }
+    public StringProperty userEmailProperty() { return new SimpleStringProperty(userEmail); }
+    public ObjectProperty<LocalDateTime> timestampProperty() { return new SimpleObjectProperty<>(timestamp); }
+    public StringProperty contentProperty() { return new SimpleStringProperty(content); }
+    public StringProperty relatedTaskStudentEmailProperty() { return new SimpleStringProperty(relatedTaskStudentEmail); }
+    public IntegerProperty relatedTaskSequenceOrderProperty() { return new SimpleIntegerProperty(relatedTaskSequenceOrder); }
     public BooleanProperty isReadProperty() { return isRead; }
-}
\ No newline at end of file
+}
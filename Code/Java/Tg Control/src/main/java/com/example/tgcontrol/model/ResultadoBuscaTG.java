@@ -0,0 +1,20 @@
+package com.example.tgcontrol.model;
+
+/**
+ * Resultado da busca de texto nos TGs: a versão encontrada, sua relevância e um trecho com o termo buscado.
+ */
+public class ResultadoBuscaTG {
+    private final EntregaTG entrega;
+    private final double pontuacao;
+    private final String trecho;
+
+    public ResultadoBuscaTG(EntregaTG entrega, double pontuacao, String trecho) {
+        this.entrega = entrega;
+        this.pontuacao = pontuacao;
+        this.trecho = trecho;
+    }
+
+    public EntregaTG getEntrega() { return entrega; }
+    public double getPontuacao() { return pontuacao; }
+    public String getTrecho() { return trecho; }
+}
@@ -0,0 +1,25 @@
+package com.example.tgcontrol.model;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Fotografia das seções de todos os alunos de uma turma (ou dos orientandos de um professor), carregada de uma vez.
+ * Usada pela tela de coordenação para trocar de aluno sem consultar o banco.
+ */
+public class SecoesTurma {
+    private final Map<String, List<SecaoAluno>> secoesPorAluno;
+    private final Set<String> tgsConcluidos;
+
+    public SecoesTurma(Map<String, List<SecaoAluno>> secoesPorAluno, Set<String> tgsConcluidos) {
+        this.secoesPorAluno = secoesPorAluno;
+        this.tgsConcluidos = tgsConcluidos;
+    }
+
+    public boolean contemAluno(String emailAluno) { return secoesPorAluno.containsKey(emailAluno); }
+    public List<SecaoAluno> getSecoes(String emailAluno) { return secoesPorAluno.getOrDefault(emailAluno, Collections.emptyList()); }
+    public boolean isTgConcluido(String emailAluno) { return tgsConcluidos.contains(emailAluno); }
+    public int getQuantidadeAlunos() { return secoesPorAluno.size(); }
+}
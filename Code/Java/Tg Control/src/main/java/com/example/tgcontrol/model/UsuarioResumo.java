@@ -0,0 +1,33 @@
+package com.example.tgcontrol.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Linha da listagem de usuários (TelaMonstrarAlunosC). Também serve de cursor para a próxima página:
+ * a busca continua a partir de (nome, sobrenome, email) do último item recebido.
+ */
+public class UsuarioResumo {
+    private final String email;
+    private final String firstName;
+    private final String lastName;
+    private final LocalDateTime dataCadastro;
+    private final TipoUsuario tipo;
+    private final boolean ativo;
+
+    public UsuarioResumo(String email, String firstName, String lastName, LocalDateTime dataCadastro, TipoUsuario tipo, boolean ativo) {
+        this.email = email;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.dataCadastro = dataCadastro;
+        this.tipo = tipo;
+        this.ativo = ativo;
+    }
+
+    public String getEmail() { return email; }
+    public String getFirstName() { return firstName; }
+    public String getLastName() { return lastName; }
+    public String getNomeCompleto() { return firstName + " " + lastName; }
+    public LocalDateTime getDataCadastro() { return dataCadastro; }
+    public TipoUsuario getTipo() { return tipo; }
+    public boolean isAtivo() { return ativo; }
+}
@@ -0,0 +1,176 @@
+package com.example.tgcontrol.utils;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Utilitário: Cache em memória com tamanho máximo (descarta o menos usado) e tempo de vida por entrada.
+ * Valores null também são guardados (ex: usuário sem foto), para não consultar o banco de novo.
+ * Seguro para uso por várias threads (telas + DatabaseAsync).
+ */
+public final class CacheLRU<K, V> {
+
+    /**
+     * Carrega o valor do banco quando ele não está no cache.
+     */
+    @FunctionalInterface
+    public interface Carregador<K, V> {
+        V carregar(K chave) throws SQLException;
+    }
+
+    private static final class Entrada<V> {
+        private final V valor;
+        private final long expiraEmNanos;
+
+        private Entrada(V valor, long expiraEmNanos) {
+            this.valor = valor;
+            this.expiraEmNanos = expiraEmNanos;
+        }
+    }
+
+    private final String nome;
+    private final int tamanhoMaximo;
+    private final long tempoDeVidaNanos;
+    private final LinkedHashMap<K, Entrada<V>> entradas;
+
+    // Incrementada a cada invalidação: um valor carregado antes dela não é mais guardado
+    private long geracao = 0;
+
+    private final AtomicLong acertos = new AtomicLong();
+    private final AtomicLong faltas = new AtomicLong();
+    private final AtomicLong expirados = new AtomicLong();
+    private final AtomicLong descartados = new AtomicLong();
+
+    public CacheLRU(String nome, int tamanhoMaximo, long tempoDeVidaMs) {
+        this.nome = nome;
+        this.tamanhoMaximo = tamanhoMaximo;
+        this.tempoDeVidaNanos = tempoDeVidaMs * 1_000_000L;
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entrada<V>> maisAntiga) {
+                if (size() > CacheLRU.this.tamanhoMaximo) {
+                    descartados.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Função: Retorna o valor guardado ou, se ausente/expirado, carrega do banco e guarda.
+     * Necessita: A chave e como carregar o valor.
+     * Retorna: O valor (pode ser null). Em caso de SQLException nada é guardado e a exceção é repassada.
+     */
+    public V get(K chave, Carregador<K, V> carregador) throws SQLException {
+        long geracaoInicial;
+        synchronized (this) {
+            Entrada<V> entrada = entradas.get(chave);
+            if (entrada != null) {
+                if (System.nanoTime() - entrada.expiraEmNanos < 0) {
+                    acertos.incrementAndGet();
+                    return entrada.valor;
+                }
+                entradas.remove(chave);
+                expirados.incrementAndGet();
+            }
+            faltas.incrementAndGet();
+            geracaoInicial = geracao;
+        }
+
+        // Consulta fora do lock para não travar as outras chaves
+        V valor = carregador.carregar(chave);
+
+        synchronized (this) {
+            if (geracao == geracaoInicial) {
+                entradas.put(chave, new Entrada<>(valor, System.nanoTime() + tempoDeVidaNanos));
+            }
+        }
+        return valor;
+    }
+
+    /**
+     * Função: Geração atual do cache. Ler antes de uma consulta em lote e repassar para registrar(...).
+     */
+    public synchronized long getGeracao() {
+        return geracao;
+    }
+
+    /**
+     * Função: Guarda um valor já conhecido (ex: vindo de uma consulta em lote), sem consultar o banco.
+     * Necessita: A chave, o valor e a geração lida antes da consulta; se houve invalidação desde então, nada é guardado.
+     */
+    public synchronized void registrar(K chave, V valor, long geracaoDaConsulta) {
+        if (geracao == geracaoDaConsulta) {
+            entradas.put(chave, new Entrada<>(valor, System.nanoTime() + tempoDeVidaNanos));
+        }
+    }
+
+    /**
+     * Função: Remove uma chave (chamar após gravações que alteram o valor).
+     */
+    public synchronized void invalidar(K chave) {
+        geracao++;
+        entradas.remove(chave);
+    }
+
+    /**
+     * Função: Remove todas as entradas.
+     */
+    public synchronized void limpar() {
+        geracao++;
+        entradas.clear();
+    }
+
+    public Estatisticas getEstatisticas() {
+        int tamanho;
+        synchronized (this) {
+            tamanho = entradas.size();
+        }
+        return new Estatisticas(nome, tamanho, tamanhoMaximo, acertos.get(), faltas.get(), expirados.get(), descartados.get());
+    }
+
+    /**
+     * Foto instantânea dos contadores do cache.
+     */
+    public static final class Estatisticas {
+        private final String nome;
+        private final int tamanho;
+        private final int tamanhoMaximo;
+        private final long acertos;
+        private final long faltas;
+        private final long expirados;
+        private final long descartados;
+
+        private Estatisticas(String nome, int tamanho, int tamanhoMaximo, long acertos, long faltas, long expirados, long descartados) {
+            this.nome = nome;
+            this.tamanho = tamanho;
+            this.tamanhoMaximo = tamanhoMaximo;
+            this.acertos = acertos;
+            this.faltas = faltas;
+            this.expirados = expirados;
+            this.descartados = descartados;
+        }
+
+        public String getNome() { return nome; }
+        public int getTamanho() { return tamanho; }
+        public int getTamanhoMaximo() { return tamanhoMaximo; }
+        public long getAcertos() { return acertos; }
+        public long getFaltas() { return faltas; }
+        public long getExpirados() { return expirados; }
+        public long getDescartados() { return descartados; }
+
+        public double getTaxaDeAcerto() {
+            long total = acertos + faltas;
+            return total == 0 ? 0.0 : (double) acertos / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Cache %s: %d/%d entradas, acertos=%d, faltas=%d (%.1f%% acerto), expirados=%d, descartados=%d",
+                    nome, tamanho, tamanhoMaximo, acertos, faltas, getTaxaDeAcerto() * 100, expirados, descartados);
+        }
+    }
+}
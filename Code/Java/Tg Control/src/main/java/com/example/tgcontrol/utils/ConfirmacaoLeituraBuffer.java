@@ -0,0 +1,120 @@
+package com.example.tgcontrol.utils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Utilitário: Agrupa as confirmações de leitura de notificações antes de gravá-las (write-behind).
+ * A tela marca a notificação como lida na hora; o id só entra aqui e, alguns milissegundos depois,
+ * todos os ids acumulados são gravados com um único UPDATE ... WHERE notification_id IN (...).
+ * Navegar pela lista com as setas gera um UPDATE por intervalo, não um por tecla.
+ * Ao fechar a aplicação, encerrar() grava o que estiver pendente antes do pool de conexões fechar.
+ */
+public final class ConfirmacaoLeituraBuffer {
+
+    private static final Logger LOGGER = Logger.getLogger(ConfirmacaoLeituraBuffer.class.getName());
+
+    private static final long ATRASO_GRAVACAO_MS = 300;
+    private static final long ATRASO_APOS_FALHA_MS = 5_000;
+    private static final int TENTATIVAS_AO_ENCERRAR = 3;
+
+    private static final Set<Integer> pendentes = new LinkedHashSet<>();
+    private static boolean gravacaoAgendada = false;
+    private static boolean encerrado = false;
+
+    private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "tgcontrol-leituras");
+        t.setDaemon(true);
+        return t;
+    });
+
+    static {
+        // Rede de segurança para saídas que não passam pelo Launcher.stop (ex: System.exit)
+        Runtime.getRuntime().addShutdownHook(new Thread(ConfirmacaoLeituraBuffer::encerrar, "tgcontrol-leituras-encerramento"));
+    }
+
+    private ConfirmacaoLeituraBuffer() {
+    }
+
+    /**
+     * Função: Registra que uma notificação foi lida. A gravação no banco acontece em lote, logo em seguida.
+     * Necessita: O id da notificação.
+     */
+    public static synchronized void registrar(int notificationId) {
+        if (encerrado) {
+            DatabaseUtils.marcarComoLida(notificationId);
+            return;
+        }
+        pendentes.add(notificationId);
+        agendarGravacao(ATRASO_GRAVACAO_MS);
+    }
+
+    /**
+     * Função: Grava imediatamente as confirmações pendentes e para o agendamento.
+     * Chamado ao fechar a aplicação (antes de DatabaseConnect.encerrarPool).
+     */
+    public static void encerrar() {
+        synchronized (ConfirmacaoLeituraBuffer.class) {
+            if (encerrado) {
+                return;
+            }
+            encerrado = true;
+        }
+        EXECUTOR.shutdownNow();
+        for (int tentativa = 1; tentativa <= TENTATIVAS_AO_ENCERRAR; tentativa++) {
+            if (gravarPendentes()) {
+                return;
+            }
+        }
+        synchronized (ConfirmacaoLeituraBuffer.class) {
+            LOGGER.log(Level.SEVERE, "Confirmações de leitura não gravadas ao encerrar: " + pendentes);
+        }
+    }
+
+    private static synchronized void agendarGravacao(long atrasoMs) {
+        if (gravacaoAgendada || encerrado) {
+            return;
+        }
+        gravacaoAgendada = true;
+        EXECUTOR.schedule(ConfirmacaoLeituraBuffer::gravarAgendada, atrasoMs, TimeUnit.MILLISECONDS);
+    }
+
+    private static void gravarAgendada() {
+        synchronized (ConfirmacaoLeituraBuffer.class) {
+            gravacaoAgendada = false;
+        }
+        if (!gravarPendentes()) {
+            agendarGravacao(ATRASO_APOS_FALHA_MS);
+        }
+    }
+
+    /**
+     * Retorna: true se não sobrou nada pendente. Em caso de falha os ids voltam para a fila.
+     */
+    private static boolean gravarPendentes() {
+        List<Integer> lote;
+        synchronized (ConfirmacaoLeituraBuffer.class) {
+            if (pendentes.isEmpty()) {
+                return true;
+            }
+            lote = new ArrayList<>(pendentes);
+            pendentes.clear();
+        }
+
+        if (DatabaseUtils.marcarComoLidas(lote)) {
+            return true;
+        }
+
+        synchronized (ConfirmacaoLeituraBuffer.class) {
+            pendentes.addAll(lote);
+        }
+        return false;
+    }
+}
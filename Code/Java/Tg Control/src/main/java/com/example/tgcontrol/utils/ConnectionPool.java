@@ -0,0 +1,441 @@
+package com.example.tgcontrol.utils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Utilitário: Pool de conexões JDBC limitado, usado pelo DatabaseConnect.
+ * As conexões entregues são proxies: chamar close() devolve a conexão física ao pool em vez de fechá-la.
+ * Os statements criados por elas também são proxies; os que ficarem abertos são fechados na devolução
+ * (como o close() de uma conexão sem pool faria), junto com os seus ResultSets.
+ * Uma thread de manutenção remove conexões ociosas e avisa sobre conexões que não foram devolvidas (vazamentos).
+ * O aviso mostra onde a conexão foi emprestada só com -Dtgcontrol.db.pool.rastrearVazamentos=true
+ * (capturar a pilha a cada empréstimo custa caro).
+ */
+public final class ConnectionPool {
+
+    private static final Logger LOGGER = Logger.getLogger(ConnectionPool.class.getName());
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int tamanhoMaximo;
+    private final int minimoOcioso;
+    private final long timeoutAquisicaoMs;
+    private final long tempoMaximoOciosoMs;
+    private final long limiteVazamentoMs;
+    private final int timeoutValidacaoSegundos;
+    private final boolean rastrearVazamentos = Boolean.getBoolean("tgcontrol.db.pool.rastrearVazamentos");
+
+    private final LinkedBlockingDeque<ConexaoFisica> ociosas = new LinkedBlockingDeque<>();
+    private final Set<ConexaoEmprestada> emprestadas = ConcurrentHashMap.newKeySet();
+    private final Semaphore permissoes;
+    private final ScheduledExecutorService manutencao;
+    private volatile boolean encerrado = false;
+
+    private final AtomicInteger totalCriadas = new AtomicInteger();
+    private final AtomicInteger totalFisicas = new AtomicInteger();
+    private final AtomicLong totalAquisicoes = new AtomicLong();
+    private final AtomicLong totalTimeouts = new AtomicLong();
+    private final AtomicLong totalDescartadas = new AtomicLong();
+    private final AtomicLong totalVazamentos = new AtomicLong();
+    private final AtomicLong tempoEsperaTotalNanos = new AtomicLong();
+    private final AtomicLong tempoEsperaMaximoNanos = new AtomicLong();
+
+    public ConnectionPool(String url, String user, String password, int tamanhoMaximo, int minimoOcioso,
+                          long timeoutAquisicaoMs, long tempoMaximoOciosoMs, long limiteVazamentoMs) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.tamanhoMaximo = tamanhoMaximo;
+        this.minimoOcioso = Math.min(minimoOcioso, tamanhoMaximo);
+        this.timeoutAquisicaoMs = timeoutAquisicaoMs;
+        this.tempoMaximoOciosoMs = tempoMaximoOciosoMs;
+        this.limiteVazamentoMs = limiteVazamentoMs;
+        this.timeoutValidacaoSegundos = 2;
+        this.permissoes = new Semaphore(tamanhoMaximo, true);
+
+        this.manutencao = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "tgcontrol-pool-manutencao");
+            t.setDaemon(true);
+            return t;
+        });
+        long intervalo = Math.max(1000, Math.min(tempoMaximoOciosoMs, limiteVazamentoMs) / 2);
+        manutencao.scheduleWithFixedDelay(this::executarManutencao, intervalo, intervalo, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Função: Empresta uma conexão do pool, criando uma nova se não houver ociosa e o limite permitir.
+     * Retorna: Um proxy de Connection; close() devolve a conexão ao pool.
+     * Lança: SQLException se o pool estiver encerrado, se o tempo de espera esgotar ou se a conexão falhar.
+     */
+    public Connection getConnection() throws SQLException {
+        if (encerrado) {
+            throw new SQLException("Pool de conexões encerrado.");
+        }
+
+        long inicio = System.nanoTime();
+        try {
+            if (!permissoes.tryAcquire(timeoutAquisicaoMs, TimeUnit.MILLISECONDS)) {
+                totalTimeouts.incrementAndGet();
+                throw new SQLException("Tempo esgotado (" + timeoutAquisicaoMs + " ms) aguardando conexão livre no pool. " + getEstatisticas());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrompido enquanto aguardava conexão do pool.", e);
+        }
+        registrarEspera(System.nanoTime() - inicio);
+
+        try {
+            ConexaoFisica fisica = obterConexaoValida();
+            totalAquisicoes.incrementAndGet();
+            ConexaoEmprestada emprestada = new ConexaoEmprestada(fisica);
+            emprestadas.add(emprestada);
+            return emprestada.proxy;
+        } catch (SQLException | RuntimeException e) {
+            permissoes.release();
+            throw e;
+        }
+    }
+
+    private ConexaoFisica obterConexaoValida() throws SQLException {
+        ConexaoFisica fisica;
+        while ((fisica = ociosas.pollFirst()) != null) {
+            if (fisica.estaValida(timeoutValidacaoSegundos)) {
+                return fisica;
+            }
+            descartar(fisica);
+        }
+        return criarConexao();
+    }
+
+    private ConexaoFisica criarConexao() throws SQLException {
+        Connection conn = DriverManager.getConnection(url, user, password);
+        totalCriadas.incrementAndGet();
+        totalFisicas.incrementAndGet();
+        return new ConexaoFisica(conn);
+    }
+
+    private void devolver(ConexaoEmprestada emprestada) {
+        if (!emprestadas.remove(emprestada)) {
+            return;
+        }
+        ConexaoFisica fisica = emprestada.fisica;
+        emprestada.fecharStatements();
+        try {
+            if (encerrado || fisica.conexao.isClosed()) {
+                descartar(fisica);
+                return;
+            }
+            // Não deixa uma transação aberta vazar para o próximo usuário da conexão.
+            if (!fisica.conexao.getAutoCommit()) {
+                fisica.conexao.rollback();
+                fisica.conexao.setAutoCommit(true);
+            }
+            fisica.ultimoUso = System.currentTimeMillis();
+            ociosas.offerFirst(fisica);
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Conexão descartada ao ser devolvida ao pool: " + e.getMessage(), e);
+            descartar(fisica);
+        } finally {
+            permissoes.release();
+        }
+    }
+
+    private void descartar(ConexaoFisica fisica) {
+        totalDescartadas.incrementAndGet();
+        totalFisicas.decrementAndGet();
+        try {
+            fisica.conexao.close();
+        } catch (SQLException e) {
+            LOGGER.log(Level.FINE, "Falha ao fechar conexão descartada.", e);
+        }
+    }
+
+    private void registrarEspera(long nanos) {
+        tempoEsperaTotalNanos.addAndGet(nanos);
+        tempoEsperaMaximoNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Função auxiliar: Remove conexões ociosas há muito tempo (mantendo o mínimo) e registra possíveis vazamentos.
+     */
+    private void executarManutencao() {
+        try {
+            long agora = System.currentTimeMillis();
+
+            List<ConexaoFisica> expiradas = new ArrayList<>();
+            Iterator<ConexaoFisica> it = ociosas.descendingIterator();
+            while (it.hasNext() && ociosas.size() - expiradas.size() > minimoOcioso) {
+                ConexaoFisica fisica = it.next();
+                if (agora - fisica.ultimoUso > tempoMaximoOciosoMs) {
+                    expiradas.add(fisica);
+                }
+            }
+            for (ConexaoFisica fisica : expiradas) {
+                if (ociosas.remove(fisica)) {
+                    descartar(fisica);
+                }
+            }
+
+            for (ConexaoEmprestada emprestada : emprestadas) {
+                if (!emprestada.vazamentoReportado && agora - emprestada.emprestadaEm > limiteVazamentoMs) {
+                    emprestada.vazamentoReportado = true;
+                    totalVazamentos.incrementAndGet();
+                    LOGGER.log(Level.WARNING, "Possível vazamento de conexão: emprestada há " + (agora - emprestada.emprestadaEm)
+                            + " ms pela thread '" + emprestada.thread + "' e ainda não devolvida."
+                            + (emprestada.origem == null ? " (use -Dtgcontrol.db.pool.rastrearVazamentos=true para ver onde)" : ""),
+                            emprestada.origem);
+                }
+            }
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "Erro na manutenção do pool de conexões.", e);
+        }
+    }
+
+    /**
+     * Função: Encerra o pool, fechando as conexões ociosas. Conexões ainda emprestadas são fechadas ao serem devolvidas.
+     */
+    public void encerrar() {
+        encerrado = true;
+        manutencao.shutdownNow();
+        ConexaoFisica fisica;
+        while ((fisica = ociosas.pollFirst()) != null) {
+            descartar(fisica);
+        }
+    }
+
+    /**
+     * Função: Tira uma fotografia dos contadores do pool para dimensionamento.
+     * Retorna: Um objeto Estatisticas imutável.
+     */
+    public Estatisticas getEstatisticas() {
+        long aquisicoes = totalAquisicoes.get();
+        return new Estatisticas(
+                tamanhoMaximo,
+                totalFisicas.get(),
+                emprestadas.size(),
+                ociosas.size(),
+                permissoes.getQueueLength(),
+                totalCriadas.get(),
+                aquisicoes,
+                totalTimeouts.get(),
+                totalDescartadas.get(),
+                totalVazamentos.get(),
+                aquisicoes == 0 ? 0 : tempoEsperaTotalNanos.get() / aquisicoes / 1_000_000.0,
+                tempoEsperaMaximoNanos.get() / 1_000_000.0
+        );
+    }
+
+    /**
+     * Conexão física aberta com o banco, mantida pelo pool.
+     */
+    private static final class ConexaoFisica {
+        private final Connection conexao;
+        private volatile long ultimoUso = System.currentTimeMillis();
+
+        private ConexaoFisica(Connection conexao) {
+            this.conexao = conexao;
+        }
+
+        private boolean estaValida(int timeoutSegundos) {
+            try {
+                return !conexao.isClosed() && conexao.isValid(timeoutSegundos);
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Empréstimo de uma conexão física a um chamador. Guarda os statements abertos por ele e, se configurado,
+     * onde foi emprestada para o aviso de vazamento.
+     */
+    private final class ConexaoEmprestada implements InvocationHandler {
+        private final ConexaoFisica fisica;
+        private final Connection proxy;
+        private final long emprestadaEm = System.currentTimeMillis();
+        private final String thread = Thread.currentThread().getName();
+        private final Throwable origem = rastrearVazamentos ? new Throwable("Conexão emprestada aqui") : null;
+        private final Set<Statement> statements = ConcurrentHashMap.newKeySet();
+        private volatile boolean fechada = false;
+        private volatile boolean vazamentoReportado = false;
+
+        private ConexaoEmprestada(ConexaoFisica fisica) {
+            this.fisica = fisica;
+            this.proxy = (Connection) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(), new Class<?>[]{Connection.class}, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!fechada) {
+                        fechada = true;
+                        devolver(this);
+                    }
+                    return null;
+                case "isClosed":
+                    return fechada || fisica.conexao.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "ConexaoPool[" + fisica.conexao + "]";
+                case "createStatement":
+                case "prepareStatement":
+                case "prepareCall":
+                    if (fechada) {
+                        throw new SQLException("Conexão já foi devolvida ao pool.");
+                    }
+                    Statement statement;
+                    try {
+                        statement = (Statement) method.invoke(fisica.conexao, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    statements.add(statement);
+                    Class<?> tipo = statement instanceof CallableStatement ? CallableStatement.class
+                            : statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+                    return Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(), new Class<?>[]{tipo},
+                            new StatementEmprestado(this, statement));
+                default:
+                    if (fechada) {
+                        throw new SQLException("Conexão já foi devolvida ao pool.");
+                    }
+                    try {
+                        return method.invoke(fisica.conexao, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+
+        // Fecha o que o chamador esqueceu aberto, para não acumular statements no servidor na conexão física
+        private void fecharStatements() {
+            for (Statement statement : statements) {
+                try {
+                    statement.close();
+                } catch (SQLException e) {
+                    LOGGER.log(Level.FINE, "Falha ao fechar statement esquecido aberto.", e);
+                }
+            }
+            statements.clear();
+        }
+    }
+
+    /**
+     * Statement criado por uma conexão emprestada. getConnection() devolve o proxy da conexão (e não a física,
+     * que o chamador poderia fechar por fora do pool); close() tira o statement da lista da conexão.
+     */
+    private static final class StatementEmprestado implements InvocationHandler {
+        private final ConexaoEmprestada conexao;
+        private final Statement statement;
+
+        private StatementEmprestado(ConexaoEmprestada conexao, Statement statement) {
+            this.conexao = conexao;
+            this.statement = statement;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "getConnection":
+                    return conexao.proxy;
+                case "close":
+                    conexao.statements.remove(statement);
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            try {
+                return method.invoke(statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Fotografia dos contadores do pool.
+     */
+    public static final class Estatisticas {
+        private final int tamanhoMaximo;
+        private final int conexoesAbertas;
+        private final int emUso;
+        private final int ociosas;
+        private final int threadsAguardando;
+        private final int totalCriadas;
+        private final long totalAquisicoes;
+        private final long totalTimeouts;
+        private final long totalDescartadas;
+        private final long totalVazamentos;
+        private final double esperaMediaMs;
+        private final double esperaMaximaMs;
+
+        private Estatisticas(int tamanhoMaximo, int conexoesAbertas, int emUso, int ociosas, int threadsAguardando,
+                             int totalCriadas, long totalAquisicoes, long totalTimeouts, long totalDescartadas,
+                             long totalVazamentos, double esperaMediaMs, double esperaMaximaMs) {
+            this.tamanhoMaximo = tamanhoMaximo;
+            this.conexoesAbertas = conexoesAbertas;
+            this.emUso = emUso;
+            this.ociosas = ociosas;
+            this.threadsAguardando = threadsAguardando;
+            this.totalCriadas = totalCriadas;
+            this.totalAquisicoes = totalAquisicoes;
+            this.totalTimeouts = totalTimeouts;
+            this.totalDescartadas = totalDescartadas;
+            this.totalVazamentos = totalVazamentos;
+            this.esperaMediaMs = esperaMediaMs;
+            this.esperaMaximaMs = esperaMaximaMs;
+        }
+
+        public int getTamanhoMaximo() { return tamanhoMaximo; }
+        public int getConexoesAbertas() { return conexoesAbertas; }
+        public int getEmUso() { return emUso; }
+        public int getOciosas() { return ociosas; }
+        public int getThreadsAguardando() { return threadsAguardando; }
+        public int getTotalCriadas() { return totalCriadas; }
+        public long getTotalAquisicoes() { return totalAquisicoes; }
+        public long getTotalTimeouts() { return totalTimeouts; }
+        public long getTotalDescartadas() { return totalDescartadas; }
+        public long getTotalVazamentos() { return totalVazamentos; }
+        public double getEsperaMediaMs() { return esperaMediaMs; }
+        public double getEsperaMaximaMs() { return esperaMaximaMs; }
+
+        @Override
+        public String toString() {
+            return String.format("Pool[max=%d, abertas=%d, emUso=%d, ociosas=%d, aguardando=%d, criadas=%d, aquisicoes=%d, timeouts=%d, descartadas=%d, vazamentos=%d, esperaMedia=%.2fms, esperaMax=%.2fms]",
+                    tamanhoMaximo, conexoesAbertas, emUso, ociosas, threadsAguardando, totalCriadas, totalAquisicoes,
+                    totalTimeouts, totalDescartadas, totalVazamentos, esperaMediaMs, esperaMaximaMs);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.tgcontrol.utils;
+
+import com.example.tgcontrol.model.Turma;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Utilitário: Lista de turmas compartilhada por toda a aplicação.
+ * É carregada uma vez e recarregada em segundo plano só quando a versão 'turmas' em dados_referencia_versao mudar
+ * (ver Code/SQL/20261018_Versao_Dados_Referencia.sql).
+ * A lista retornada é imutável e compartilhada: quem precisar alterar uma Turma (ex: marcar etapas) deve copiá-la.
+ */
+public final class DadosReferenciaCache {
+
+    private static final Logger LOGGER = Logger.getLogger(DadosReferenciaCache.class.getName());
+
+    private static final long INTERVALO_VERIFICACAO_S = 30;
+    private static final String VERSAO_TURMAS = "turmas";
+
+    private static volatile List<Turma> turmas;
+    // -1 = precisa recarregar na próxima verificação
+    private static volatile long versaoTurmas = -1;
+
+    private static ScheduledExecutorService verificador;
+
+    private DadosReferenciaCache() {
+    }
+
+    /**
+     * Função: Inicia a verificação periódica em segundo plano (a primeira já carrega a lista).
+     */
+    public static synchronized void iniciar() {
+        if (verificador != null) {
+            return;
+        }
+        verificador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "tgcontrol-dados-referencia");
+            t.setDaemon(true);
+            return t;
+        });
+        verificador.scheduleWithFixedDelay(DadosReferenciaCache::verificarVersoes, 0, INTERVALO_VERIFICACAO_S, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Função: Para a verificação em segundo plano. Chamado ao fechar a aplicação.
+     */
+    public static synchronized void encerrar() {
+        if (verificador != null) {
+            verificador.shutdownNow();
+            verificador = null;
+        }
+    }
+
+    /**
+     * Retorna: A lista imutável de turmas (carrega na hora se ainda não houver).
+     */
+    public static List<Turma> getTurmas() {
+        List<Turma> atual = turmas;
+        if (atual == null) {
+            recarregarTurmas(versaoTurmas);
+            atual = turmas;
+        }
+        return atual;
+    }
+
+    private static void verificarVersoes() {
+        try {
+            Map<String, Long> versoes = DatabaseUtils.getVersoesDadosReferencia();
+            if (versoes == null) {
+                return; // Falha já registrada; mantém a lista atual
+            }
+
+            long turmasBanco = versoes.getOrDefault(VERSAO_TURMAS, 0L);
+            if (turmas == null || versaoTurmas != turmasBanco) {
+                recarregarTurmas(turmasBanco);
+            }
+        } catch (RuntimeException e) {
+            // Não deixa uma falha cancelar as próximas execuções agendadas
+            LOGGER.log(Level.SEVERE, "Falha ao verificar dados de referência.", e);
+        }
+    }
+
+    private static synchronized void recarregarTurmas(long versao) {
+        List<Turma> novas = List.copyOf(DatabaseUtils.getListaTurmas());
+        turmas = novas;
+        // Lista vazia pode ser falha de conexão: tenta de novo na próxima verificação
+        versaoTurmas = novas.isEmpty() ? -1 : versao;
+    }
+}
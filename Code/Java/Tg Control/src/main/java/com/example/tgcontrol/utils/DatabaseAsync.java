@@ -0,0 +1,228 @@
+package com.example.tgcontrol.utils;
+
+import com.example.tgcontrol.model.*;
+import javafx.application.Platform;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Utilitário: Versões assíncronas (CompletableFuture) das consultas do DatabaseUtils.
+ * As consultas rodam num executor próprio e limitado, nunca na JavaFX Application Thread.
+ * Use carregar(...) para receber o resultado já de volta na thread do JavaFX.
+ */
+public final class DatabaseAsync {
+
+    private static final Logger LOGGER = Logger.getLogger(DatabaseAsync.class.getName());
+
+    // Menor que o pool de conexões, para sobrar conexão para chamadas síncronas (ex: gravações)
+    private static final int THREADS = 4;
+    private static final int TAMANHO_FILA = 200;
+
+    private static final ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(
+            THREADS, THREADS, 30, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(TAMANHO_FILA),
+            new ThreadFactory() {
+                private final AtomicInteger contador = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "tgcontrol-db-" + contador.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+
+    static {
+        EXECUTOR.allowCoreThreadTimeOut(true);
+    }
+
+    private DatabaseAsync() {
+    }
+
+    /**
+     * Função: Executa uma consulta no executor do banco.
+     * Retorna: Um CompletableFuture com o resultado; falha com RejectedExecutionException se a fila estiver cheia.
+     */
+    public static <T> CompletableFuture<T> executar(Supplier<T> consulta) {
+        try {
+            return CompletableFuture.supplyAsync(consulta, EXECUTOR);
+        } catch (RejectedExecutionException e) {
+            LOGGER.log(Level.WARNING, "Fila de consultas ao banco cheia; consulta recusada.", e);
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Função: Executa uma consulta fora da thread do JavaFX e entrega o resultado na thread do JavaFX.
+     * Necessita: A consulta e o que fazer com o resultado na tela.
+     */
+    public static <T> void carregar(Supplier<T> consulta, Consumer<T> naTela) {
+        carregar(executar(consulta), naTela, null);
+    }
+
+    /**
+     * Função: Entrega na thread do JavaFX o resultado de uma consulta já iniciada (ex: DatabaseAsync.getSecoesAluno).
+     */
+    public static <T> void carregar(CompletableFuture<T> consulta, Consumer<T> naTela) {
+        carregar(consulta, naTela, null);
+    }
+
+    /**
+     * Função: Igual a carregar(consulta, naTela), com um tratamento de erro também executado na thread do JavaFX.
+     */
+    public static <T> void carregar(CompletableFuture<T> consulta, Consumer<T> naTela, Consumer<Throwable> emErro) {
+        consulta.whenComplete((resultado, erro) -> Platform.runLater(() -> {
+            if (erro != null) {
+                LOGGER.log(Level.SEVERE, "Falha em consulta assíncrona ao banco.", erro);
+                if (emErro != null) {
+                    emErro.accept(erro);
+                }
+            } else {
+                naTela.accept(resultado);
+            }
+        }));
+    }
+
+    /**
+     * Função: Encerra o executor. Chamado ao fechar a aplicação.
+     */
+    public static void encerrar() {
+        EXECUTOR.shutdownNow();
+    }
+
+    // --- Versões assíncronas das consultas do DatabaseUtils ---
+
+    public static CompletableFuture<List<SecaoAluno>> getSecoesAluno(String emailAluno) {
+        return executar(() -> DatabaseUtils.getSecoesAluno(emailAluno));
+    }
+
+    public static CompletableFuture<DashboardData> getProfessorDashboardData(String emailProfessor) {
+        return executar(() -> DatabaseUtils.getProfessorDashboardData(emailProfessor));
+    }
+
+    public static CompletableFuture<DashboardTgData> getProfessorTGDashboardData(String emailProfessorTg) {
+        return executar(() -> DatabaseUtils.getProfessorTGDashboardData(emailProfessorTg));
+    }
+
+    public static CompletableFuture<String> getProfilePictureUrl(String email) {
+        return executar(() -> DatabaseUtils.getProfilePictureUrl(email));
+    }
+
+    public static CompletableFuture<String> getNomeUsuario(String email) {
+        return executar(() -> DatabaseUtils.getNomeUsuario(email));
+    }
+
+    public static CompletableFuture<Map<String, Integer>> getEstagioEConfigAluno(String emailAluno) {
+        return executar(() -> DatabaseUtils.getEstagioEConfigAluno(emailAluno));
+    }
+
+    public static CompletableFuture<SecaoAluno> getUltimaSecaoAtiva(String emailAluno) {
+        return executar(() -> DatabaseUtils.getUltimaSecaoAtiva(emailAluno));
+    }
+
+    public static CompletableFuture<List<VersaoTG>> listarVersoesPorTask(String emailAluno, int sequence_order) {
+        return executar(() -> DatabaseUtils.listarVersoesPorTask(emailAluno, sequence_order));
+    }
+
+    public static CompletableFuture<List<String>> getListaProfessores() {
+        return executar(DatabaseUtils::getListaProfessores);
+    }
+
+    public static CompletableFuture<List<UsuarioResumo>> getProfessoresResumo() {
+        return executar(DatabaseUtils::getProfessoresResumo);
+    }
+
+    public static CompletableFuture<List<Turma>> getListaTurmas() {
+        return executar(DatabaseUtils::getListaTurmas);
+    }
+
+    public static CompletableFuture<List<Turma>> getListaTurmasCoordenadas(String emailProfessorTg) {
+        return executar(() -> DatabaseUtils.getListaTurmasCoordenadas(emailProfessorTg));
+    }
+
+    public static CompletableFuture<List<Map<String, String>>> getAdviseesDisplayInfo(String emailProfessor) {
+        return executar(() -> DatabaseUtils.getAdviseesDisplayInfo(emailProfessor));
+    }
+
+    public static CompletableFuture<List<Map<String, String>>> getStudentsByClass(String disciplina, int year, int semester) {
+        return executar(() -> DatabaseUtils.getStudentsByClass(disciplina, year, semester));
+    }
+
+    public static CompletableFuture<List<Notification>> listarNotificacoes(String userEmail) {
+        return executar(() -> DatabaseUtils.listarNotificacoes(userEmail));
+    }
+
+    public static CompletableFuture<List<Notification>> listarNotificacoesPagina(String userEmail, Notification ultimaDaPaginaAnterior, int limite) {
+        return executar(() -> DatabaseUtils.listarNotificacoesPagina(userEmail, ultimaDaPaginaAnterior, limite));
+    }
+
+    public static CompletableFuture<Boolean> marcarTodasComoLidas(String userEmail) {
+        return executar(() -> DatabaseUtils.marcarTodasComoLidas(userEmail));
+    }
+
+    public static CompletableFuture<Integer> contarNotificacoesNaoLidas(String userEmail) {
+        return executar(() -> DatabaseUtils.contarNotificacoesNaoLidas(userEmail));
+    }
+
+    public static CompletableFuture<Integer> enviarNotificacaoParaTurma(String disciplina, int year, int semester, String content) {
+        return executar(() -> NotificacaoEmMassaUtils.enviarParaTurma(disciplina, year, semester, content));
+    }
+
+    public static CompletableFuture<Integer> enviarNotificacaoParaOrientandos(String emailProfessor, String content) {
+        return executar(() -> NotificacaoEmMassaUtils.enviarParaOrientandos(emailProfessor, content));
+    }
+
+    public static CompletableFuture<Integer> enviarNotificacaoParaLista(List<String> emails, String content) {
+        return executar(() -> NotificacaoEmMassaUtils.enviarParaLista(emails, content));
+    }
+
+    public static CompletableFuture<String> getTituloTask(String emailAluno, int sequencia) {
+        return executar(() -> DatabaseUtils.getTituloTask(emailAluno, sequencia));
+    }
+
+    public static CompletableFuture<List<HistoricoVersao>> getHistoricoVersoes(String emailAluno, int sequencia) {
+        return executar(() -> DatabaseUtils.getHistoricoVersoes(emailAluno, sequencia));
+    }
+
+    public static CompletableFuture<SecoesTurma> getSecoesTurma(String disciplina, int year, int semester) {
+        return executar(() -> DatabaseUtils.getSecoesTurma(disciplina, year, semester));
+    }
+
+    public static CompletableFuture<SecoesTurma> getSecoesOrientandos(String emailProfessor) {
+        return executar(() -> DatabaseUtils.getSecoesOrientandos(emailProfessor));
+    }
+
+    public static CompletableFuture<Boolean> isTgConcluido(String emailAluno) {
+        return executar(() -> DatabaseUtils.isTgConcluido(emailAluno));
+    }
+
+    public static CompletableFuture<Map<String, Boolean>> getTgsConcluidosTurma(String disciplina, int year, int semester) {
+        return executar(() -> DatabaseUtils.getTgsConcluidosTurma(disciplina, year, semester));
+    }
+
+    public static CompletableFuture<Map<String, Boolean>> getTgsConcluidosOrientandos(String emailProfessor) {
+        return executar(() -> DatabaseUtils.getTgsConcluidosOrientandos(emailProfessor));
+    }
+
+    public static CompletableFuture<List<UsuarioResumo>> buscarUsuarios(String prefixo, String status, TipoUsuario tipo,
+                                                                       UsuarioResumo aposUsuario, int limite) {
+        return executar(() -> DatabaseUtils.buscarUsuarios(prefixo, status, tipo, aposUsuario, limite));
+    }
+
+    public static CompletableFuture<Map<String, String>> getStudentDisplayDetails(String emailAluno) {
+        return executar(() -> DatabaseUtils.getStudentDisplayDetails(emailAluno));
+    }
+}
@@ -1,7 +1,6 @@
 package com.example.tgcontrol.utils;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 public class DatabaseConnect {
@@ -19,13 +18,81 @@ public class DatabaseConnect {
     private static final String USER = "root"; // Usuário padrão do MySQL
     private static final String PASSWORD = "Fatec@2025"; // A senha que você definiu
 
+    // Pool de conexões: ajuste conforme a quantidade de telas/threads consultando o banco ao mesmo tempo
+    private static final int POOL_TAMANHO_MAXIMO = 8;
+    private static final int POOL_MINIMO_OCIOSO = 1;
+    private static final long POOL_TIMEOUT_AQUISICAO_MS = 10_000;
+    private static final long POOL_TEMPO_MAXIMO_OCIOSO_MS = 5 * 60_000;
+    private static final long POOL_LIMITE_VAZAMENTO_MS = 30_000;
+
     // --- FIM DA CONFIGURAÇÃO ---
 
+    // Permitem apontar para outro banco sem editar o código (ex: benchmarks com H2 em memória):
+    // -Dtgcontrol.db.url=... -Dtgcontrol.db.user=... -Dtgcontrol.db.password=... -Dtgcontrol.db.pool.maximo=...
+    private static final String PROPRIEDADE_URL = "tgcontrol.db.url";
+    private static final String PROPRIEDADE_USER = "tgcontrol.db.user";
+    private static final String PROPRIEDADE_PASSWORD = "tgcontrol.db.password";
+    private static final String PROPRIEDADE_POOL_MAXIMO = "tgcontrol.db.pool.maximo";
+
 
+    // Cache de PreparedStatement no próprio driver (Connector/J), por conexão física do pool
     private static final String URL = "jdbc:mysql://" + HOST + ":" + PORT + "/" + DATABASE_NAME +
-            "?useTimezone=true&serverTimezone=UTC";
+            "?useTimezone=true&serverTimezone=UTC" +
+            "&cachePrepStmts=true&prepStmtCacheSize=250&prepStmtCacheSqlLimit=2048&useServerPrepStmts=true" +
+            "&rewriteBatchedStatements=true"; // INSERTs em lote viram um único INSERT de várias linhas
 
+    private static volatile ConnectionPool pool;
+
+    /**
+     * Função: Empresta uma conexão do pool compartilhado. Use sempre com try-with-resources:
+     * close() devolve a conexão ao pool. As consultas feitas por ela são medidas pelo MetricasJdbc.
+     */
     public static Connection getConnection() throws SQLException {
+        long inicio = System.nanoTime();
+        Connection conexao = getPool().getConnection();
+        return MetricasJdbc.instrumentar(conexao, System.nanoTime() - inicio);
+    }
+
+    /**
+     * Função: Retorna os contadores do pool (conexões abertas, em uso, espera, vazamentos) para dimensionamento.
+     * Retorna: Os contadores, ou null se nenhuma conexão foi pedida ainda (o pool não é criado só para isso).
+     */
+    public static ConnectionPool.Estatisticas getPoolStats() {
+        ConnectionPool atual = pool;
+        return atual != null ? atual.getEstatisticas() : null;
+    }
+
+    /**
+     * Função: Fecha as conexões do pool. Chamado ao encerrar a aplicação.
+     */
+    public static synchronized void encerrarPool() {
+        if (pool != null) {
+            pool.encerrar();
+            pool = null;
+        }
+    }
+
+    private static ConnectionPool getPool() throws SQLException {
+        ConnectionPool atual = pool;
+        if (atual == null) {
+            synchronized (DatabaseConnect.class) {
+                atual = pool;
+                if (atual == null) {
+                    String url = System.getProperty(PROPRIEDADE_URL, URL);
+                    if (url.startsWith("jdbc:mysql:")) {
+                        carregarDriver();
+                    }
+                    atual = new ConnectionPool(url, System.getProperty(PROPRIEDADE_USER, USER), System.getProperty(PROPRIEDADE_PASSWORD, PASSWORD),
+                            Integer.getInteger(PROPRIEDADE_POOL_MAXIMO, POOL_TAMANHO_MAXIMO), POOL_MINIMO_OCIOSO,
+                            POOL_TIMEOUT_AQUISICAO_MS, POOL_TEMPO_MAXIMO_OCIOSO_MS, POOL_LIMITE_VAZAMENTO_MS);
+                    pool = atual;
+                }
+            }
+        }
+        return atual;
+    }
+
+    private static void carregarDriver() throws SQLException {
         try {
             Class.forName("com.mysql.cj.jdbc.Driver");
         } catch (ClassNotFoundException e) {
@@ -33,7 +100,5 @@ public class DatabaseConnect {
             e.printStackTrace();
             throw new SQLException("Driver não encontrado", e);
         }
-
-        return DriverManager.getConnection(URL, USER, PASSWORD);
     }
 }
\ No newline at end of file
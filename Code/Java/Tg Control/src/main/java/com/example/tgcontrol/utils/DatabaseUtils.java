@@ -8,6 +8,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -18,69 +19,83 @@ public class DatabaseUtils {
 
     private static final Logger LOGGER = Logger.getLogger(DatabaseUtils.class.getName());
 
+    // Usuário + papel (Professor/Coordenador/Aluno) numa única consulta
+    private static final String SQL_USUARIO_COM_PAPEL =
+            "SELECT u.passwordHASH, t.is_coordinator, (t.email IS NOT NULL) AS is_teacher, (s.email IS NOT NULL) AS is_student " +
+            "FROM user u " +
+            "LEFT JOIN teacher t ON t.email = u.email " +
+            "LEFT JOIN student s ON s.email = u.email " +
+            "WHERE u.email = ?";
+
     /**
      * Função: Autentica um usuário no sistema.
-     * 1. Verifica se o email e senha correspondem na tabela 'user'.
-     * 2. Se sim, verifica o tipo (Professor, Aluno).
-     * 3. Se não for Professor nem Aluno, retorna PERFIL_INCOMPLETO.
+     * Uma única consulta traz o hash da senha e o papel do usuário (LEFT JOIN em teacher e student).
+     * Se não for Professor nem Aluno, retorna PERFIL_INCOMPLETO.
      * Necessita: Email (login) e senha.
      * Retorna: O TipoUsuario correspondente.
      */
     public static TipoUsuario autenticarUsuario(String login, String senha) {
-        String sqlUser = "SELECT passwordHASH FROM user WHERE email = ? AND status = 'Active'";
-        String userPasswordHash = null;
+        String sql = SQL_USUARIO_COM_PAPEL + " AND u.status = 'Active'";
 
         try (Connection conn = DatabaseConnect.getConnection();
-             PreparedStatement stmtUser = conn.prepareStatement(sqlUser)) {
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmtUser.setString(1, login);
-            try (ResultSet rs = stmtUser.executeQuery()) {
-                if (rs.next()) {
-                    userPasswordHash = rs.getString("passwordHASH");
-                } else {
+            stmt.setString(1, login);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
                     LOGGER.log(Level.WARNING, "Falha no login: Usuário não encontrado - " + login);
                     return TipoUsuario.NAO_AUTENTICADO;
                 }
+
+                String userPasswordHash = rs.getString("passwordHASH");
+                if (userPasswordHash == null || !userPasswordHash.equals(senha)) {
+                    LOGGER.log(Level.WARNING, "Falha no login: Senha incorreta para - " + login);
+                    return TipoUsuario.NAO_AUTENTICADO;
+                }
+
+                TipoUsuario tipo = lerTipoUsuario(rs);
+                TipoUsuarioCache.registrar(login, tipo);
+                return tipo;
             }
         } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "DB FALHA (Autenticação - Etapa 1): " + e.getMessage(), e);
-            return TipoUsuario.NAO_AUTENTICADO;
-        }
-
-        if (userPasswordHash == null || !userPasswordHash.equals(senha)) {
-            LOGGER.log(Level.WARNING, "Falha no login: Senha incorreta para - " + login);
+            LOGGER.log(Level.SEVERE, "DB FALHA (Autenticação): " + e.getMessage(), e);
             return TipoUsuario.NAO_AUTENTICADO;
         }
+    }
 
-        try (Connection conn = DatabaseConnect.getConnection()) {
-            String sqlTeacher = "SELECT is_coordinator FROM teacher WHERE email = ?";
-            try (PreparedStatement stmtTeacher = conn.prepareStatement(sqlTeacher)) {
-                stmtTeacher.setString(1, login);
-                try (ResultSet rs = stmtTeacher.executeQuery()) {
-                    if (rs.next()) {
-                        return rs.getBoolean("is_coordinator") ? TipoUsuario.PROFESSOR_TG : TipoUsuario.PROFESSOR;
-                    }
-                }
-            }
+    /**
+     * Função: Descobre o papel de um usuário sem passar pela autenticação (sem senha).
+     * Telas devem preferir TipoUsuarioCache.getTipo(email), que evita repetir esta consulta.
+     * Necessita: Email do usuário.
+     * Retorna: PROFESSOR_TG, PROFESSOR, ALUNO ou PERFIL_INCOMPLETO; NAO_AUTENTICADO se o usuário não existir ou em caso de erro.
+     */
+    public static TipoUsuario resolverTipoUsuario(String email) {
+        try (Connection conn = DatabaseConnect.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_USUARIO_COM_PAPEL)) {
 
-            String sqlStudent = "SELECT email FROM student WHERE email = ?";
-            try (PreparedStatement stmtStudent = conn.prepareStatement(sqlStudent)) {
-                stmtStudent.setString(1, login);
-                try (ResultSet rs = stmtStudent.executeQuery()) {
-                    if (rs.next()) {
-                        return TipoUsuario.ALUNO;
-                    }
-                }
+            stmt.setString(1, email);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? lerTipoUsuario(rs) : TipoUsuario.NAO_AUTENTICADO;
             }
-
-            return TipoUsuario.PERFIL_INCOMPLETO;
-
         } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "DB FALHA (Autenticação - Etapa 2): " + e.getMessage(), e);
+            LOGGER.log(Level.SEVERE, "DB FALHA (Resolver Tipo Usuário): " + e.getMessage(), e);
             return TipoUsuario.NAO_AUTENTICADO;
         }
     }
 
+    /**
+     * Função: Converte a linha de SQL_USUARIO_COM_PAPEL no TipoUsuario. Professor tem prioridade sobre Aluno.
+     */
+    private static TipoUsuario lerTipoUsuario(ResultSet rs) throws SQLException {
+        if (rs.getBoolean("is_teacher")) {
+            return rs.getBoolean("is_coordinator") ? TipoUsuario.PROFESSOR_TG : TipoUsuario.PROFESSOR;
+        }
+        if (rs.getBoolean("is_student")) {
+            return TipoUsuario.ALUNO;
+        }
+        return TipoUsuario.PERFIL_INCOMPLETO;
+    }
+
     /**
      * Função: Busca as seções do TG para um aluno específico.
      * Necessita: Email do aluno.
@@ -108,6 +123,82 @@ public class DatabaseUtils {
         return secoes;
     }
 
+    /**
+     * Função: Busca, numa única consulta, as seções de todos os alunos de uma turma e quais já concluíram o TG.
+     * Substitui um getSecoesAluno + isTgConcluido por aluno na tela de coordenação.
+     * Necessita: Disciplina, ano e semestre da turma.
+     * Retorna: Um SecoesTurma com todos os alunos da turma (inclusive os sem seções), ou null em caso de erro.
+     */
+    public static SecoesTurma getSecoesTurma(String disciplina, int year, int semester) {
+        return carregarSecoesTurma("s.class_disciplina = ? AND s.class_year = ? AND s.class_semester = ?", stmt -> {
+            stmt.setString(1, disciplina);
+            stmt.setInt(2, year);
+            stmt.setInt(3, semester);
+        }, "Turma " + disciplina + " " + year + "/" + semester);
+    }
+
+    /**
+     * Função: Mesmo que getSecoesTurma, para todos os orientandos de um professor.
+     * Necessita: Email do professor orientador.
+     * Retorna: Um SecoesTurma com todos os orientandos, ou null em caso de erro.
+     */
+    public static SecoesTurma getSecoesOrientandos(String emailProfessor) {
+        return carregarSecoesTurma("s.advisor_email = ?", stmt -> stmt.setString(1, emailProfessor),
+                "Orientandos de " + emailProfessor);
+    }
+
+    private interface ParametrosConsulta {
+        void aplicar(PreparedStatement stmt) throws SQLException;
+    }
+
+    // TG concluído: mesma regra de isTgConcluido (tasks completas >= max_tasks da turma)
+    private static SecoesTurma carregarSecoesTurma(String filtro, ParametrosConsulta parametros, String descricao) {
+        String sql = "SELECT s.email AS emailDoAluno, c.max_tasks, v.emailAluno, v.taskSequence, v.titulo, v.status, v.dataEntrega, " +
+                "v.statusRevisao, v.dataUltimaRevisao " +
+                "FROM student s " +
+                "JOIN class c ON s.class_disciplina = c.disciplina AND s.class_year = c.year AND s.class_semester = c.semester " +
+                "LEFT JOIN vw_secoes_aluno v ON v.emailAluno = s.email " +
+                "WHERE " + filtro + " ORDER BY s.email, v.taskSequence";
+
+        long geracao = CACHE_TG_CONCLUIDO.getGeracao();
+        Map<String, List<SecaoAluno>> secoesPorAluno = new HashMap<>();
+        Set<String> tgsConcluidos = new HashSet<>();
+
+        try (Connection conn = DatabaseConnect.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            parametros.aplicar(stmt);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                Map<String, Integer> concluidasPorAluno = new HashMap<>();
+                Map<String, Integer> maxTasksPorAluno = new HashMap<>();
+                while (rs.next()) {
+                    String email = rs.getString("emailDoAluno");
+                    List<SecaoAluno> secoes = secoesPorAluno.computeIfAbsent(email, k -> new ArrayList<>());
+                    maxTasksPorAluno.put(email, rs.getInt("max_tasks"));
+                    if (rs.getObject("taskSequence") == null) {
+                        continue; // aluno sem seções
+                    }
+                    SecaoAluno secao = mapResultSetToSecaoAluno(rs);
+                    secoes.add(secao);
+                    if ("completed".equals(secao.getStatus())) {
+                        concluidasPorAluno.merge(email, 1, Integer::sum);
+                    }
+                }
+                concluidasPorAluno.forEach((email, concluidas) -> {
+                    if (concluidas >= maxTasksPorAluno.get(email)) {
+                        tgsConcluidos.add(email);
+                    }
+                });
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "DB FALHA (carregarSecoesTurma): " + descricao + ": " + e.getMessage(), e);
+            return null;
+        }
+        secoesPorAluno.keySet().forEach(email -> CACHE_TG_CONCLUIDO.registrar(email, tgsConcluidos.contains(email), geracao));
+        return new SecoesTurma(secoesPorAluno, tgsConcluidos);
+    }
+
     //public static SecaoAluno getSecaoAluno(String titulo) {
 
     //}
@@ -121,37 +212,40 @@ public class DatabaseUtils {
         List<TrabalhoPendente> trabalhosPendentes = new ArrayList<>();
         int totalAlunosOrientados = 0;
         int tgsConcluidosOrientados = 0;
-        String sqlTabela = "SELECT * FROM vw_professor_dashboard WHERE teacher_email = ?";
-        String sqlTotalAlunos = "SELECT COUNT(DISTINCT email) AS total FROM student WHERE advisor_email = ?";
-        String sqlTgsConcluidos = "SELECT COUNT(s.email) AS concluidos FROM student s WHERE s.advisor_email = ? AND NOT EXISTS (SELECT 1 FROM task t WHERE t.student_email = s.email AND t.status <> 'completed') AND EXISTS (SELECT 1 FROM task t2 WHERE t2.student_email = s.email);";
+        // Uma única consulta: a linha de totais (sempre 1 linha) é combinada com as pendências da view.
+        // Os totais vêm de resumo_orientador por chave primária (mantido por ResumoDashboardUtils).
+        String sql = "SELECT tot.total_alunos, tot.tgs_concluidos, d.* FROM (" +
+                "    SELECT COALESCE(MAX(total_orientandos), 0) AS total_alunos, COALESCE(MAX(tgs_concluidos), 0) AS tgs_concluidos " +
+                "    FROM resumo_orientador WHERE advisor_email = ?" +
+                ") tot " +
+                "LEFT JOIN vw_professor_dashboard d ON d.teacher_email = ?";
 
-        try (Connection conn = DatabaseConnect.getConnection()) {
-            try (PreparedStatement stmt = conn.prepareStatement(sqlTabela)) {
-                stmt.setString(1, emailProfessor);
-                try (ResultSet rs = stmt.executeQuery()) {
-                    while (rs.next()) {
-                        trabalhosPendentes.add(new TrabalhoPendente(
-                                rs.getDouble("progresso"),
-                                rs.getString("nomeAluno"),
-                                rs.getString("emailAluno"),
-                                rs.getString("turma"),
-                                rs.getString("semestre"),
-                                rs.getString("status"),
-                                // NOVOS CAMPOS:
-                                rs.getInt("sequence_order"),
-                                rs.getTimestamp("submission_timestamp").toLocalDateTime()
-                        ));
+        try (Connection conn = DatabaseConnect.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, emailProfessor);
+            stmt.setString(2, emailProfessor);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    totalAlunosOrientados = rs.getInt("total_alunos");
+                    tgsConcluidosOrientados = rs.getInt("tgs_concluidos");
+
+                    // Sem pendências: a única linha vem com as colunas da view nulas
+                    if (rs.getString("emailAluno") == null) {
+                        continue;
                     }
+                    trabalhosPendentes.add(new TrabalhoPendente(
+                            rs.getDouble("progresso"),
+                            rs.getString("nomeAluno"),
+                            rs.getString("emailAluno"),
+                            rs.getString("turma"),
+                            rs.getString("semestre"),
+                            rs.getString("status"),
+                            rs.getInt("sequence_order"),
+                            rs.getTimestamp("submission_timestamp").toLocalDateTime()
+                    ));
                 }
             }
-            try (PreparedStatement stmt = conn.prepareStatement(sqlTotalAlunos)) {
-                stmt.setString(1, emailProfessor);
-                try (ResultSet rs = stmt.executeQuery()) { if (rs.next()) totalAlunosOrientados = rs.getInt("total"); }
-            }
-            try (PreparedStatement stmt = conn.prepareStatement(sqlTgsConcluidos)) {
-                stmt.setString(1, emailProfessor);
-                try (ResultSet rs = stmt.executeQuery()) { if (rs.next()) tgsConcluidosOrientados = rs.getInt("concluidos"); }
-            }
             return new DashboardData(totalAlunosOrientados, tgsConcluidosOrientados, trabalhosPendentes.size(), trabalhosPendentes);
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "DB FALHA (Dashboard Professor): " + e.getMessage(), e);
@@ -172,11 +266,30 @@ public class DatabaseUtils {
         // REUSANDO LÓGICA: Pendências de orientação própria (teacher_email == advisor_email)
         List<TrabalhoPendente> trabalhosPendentesOrientacaoPropria = new ArrayList<>();
 
-        List<String> turmasCoordenadasFiltro = new ArrayList<>();
-
-        String sqlResumoGeral = "SELECT SUM(numero_alunos) AS total_alunos, SUM(tgs_concluidos) AS tgs_concluidos FROM vw_class_summary";
+        String sqlResumoGeral = "SELECT SUM(numero_alunos) AS total_alunos, SUM(tgs_concluidos) AS tgs_concluidos FROM resumo_turma";
         String sqlTotalOrientandos = "SELECT COUNT(DISTINCT advisor_email) AS total FROM student WHERE advisor_email IS NOT NULL";
-        String sqlTurmasCoordenadas = "SELECT DISTINCT CONCAT(\"('\", class_disciplina, \"', \", class_year, \", \", class_semester, \")\") AS turma_tupla FROM tg_coordenacao_turma WHERE teacher_email = ?";
+
+        // Classificação feita no banco: uma linha por categoria, apenas para alunos das turmas coordenadas.
+        // Regras (por aluno, olhando as tarefas não concluídas):
+        //   alguma com estágio do aluno > estágio da tarefa                  -> Atrasado
+        //   senão, alguma do estágio atual que não esteja bloqueada           -> Em Dia
+        //   senão, alguma não concluída (estágio futuro ou bloqueada)         -> Não Iniciado
+        //   nenhuma pendente                                                  -> Concluído
+        String sqlProgressoTurmasCoordenadas =
+                "SELECT classificacao, COUNT(*) AS total FROM (" +
+                "    SELECT t.student_email, " +
+                "        CASE " +
+                "            WHEN SUM(CASE WHEN t.status <> 'completed' AND COALESCE(s.estagio_tg_atual, 0) > t.estagio_task THEN 1 ELSE 0 END) > 0 THEN 'Atrasado' " +
+                "            WHEN SUM(CASE WHEN t.status = 'in_progress' AND COALESCE(s.estagio_tg_atual, 0) = t.estagio_task THEN 1 ELSE 0 END) > 0 THEN 'Em Dia' " +
+                "            WHEN SUM(CASE WHEN t.status <> 'completed' THEN 1 ELSE 0 END) > 0 THEN 'Não Iniciado' " +
+                "            ELSE 'Concluído' " +
+                "        END AS classificacao " +
+                "    FROM task t " +
+                "    JOIN student s ON s.email = t.student_email " +
+                "    JOIN (SELECT DISTINCT class_disciplina, class_year, class_semester FROM tg_coordenacao_turma WHERE teacher_email = ?) ct " +
+                "        ON ct.class_disciplina = s.class_disciplina AND ct.class_year = s.class_year AND ct.class_semester = s.class_semester " +
+                "    GROUP BY t.student_email" +
+                ") por_aluno GROUP BY classificacao";
 
         // Query de pendências filtrada pelo email do Professor TG como Orientador
         String sqlPendentesOrientacaoPropria = "SELECT * FROM vw_professor_dashboard WHERE teacher_email = ?";
@@ -187,57 +300,20 @@ public class DatabaseUtils {
             try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sqlResumoGeral)) { if (rs.next()) { totalAlunosGeral = rs.getInt("total_alunos"); tgsConcluidosGeral = rs.getInt("tgs_concluidos"); } }
             try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sqlTotalOrientandos)) { if (rs.next()) totalOrientandosGeral = rs.getInt("total"); }
 
-            // 2. BUSCA TURMAS COORDENADAS PARA FILTRO
-            try(PreparedStatement stmt = conn.prepareStatement(sqlTurmasCoordenadas)) {
+            // 2. GRÁFICO DE PROGRESSO (alunos em turmas coordenadas; sem turmas coordenadas, fica zerado)
+            try (PreparedStatement stmt = conn.prepareStatement(sqlProgressoTurmasCoordenadas)) {
                 stmt.setString(1, emailProfessorTg);
-                try(ResultSet rs = stmt.executeQuery()) { while(rs.next()) turmasCoordenadasFiltro.add(rs.getString("turma_tupla")); }
-            }
-
-            // 3. SE NÃO HOUVER TURMAS COORDENADAS, RETORNA APENAS DADOS GERAIS
-            if(turmasCoordenadasFiltro.isEmpty()) {
-                // Mesmo que não coordene turma, ele pode ter pendências próprias de orientação
-                // Então, buscamos apenas as pendências de orientação própria e retornamos
-                try (PreparedStatement stmt = conn.prepareStatement(sqlPendentesOrientacaoPropria)) {
-                    stmt.setString(1, emailProfessorTg);
-                    try (ResultSet rs = stmt.executeQuery()) {
-                        while (rs.next()) {
-                            trabalhosPendentesOrientacaoPropria.add(new TrabalhoPendente(
-                                    rs.getDouble("progresso"), rs.getString("nomeAluno"), rs.getString("emailAluno"),
-                                    rs.getString("turma"), rs.getString("semestre"), rs.getString("status"),
-                                    rs.getInt("sequence_order"), rs.getTimestamp("submission_timestamp").toLocalDateTime()
-                            ));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        String classificacao = rs.getString("classificacao");
+                        if (progressoAlunos.containsKey(classificacao)) {
+                            progressoAlunos.put(classificacao, rs.getInt("total"));
                         }
                     }
                 }
-                Map<String, Integer> progressoVazio = new LinkedHashMap<>(Map.of("Concluído", 0, "Em Dia", 0, "Atrasado", 0, "Não Iniciado", 0));
-                return new DashboardTgData(totalAlunosGeral, tgsConcluidosGeral, totalOrientandosGeral, progressoVazio, trabalhosPendentesOrientacaoPropria);
             }
 
-            // 4. CÁLCULO DO GRÁFICO DE PROGRESSO (para alunos em turmas coordenadas)
-            String filtroTurmasSql = String.join(",", turmasCoordenadasFiltro);
-            String sqlDetalhesTasksCompleta = "SELECT emailAluno, estagio_aluno, estagio_task, task_status FROM vw_professortg_dashboard_tasks WHERE (turma_disciplina, turma_year, turma_semester) IN (" + filtroTurmasSql + ")";
-            Map<String, String> statusAlunoMap = new HashMap<>();
-
-            try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sqlDetalhesTasksCompleta)) {
-                while (rs.next()) {
-                    String emailAluno = rs.getString("emailAluno");
-                    int estagioAluno = rs.getInt("estagio_aluno"); int estagioTask = rs.getInt("estagio_task"); String taskStatus = rs.getString("task_status");
-                    String statusAtualAluno = statusAlunoMap.getOrDefault(emailAluno, "Concluído");
-                    if (!"completed".equals(taskStatus)) {
-                        if (estagioAluno > estagioTask) statusAtualAluno = "Atrasado";
-                        else if (estagioAluno == estagioTask && !"locked".equals(taskStatus)) { if (!"Atrasado".equals(statusAtualAluno)) statusAtualAluno = "Em Dia"; }
-                        else if (estagioAluno < estagioTask || "locked".equals(taskStatus)) { if (!"Atrasado".equals(statusAtualAluno) && !"Em Dia".equals(statusAtualAluno)) statusAtualAluno = "Não Iniciado"; }
-                    }
-                    statusAlunoMap.put(emailAluno, statusAtualAluno);
-                }
-            }
-            for (String statusAgregado : statusAlunoMap.values()) {
-                if (progressoAlunos.containsKey(statusAgregado)) {
-                    progressoAlunos.put(statusAgregado, progressoAlunos.get(statusAgregado) + 1);
-                }
-            }
-
-            // 5. LISTA DE PENDÊNCIAS (Filtrada por Orientação Própria)
+            // 3. LISTA DE PENDÊNCIAS (Filtrada por Orientação Própria)
             try (PreparedStatement stmt = conn.prepareStatement(sqlPendentesOrientacaoPropria)) {
                 stmt.setString(1, emailProfessorTg);
                 try (ResultSet rs = stmt.executeQuery()) {
@@ -259,12 +335,30 @@ public class DatabaseUtils {
         }
     }
 
+    // Dados de exibição de usuários: mudam raramente e são lidos por quase toda tela
+    private static final int CACHE_USUARIOS_TAMANHO = 2_000;
+    // Palavras do nome consideradas na busca (nomes compostos longos continuam achados pelo início)
+    private static final int BUSCA_MAX_PALAVRAS = 5;
+    private static final long CACHE_USUARIOS_TTL_MS = 10 * 60_000;
+    private static final CacheLRU<String, String> CACHE_NOME_USUARIO = new CacheLRU<>("nomeUsuario", CACHE_USUARIOS_TAMANHO, CACHE_USUARIOS_TTL_MS);
+    private static final CacheLRU<String, String> CACHE_FOTO_PERFIL = new CacheLRU<>("fotoPerfil", CACHE_USUARIOS_TAMANHO, CACHE_USUARIOS_TTL_MS);
+    private static final CacheLRU<String, Map<String, String>> CACHE_DETALHES_ALUNO = new CacheLRU<>("detalhesAluno", CACHE_USUARIOS_TAMANHO, CACHE_USUARIOS_TTL_MS);
+
     /**
-     * Função: Busca a URL da foto de perfil para um usuário específico.
+     * Função: Busca a URL da foto de perfil para um usuário específico (com cache).
      * Necessita: Email do usuário.
      * Retorna: A string com o caminho relativo da imagem ou null se não encontrada ou em caso de erro.
      */
     public static String getProfilePictureUrl(String email) {
+        try {
+            return CACHE_FOTO_PERFIL.get(email, DatabaseUtils::buscarProfilePictureUrl);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "DB FALHA (Buscar Foto Perfil): " + e.getMessage(), e);
+            return null;
+        }
+    }
+
+    private static String buscarProfilePictureUrl(String email) throws SQLException {
         String sql = "SELECT profile_picture_url FROM user WHERE email = ?";
         try (Connection conn = DatabaseConnect.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -277,18 +371,24 @@ public class DatabaseUtils {
                     return null;
                 }
             }
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "DB FALHA (Buscar Foto Perfil): " + e.getMessage(), e);
-            return null;
         }
     }
 
     /**
-     * Função: Busca o nome completo de um usuário.
+     * Função: Busca o nome completo de um usuário (com cache).
      * Necessita: Email do usuário.
      * Retorna: O nome completo ou null se não encontrado ou em caso de erro.
      */
     public static String getNomeUsuario(String email) {
+        try {
+            return CACHE_NOME_USUARIO.get(email, DatabaseUtils::buscarNomeUsuario);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "DB FALHA (Buscar Nome Usuário): " + e.getMessage(), e);
+            return null;
+        }
+    }
+
+    private static String buscarNomeUsuario(String email) throws SQLException {
         String sql = "SELECT CONCAT(FirstName, ' ', LastName) AS nomeCompleto FROM user WHERE email = ?";
         try (Connection conn = DatabaseConnect.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -301,10 +401,179 @@ public class DatabaseUtils {
                     return null;
                 }
             }
+        }
+    }
+
+    /**
+     * Função: Remove do cache os dados de exibição de um usuário (nome, foto e detalhes de aluno).
+     * Chamado pelas gravações que alteram esses dados.
+     */
+    public static void invalidarDadosUsuario(String email) {
+        CACHE_NOME_USUARIO.invalidar(email);
+        CACHE_FOTO_PERFIL.invalidar(email);
+        CACHE_DETALHES_ALUNO.invalidar(email);
+        DiretorioCache.marcarAlterado(email);
+    }
+
+    /**
+     * Função: Contadores de acerto/falta dos caches de dados de usuário, para verificar se compensam.
+     */
+    public static List<CacheLRU.Estatisticas> getEstatisticasCachesUsuario() {
+        return List.of(CACHE_NOME_USUARIO.getEstatisticas(), CACHE_FOTO_PERFIL.getEstatisticas(), CACHE_DETALHES_ALUNO.getEstatisticas(),
+                CACHE_TG_CONCLUIDO.getEstatisticas(), CACHE_TG_CONCLUIDO_LOTE.getEstatisticas());
+    }
+
+    /**
+     * Função: Busca uma página da listagem de usuários, filtrada no banco e ordenada por nome.
+     * A paginação é por cursor (nome, sobrenome, email do último item), então a página N não relê as anteriores.
+     * Necessita: Início do nome, do sobrenome, do nome completo ou do email (null/vazio = todos), status 'Active'/'Inactive' (null = todos),
+     *            tipo (null = todos), o último usuário da página anterior (null = primeira página) e o tamanho da página.
+     * Retorna: Até 'limite' usuários, ou lista vazia em caso de erro.
+     */
+    public static List<UsuarioResumo> buscarUsuarios(String prefixo, String status, TipoUsuario tipo, UsuarioResumo aposUsuario, int limite) {
+        StringBuilder sql = new StringBuilder(SQL_USUARIO_RESUMO + " WHERE 1 = 1");
+        List<Object> parametros = new ArrayList<>();
+
+        if (prefixo != null && !prefixo.isBlank()) {
+            adicionarFiltroNome(sql, parametros, prefixo);
+        }
+        if (status != null) {
+            sql.append(" AND u.status = ?");
+            parametros.add(status);
+        }
+        if (tipo != null) {
+            switch (tipo) {
+                case ALUNO -> sql.append(" AND s.email IS NOT NULL");
+                case PROFESSOR -> sql.append(" AND t.email IS NOT NULL AND t.is_coordinator = 0");
+                case PROFESSOR_TG -> sql.append(" AND t.is_coordinator = 1");
+                default -> sql.append(" AND t.email IS NULL AND s.email IS NULL");
+            }
+        }
+        if (aposUsuario != null) {
+            sql.append(" AND (u.FirstName, u.LastName, u.email) > (?, ?, ?)");
+            Collections.addAll(parametros, aposUsuario.getFirstName(), aposUsuario.getLastName(), aposUsuario.getEmail());
+        }
+        sql.append(" ORDER BY u.FirstName, u.LastName, u.email LIMIT ?");
+        parametros.add(limite);
+
+        List<UsuarioResumo> usuarios = new ArrayList<>();
+        try (Connection conn = DatabaseConnect.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+
+            for (int i = 0; i < parametros.size(); i++) {
+                stmt.setObject(i + 1, parametros.get(i));
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    usuarios.add(lerUsuarioResumo(rs));
+                }
+            }
         } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "DB FALHA (Buscar Nome Usuário): " + e.getMessage(), e);
+            LOGGER.log(Level.SEVERE, "DB FALHA (Buscar Usuários): " + e.getMessage(), e);
+        }
+        return usuarios;
+    }
+
+    /**
+     * Função: Carrega usuários para o índice em memória (DiretorioCache), sem paginação.
+     * Necessita: Data mínima de cadastro (null = todos) e/ou emails específicos (null = sem filtro de email).
+     * Retorna: Os usuários encontrados, ou null em caso de erro (para o chamador não confundir falha com "nenhum").
+     */
+    public static List<UsuarioResumo> getUsuariosDiretorio(LocalDateTime cadastradosDesde, Collection<String> emails) {
+        StringBuilder sql = new StringBuilder(SQL_USUARIO_RESUMO + " WHERE 1 = 1");
+        List<Object> parametros = new ArrayList<>();
+        if (cadastradosDesde != null) {
+            // >= : usuários cadastrados no mesmo segundo da última leitura são relidos (a atualização é idempotente)
+            sql.append(" AND u.registration_timestamp >= ?");
+            parametros.add(Timestamp.valueOf(cadastradosDesde));
+        }
+        if (emails != null) {
+            if (emails.isEmpty()) {
+                return new ArrayList<>();
+            }
+            sql.append(" AND u.email IN (").append(String.join(", ", Collections.nCopies(emails.size(), "?"))).append(")");
+            parametros.addAll(emails);
+        }
+
+        List<UsuarioResumo> usuarios = new ArrayList<>();
+        try (Connection conn = DatabaseConnect.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+
+            for (int i = 0; i < parametros.size(); i++) {
+                stmt.setObject(i + 1, parametros.get(i));
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    usuarios.add(lerUsuarioResumo(rs));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "DB FALHA (getUsuariosDiretorio): " + e.getMessage(), e);
+            return null;
+        }
+        return usuarios;
+    }
+
+    /**
+     * Função: Carrega os professores (orientadores e coordenadores) para ComboBoxes, em ordem alfabética.
+     * Retorna: Os professores, ou null em caso de erro.
+     */
+    public static List<UsuarioResumo> getProfessoresResumo() {
+        String sql = SQL_USUARIO_RESUMO + " WHERE t.email IS NOT NULL ORDER BY u.FirstName, u.LastName, u.email";
+        List<UsuarioResumo> professores = new ArrayList<>();
+        try (Connection conn = DatabaseConnect.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                professores.add(lerUsuarioResumo(rs));
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "DB FALHA (getProfessoresResumo): " + e.getMessage(), e);
             return null;
         }
+        return professores;
+    }
+
+    private static final String SQL_USUARIO_RESUMO =
+            "SELECT u.email, u.FirstName, u.LastName, u.registration_timestamp, u.status, " +
+            "t.is_coordinator, (t.email IS NOT NULL) AS is_teacher, (s.email IS NOT NULL) AS is_student " +
+            "FROM user u " +
+            "LEFT JOIN teacher t ON t.email = u.email " +
+            "LEFT JOIN student s ON s.email = u.email";
+
+    private static UsuarioResumo lerUsuarioResumo(ResultSet rs) throws SQLException {
+        Timestamp cadastro = rs.getTimestamp("registration_timestamp");
+        return new UsuarioResumo(
+                rs.getString("email"),
+                rs.getString("FirstName"),
+                rs.getString("LastName"),
+                cadastro != null ? cadastro.toLocalDateTime() : null,
+                lerTipoUsuario(rs),
+                "Active".equals(rs.getString("status"))
+        );
+    }
+
+    // "Ana Sil" = nome começando com o texto, ou nome "Ana" e sobrenome começando com "Sil" (uma alternativa por
+    // divisão entre as palavras). Cada condição é um intervalo em idx_user_nome, idx_user_sobrenome ou na PK,
+    // ao contrário de CONCAT(FirstName, ' ', LastName) LIKE ?, que obriga a ler a tabela inteira.
+    private static void adicionarFiltroNome(StringBuilder sql, List<Object> parametros, String texto) {
+        String[] termos = texto.trim().split("\\s+");
+        String completo = escaparLike(String.join(" ", termos)) + "%";
+        sql.append(" AND (u.FirstName LIKE ? OR u.LastName LIKE ? OR u.email LIKE ?");
+        Collections.addAll(parametros, completo, completo, completo);
+
+        for (int divisao = 1; divisao < Math.min(termos.length, BUSCA_MAX_PALAVRAS); divisao++) {
+            sql.append(" OR (u.FirstName = ? AND u.LastName LIKE ?)");
+            parametros.add(String.join(" ", Arrays.copyOfRange(termos, 0, divisao)));
+            parametros.add(escaparLike(String.join(" ", Arrays.copyOfRange(termos, divisao, termos.length))) + "%");
+        }
+        sql.append(")");
+    }
+
+    private static String escaparLike(String texto) {
+        return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
     }
 
     /**
@@ -341,62 +610,67 @@ public class DatabaseUtils {
      * Retorna: Um objeto SecaoAluno com os detalhes da seção, ou null se não houver seções ou em caso de erro.
      */
     public static SecaoAluno getUltimaSecaoAtiva(String emailAluno) {
-        String sqlInProgress = "SELECT * FROM vw_secoes_aluno WHERE emailAluno = ? AND status = 'in_progress' ORDER BY taskSequence LIMIT 1";
-        String sqlLastCompleted = "SELECT * FROM vw_secoes_aluno WHERE emailAluno = ? AND status = 'completed' ORDER BY taskSequence DESC LIMIT 1";
-        String sqlFirstLocked = "SELECT * FROM vw_secoes_aluno WHERE emailAluno = ? AND status = 'locked' ORDER BY taskSequence LIMIT 1";
-        String sqlAny = "SELECT * FROM vw_secoes_aluno WHERE emailAluno = ? ORDER BY taskSequence DESC LIMIT 1";
+        // Mesma prioridade de escolherUltimaSecaoAtiva, resolvida pelo ORDER BY numa única consulta
+        String sql = "SELECT * FROM vw_secoes_aluno WHERE emailAluno = ? " +
+                "ORDER BY CASE status WHEN 'in_progress' THEN 0 WHEN 'completed' THEN 1 WHEN 'locked' THEN 2 ELSE 3 END, " +
+                "CASE WHEN status IN ('in_progress', 'locked') THEN taskSequence ELSE -taskSequence END " +
+                "LIMIT 1";
 
-        SecaoAluno secao = null;
+        try (Connection conn = DatabaseConnect.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-        try (Connection conn = DatabaseConnect.getConnection()) {
-            try (PreparedStatement stmt = conn.prepareStatement(sqlInProgress)) {
-                stmt.setString(1, emailAluno);
-                try (ResultSet rs = stmt.executeQuery()) {
-                    if (rs.next()) {
-                        secao = mapResultSetToSecaoAluno(rs);
-                    }
-                }
+            stmt.setString(1, emailAluno);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? mapResultSetToSecaoAluno(rs) : null;
             }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "DB FALHA (Buscar Última Seção Ativa): " + e.getMessage(), e);
+            return null;
+        }
+    }
 
-            if (secao == null) {
-                try (PreparedStatement stmt = conn.prepareStatement(sqlLastCompleted)) {
-                    stmt.setString(1, emailAluno);
-                    try (ResultSet rs = stmt.executeQuery()) {
-                        if (rs.next()) {
-                            secao = mapResultSetToSecaoAluno(rs);
-                        }
+    /**
+     * Função: Escolhe em memória a seção mais relevante a partir das seções já carregadas por getSecoesAluno.
+     * Prioridade: primeira em andamento > última concluída > primeira bloqueada > última de qualquer status.
+     * Necessita: A lista de seções do aluno.
+     * Retorna: A seção escolhida, ou null se a lista estiver vazia.
+     */
+    public static SecaoAluno escolherUltimaSecaoAtiva(List<SecaoAluno> secoes) {
+        SecaoAluno primeiraEmAndamento = null;
+        SecaoAluno ultimaConcluida = null;
+        SecaoAluno primeiraBloqueada = null;
+        SecaoAluno ultimaQualquer = null;
+
+        for (SecaoAluno secao : secoes) {
+            String status = secao.getStatus() != null ? secao.getStatus() : "";
+            switch (status) {
+                case "in_progress":
+                    if (primeiraEmAndamento == null || secao.getTaskSequence() < primeiraEmAndamento.getTaskSequence()) {
+                        primeiraEmAndamento = secao;
                     }
-                }
-            }
-
-            if (secao == null) {
-                try (PreparedStatement stmt = conn.prepareStatement(sqlFirstLocked)) {
-                    stmt.setString(1, emailAluno);
-                    try (ResultSet rs = stmt.executeQuery()) {
-                        if (rs.next()) {
-                            secao = mapResultSetToSecaoAluno(rs);
-                        }
+                    break;
+                case "completed":
+                    if (ultimaConcluida == null || secao.getTaskSequence() > ultimaConcluida.getTaskSequence()) {
+                        ultimaConcluida = secao;
                     }
-                }
-            }
-
-            if (secao == null) {
-                try (PreparedStatement stmt = conn.prepareStatement(sqlAny)) {
-                    stmt.setString(1, emailAluno);
-                    try (ResultSet rs = stmt.executeQuery()) {
-                        if (rs.next()) {
-                            secao = mapResultSetToSecaoAluno(rs);
-                        }
+                    break;
+                case "locked":
+                    if (primeiraBloqueada == null || secao.getTaskSequence() < primeiraBloqueada.getTaskSequence()) {
+                        primeiraBloqueada = secao;
                     }
-                }
+                    break;
+                default:
+                    break;
+            }
+            if (ultimaQualquer == null || secao.getTaskSequence() > ultimaQualquer.getTaskSequence()) {
+                ultimaQualquer = secao;
             }
-
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "DB FALHA (Buscar Última Seção Ativa): " + e.getMessage(), e);
-            return null;
         }
 
-        return secao;
+        if (primeiraEmAndamento != null) return primeiraEmAndamento;
+        if (ultimaConcluida != null) return ultimaConcluida;
+        if (primeiraBloqueada != null) return primeiraBloqueada;
+        return ultimaQualquer;
     }
 
     /**
@@ -458,47 +732,133 @@ public class DatabaseUtils {
         return versoes;
     }
 
+    /**
+     * Função: Lista as versões entregues (aluno, seção, versão, arquivo e data), para o índice de texto dos TGs.
+     * Necessita: Data mínima de entrega (null = todas). Com data, usa o índice idx_submission_data.
+     * Retorna: As versões, ou null em caso de erro (para o índice não confundir falha com "nenhuma versão").
+     */
+    public static List<EntregaTG> getEntregasTG(LocalDateTime entreguesDesde) {
+        String sql = "SELECT student_email, sequence_order, attempt_number, file_path, submission_timestamp FROM task_submission " +
+                "WHERE file_path IS NOT NULL" + (entreguesDesde != null ? " AND submission_timestamp >= ?" : "");
+
+        List<EntregaTG> entregas = new ArrayList<>();
+        try (Connection conn = DatabaseConnect.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            if (entreguesDesde != null) {
+                stmt.setTimestamp(1, Timestamp.valueOf(entreguesDesde));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    entregas.add(new EntregaTG(
+                            rs.getString("student_email"),
+                            rs.getInt("sequence_order"),
+                            rs.getInt("attempt_number"),
+                            rs.getString("file_path"),
+                            rs.getTimestamp("submission_timestamp").toLocalDateTime()
+                    ));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "DB FALHA (getEntregasTG): " + e.getMessage(), e);
+            return null;
+        }
+        return entregas;
+    }
+
+    private static final int UPLOAD_MAX_TENTATIVAS = 5;
+
     /**
      * Função: Realiza o upload de uma nova versão (submissão) de uma tarefa.
+     * O número da versão é reservado incrementando a linha da task em task_versao_contador na mesma transação do INSERT:
+     * uploads simultâneos da mesma task esperam um pelo outro, e os de tasks diferentes não se bloqueiam.
+     * Em caso de conflito (deadlock, timeout de lock ou chave duplicada) a transação é refeita.
      * Necessita: Email do aluno, número de sequência da tarefa, nome do arquivo e caminho de armazenamento.
      * Retorna: O número da nova tentativa (versão) criada ou -1 em caso de erro.
      */
     public static int uploadNovaVersao(String emailAluno, int sequence_order, String nomeArquivo, String caminhoArquivo) {
-        int proximoNumeroVersao = 1;
-
-        String sqlMaxVersao = "SELECT MAX(attempt_number) AS max_attempt FROM task_submission " +
-                "WHERE student_email = ? AND sequence_order = ?";
-
-        try (Connection conn = DatabaseConnect.getConnection();
-             PreparedStatement stmtMax = conn.prepareStatement(sqlMaxVersao)) {
+        String sqlReservarVersao = "INSERT INTO task_versao_contador (student_email, sequence_order, ultima_versao) VALUES (?, ?, 1) " +
+                "ON DUPLICATE KEY UPDATE ultima_versao = ultima_versao + 1";
+        String sqlLerVersao = "SELECT ultima_versao FROM task_versao_contador WHERE student_email = ? AND sequence_order = ?";
+        String sqlInsert = "INSERT INTO task_submission " +
+                "(student_email, sequence_order, submission_timestamp, file_path, submission_title, attempt_number) " +
+                "VALUES (?, ?, NOW(3), ?, ?, ?)";
+
+        for (int tentativa = 1; tentativa <= UPLOAD_MAX_TENTATIVAS; tentativa++) {
+            Connection conn = null;
+            try {
+                conn = DatabaseConnect.getConnection();
+                conn.setAutoCommit(false);
+
+                // 1. Reserva o número (a linha fica bloqueada para esta task até o commit)
+                try (PreparedStatement stmt = conn.prepareStatement(sqlReservarVersao)) {
+                    stmt.setString(1, emailAluno);
+                    stmt.setInt(2, sequence_order);
+                    stmt.executeUpdate();
+                }
 
-            stmtMax.setString(1, emailAluno);
-            stmtMax.setInt(2, sequence_order);
+                int numeroVersao;
+                try (PreparedStatement stmt = conn.prepareStatement(sqlLerVersao)) {
+                    stmt.setString(1, emailAluno);
+                    stmt.setInt(2, sequence_order);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        if (!rs.next()) {
+                            throw new SQLException("Contador de versão não encontrado para " + emailAluno + " / " + sequence_order);
+                        }
+                        numeroVersao = rs.getInt("ultima_versao");
+                    }
+                }
 
-            try (ResultSet rs = stmtMax.executeQuery()) {
-                if (rs.next() && rs.getObject("max_attempt") != null) {
-                    proximoNumeroVersao = rs.getInt("max_attempt") + 1;
+                // 2. Grava a entrega com o número reservado
+                try (PreparedStatement stmtInsert = conn.prepareStatement(sqlInsert)) {
+                    stmtInsert.setString(1, emailAluno);
+                    stmtInsert.setInt(2, sequence_order);
+                    stmtInsert.setString(3, caminhoArquivo);
+                    stmtInsert.setString(4, nomeArquivo);
+                    stmtInsert.setInt(5, numeroVersao);
+                    stmtInsert.executeUpdate();
                 }
-            }
 
-            String sqlInsert = "INSERT INTO task_submission " +
-                    "(student_email, sequence_order, submission_timestamp, file_path, submission_title, attempt_number) " +
-                    "VALUES (?, ?, NOW(), ?, ?, ?)";
+                ResumoDashboardUtils.atualizarResumosDoAluno(conn, emailAluno);
+
+                conn.commit();
+                IndiceTextoTG.registrarVersao(new EntregaTG(emailAluno, sequence_order, numeroVersao, caminhoArquivo));
+                return numeroVersao;
 
-            try (PreparedStatement stmtInsert = conn.prepareStatement(sqlInsert)) {
-                stmtInsert.setString(1, emailAluno);
-                stmtInsert.setInt(2, sequence_order);
-                stmtInsert.setString(3, caminhoArquivo);
-                stmtInsert.setString(4, nomeArquivo);
-                stmtInsert.setInt(5, proximoNumeroVersao);
-                stmtInsert.executeUpdate();
+            } catch (SQLException e) {
+                if (conn != null) {
+                    try { conn.rollback(); } catch (SQLException ex) { LOGGER.log(Level.SEVERE, "DB FALHA (Rollback): " + ex.getMessage(), ex); }
+                }
+                if (isConflitoDeConcorrencia(e) && tentativa < UPLOAD_MAX_TENTATIVAS) {
+                    LOGGER.log(Level.WARNING, "Conflito ao gravar versão de " + emailAluno + " / " + sequence_order + " (tentativa " + tentativa + "); repetindo.");
+                    esperarAntesDeRepetir(tentativa);
+                    continue;
+                }
+                LOGGER.log(Level.SEVERE, "DB FALHA (Upload Nova Versão): " + e.getMessage(), e);
+                return -1;
+            } finally {
+                if (conn != null) {
+                    try { conn.setAutoCommit(true); conn.close(); } catch (SQLException e) { e.printStackTrace(); }
+                }
             }
+        }
+        return -1;
+    }
 
-            return proximoNumeroVersao;
+    /**
+     * Função: Indica se a falha é um conflito entre transações que vale a pena repetir.
+     * 40001 = deadlock/serialização, 1205 = timeout de lock (MySQL), 1062/23505 = chave duplicada (ex: mesmo horário de entrega).
+     */
+    private static boolean isConflitoDeConcorrencia(SQLException e) {
+        String sqlState = e.getSQLState();
+        return "40001".equals(sqlState) || "23505".equals(sqlState) || e.getErrorCode() == 1205 || e.getErrorCode() == 1062;
+    }
 
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "DB FALHA (Upload Nova Versão): " + e.getMessage(), e);
-            return -1;
+    private static void esperarAntesDeRepetir(int tentativa) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(5, 20L * tentativa + 5));
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
         }
     }
 
@@ -567,6 +927,8 @@ public class DatabaseUtils {
             stmtInsert.setString(4, password); // A senha em texto (como está no seu login)
 
             int rowsAffected = stmtInsert.executeUpdate();
+            // Consultas anteriores podem ter guardado "usuário não encontrado"
+            invalidarDadosUsuario(email);
             return rowsAffected > 0;
 
         } catch (SQLException e) {
@@ -668,7 +1030,11 @@ public class DatabaseUtils {
             }
 
 
+            ResumoDashboardUtils.atualizarResumosDoAluno(conn, emailAluno);
+
             conn.commit();
+            TipoUsuarioCache.invalidar(emailAluno);
+            invalidarDadosUsuario(emailAluno);
             return true;
 
         } catch (Exception e) {
@@ -699,6 +1065,7 @@ public class DatabaseUtils {
             stmtUpdate.setString(1, urlFoto);
             stmtUpdate.setString(2, email);
             stmtUpdate.executeUpdate();
+            CACHE_FOTO_PERFIL.invalidar(email);
 
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "DB FALHA (Atualizar Foto Perfil): Não foi possível atualizar a foto para " + email, e);
@@ -728,6 +1095,26 @@ public class DatabaseUtils {
         return turmas;
     }
 
+    /**
+     * Função: Lê as versões das listas de referência (turmas, professores), usadas pelo DadosReferenciaCache.
+     * Retorna: Um Map nome -> versão, ou null em caso de erro.
+     */
+    public static Map<String, Long> getVersoesDadosReferencia() {
+        Map<String, Long> versoes = new HashMap<>();
+        String sql = "SELECT nome, versao FROM dados_referencia_versao";
+        try (Connection conn = DatabaseConnect.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                versoes.put(rs.getString("nome"), rs.getLong("versao"));
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "DB FALHA (getVersoesDadosReferencia): " + e.getMessage(), e);
+            return null;
+        }
+        return versoes;
+    }
+
     /**
      * Função: Conclui o cadastro de um novo professor.
      */
@@ -768,6 +1155,8 @@ public class DatabaseUtils {
             }
 
             conn.commit();
+            TipoUsuarioCache.invalidar(emailProfessor);
+            DiretorioCache.marcarAlterado(emailProfessor);
             return true;
 
         } catch (Exception e) {
@@ -934,21 +1323,7 @@ public class DatabaseUtils {
             stmt.setString(1, userEmail);
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    int id = rs.getInt("notification_id");
-                    String email = rs.getString("user_email");
-                    // O timestamp é um DATETIME no MySQL, que mapeia para Timestamp no JDBC
-                    Timestamp ts = rs.getTimestamp("timestamp");
-                    LocalDateTime timestamp = ts != null ? ts.toLocalDateTime() : null;
-                    String content = rs.getString("content");
-                    String relatedStudentEmail = rs.getString("related_task_student_email");
-                    // O getInt retorna 0 se o valor for NULL, o que pode ser problemático.
-                    // Usaremos o wrapper para verificar se é NULL.
-                    int relatedSequence = rs.getObject("related_task_sequence_order") != null ? rs.getInt("related_task_sequence_order") : 0;
-                    boolean isRead = rs.getBoolean("is_read");
-
-                    notificacoes.add(new Notification(
-                            id, email, timestamp, content, relatedStudentEmail, relatedSequence, isRead
-                    ));
+                    notificacoes.add(mapResultSetToNotification(rs));
                 }
             }
         } catch (SQLException e) {
@@ -957,6 +1332,61 @@ public class DatabaseUtils {
         return notificacoes;
     }
 
+    /**
+     * Função: Lista uma página de notificações, da mais recente para a mais antiga, usando paginação por chave (keyset)
+     * em (timestamp, notification_id): a página seguinte começa logo após a última notificação já exibida,
+     * sem OFFSET, aproveitando o índice idx_notification_user_time.
+     * Necessita: Email do usuário, a última notificação da página anterior (null para a primeira página) e o tamanho da página.
+     * Retorna: Até 'limite' notificações, ou lista vazia em caso de erro.
+     */
+    public static List<Notification> listarNotificacoesPagina(String userEmail, Notification ultimaDaPaginaAnterior, int limite) {
+        List<Notification> notificacoes = new ArrayList<>();
+        String sql = "SELECT notification_id, user_email, timestamp, content, related_task_student_email, related_task_sequence_order, is_read " +
+                "FROM notification WHERE user_email = ? " +
+                (ultimaDaPaginaAnterior != null ? "AND (timestamp < ? OR (timestamp = ? AND notification_id < ?)) " : "") +
+                "ORDER BY timestamp DESC, notification_id DESC LIMIT ?";
+
+        try (Connection conn = DatabaseConnect.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            int i = 1;
+            stmt.setString(i++, userEmail);
+            if (ultimaDaPaginaAnterior != null) {
+                Timestamp cursor = Timestamp.valueOf(ultimaDaPaginaAnterior.getTimestamp());
+                stmt.setTimestamp(i++, cursor);
+                stmt.setTimestamp(i++, cursor);
+                stmt.setInt(i++, ultimaDaPaginaAnterior.getNotificationId());
+            }
+            stmt.setInt(i, limite);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    notificacoes.add(mapResultSetToNotification(rs));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "DB FALHA (listarNotificacoesPagina): " + e.getMessage(), e);
+            return Collections.emptyList();
+        }
+        return notificacoes;
+    }
+
+    private static Notification mapResultSetToNotification(ResultSet rs) throws SQLException {
+        int id = rs.getInt("notification_id");
+        String email = rs.getString("user_email");
+        // O timestamp é um DATETIME no MySQL, que mapeia para Timestamp no JDBC
+        Timestamp ts = rs.getTimestamp("timestamp");
+        LocalDateTime timestamp = ts != null ? ts.toLocalDateTime() : null;
+        String content = rs.getString("content");
+        String relatedStudentEmail = rs.getString("related_task_student_email");
+        // O getInt retorna 0 se o valor for NULL, o que pode ser problemático.
+        // Usaremos o wrapper para verificar se é NULL.
+        int relatedSequence = rs.getObject("related_task_sequence_order") != null ? rs.getInt("related_task_sequence_order") : 0;
+        boolean isRead = rs.getBoolean("is_read");
+
+        return new Notification(id, email, timestamp, content, relatedStudentEmail, relatedSequence, isRead);
+    }
+
     /**
      * Função: Marca uma notificação específica como lida.
      * Necessita: ID da notificação.
@@ -976,6 +1406,50 @@ public class DatabaseUtils {
         }
     }
 
+    /**
+     * Função: Marca várias notificações como lidas com um único UPDATE ... IN (...) por bloco de ids.
+     * Usado pelo ConfirmacaoLeituraBuffer para gravar as leituras acumuladas.
+     * Necessita: Os ids das notificações.
+     * Retorna: true se todas as atualizações foram executadas, false em caso de erro (nada é gravado).
+     */
+    public static boolean marcarComoLidas(List<Integer> notificationIds) {
+        if (notificationIds.isEmpty()) {
+            return true;
+        }
+        final int idsPorUpdate = 500;
+        Connection conn = null;
+        try {
+            conn = DatabaseConnect.getConnection();
+            conn.setAutoCommit(false);
+
+            for (int inicio = 0; inicio < notificationIds.size(); inicio += idsPorUpdate) {
+                List<Integer> bloco = notificationIds.subList(inicio, Math.min(inicio + idsPorUpdate, notificationIds.size()));
+                String sql = "UPDATE notification SET is_read = TRUE WHERE notification_id IN (" +
+                        String.join(", ", Collections.nCopies(bloco.size(), "?")) + ")";
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < bloco.size(); i++) {
+                        stmt.setInt(i + 1, bloco.get(i));
+                    }
+                    stmt.executeUpdate();
+                }
+            }
+
+            conn.commit();
+            return true;
+
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "DB FALHA (marcarComoLidas): " + e.getMessage(), e);
+            if (conn != null) {
+                try { conn.rollback(); } catch (SQLException ex) { LOGGER.log(Level.SEVERE, "DB FALHA (Rollback): " + ex.getMessage(), ex); }
+            }
+            return false;
+        } finally {
+            if (conn != null) {
+                try { conn.setAutoCommit(true); conn.close(); } catch (SQLException e) { e.printStackTrace(); }
+            }
+        }
+    }
+
     /**
      * Função: Marca todas as notificações de um usuário como lidas.
      * Necessita: Email do usuário.
@@ -1016,6 +1490,63 @@ public class DatabaseUtils {
         }
         return 0;
     }
+
+    /**
+     * Função: Busca, numa única consulta, o maior notification_id e o total de não lidas de um usuário.
+     * Usado para iniciar o NotificacaoPoller.
+     * Necessita: Email do usuário.
+     * Retorna: Um Map com "ultimoId" e "naoLidas", ou null em caso de erro.
+     */
+    public static Map<String, Integer> getResumoNotificacoes(String userEmail) {
+        String sql = "SELECT COALESCE(MAX(notification_id), 0) AS ultimo_id, " +
+                "COALESCE(SUM(CASE WHEN is_read = FALSE THEN 1 ELSE 0 END), 0) AS nao_lidas " +
+                "FROM notification WHERE user_email = ?";
+        try (Connection conn = DatabaseConnect.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, userEmail);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    Map<String, Integer> resumo = new HashMap<>();
+                    resumo.put("ultimoId", rs.getInt("ultimo_id"));
+                    resumo.put("naoLidas", rs.getInt("nao_lidas"));
+                    return resumo;
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "DB FALHA (getResumoNotificacoes): " + e.getMessage(), e);
+        }
+        return null;
+    }
+
+    /**
+     * Função: Lista apenas as notificações mais novas que a última já vista (notification_id > ultimoIdVisto).
+     * Usa o índice idx_notification_user_id (ver Code/SQL/20261018_Indice_Notificacao_Id.sql).
+     * Necessita: Email do usuário, o último notification_id visto e o máximo de linhas.
+     * Retorna: As notificações novas em ordem crescente de id, ou null em caso de erro.
+     */
+    public static List<Notification> listarNotificacoesApos(String userEmail, int ultimoIdVisto, int limite) {
+        List<Notification> notificacoes = new ArrayList<>();
+        String sql = "SELECT notification_id, user_email, timestamp, content, related_task_student_email, related_task_sequence_order, is_read " +
+                "FROM notification WHERE user_email = ? AND notification_id > ? ORDER BY notification_id LIMIT ?";
+
+        try (Connection conn = DatabaseConnect.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, userEmail);
+            stmt.setInt(2, ultimoIdVisto);
+            stmt.setInt(3, limite);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    notificacoes.add(mapResultSetToNotification(rs));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "DB FALHA (listarNotificacoesApos): " + e.getMessage(), e);
+            return null;
+        }
+        return notificacoes;
+    }
     /**
      * Função: Estrutura o envio opcional de e-mail (método dummy).
      * Necessita: Email do destinatário, assunto e corpo do e-mail.
@@ -1059,45 +1590,66 @@ public class DatabaseUtils {
         String sql = "INSERT INTO task_review (student_email, sequence_order, submission_timestamp, reviewer_email, status, review_comment, review_timestamp) " +
                 "VALUES (?, ?, ?, ?, ?, ?, NOW())";
 
-        try (Connection conn = DatabaseConnect.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        int rows;
+        Connection conn = null;
+        try {
+            conn = DatabaseConnect.getConnection();
+            conn.setAutoCommit(false);
 
-            stmt.setString(1, emailAluno);
-            stmt.setInt(2, sequencia);
-            stmt.setTimestamp(3, java.sql.Timestamp.valueOf(dataSubmissao));
-            stmt.setString(4, emailProfessor);
-            stmt.setString(5, status);
-            stmt.setString(6, comentario);
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, emailAluno);
+                stmt.setInt(2, sequencia);
+                stmt.setTimestamp(3, java.sql.Timestamp.valueOf(dataSubmissao));
+                stmt.setString(4, emailProfessor);
+                stmt.setString(5, status);
+                stmt.setString(6, comentario);
 
-            int rows = stmt.executeUpdate();
+                rows = stmt.executeUpdate();
+            }
+
+            // O trigger trg_complete_task_on_approval já alterou as tasks nesta transação
+            ResumoDashboardUtils.atualizarResumosDoAluno(conn, emailAluno);
 
             if (rows > 0) {
-                // --- INTEGRAÇÃO COM SEU MÉTODO DE NOTIFICAÇÃO ---
+                // Aviso ao aluno entra na outbox junto com a avaliação (entregue pelo OutboxNotificacao)
+                String tituloTask = null;
+                try (PreparedStatement stmt = conn.prepareStatement("SELECT title FROM task WHERE student_email = ? AND sequence_order = ?")) {
+                    stmt.setString(1, emailAluno);
+                    stmt.setInt(2, sequencia);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        if (rs.next()) {
+                            tituloTask = rs.getString("title");
+                        }
+                    }
+                }
 
-                // 1. Busca o título da tarefa para a mensagem ficar mais bonita
-                String tituloTask = getTituloTask(emailAluno, sequencia);
                 String mensagem;
-
-                // 2. Define a mensagem baseada na decisão
                 if ("approved".equals(status)) {
                     mensagem = "Parabéns! Sua entrega para '" + tituloTask + "' foi APROVADA pelo orientador.";
                 } else {
                     mensagem = "Atenção: Sua entrega para '" + tituloTask + "' requer revisão. Veja o feedback do orientador.";
                 }
-
-                // 3. Chama o SEU método existente enviarNotificacao
-                enviarNotificacao(
-                        emailAluno,             // Destinatário (Aluno)
-                        mensagem,               // Conteúdo
-                        emailAluno,             // Email relacionado à task
-                        sequencia               // ID da task relacionada
-                );
-
-                return true;
+                OutboxNotificacao.registrar(conn, emailAluno, mensagem, "Nova Notificação no TGControl", emailAluno, sequencia);
             }
 
+            conn.commit();
+
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "DB FALHA (Salvar Avaliação): " + e.getMessage(), e);
+            if (conn != null) {
+                try { conn.rollback(); } catch (SQLException ex) { LOGGER.log(Level.SEVERE, "DB FALHA (Rollback): " + ex.getMessage(), ex); }
+            }
+            return false;
+        } finally {
+            if (conn != null) {
+                try { conn.setAutoCommit(true); conn.close(); } catch (SQLException e) { e.printStackTrace(); }
+            }
+        }
+
+        if (rows > 0) {
+            invalidarTgConcluido(emailAluno);
+            OutboxNotificacao.acordar();
+            return true;
         }
         return false;
     }
@@ -1187,12 +1739,27 @@ public class DatabaseUtils {
     }
 
 
+    // Conclusão do TG: muda só quando uma revisão é aprovada (salvarAvaliacaoProfessor invalida).
+    // TTL curto cobre aprovações feitas em outra instância do aplicativo.
+    private static final long CACHE_TG_CONCLUIDO_TTL_MS = 30_000;
+    private static final CacheLRU<String, Boolean> CACHE_TG_CONCLUIDO = new CacheLRU<>("tgConcluido", 5_000, CACHE_TG_CONCLUIDO_TTL_MS);
+    private static final CacheLRU<String, Map<String, Boolean>> CACHE_TG_CONCLUIDO_LOTE = new CacheLRU<>("tgConcluidoLote", 200, CACHE_TG_CONCLUIDO_TTL_MS);
+
     /**
-     * Função: Verifica se todas as tarefas de um aluno foram marcadas como 'completed'.
+     * Função: Verifica se todas as tarefas de um aluno foram marcadas como 'completed' (com cache).
      * @param emailAluno Email do aluno.
      * @return true se o número de tarefas completas for igual ao máximo de tarefas configurado, false caso contrário.
      */
     public static boolean isTgConcluido(String emailAluno) {
+        try {
+            return CACHE_TG_CONCLUIDO.get(emailAluno, DatabaseUtils::buscarTgConcluido);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "DB FALHA (isTgConcluido): Falha ao verificar conclusão do TG para o aluno " + emailAluno, e);
+            return false;
+        }
+    }
+
+    private static Boolean buscarTgConcluido(String emailAluno) throws SQLException {
         String sql = "SELECT COUNT(*) as completed_tasks, c.max_tasks " +
                 "FROM task t " +
                 "JOIN student s ON t.student_email = s.email " +
@@ -1212,18 +1779,94 @@ public class DatabaseUtils {
                     return completedTasks >= maxTasks;
                 }
             }
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "DB FALHA (isTgConcluido): Falha ao verificar conclusão do TG para o aluno " + emailAluno, e);
         }
         return false;
     }
 
+    /**
+     * Função: Conclusão do TG de todos os alunos de uma turma, num único GROUP BY (com cache).
+     * Necessita: Disciplina, ano e semestre da turma.
+     * Retorna: Mapa email do aluno -> TG concluído (todos os alunos da turma), ou mapa vazio em caso de erro.
+     */
+    public static Map<String, Boolean> getTgsConcluidosTurma(String disciplina, int year, int semester) {
+        return getTgsConcluidosEmLote("turma:" + disciplina + "/" + year + "/" + semester,
+                "s.class_disciplina = ? AND s.class_year = ? AND s.class_semester = ?", stmt -> {
+                    stmt.setString(1, disciplina);
+                    stmt.setInt(2, year);
+                    stmt.setInt(3, semester);
+                });
+    }
+
+    /**
+     * Função: Mesmo que getTgsConcluidosTurma, para todos os orientandos de um professor.
+     * Necessita: Email do professor orientador.
+     * Retorna: Mapa email do aluno -> TG concluído, ou mapa vazio em caso de erro.
+     */
+    public static Map<String, Boolean> getTgsConcluidosOrientandos(String emailProfessor) {
+        return getTgsConcluidosEmLote("orientador:" + emailProfessor, "s.advisor_email = ?",
+                stmt -> stmt.setString(1, emailProfessor));
+    }
+
+    /**
+     * Função: Remove do cache a conclusão do TG de um aluno e todos os lotes (que podem contê-lo).
+     * Chamado após gravar uma revisão, já que o trigger de aprovação altera as tasks.
+     */
+    public static void invalidarTgConcluido(String emailAluno) {
+        CACHE_TG_CONCLUIDO.invalidar(emailAluno);
+        CACHE_TG_CONCLUIDO_LOTE.limpar();
+    }
+
+    private static Map<String, Boolean> getTgsConcluidosEmLote(String chave, String filtro, ParametrosConsulta parametros) {
+        try {
+            return CACHE_TG_CONCLUIDO_LOTE.get(chave, k -> buscarTgsConcluidosEmLote(filtro, parametros));
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "DB FALHA (getTgsConcluidosEmLote): " + chave + ": " + e.getMessage(), e);
+            return Collections.emptyMap();
+        }
+    }
+
+    // Mesma regra de buscarTgConcluido: aluno sem nenhuma task completa nunca está concluído
+    private static Map<String, Boolean> buscarTgsConcluidosEmLote(String filtro, ParametrosConsulta parametros) throws SQLException {
+        String sql = "SELECT s.email, c.max_tasks, SUM(CASE WHEN t.status = 'completed' THEN 1 ELSE 0 END) AS completed_tasks " +
+                "FROM student s " +
+                "JOIN class c ON s.class_disciplina = c.disciplina AND s.class_year = c.year AND s.class_semester = c.semester " +
+                "LEFT JOIN task t ON t.student_email = s.email " +
+                "WHERE " + filtro + " GROUP BY s.email, c.max_tasks";
+
+        long geracao = CACHE_TG_CONCLUIDO.getGeracao();
+        Map<String, Boolean> concluidos = new HashMap<>();
+        try (Connection conn = DatabaseConnect.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            parametros.aplicar(stmt);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    int completedTasks = rs.getInt("completed_tasks");
+                    concluidos.put(rs.getString("email"), completedTasks > 0 && completedTasks >= rs.getInt("max_tasks"));
+                }
+            }
+        }
+        // Aquece o cache por aluno: isTgConcluido dos alunos do lote não consulta mais o banco
+        concluidos.forEach((email, concluido) -> CACHE_TG_CONCLUIDO.registrar(email, concluido, geracao));
+        return Collections.unmodifiableMap(concluidos);
+    }
+
     /**
      * Função: Busca detalhes de exibição de um aluno (nome do orientador e descrição da turma) usando a view vw_student_details.
      * @param emailAluno Email do aluno.
      * @return Um Map com os detalhes ou null se o email não for de um aluno.
      */
     public static Map<String, String> getStudentDisplayDetails(String emailAluno) {
+        try {
+            return CACHE_DETALHES_ALUNO.get(emailAluno, DatabaseUtils::buscarStudentDisplayDetails);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "DB FALHA (getStudentDisplayDetails): Falha ao buscar detalhes do aluno " + emailAluno, e);
+            return null;
+        }
+    }
+
+    private static Map<String, String> buscarStudentDisplayDetails(String emailAluno) throws SQLException {
         Map<String, String> details = new HashMap<>();
         // Usa a VIEW vw_student_details que já tem a descrição da turma
         String sql = "SELECT vsd.turma_descricao, u_adv.FirstName, u_adv.LastName, vsd.advisor_email " +
@@ -1246,11 +1889,10 @@ public class DatabaseUtils {
                     details.put("turma_descricao", rs.getString("turma_descricao"));
                     details.put("advisor_name", advisorName != null ? advisorName : "Não Atribuído");
                     details.put("advisor_email", rs.getString("advisor_email"));
-                    return details;
+                    // Compartilhado pelo cache: não pode ser alterado por quem recebe
+                    return Collections.unmodifiableMap(details);
                 }
             }
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "DB FALHA (getStudentDisplayDetails): Falha ao buscar detalhes do aluno " + emailAluno, e);
         }
         return null;
     }
@@ -1261,25 +1903,36 @@ public class DatabaseUtils {
         String sql = "INSERT INTO defesa_tg (student_email, scheduler_email, data_hora_defesa, local_defesa, banca_avaliadora, status_defesa) " +
                 "VALUES (?, ?, ?, ?, ?, 'Agendada')";
 
-        try (Connection conn = DatabaseConnect.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        Connection conn = null;
+        try {
+            conn = DatabaseConnect.getConnection();
+            conn.setAutoCommit(false);
 
-            stmt.setString(1, studentEmail);
-            stmt.setString(2, schedulerEmail);
-            stmt.setTimestamp(3, Timestamp.valueOf(dataHora));
-            stmt.setString(4, localDefesa);
-            stmt.setString(5, bancaAvaliadora);
+            int rows;
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, studentEmail);
+                stmt.setString(2, schedulerEmail);
+                stmt.setTimestamp(3, Timestamp.valueOf(dataHora));
+                stmt.setString(4, localDefesa);
+                stmt.setString(5, bancaAvaliadora);
 
-            int rows = stmt.executeUpdate();
+                rows = stmt.executeUpdate();
+            }
 
             if (rows > 0) {
                 String content = "Sua defesa de TG foi agendada para: " + dataHora.format(DateTimeFormatter.ofPattern("dd/MM/yyyy 'às' HH:mm")) + " no local: " + localDefesa;
-                enviarNotificacao(studentEmail, content, null, 0);
+                OutboxNotificacao.registrar(conn, studentEmail, content, "Nova Notificação no TGControl", null, 0);
+                conn.commit();
+                OutboxNotificacao.acordar();
                 LOGGER.log(Level.INFO, "Defesa agendada para: " + studentEmail);
                 return true;
             }
+            conn.rollback();
 
         } catch (SQLException e) {
+            if (conn != null) {
+                try { conn.rollback(); } catch (SQLException ex) { LOGGER.log(Level.SEVERE, "DB FALHA (Rollback): " + ex.getMessage(), ex); }
+            }
             if (e.getSQLState() != null && e.getSQLState().startsWith("23")) {
                 LOGGER.log(Level.WARNING, "Conflito de agendamento: Possível data/local já ocupado.", e);
                 UIUtils.showAlert("Erro de Agendamento", "O horário ou local selecionado já está ocupado. Verifique a agenda.");
@@ -1287,7 +1940,11 @@ public class DatabaseUtils {
                 LOGGER.log(Level.SEVERE, "DB FALHA (Agendar Defesa): " + e.getMessage(), e);
                 UIUtils.showAlert("Erro de Banco de Dados", "Não foi possível salvar o agendamento.");
             }
+        } finally {
+            if (conn != null) {
+                try { conn.setAutoCommit(true); conn.close(); } catch (SQLException e) { e.printStackTrace(); }
+            }
         }
         return false;
     }
-}
\ No newline at end of file
+}
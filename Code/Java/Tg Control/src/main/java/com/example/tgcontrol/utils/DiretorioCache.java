@@ -0,0 +1,246 @@
+package com.example.tgcontrol.utils;
+
+import com.example.tgcontrol.model.TipoUsuario;
+import com.example.tgcontrol.model.Turma;
+import com.example.tgcontrol.model.UsuarioResumo;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Utilitário: Diretório em memória de usuários, professores e turmas para busca instantânea (IndiceBusca).
+ * Carregado uma vez; depois, em segundo plano, só busca o que mudou:
+ * - usuários cadastrados desde a última leitura (user.registration_timestamp);
+ * - usuários alterados por esta aplicação (marcarAlterado, chamado por DatabaseUtils.invalidarDadosUsuario);
+ * - turmas, quando o DadosReferenciaCache troca a lista.
+ * Uma recarga completa periódica cobre alterações feitas por outras instâncias (ex: nome alterado, usuário removido).
+ * Só é iniciado em sessões de professor (as telas de busca). As consultas podem carregar o diretório do banco,
+ * então devem ser chamadas fora da thread do JavaFX (DatabaseAsync).
+ */
+public final class DiretorioCache {
+
+    private static final Logger LOGGER = Logger.getLogger(DiretorioCache.class.getName());
+
+    private static final long INTERVALO_ATUALIZACAO_S = 30;
+    private static final long INTERVALO_RECARGA_COMPLETA_MS = 15 * 60_000;
+    // Depois de uma carga que falhou, as buscas não tentam de novo antes disso (o atualizador tenta no seu ciclo)
+    private static final long ESPERA_APOS_FALHA_MS = 30_000;
+
+    private static final IndiceBusca<UsuarioResumo> USUARIOS =
+            new IndiceBusca<>(UsuarioResumo::getEmail, u -> u.getNomeCompleto() + " " + u.getEmail());
+    private static final IndiceBusca<UsuarioResumo> PROFESSORES =
+            new IndiceBusca<>(UsuarioResumo::getEmail, u -> u.getNomeCompleto() + " " + u.getEmail());
+    private static final IndiceBusca<Turma> TURMAS =
+            new IndiceBusca<>(Turma::getDescricaoTurma, Turma::getDescricaoTurma);
+
+    private static final Set<String> ALTERADOS = ConcurrentHashMap.newKeySet();
+
+    private static volatile boolean carregado = false;
+    private static volatile LocalDateTime ultimoCadastroLido;
+    private static volatile long ultimaRecargaCompleta;
+    private static volatile long ultimaFalhaCarga;
+    private static volatile List<Turma> turmasIndexadas;
+
+    // Lock próprio da atualização: quem marca alterações (gravações, thread do JavaFX) nunca espera uma consulta
+    private static final Object ATUALIZACAO = new Object();
+
+    private static volatile ScheduledExecutorService atualizador;
+
+    private DiretorioCache() {
+    }
+
+    /**
+     * Função: Inicia a atualização periódica em segundo plano (a primeira já carrega o diretório).
+     * Chamado no login de professores; chamadas seguintes não têm efeito.
+     */
+    public static synchronized void iniciar() {
+        if (atualizador != null) {
+            return;
+        }
+        atualizador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "tgcontrol-diretorio");
+            t.setDaemon(true);
+            return t;
+        });
+        atualizador.scheduleWithFixedDelay(DiretorioCache::atualizar, 0, INTERVALO_ATUALIZACAO_S, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Função: Para a atualização em segundo plano. Chamado ao fechar a aplicação.
+     */
+    public static synchronized void encerrar() {
+        if (atualizador != null) {
+            atualizador.shutdownNow();
+            atualizador = null;
+        }
+    }
+
+    /**
+     * Função: Marca um usuário para ser relido do banco (cadastro, troca de papel, nome ou foto).
+     * A releitura acontece em segundo plano, sem esperar o próximo intervalo.
+     */
+    public static void marcarAlterado(String email) {
+        ScheduledExecutorService executor = atualizador;
+        if (email == null || executor == null) {
+            return; // Diretório não iniciado nesta sessão (ex: aluno): a próxima carga completa já lê o usuário
+        }
+        ALTERADOS.add(email);
+        try {
+            executor.execute(DiretorioCache::atualizar);
+        } catch (RejectedExecutionException e) {
+            // Aplicação encerrando: nada a fazer
+        }
+    }
+
+    /**
+     * Função: Busca usuários (alunos, professores e perfis incompletos) por nome ou email.
+     * Necessita: O texto digitado e o máximo de resultados.
+     */
+    public static List<UsuarioResumo> buscarUsuarios(String consulta, int limite) {
+        garantirCarregado();
+        return USUARIOS.buscar(consulta, limite);
+    }
+
+    /**
+     * Função: Busca professores (orientadores e coordenadores) por nome ou email.
+     */
+    public static List<UsuarioResumo> buscarProfessores(String consulta, int limite) {
+        garantirCarregado();
+        return PROFESSORES.buscar(consulta, limite);
+    }
+
+    /**
+     * Função: Busca turmas pela descrição ("Disciplina (ano/semestre)").
+     */
+    public static List<Turma> buscarTurmas(String consulta, int limite) {
+        garantirCarregado();
+        return TURMAS.buscar(consulta, limite);
+    }
+
+    /**
+     * Retorna: O usuário com o email informado, ou null se não estiver no diretório.
+     */
+    public static UsuarioResumo getUsuario(String email) {
+        garantirCarregado();
+        return USUARIOS.get(email);
+    }
+
+    // Primeira consulta antes do carregamento em segundo plano terminar: carrega na hora.
+    // Com o banco fora do ar, devolve o índice vazio em vez de tentar de novo a cada consulta.
+    private static void garantirCarregado() {
+        if (!carregado && System.currentTimeMillis() - ultimaFalhaCarga > ESPERA_APOS_FALHA_MS) {
+            atualizar();
+        }
+    }
+
+    /**
+     * Retorna: true depois que o diretório foi carregado do banco pela primeira vez.
+     */
+    public static boolean isCarregado() {
+        return carregado;
+    }
+
+    private static void atualizar() {
+        synchronized (ATUALIZACAO) {
+            try {
+                if (!carregado || System.currentTimeMillis() - ultimaRecargaCompleta > INTERVALO_RECARGA_COMPLETA_MS) {
+                    recarregarUsuarios();
+                } else {
+                    atualizarUsuarios();
+                }
+                atualizarTurmas();
+            } catch (RuntimeException e) {
+                // Não deixa uma falha cancelar as próximas execuções agendadas
+                LOGGER.log(Level.SEVERE, "Falha ao atualizar o diretório.", e);
+            }
+        }
+    }
+
+    private static void recarregarUsuarios() {
+        ALTERADOS.clear();
+        List<UsuarioResumo> usuarios = DatabaseUtils.getUsuariosDiretorio(null, null);
+        if (usuarios == null) {
+            ultimaFalhaCarga = System.currentTimeMillis();
+            return; // Falha já registrada; tenta de novo na próxima execução
+        }
+
+        List<UsuarioResumo> professores = new ArrayList<>();
+        for (UsuarioResumo usuario : usuarios) {
+            if (isProfessor(usuario)) {
+                professores.add(usuario);
+            }
+            registrarCadastro(usuario);
+        }
+        USUARIOS.sincronizar(usuarios);
+        PROFESSORES.sincronizar(professores);
+
+        ultimaRecargaCompleta = System.currentTimeMillis();
+        carregado = true;
+        LOGGER.log(Level.INFO, "Diretório carregado: " + USUARIOS.getTamanho() + " usuários, " + PROFESSORES.getTamanho() + " professores.");
+    }
+
+    private static void atualizarUsuarios() {
+        List<UsuarioResumo> novos = DatabaseUtils.getUsuariosDiretorio(ultimoCadastroLido, null);
+        if (novos != null) {
+            novos.forEach(DiretorioCache::indexar);
+        }
+
+        if (ALTERADOS.isEmpty()) {
+            return;
+        }
+        List<String> emails = new ArrayList<>(ALTERADOS);
+        List<UsuarioResumo> alterados = DatabaseUtils.getUsuariosDiretorio(null, emails);
+        if (alterados == null) {
+            return; // Mantém os emails marcados para a próxima execução
+        }
+        emails.forEach(ALTERADOS::remove);
+        alterados.forEach(DiretorioCache::indexar);
+
+        // Email marcado que não voltou do banco: usuário removido
+        for (String email : emails) {
+            if (alterados.stream().noneMatch(u -> u.getEmail().equals(email))) {
+                USUARIOS.remover(email);
+                PROFESSORES.remover(email);
+            }
+        }
+    }
+
+    private static void atualizarTurmas() {
+        List<Turma> atuais = DadosReferenciaCache.getTurmas();
+        // DadosReferenciaCache troca a lista inteira quando as turmas mudam: mesma instância = nada mudou
+        if (atuais != turmasIndexadas) {
+            TURMAS.sincronizar(atuais);
+            turmasIndexadas = atuais;
+        }
+    }
+
+    private static void indexar(UsuarioResumo usuario) {
+        USUARIOS.atualizar(usuario);
+        if (isProfessor(usuario)) {
+            PROFESSORES.atualizar(usuario);
+        } else {
+            PROFESSORES.remover(usuario.getEmail());
+        }
+        registrarCadastro(usuario);
+    }
+
+    private static void registrarCadastro(UsuarioResumo usuario) {
+        LocalDateTime cadastro = usuario.getDataCadastro();
+        if (cadastro != null && (ultimoCadastroLido == null || cadastro.isAfter(ultimoCadastroLido))) {
+            ultimoCadastroLido = cadastro;
+        }
+    }
+
+    private static boolean isProfessor(UsuarioResumo usuario) {
+        return usuario.getTipo() == TipoUsuario.PROFESSOR || usuario.getTipo() == TipoUsuario.PROFESSOR_TG;
+    }
+}
@@ -0,0 +1,359 @@
+package com.example.tgcontrol.utils;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Utilitário: Índice de busca em memória por trigramas, sem diferenciar maiúsculas nem acentos ("joao" acha "João").
+ * Cada palavra é indexada com o início marcado, então o mesmo índice responde prefixos curtos ("jo" -> "João")
+ * e trechos de 3+ letras em qualquer posição ("ilva" -> "Silva").
+ * Atualizações são por chave (só a entrada alterada é reindexada). Seguro para várias threads:
+ * buscas em paralelo, atualizações com lock de escrita.
+ */
+public final class IndiceBusca<T> {
+
+    private static final Pattern MARCAS_ACENTO = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+    // Não sobra depois da normalização, então não colide com nenhum texto
+    private static final String INICIO_PALAVRA = "\u0001\u0001";
+    private static final int TAMANHO_TRIGRAMA = 3;
+
+    private static final class Entrada<T> {
+        private final String chave;
+        private final String texto;      // normalizado, palavras separadas por um espaço
+        private final String comEspaco;  // " " + texto: " termo" casa com o início de qualquer palavra
+        private final String ordenacao;  // texto + chave: define a ordem dos resultados e é único
+        private final Set<String> trigramas;
+        private final T valor;
+
+        private Entrada(String chave, String texto, Set<String> trigramas, T valor) {
+            this.chave = chave;
+            this.texto = texto;
+            this.comEspaco = " " + texto;
+            this.ordenacao = texto + '\u0000' + chave;
+            this.trigramas = trigramas;
+            this.valor = valor;
+        }
+    }
+
+    // Ordem dos resultados: primeiro os que casam só por início de palavra, depois alfabética
+    private static final class Resultado<T> implements Comparable<Resultado<T>> {
+        private final Entrada<T> entrada;
+        private final boolean porInicio;
+
+        private Resultado(Entrada<T> entrada, boolean porInicio) {
+            this.entrada = entrada;
+            this.porInicio = porInicio;
+        }
+
+        @Override
+        public int compareTo(Resultado<T> outro) {
+            if (porInicio != outro.porInicio) {
+                return porInicio ? -1 : 1;
+            }
+            return entrada.ordenacao.compareTo(outro.entrada.ordenacao);
+        }
+    }
+
+    private final Function<T, String> chaveDe;
+    private final Function<T, String> textoDe;
+
+    private final Map<String, Entrada<T>> porChave = new HashMap<>();
+    private final Map<String, Set<Entrada<T>>> porTrigrama = new HashMap<>();
+    private final TreeMap<String, Entrada<T>> emOrdem = new TreeMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Necessita: Como obter a chave única de um valor (ex: email) e o texto pesquisável dele (ex: nome + email).
+     */
+    public IndiceBusca(Function<T, String> chaveDe, Function<T, String> textoDe) {
+        this.chaveDe = chaveDe;
+        this.textoDe = textoDe;
+    }
+
+    /**
+     * Função: Remove acentos, passa para minúsculas e troca pontuação por espaço.
+     * Retorna: O texto normalizado (palavras separadas por um único espaço), nunca null.
+     */
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String semAcentos = MARCAS_ACENTO.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARADORES.matcher(semAcentos.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Função: Inclui um valor ou, se a chave já existir, substitui o anterior.
+     * Se o texto pesquisável não mudou, só o valor é trocado (sem reindexar).
+     */
+    public void atualizar(T valor) {
+        String chave = chaveDe.apply(valor);
+        String texto = normalizar(textoDe.apply(valor));
+
+        lock.writeLock().lock();
+        try {
+            atualizarSemLock(chave, texto, valor);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Função: Remove o valor com a chave informada (nada acontece se não existir).
+     */
+    public void remover(String chave) {
+        lock.writeLock().lock();
+        try {
+            removerSemLock(chave);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Função: Deixa o índice igual à coleção recebida: remove as chaves ausentes e atualiza as demais.
+     * Só as entradas cujo texto mudou são reindexadas, então uma recarga completa quase sem mudanças é barata.
+     */
+    public void sincronizar(Collection<T> valores) {
+        Map<String, T> novos = new HashMap<>();
+        Map<String, String> textos = new HashMap<>();
+        for (T valor : valores) {
+            String chave = chaveDe.apply(valor);
+            novos.put(chave, valor);
+            textos.put(chave, normalizar(textoDe.apply(valor)));
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (String chave : new ArrayList<>(porChave.keySet())) {
+                if (!novos.containsKey(chave)) {
+                    removerSemLock(chave);
+                }
+            }
+            novos.forEach((chave, valor) -> atualizarSemLock(chave, textos.get(chave), valor));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Função: Busca os valores cujo texto contém todos os termos da consulta.
+     * Termos de 1-2 letras casam com o início de uma palavra; termos de 3+ letras casam em qualquer posição.
+     * Necessita: A consulta (vazia = todos) e o máximo de resultados.
+     * Retorna: Os resultados, primeiro os que casam só por início de palavra, depois em ordem alfabética.
+     */
+    public List<T> buscar(String consulta, int limite) {
+        String normalizada = normalizar(consulta);
+
+        lock.readLock().lock();
+        try {
+            if (normalizada.isEmpty()) {
+                List<T> todos = new ArrayList<>(Math.min(limite, emOrdem.size()));
+                for (Entrada<T> entrada : emOrdem.values()) {
+                    if (todos.size() >= limite) {
+                        break;
+                    }
+                    todos.add(entrada.valor);
+                }
+                return todos;
+            }
+
+            String[] termos = normalizada.split(" ");
+            List<Set<Entrada<T>>> listas = listasDosTrigramas(termos);
+            if (listas == null) {
+                return Collections.emptyList();
+            }
+
+            // Mantém só os 'limite' melhores (heap com o pior no topo), sem ordenar todos os candidatos
+            PriorityQueue<Resultado<T>> melhores = new PriorityQueue<>(Comparator.reverseOrder());
+            proximo:
+            for (Entrada<T> entrada : listas.get(0)) {
+                for (int i = 1; i < listas.size(); i++) {
+                    if (!listas.get(i).contains(entrada)) {
+                        continue proximo;
+                    }
+                }
+                if (!contemTodos(entrada, termos)) {
+                    continue;
+                }
+                Resultado<T> candidato = new Resultado<>(entrada, casaSoPorInicio(entrada, termos));
+                if (melhores.size() < limite) {
+                    melhores.add(candidato);
+                } else if (candidato.compareTo(melhores.peek()) < 0) {
+                    melhores.poll();
+                    melhores.add(candidato);
+                }
+            }
+
+            List<Resultado<T>> ordenados = new ArrayList<>(melhores);
+            Collections.sort(ordenados);
+            List<T> resultado = new ArrayList<>(ordenados.size());
+            for (Resultado<T> r : ordenados) {
+                resultado.add(r.entrada.valor);
+            }
+            return resultado;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retorna: O valor com a chave informada, ou null.
+     */
+    public T get(String chave) {
+        lock.readLock().lock();
+        try {
+            Entrada<T> entrada = porChave.get(chave);
+            return entrada != null ? entrada.valor : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retorna: Todos os valores em ordem alfabética do texto pesquisável.
+     */
+    public List<T> getTodos() {
+        return buscar("", Integer.MAX_VALUE);
+    }
+
+    public int getTamanho() {
+        lock.readLock().lock();
+        try {
+            return porChave.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void atualizarSemLock(String chave, String texto, T valor) {
+        Entrada<T> anterior = porChave.get(chave);
+        if (anterior != null && anterior.texto.equals(texto)) {
+            Entrada<T> entrada = new Entrada<>(chave, texto, anterior.trigramas, valor);
+            porChave.put(chave, entrada);
+            emOrdem.put(entrada.ordenacao, entrada);
+            for (String trigrama : entrada.trigramas) {
+                Set<Entrada<T>> lista = porTrigrama.get(trigrama);
+                lista.remove(anterior);
+                lista.add(entrada);
+            }
+            return;
+        }
+        if (anterior != null) {
+            removerSemLock(chave);
+        }
+
+        Entrada<T> entrada = new Entrada<>(chave, texto, trigramasDoTexto(texto), valor);
+        porChave.put(chave, entrada);
+        emOrdem.put(entrada.ordenacao, entrada);
+        for (String trigrama : entrada.trigramas) {
+            porTrigrama.computeIfAbsent(trigrama, k -> new HashSet<>()).add(entrada);
+        }
+    }
+
+    private void removerSemLock(String chave) {
+        Entrada<T> entrada = porChave.remove(chave);
+        if (entrada == null) {
+            return;
+        }
+        emOrdem.remove(entrada.ordenacao);
+        for (String trigrama : entrada.trigramas) {
+            Set<Entrada<T>> lista = porTrigrama.get(trigrama);
+            lista.remove(entrada);
+            if (lista.isEmpty()) {
+                porTrigrama.remove(trigrama);
+            }
+        }
+    }
+
+    // Listas de todos os trigramas da consulta, da menor para a maior; null se algum trigrama não existe
+    private List<Set<Entrada<T>>> listasDosTrigramas(String[] termos) {
+        List<Set<Entrada<T>>> listas = new ArrayList<>();
+        for (String termo : termos) {
+            for (String trigrama : trigramasDaConsulta(termo)) {
+                Set<Entrada<T>> lista = porTrigrama.get(trigrama);
+                if (lista == null) {
+                    return null;
+                }
+                listas.add(lista);
+            }
+        }
+        listas.sort(Comparator.comparingInt(Set::size));
+        return listas;
+    }
+
+    // Os trigramas só garantem que as letras aparecem; aqui confirma a sequência completa de cada termo
+    private static boolean contemTodos(Entrada<?> entrada, String[] termos) {
+        for (String termo : termos) {
+            boolean casa = termo.length() < TAMANHO_TRIGRAMA
+                    ? contemInicioDePalavra(entrada, termo)
+                    : entrada.texto.contains(termo);
+            if (!casa) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean casaSoPorInicio(Entrada<?> entrada, String[] termos) {
+        for (String termo : termos) {
+            if (!contemInicioDePalavra(entrada, termo)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean contemInicioDePalavra(Entrada<?> entrada, String termo) {
+        String texto = entrada.comEspaco;
+        for (int i = texto.indexOf(' '); i >= 0; i = texto.indexOf(' ', i + 1)) {
+            if (texto.startsWith(termo, i + 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Set<String> trigramasDoTexto(String texto) {
+        Set<String> trigramas = new HashSet<>();
+        if (texto.isEmpty()) {
+            return trigramas;
+        }
+        for (String palavra : texto.split(" ")) {
+            String marcada = INICIO_PALAVRA + palavra;
+            for (int i = 0; i + TAMANHO_TRIGRAMA <= marcada.length(); i++) {
+                trigramas.add(marcada.substring(i, i + TAMANHO_TRIGRAMA));
+            }
+        }
+        return trigramas;
+    }
+
+    private static List<String> trigramasDaConsulta(String termo) {
+        List<String> trigramas = new ArrayList<>();
+        if (termo.length() < TAMANHO_TRIGRAMA) {
+            // Prefixo curto: o trigrama com a marca de início de palavra ("\1\1j" ou "\1jo")
+            String marcada = INICIO_PALAVRA + termo;
+            trigramas.add(marcada.substring(marcada.length() - TAMANHO_TRIGRAMA));
+            return trigramas;
+        }
+        for (int i = 0; i + TAMANHO_TRIGRAMA <= termo.length(); i++) {
+            trigramas.add(termo.substring(i, i + TAMANHO_TRIGRAMA));
+        }
+        return trigramas;
+    }
+}
@@ -0,0 +1,885 @@
+package com.example.tgcontrol.utils;
+
+import com.example.tgcontrol.model.EntregaTG;
+import com.example.tgcontrol.model.ResultadoBuscaTG;
+import com.example.tgcontrol.utils.SegmentoIndiceTexto.Documento;
+import com.example.tgcontrol.utils.SegmentoIndiceTexto.Postings;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Utilitário: Busca de texto em todas as versões entregues dos TGs (task_submission.file_path, arquivos .md/.txt).
+ * Índice invertido em disco, em segmentos imutáveis (SegmentoIndiceTexto) mapeados em memória:
+ * - a cada INTERVALO_NOVAS_S segundos lê do banco só as versões entregues desde a última lida
+ *   (submission_timestamp); uploadNovaVersao também chama registrarVersao, para as entregas desta instância;
+ *   a versão fica em memória e vai para um novo segmento a cada DOCUMENTOS_POR_SEGMENTO versões ou
+ *   INTERVALO_GRAVACAO_S segundos;
+ * - quando há segmentos demais, todos são juntados em um só (descartando versões removidas do banco);
+ * - segmentos.lst lista os segmentos válidos e é trocado de forma atômica, então uma queda no meio
+ *   de uma gravação só perde o que ainda estava em memória;
+ * - ao iniciar e a cada INTERVALO_REPARO_MS o índice é conferido com o banco inteiro, o que descarta
+ *   versões removidas e recupera as que a leitura incremental perdeu (ex: arquivo ainda não gravado).
+ * Todas as alterações rodam em uma única thread; as buscas leem um retrato imutável (Estado), sem lock.
+ * Consultas: palavras (todas obrigatórias) e "frases entre aspas", ordenadas por BM25.
+ */
+public final class IndiceTextoTG {
+
+    private static final Logger LOGGER = Logger.getLogger(IndiceTextoTG.class.getName());
+
+    private static final String DIRETORIO_PADRAO = "Server" + File.separator + "indice_tgs";
+    private static final String MANIFESTO = "segmentos.lst";
+    private static final String PREFIXO_SEGMENTO = "seg_";
+    private static final String EXTENSAO_SEGMENTO = ".idx";
+
+    private static final int DOCUMENTOS_POR_SEGMENTO = 200;
+    private static final long INTERVALO_GRAVACAO_S = 60;
+    private static final long INTERVALO_NOVAS_S = 15;
+    private static final long INTERVALO_REPARO_MS = 60 * 60_000;
+    // A leitura incremental volta um pouco antes da última entrega lida: uma transação que gravou NOW(3)
+    // antes dela pode ter feito commit depois (as versões já indexadas são ignoradas)
+    private static final long MARGEM_NOVAS_S = 120;
+    private static final int MAXIMO_SEGMENTOS = 10;
+
+    // Palavras maiores que isso (ex: imagens em base64 no Markdown) não são indexadas
+    private static final int TAMANHO_MAXIMO_TERMO = 64;
+    private static final int CONTEXTO_TRECHO = 60;
+
+    // Parâmetros usuais do BM25
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final Pattern PALAVRA = Pattern.compile("[\\p{L}\\p{M}\\p{N}]+");
+    private static final Pattern FRASE = Pattern.compile("\"([^\"]*)\"?");
+    private static final Pattern ESPACOS = Pattern.compile("\\s+");
+
+    // Versão indexada que ainda não foi para um segmento
+    private static final class DocumentoPendente {
+        final Documento documento;
+        final Map<String, int[]> posicoes;
+
+        DocumentoPendente(Documento documento, Map<String, int[]> posicoes) {
+            this.documento = documento;
+            this.posicoes = posicoes;
+        }
+    }
+
+    /*
+     * Retrato do índice lido pelas buscas; cada alteração publica um novo.
+     * As listas e o conjunto nunca são alterados depois de publicados, então o que não mudou é reaproveitado
+     * pelo próximo retrato. Os totais vêm prontos de quem publica (somados por segmento na abertura e
+     * ajustados a cada versão indexada ou removida), para não percorrer todos os documentos a cada alteração.
+     */
+    private static final class Estado {
+        final List<SegmentoIndiceTexto> segmentos;
+        final List<DocumentoPendente> pendentes;
+        final Set<Integer> removidos;
+        final int totalDocumentos;
+        final long somaComprimentos;
+        final double comprimentoMedio;
+
+        Estado(List<SegmentoIndiceTexto> segmentos, List<DocumentoPendente> pendentes, Set<Integer> removidos,
+               int totalDocumentos, long somaComprimentos) {
+            this.segmentos = segmentos;
+            this.pendentes = pendentes;
+            this.removidos = removidos;
+            this.totalDocumentos = totalDocumentos;
+            this.somaComprimentos = somaComprimentos;
+            this.comprimentoMedio = totalDocumentos == 0 ? 1 : Math.max(1, (double) somaComprimentos / totalDocumentos);
+        }
+    }
+
+    private static volatile Estado estado = new Estado(List.of(), List.of(), Set.of(), 0, 0);
+    private static volatile boolean pronto = false;
+    private static volatile ScheduledExecutorService executor;
+
+    // Usados só pela thread do executor
+    private static Path diretorio;
+    private static final Map<String, Integer> DOC_ID_POR_CHAVE = new HashMap<>();
+    private static int proximoDocId = 1;
+    private static int proximoSegmento = 1;
+    private static long ultimaSincronizacao;
+    private static LocalDateTime ultimaEntregaLida;
+
+    private IndiceTextoTG() {
+    }
+
+    /**
+     * Função: Abre o índice em disco e o confere com o banco, em segundo plano.
+     * Chamado no login de professores; chamadas seguintes não têm efeito.
+     * O diretório pode ser trocado pela propriedade de sistema "tgcontrol.indice.dir".
+     */
+    public static synchronized void iniciar() {
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "tgcontrol-indice-tgs");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.execute(IndiceTextoTG::carregar);
+        executor.scheduleWithFixedDelay(IndiceTextoTG::manutencao, INTERVALO_GRAVACAO_S, INTERVALO_GRAVACAO_S, TimeUnit.SECONDS);
+        executor.scheduleWithFixedDelay(IndiceTextoTG::sincronizarNovas, INTERVALO_NOVAS_S, INTERVALO_NOVAS_S, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Função: Grava as versões ainda em memória e para a thread do índice. Chamado ao fechar a aplicação.
+     */
+    public static synchronized void encerrar() {
+        if (executor == null) {
+            return;
+        }
+        ScheduledExecutorService atual = executor;
+        executor = null;
+        try {
+            atual.execute(IndiceTextoTG::gravarPendentes);
+        } catch (RejectedExecutionException e) {
+            // Já encerrado
+        }
+        atual.shutdown();
+        try {
+            // O que não for gravado a tempo é reindexado na próxima sincronização com o banco
+            atual.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Retorna: true depois que o índice foi aberto e conferido com o banco pela primeira vez.
+     */
+    public static boolean isPronto() {
+        return pronto;
+    }
+
+    /**
+     * Função: Indexa uma nova versão, em segundo plano. Chamado por DatabaseUtils.uploadNovaVersao após o commit.
+     * Sem efeito se o índice não foi iniciado (ex: cliente de aluno, benchmarks): nas instâncias com o índice,
+     * a versão chega pela leitura incremental em até INTERVALO_NOVAS_S segundos.
+     */
+    public static void registrarVersao(EntregaTG entrega) {
+        ScheduledExecutorService atual = executor;
+        if (atual == null || entrega == null) {
+            return;
+        }
+        try {
+            atual.execute(() -> indexar(entrega));
+        } catch (RejectedExecutionException e) {
+            // Aplicação encerrando: a versão entra na próxima sincronização
+        }
+    }
+
+    /**
+     * Função: Busca versões entregues que contenham todas as palavras e frases da consulta.
+     * Necessita: A consulta (frases entre aspas), os emails dos alunos permitidos (null = todos) e o máximo de resultados.
+     * Retorna: A versão mais relevante de cada seção de cada aluno, da mais para a menos relevante, com um trecho.
+     */
+    public static List<ResultadoBuscaTG> buscar(String consulta, Set<String> alunos, int limite) {
+        if (consulta == null || limite <= 0) {
+            return new ArrayList<>();
+        }
+
+        List<String[]> frases = new ArrayList<>();
+        Set<String> palavras = new LinkedHashSet<>();
+        Matcher matcher = FRASE.matcher(consulta);
+        while (matcher.find()) {
+            String[] termos = termosDe(matcher.group(1));
+            if (termos.length == 1) {
+                palavras.add(termos[0]);
+            } else if (termos.length > 1) {
+                frases.add(termos);
+            }
+        }
+        palavras.addAll(Arrays.asList(termosDe(matcher.replaceAll(" "))));
+        if (palavras.isEmpty() && frases.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Set<String> termosComPosicao = new HashSet<>();
+        frases.forEach(frase -> termosComPosicao.addAll(Arrays.asList(frase)));
+        Set<String> todosTermos = new LinkedHashSet<>(palavras);
+        todosTermos.addAll(termosComPosicao);
+
+        Estado atual = estado;
+
+        // 1. Ocorrências de cada termo em cada fonte (segmentos + pendentes) e df global para o idf
+        int fontes = atual.segmentos.size() + 1;
+        Map<String, Postings[]> postings = new HashMap<>();
+        Map<String, Double> idf = new HashMap<>();
+        for (String termo : todosTermos) {
+            boolean comPosicoes = termosComPosicao.contains(termo);
+            Postings[] porFonte = new Postings[fontes];
+            int df = 0;
+            for (int i = 0; i < fontes; i++) {
+                porFonte[i] = i < atual.segmentos.size()
+                        ? atual.segmentos.get(i).lerPostings(termo, comPosicoes)
+                        : postingsPendentes(atual.pendentes, termo);
+                for (int docId : porFonte[i].docIds) {
+                    if (!atual.removidos.contains(docId)) {
+                        df++;
+                    }
+                }
+            }
+            if (df == 0) {
+                return new ArrayList<>(); // Todos os termos são obrigatórios
+            }
+            postings.put(termo, porFonte);
+            idf.put(termo, Math.log(1 + (atual.totalDocumentos - df + 0.5) / (df + 0.5)));
+        }
+
+        // 2. Documentos com todos os termos, pontuados; fica a melhor versão de cada seção
+        Map<String, ResultadoBuscaTG> melhorPorSecao = new HashMap<>();
+        for (int i = 0; i < fontes; i++) {
+            Map<Integer, Documento> documentos = i < atual.segmentos.size()
+                    ? atual.segmentos.get(i).getDocumentos()
+                    : documentosPendentes(atual.pendentes);
+
+            int[] candidatos = null;
+            for (String termo : ordenarPorRaridade(todosTermos, postings, i)) {
+                int[] docIds = postings.get(termo)[i].docIds;
+                candidatos = candidatos == null ? docIds : intersectar(candidatos, docIds);
+                if (candidatos.length == 0) {
+                    break;
+                }
+            }
+
+            for (int docId : candidatos) {
+                Documento documento = documentos.get(docId);
+                if (documento == null || atual.removidos.contains(docId)
+                        || (alunos != null && !alunos.contains(documento.entrega.getEmailAluno()))) {
+                    continue;
+                }
+
+                double pontuacao = 0;
+                for (String palavra : palavras) {
+                    Postings p = postings.get(palavra)[i];
+                    int tf = p.frequencias[Arrays.binarySearch(p.docIds, docId)];
+                    pontuacao += idf.get(palavra) * bm25(tf, documento.comprimento, atual.comprimentoMedio);
+                }
+                boolean todasAsFrases = true;
+                for (String[] frase : frases) {
+                    int ocorrencias = contarFrase(frase, postings, i, docId);
+                    if (ocorrencias == 0) {
+                        todasAsFrases = false;
+                        break;
+                    }
+                    double idfFrase = 0;
+                    for (String termo : frase) {
+                        idfFrase += idf.get(termo);
+                    }
+                    pontuacao += idfFrase * bm25(ocorrencias, documento.comprimento, atual.comprimentoMedio);
+                }
+                if (!todasAsFrases) {
+                    continue;
+                }
+
+                EntregaTG entrega = documento.entrega;
+                String secao = entrega.getEmailAluno() + "#" + entrega.getSequencia();
+                ResultadoBuscaTG melhor = melhorPorSecao.get(secao);
+                if (melhor == null || pontuacao > melhor.getPontuacao()
+                        || (pontuacao == melhor.getPontuacao() && entrega.getVersao() > melhor.getEntrega().getVersao())) {
+                    melhorPorSecao.put(secao, new ResultadoBuscaTG(entrega, pontuacao, null));
+                }
+            }
+        }
+
+        // 3. Os mais relevantes, com um trecho do arquivo
+        List<ResultadoBuscaTG> ordenados = new ArrayList<>(melhorPorSecao.values());
+        ordenados.sort((a, b) -> Double.compare(b.getPontuacao(), a.getPontuacao()));
+        List<ResultadoBuscaTG> resultados = new ArrayList<>();
+        for (ResultadoBuscaTG item : ordenados.subList(0, Math.min(limite, ordenados.size()))) {
+            resultados.add(new ResultadoBuscaTG(item.getEntrega(), item.getPontuacao(),
+                    montarTrecho(item.getEntrega(), frases, palavras)));
+        }
+        return resultados;
+    }
+
+    /**
+     * Função: Lê o texto de um arquivo entregue (.md ou .txt), em UTF-8 ou, se não for válido, em ISO-8859-1.
+     * Retorna: O conteúdo, ou null se o arquivo não existe, não é de texto ou não pôde ser lido.
+     */
+    public static String lerArquivo(String caminho) {
+        if (caminho == null) {
+            return null;
+        }
+        String nome = caminho.toLowerCase(Locale.ROOT);
+        if (!nome.endsWith(".md") && !nome.endsWith(".txt")) {
+            return null;
+        }
+        Path arquivo = Paths.get(caminho);
+        if (!Files.isRegularFile(arquivo)) {
+            return null;
+        }
+        try {
+            byte[] bytes = Files.readAllBytes(arquivo);
+            try {
+                return StandardCharsets.UTF_8.newDecoder()
+                        .onMalformedInput(CodingErrorAction.REPORT)
+                        .onUnmappableCharacter(CodingErrorAction.REPORT)
+                        .decode(ByteBuffer.wrap(bytes))
+                        .toString();
+            } catch (CharacterCodingException e) {
+                // Arquivo gravado com a codificação padrão do Windows
+                return new String(bytes, StandardCharsets.ISO_8859_1);
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Falha ao ler arquivo entregue: " + caminho, e);
+            return null;
+        }
+    }
+
+    // --- Alterações (só na thread do executor) ---
+
+    private static void carregar() {
+        try {
+            diretorio = Paths.get(System.getProperty("tgcontrol.indice.dir", DIRETORIO_PADRAO));
+            Files.createDirectories(diretorio);
+
+            Set<String> validos = new HashSet<>();
+            List<SegmentoIndiceTexto> segmentos = new ArrayList<>();
+            Path manifesto = diretorio.resolve(MANIFESTO);
+            if (Files.exists(manifesto)) {
+                for (String nome : Files.readAllLines(manifesto, StandardCharsets.UTF_8)) {
+                    if (nome.isBlank()) {
+                        continue;
+                    }
+                    validos.add(nome);
+                    proximoSegmento = Math.max(proximoSegmento, numeroDoSegmento(nome) + 1);
+                    try {
+                        segmentos.add(SegmentoIndiceTexto.abrir(diretorio.resolve(nome)));
+                    } catch (IOException | RuntimeException e) {
+                        // Segmento perdido: suas versões voltam a ser indexadas pela sincronização
+                        LOGGER.log(Level.SEVERE, "Segmento do índice de TGs ilegível: " + nome, e);
+                    }
+                }
+            }
+            removerArquivosOrfaos(validos);
+
+            for (SegmentoIndiceTexto segmento : segmentos) {
+                for (Documento documento : segmento.getDocumentos().values()) {
+                    DOC_ID_POR_CHAVE.put(documento.entrega.getChave(), documento.docId);
+                    proximoDocId = Math.max(proximoDocId, documento.docId + 1);
+                }
+            }
+            int total = 0;
+            long soma = 0;
+            for (SegmentoIndiceTexto segmento : segmentos) {
+                total += segmento.getDocumentos().size();
+                soma += segmento.getSomaComprimentos();
+            }
+            estado = new Estado(Collections.unmodifiableList(segmentos), List.of(), Set.of(), total, soma);
+            LOGGER.log(Level.INFO, "Índice de TGs aberto: " + segmentos.size() + " segmentos, " + estado.totalDocumentos + " versões.");
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "Falha ao abrir o índice de TGs.", e);
+        }
+        try {
+            sincronizar();
+        } catch (RuntimeException e) {
+            // Busca funciona com o que já está em disco; a manutenção tenta sincronizar de novo
+            LOGGER.log(Level.SEVERE, "Falha ao sincronizar o índice de TGs com o banco.", e);
+        }
+        pronto = true;
+    }
+
+    private static void manutencao() {
+        try {
+            gravarPendentes();
+            if (System.currentTimeMillis() - ultimaSincronizacao > INTERVALO_REPARO_MS) {
+                sincronizar();
+            }
+            compactarSeNecessario();
+        } catch (RuntimeException e) {
+            // Não deixa uma falha cancelar as próximas execuções agendadas
+            LOGGER.log(Level.SEVERE, "Falha na manutenção do índice de TGs.", e);
+        }
+    }
+
+    // Conferência completa com o banco: indexa o que falta e remove o que foi apagado
+    private static void sincronizar() {
+        if (diretorio == null) {
+            return;
+        }
+        List<EntregaTG> entregas = DatabaseUtils.getEntregasTG(null);
+        if (entregas == null) {
+            return; // Falha já registrada; tenta de novo na próxima manutenção
+        }
+        ultimaSincronizacao = System.currentTimeMillis();
+
+        Set<String> chaves = new HashSet<>();
+        for (EntregaTG entrega : entregas) {
+            chaves.add(entrega.getChave());
+            indexar(entrega);
+            registrarLeitura(entrega);
+        }
+        if (ultimaEntregaLida == null) {
+            ultimaEntregaLida = LocalDateTime.of(2000, 1, 1, 0, 0); // Nenhuma entrega ainda: a leitura incremental lê todas
+        }
+        List<String> apagadas = new ArrayList<>();
+        for (String chave : DOC_ID_POR_CHAVE.keySet()) {
+            if (!chaves.contains(chave)) {
+                apagadas.add(chave);
+            }
+        }
+        remover(apagadas);
+    }
+
+    // Leitura incremental: só as versões entregues desde a última lida
+    private static void sincronizarNovas() {
+        try {
+            if (diretorio == null || ultimaEntregaLida == null) {
+                return; // A conferência completa ainda não rodou (ou falhou): a manutenção cuida disso
+            }
+            List<EntregaTG> entregas = DatabaseUtils.getEntregasTG(ultimaEntregaLida.minusSeconds(MARGEM_NOVAS_S));
+            if (entregas == null) {
+                return;
+            }
+            for (EntregaTG entrega : entregas) {
+                indexar(entrega);
+                registrarLeitura(entrega);
+            }
+        } catch (RuntimeException e) {
+            // Não deixa uma falha cancelar as próximas execuções agendadas
+            LOGGER.log(Level.SEVERE, "Falha ao ler as novas versões para o índice de TGs.", e);
+        }
+    }
+
+    private static void registrarLeitura(EntregaTG entrega) {
+        LocalDateTime data = entrega.getDataEntrega();
+        if (data != null && (ultimaEntregaLida == null || data.isAfter(ultimaEntregaLida))) {
+            ultimaEntregaLida = data;
+        }
+    }
+
+    private static void indexar(EntregaTG entrega) {
+        if (diretorio == null || DOC_ID_POR_CHAVE.containsKey(entrega.getChave())) {
+            return;
+        }
+        String texto = lerArquivo(entrega.getCaminhoArquivo());
+        if (texto == null) {
+            return; // Não é texto ou ainda não existe; a próxima sincronização tenta de novo
+        }
+
+        Map<String, List<Integer>> ocorrencias = new HashMap<>();
+        int posicao = 0;
+        for (String termo : IndiceBusca.normalizar(texto).split(" ")) {
+            if (termo.isEmpty()) {
+                continue;
+            }
+            if (termo.length() <= TAMANHO_MAXIMO_TERMO) {
+                ocorrencias.computeIfAbsent(termo, t -> new ArrayList<>()).add(posicao);
+            }
+            posicao++;
+        }
+        Map<String, int[]> posicoes = new HashMap<>(ocorrencias.size() * 2);
+        ocorrencias.forEach((termo, lista) -> posicoes.put(termo, lista.stream().mapToInt(Integer::intValue).toArray()));
+
+        int docId = proximoDocId++;
+        DOC_ID_POR_CHAVE.put(entrega.getChave(), docId);
+
+        Estado atual = estado;
+        List<DocumentoPendente> pendentes = new ArrayList<>(atual.pendentes);
+        pendentes.add(new DocumentoPendente(new Documento(docId, entrega, posicao), posicoes));
+        estado = new Estado(atual.segmentos, Collections.unmodifiableList(pendentes), atual.removidos,
+                atual.totalDocumentos + 1, atual.somaComprimentos + posicao);
+
+        if (pendentes.size() >= DOCUMENTOS_POR_SEGMENTO) {
+            gravarPendentes();
+        }
+    }
+
+    // Todas as versões apagadas de uma sincronização saem em um único retrato novo
+    private static void remover(List<String> chaves) {
+        if (chaves.isEmpty()) {
+            return;
+        }
+        Estado atual = estado;
+        Map<Integer, DocumentoPendente> pendentes = new LinkedHashMap<>();
+        for (DocumentoPendente pendente : atual.pendentes) {
+            pendentes.put(pendente.documento.docId, pendente);
+        }
+        Set<Integer> removidos = new HashSet<>(atual.removidos);
+        int total = atual.totalDocumentos;
+        long soma = atual.somaComprimentos;
+
+        for (String chave : chaves) {
+            Integer docId = DOC_ID_POR_CHAVE.remove(chave);
+            if (docId == null) {
+                continue;
+            }
+            Documento documento = null;
+            DocumentoPendente pendente = pendentes.remove(docId);
+            if (pendente != null) {
+                documento = pendente.documento;
+            } else {
+                for (SegmentoIndiceTexto segmento : atual.segmentos) {
+                    documento = segmento.getDocumentos().get(docId);
+                    if (documento != null) {
+                        removidos.add(docId); // Já está em um segmento: descartado na próxima junção
+                        break;
+                    }
+                }
+            }
+            if (documento != null) {
+                total--;
+                soma -= documento.comprimento;
+            }
+        }
+        estado = new Estado(atual.segmentos, List.copyOf(pendentes.values()), Collections.unmodifiableSet(removidos), total, soma);
+    }
+
+    private static void gravarPendentes() {
+        Estado atual = estado;
+        if (diretorio == null || atual.pendentes.isEmpty()) {
+            return;
+        }
+
+        TreeMap<String, List<DocumentoPendente>> porTermo = new TreeMap<>();
+        List<Documento> documentos = new ArrayList<>();
+        for (DocumentoPendente pendente : atual.pendentes) {
+            documentos.add(pendente.documento);
+            for (String termo : pendente.posicoes.keySet()) {
+                porTermo.computeIfAbsent(termo, t -> new ArrayList<>()).add(pendente);
+            }
+        }
+
+        String nome = PREFIXO_SEGMENTO + (proximoSegmento++) + EXTENSAO_SEGMENTO;
+        try {
+            try (SegmentoIndiceTexto.Escritor escritor = new SegmentoIndiceTexto.Escritor(diretorio.resolve(nome))) {
+                for (Map.Entry<String, List<DocumentoPendente>> entrada : porTermo.entrySet()) {
+                    escritor.adicionarTermo(entrada.getKey(), montarPostings(entrada.getValue(), entrada.getKey()));
+                }
+                escritor.concluir(documentos);
+            }
+            List<SegmentoIndiceTexto> segmentos = new ArrayList<>(atual.segmentos);
+            segmentos.add(SegmentoIndiceTexto.abrir(diretorio.resolve(nome)));
+            gravarManifesto(segmentos);
+            // Os mesmos documentos, agora no segmento: os totais não mudam
+            estado = new Estado(Collections.unmodifiableList(segmentos), List.of(), atual.removidos,
+                    atual.totalDocumentos, atual.somaComprimentos);
+        } catch (IOException e) {
+            // As versões continuam em memória (e pesquisáveis) até a próxima tentativa
+            LOGGER.log(Level.SEVERE, "Falha ao gravar segmento do índice de TGs: " + e.getMessage(), e);
+            return;
+        }
+        compactarSeNecessario();
+    }
+
+    // Segmentos demais deixam a busca lenta; muitas versões removidas ocupam espaço à toa
+    private static void compactarSeNecessario() {
+        Estado atual = estado;
+        if (atual.segmentos.size() > MAXIMO_SEGMENTOS
+                || (!atual.removidos.isEmpty() && atual.removidos.size() > atual.totalDocumentos / 5)) {
+            juntarSegmentos();
+        }
+    }
+
+    /**
+     * Junta todos os segmentos em um, sem as versões removidas.
+     * Os termos são percorridos em ordem em todos os segmentos ao mesmo tempo; como cada segmento novo só
+     * tem docIds maiores que os anteriores, concatenar as ocorrências na ordem dos segmentos mantém a ordem.
+     */
+    private static void juntarSegmentos() {
+        Estado atual = estado;
+        List<SegmentoIndiceTexto> antigos = atual.segmentos;
+        if (antigos.size() < 2 && atual.removidos.isEmpty()) {
+            return;
+        }
+
+        List<Documento> documentos = new ArrayList<>();
+        for (SegmentoIndiceTexto segmento : antigos) {
+            for (Documento documento : segmento.getDocumentos().values()) {
+                if (!atual.removidos.contains(documento.docId)) {
+                    documentos.add(documento);
+                }
+            }
+        }
+        documentos.sort((a, b) -> Integer.compare(a.docId, b.docId));
+
+        // Cursor = {índice do segmento, índice do termo}, ordenado pelo termo atual (empate: segmento mais antigo)
+        PriorityQueue<int[]> cursores = new PriorityQueue<>((a, b) -> {
+            int comparacao = antigos.get(a[0]).getTermo(a[1]).compareTo(antigos.get(b[0]).getTermo(b[1]));
+            return comparacao != 0 ? comparacao : Integer.compare(a[0], b[0]);
+        });
+        for (int i = 0; i < antigos.size(); i++) {
+            if (antigos.get(i).getQuantidadeTermos() > 0) {
+                cursores.add(new int[]{i, 0});
+            }
+        }
+
+        String nome = PREFIXO_SEGMENTO + (proximoSegmento++) + EXTENSAO_SEGMENTO;
+        try {
+            try (SegmentoIndiceTexto.Escritor escritor = new SegmentoIndiceTexto.Escritor(diretorio.resolve(nome))) {
+                while (!cursores.isEmpty()) {
+                    int[] primeiro = cursores.poll();
+                    String termo = antigos.get(primeiro[0]).getTermo(primeiro[1]);
+                    List<int[]> doTermo = new ArrayList<>();
+                    doTermo.add(primeiro);
+                    while (!cursores.isEmpty() && antigos.get(cursores.peek()[0]).getTermo(cursores.peek()[1]).equals(termo)) {
+                        doTermo.add(cursores.poll());
+                    }
+
+                    List<Integer> docIds = new ArrayList<>();
+                    List<Integer> frequencias = new ArrayList<>();
+                    List<int[]> posicoes = new ArrayList<>();
+                    for (int[] cursor : doTermo) {
+                        Postings p = antigos.get(cursor[0]).lerPostings(cursor[1], true);
+                        for (int j = 0; j < p.tamanho(); j++) {
+                            if (!atual.removidos.contains(p.docIds[j])) {
+                                docIds.add(p.docIds[j]);
+                                frequencias.add(p.frequencias[j]);
+                                posicoes.add(p.posicoes[j]);
+                            }
+                        }
+                        if (cursor[1] + 1 < antigos.get(cursor[0]).getQuantidadeTermos()) {
+                            cursores.add(new int[]{cursor[0], cursor[1] + 1});
+                        }
+                    }
+                    escritor.adicionarTermo(termo, new Postings(
+                            docIds.stream().mapToInt(Integer::intValue).toArray(),
+                            frequencias.stream().mapToInt(Integer::intValue).toArray(),
+                            posicoes.toArray(new int[0][])));
+                }
+                escritor.concluir(documentos);
+            }
+
+            List<SegmentoIndiceTexto> segmentos = new ArrayList<>();
+            segmentos.add(SegmentoIndiceTexto.abrir(diretorio.resolve(nome)));
+            gravarManifesto(segmentos);
+            // Só esta thread altera o estado: pendentes e removidos são os mesmos do início da junção
+            // Os removidos já estavam fora dos totais
+            estado = new Estado(Collections.unmodifiableList(segmentos), atual.pendentes, Set.of(),
+                    atual.totalDocumentos, atual.somaComprimentos);
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Falha ao juntar segmentos do índice de TGs: " + e.getMessage(), e);
+            apagar(diretorio.resolve(nome));
+            return;
+        }
+
+        // Buscas em andamento ainda podem estar lendo os antigos; no Windows o arquivo mapeado não pode ser
+        // apagado, então o que sobrar é removido na próxima inicialização (removerArquivosOrfaos)
+        for (SegmentoIndiceTexto antigo : antigos) {
+            apagar(antigo.getArquivo());
+        }
+        LOGGER.log(Level.INFO, "Índice de TGs compactado: " + antigos.size() + " segmentos juntados em " + nome + ".");
+    }
+
+    private static void gravarManifesto(List<SegmentoIndiceTexto> segmentos) throws IOException {
+        List<String> nomes = new ArrayList<>();
+        for (SegmentoIndiceTexto segmento : segmentos) {
+            nomes.add(segmento.getArquivo().getFileName().toString());
+        }
+        Path temporario = diretorio.resolve(MANIFESTO + ".tmp");
+        Files.write(temporario, nomes, StandardCharsets.UTF_8);
+        Files.move(temporario, diretorio.resolve(MANIFESTO), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void removerArquivosOrfaos(Set<String> validos) throws IOException {
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio, PREFIXO_SEGMENTO + "*")) {
+            for (Path arquivo : arquivos) {
+                if (!validos.contains(arquivo.getFileName().toString())) {
+                    // Não reutiliza o número de um órfão que não pôde ser apagado
+                    proximoSegmento = Math.max(proximoSegmento, numeroDoSegmento(arquivo.getFileName().toString()) + 1);
+                    apagar(arquivo);
+                }
+            }
+        }
+    }
+
+    private static void apagar(Path arquivo) {
+        try {
+            Files.deleteIfExists(arquivo);
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Arquivo do índice ainda em uso, fica para a próxima inicialização: " + arquivo, e);
+        }
+    }
+
+    private static int numeroDoSegmento(String nome) {
+        try {
+            return Integer.parseInt(nome.substring(PREFIXO_SEGMENTO.length(), nome.length() - EXTENSAO_SEGMENTO.length()));
+        } catch (RuntimeException e) {
+            return 0;
+        }
+    }
+
+    // --- Apoio à busca ---
+
+    private static String[] termosDe(String texto) {
+        List<String> termos = new ArrayList<>();
+        for (String termo : IndiceBusca.normalizar(texto).split(" ")) {
+            if (!termo.isEmpty() && termo.length() <= TAMANHO_MAXIMO_TERMO) {
+                termos.add(termo);
+            }
+        }
+        return termos.toArray(new String[0]);
+    }
+
+    // Atalho para o caso comum (palavra só com letras e números ASCII); o resto passa pela normalização completa
+    private static String normalizarPalavra(String palavra) {
+        for (int i = 0; i < palavra.length(); i++) {
+            if (palavra.charAt(i) > 0x7F) {
+                return IndiceBusca.normalizar(palavra);
+            }
+        }
+        return palavra.toLowerCase(Locale.ROOT);
+    }
+
+    private static Postings postingsPendentes(List<DocumentoPendente> pendentes, String termo) {
+        List<DocumentoPendente> comTermo = new ArrayList<>();
+        for (DocumentoPendente pendente : pendentes) {
+            if (pendente.posicoes.containsKey(termo)) {
+                comTermo.add(pendente);
+            }
+        }
+        return comTermo.isEmpty() ? Postings.VAZIO : montarPostings(comTermo, termo);
+    }
+
+    // Pendentes estão em ordem de docId (são adicionados em ordem)
+    private static Postings montarPostings(List<DocumentoPendente> pendentes, String termo) {
+        int[] docIds = new int[pendentes.size()];
+        int[] frequencias = new int[pendentes.size()];
+        int[][] posicoes = new int[pendentes.size()][];
+        for (int i = 0; i < pendentes.size(); i++) {
+            DocumentoPendente pendente = pendentes.get(i);
+            docIds[i] = pendente.documento.docId;
+            posicoes[i] = pendente.posicoes.get(termo);
+            frequencias[i] = posicoes[i].length;
+        }
+        return new Postings(docIds, frequencias, posicoes);
+    }
+
+    private static Map<Integer, Documento> documentosPendentes(List<DocumentoPendente> pendentes) {
+        Map<Integer, Documento> documentos = new HashMap<>();
+        for (DocumentoPendente pendente : pendentes) {
+            documentos.put(pendente.documento.docId, pendente.documento);
+        }
+        return documentos;
+    }
+
+    private static List<String> ordenarPorRaridade(Set<String> termos, Map<String, Postings[]> postings, int fonte) {
+        List<String> ordenados = new ArrayList<>(termos);
+        ordenados.sort((a, b) -> Integer.compare(postings.get(a)[fonte].tamanho(), postings.get(b)[fonte].tamanho()));
+        return ordenados;
+    }
+
+    private static int[] intersectar(int[] a, int[] b) {
+        int[] resultado = new int[Math.min(a.length, b.length)];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                resultado[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(resultado, n);
+    }
+
+    private static int contarFrase(String[] frase, Map<String, Postings[]> postings, int fonte, int docId) {
+        int[][] posicoes = new int[frase.length][];
+        for (int k = 0; k < frase.length; k++) {
+            Postings p = postings.get(frase[k])[fonte];
+            posicoes[k] = p.posicoes[Arrays.binarySearch(p.docIds, docId)];
+        }
+        int ocorrencias = 0;
+        for (int inicio : posicoes[0]) {
+            boolean casou = true;
+            for (int k = 1; k < frase.length && casou; k++) {
+                casou = Arrays.binarySearch(posicoes[k], inicio + k) >= 0;
+            }
+            if (casou) {
+                ocorrencias++;
+            }
+        }
+        return ocorrencias;
+    }
+
+    private static double bm25(int tf, int comprimento, double comprimentoMedio) {
+        return tf * (K1 + 1) / (tf + K1 * (1 - B + B * comprimento / comprimentoMedio));
+    }
+
+    /**
+     * Trecho em volta da primeira ocorrência (da primeira frase ou, sem frases, de qualquer palavra).
+     * O arquivo é relido só para os resultados exibidos.
+     */
+    private static String montarTrecho(EntregaTG entrega, List<String[]> frases, Set<String> palavras) {
+        String texto = lerArquivo(entrega.getCaminhoArquivo());
+        if (texto == null) {
+            return "";
+        }
+
+        // Para de ler o texto na primeira ocorrência; guarda só as últimas palavras (o tamanho da frase)
+        String[] procurado = frases.isEmpty() ? null : frases.get(0);
+        int janela = procurado == null ? 1 : procurado.length;
+        String[] ultimos = new String[janela];
+        int[] iniciosUltimos = new int[janela];
+        int lidos = 0;
+        int inicio = 0;
+        int fim = 0;
+        Matcher matcher = PALAVRA.matcher(texto);
+        while (matcher.find()) {
+            String termo = normalizarPalavra(matcher.group());
+            int indice = lidos % janela;
+            ultimos[indice] = termo;
+            iniciosUltimos[indice] = matcher.start();
+            lidos++;
+
+            boolean achou;
+            if (procurado == null) {
+                achou = palavras.contains(termo);
+            } else {
+                achou = lidos >= janela;
+                for (int k = 0; k < janela && achou; k++) {
+                    achou = procurado[k].equals(ultimos[(lidos + k) % janela]);
+                }
+            }
+            if (achou) {
+                inicio = iniciosUltimos[lidos % janela];
+                fim = matcher.end();
+                break;
+            }
+        }
+
+        int de = Math.max(0, inicio - CONTEXTO_TRECHO);
+        int ate = Math.min(texto.length(), fim + CONTEXTO_TRECHO);
+        String trecho = ESPACOS.matcher(texto.substring(de, ate)).replaceAll(" ").trim();
+        return (de > 0 ? "..." : "") + trecho + (ate < texto.length() ? "..." : "");
+    }
+}
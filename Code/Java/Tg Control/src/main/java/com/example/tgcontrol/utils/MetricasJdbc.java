@@ -0,0 +1,460 @@
+package com.example.tgcontrol.utils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Utilitário: Instrumentação das chamadas JDBC feitas pelas conexões do DatabaseConnect.
+ * Envolve Connection, Statement e ResultSet em proxies (como o ConnectionPool faz com a conexão) e registra:
+ *   - histograma de latência por consulta (SQL) e por método chamador (ex: DatabaseUtils.getSecoesAluno);
+ *   - linhas lidas/alteradas; tempo de espera por conexão no pool; idas ao banco por tela;
+ *   - log de consultas lentas (logger "com.example.tgcontrol.consultasLentas") acima de um limite configurável.
+ * Configuração por propriedades do sistema: tgcontrol.jdbc.metricas=false desliga tudo;
+ * tgcontrol.jdbc.lenta.ms define o limite do log de consultas lentas (padrão 200 ms).
+ */
+public final class MetricasJdbc {
+
+    private static final Logger LOGGER_LENTAS = Logger.getLogger("com.example.tgcontrol.consultasLentas");
+
+    private static final String PACOTE_APLICACAO = "com.example.tgcontrol.";
+    private static final int TAMANHO_MAXIMO_SQL = 200;
+
+    private static volatile boolean ativo = Boolean.parseBoolean(System.getProperty("tgcontrol.jdbc.metricas", "true"));
+    private static volatile long limiteLentaNanos = Long.getLong("tgcontrol.jdbc.lenta.ms", 200) * 1_000_000L;
+    private static volatile String telaAtual = "(sem tela)";
+
+    private static final Map<String, Estatistica> POR_CONSULTA = new ConcurrentHashMap<>();
+    private static final Map<String, Estatistica> POR_METODO = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> IDAS_POR_TELA = new ConcurrentHashMap<>();
+    private static final Histograma ESPERA_CONEXAO = new Histograma();
+    private static final LongAdder CONSULTAS_LENTAS = new LongAdder();
+
+    private MetricasJdbc() {
+    }
+
+    // --- Configuração ---
+
+    public static boolean isAtivo() {
+        return ativo;
+    }
+
+    public static void setAtivo(boolean valor) {
+        ativo = valor;
+    }
+
+    public static void setLimiteConsultaLentaMs(long limiteMs) {
+        limiteLentaNanos = limiteMs * 1_000_000L;
+    }
+
+    public static long getLimiteConsultaLentaMs() {
+        return limiteLentaNanos / 1_000_000L;
+    }
+
+    /**
+     * Função: Informa qual tela está aberta, para contar as idas ao banco por tela. Chamado pelo UIUtils ao trocar de tela.
+     */
+    public static void setTelaAtual(String tela) {
+        telaAtual = tela;
+    }
+
+    // --- Registro ---
+
+    /**
+     * Função: Envolve uma conexão do pool para medir as consultas feitas por ela.
+     * Necessita: A conexão e quanto tempo o chamador esperou por ela no pool.
+     * Retorna: A conexão instrumentada (ou a própria conexão, se as métricas estiverem desligadas).
+     */
+    public static Connection instrumentar(Connection conexao, long esperaNanos) {
+        if (!ativo) {
+            return conexao;
+        }
+        ESPERA_CONEXAO.registrar(esperaNanos);
+        return (Connection) Proxy.newProxyInstance(MetricasJdbc.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConexaoMedida(conexao));
+    }
+
+    /**
+     * Função: Zera todos os contadores (ex: antes de medir uma tela específica).
+     */
+    public static void limpar() {
+        POR_CONSULTA.clear();
+        POR_METODO.clear();
+        IDAS_POR_TELA.clear();
+        ESPERA_CONEXAO.limpar();
+        CONSULTAS_LENTAS.reset();
+    }
+
+    // --- Consulta dos dados (janela de diagnóstico) ---
+
+    public static List<Resumo> getResumoPorMetodo() {
+        return resumir(POR_METODO);
+    }
+
+    public static List<Resumo> getResumoPorConsulta() {
+        return resumir(POR_CONSULTA);
+    }
+
+    public static Map<String, Long> getIdasAoBancoPorTela() {
+        Map<String, Long> idas = new LinkedHashMap<>();
+        IDAS_POR_TELA.entrySet().stream()
+                .sorted(Map.Entry.<String, LongAdder>comparingByValue(Comparator.comparingLong(LongAdder::sum)).reversed())
+                .forEach(e -> idas.put(e.getKey(), e.getValue().sum()));
+        return idas;
+    }
+
+    public static Resumo getEsperaPorConexao() {
+        return ESPERA_CONEXAO.resumir("Espera por conexão no pool", 0);
+    }
+
+    /**
+     * Função: Monta um relatório em texto com as métricas JDBC, o pool de conexões e os caches.
+     * Retorna: O texto pronto para exibir ou copiar.
+     */
+    public static String gerarRelatorio() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("=== Métricas JDBC (").append(ativo ? "ativas" : "desligadas")
+                .append(", limite de consulta lenta ").append(getLimiteConsultaLentaMs()).append(" ms, ")
+                .append(CONSULTAS_LENTAS.sum()).append(" lentas) ===\n\n");
+
+        ConnectionPool.Estatisticas pool = DatabaseConnect.getPoolStats();
+        sb.append("--- Pool de conexões ---\n").append(pool != null ? pool : "Nenhuma conexão aberta ainda.").append('\n');
+        sb.append(getEsperaPorConexao()).append("\n\n");
+
+        sb.append("--- Por método (ordenado pelo tempo total) ---\n");
+        getResumoPorMetodo().forEach(r -> sb.append(r).append('\n'));
+
+        sb.append("\n--- Por consulta (20 de maior tempo total) ---\n");
+        getResumoPorConsulta().stream().limit(20).forEach(r -> sb.append(r).append('\n'));
+
+        sb.append("\n--- Idas ao banco por tela ---\n");
+        getIdasAoBancoPorTela().forEach((tela, idas) -> sb.append(String.format("%8d  %s%n", idas, tela)));
+
+        sb.append("\n--- Caches ---\n");
+        DatabaseUtils.getEstatisticasCachesUsuario().forEach(c -> sb.append(c).append('\n'));
+        return sb.toString();
+    }
+
+    private static List<Resumo> resumir(Map<String, Estatistica> mapa) {
+        List<Resumo> resumos = new ArrayList<>();
+        mapa.forEach((nome, e) -> resumos.add(e.histograma.resumir(nome, e.linhas.sum())));
+        resumos.sort(Comparator.comparingDouble(Resumo::getTotalMs).reversed());
+        return resumos;
+    }
+
+    private static void registrarExecucao(String metodo, String sql, long duracaoNanos, long linhas) {
+        POR_METODO.computeIfAbsent(metodo, k -> new Estatistica()).registrar(duracaoNanos, linhas);
+        POR_CONSULTA.computeIfAbsent(sql, k -> new Estatistica()).registrar(duracaoNanos, linhas);
+        registrarIdaAoBanco();
+
+        if (duracaoNanos >= limiteLentaNanos) {
+            CONSULTAS_LENTAS.increment();
+            LOGGER_LENTAS.log(Level.WARNING, String.format("Consulta lenta (%.1f ms) em %s [tela %s]: %s",
+                    duracaoNanos / 1_000_000.0, metodo, telaAtual, sql));
+        }
+    }
+
+    private static void registrarLinhasLidas(String metodo, String sql, long linhas) {
+        Estatistica e = POR_METODO.get(metodo);
+        if (e != null) {
+            e.linhas.add(linhas);
+        }
+        e = POR_CONSULTA.get(sql);
+        if (e != null) {
+            e.linhas.add(linhas);
+        }
+    }
+
+    private static void registrarIdaAoBanco() {
+        IDAS_POR_TELA.computeIfAbsent(telaAtual, k -> new LongAdder()).increment();
+    }
+
+    // Primeiro método da aplicação na pilha, fora da própria camada de conexão
+    private static String descobrirMetodoChamador() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(f -> f.getClassName().startsWith(PACOTE_APLICACAO))
+                .filter(f -> !f.getClassName().equals(MetricasJdbc.class.getName())
+                        && !f.getClassName().startsWith(MetricasJdbc.class.getName() + "$")
+                        && !f.getClassName().startsWith(ConnectionPool.class.getName())
+                        && !f.getClassName().equals(DatabaseConnect.class.getName()))
+                .findFirst()
+                .map(f -> f.getClassName().substring(f.getClassName().lastIndexOf('.') + 1) + "." + f.getMethodName())
+                .orElse("(desconhecido)"));
+    }
+
+    private static String normalizarSql(String sql) {
+        if (sql == null) {
+            return "(sql não informado)";
+        }
+        String normalizado = sql.replaceAll("\\s+", " ").trim();
+        return normalizado.length() > TAMANHO_MAXIMO_SQL ? normalizado.substring(0, TAMANHO_MAXIMO_SQL) + "..." : normalizado;
+    }
+
+    private static Object invocar(Object alvo, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(alvo, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    // --- Proxies ---
+
+    private static final class ConexaoMedida implements InvocationHandler {
+        private final Connection conexao;
+
+        private ConexaoMedida(Connection conexao) {
+            this.conexao = conexao;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "commit":
+                case "rollback":
+                    registrarIdaAoBanco();
+                    return invocar(conexao, method, args);
+                case "prepareStatement":
+                case "prepareCall":
+                case "createStatement":
+                    Statement statement = (Statement) invocar(conexao, method, args);
+                    String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                    Class<?> tipo = statement instanceof CallableStatement ? CallableStatement.class
+                            : statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+                    return Proxy.newProxyInstance(MetricasJdbc.class.getClassLoader(), new Class<?>[]{tipo},
+                            new StatementMedido(statement, sql, descobrirMetodoChamador()));
+                default:
+                    return invocar(conexao, method, args);
+            }
+        }
+    }
+
+    private static final class StatementMedido implements InvocationHandler {
+        private final Statement statement;
+        private final String sqlPreparado;
+        private final String metodo;
+
+        private StatementMedido(Statement statement, String sqlPreparado, String metodo) {
+            this.statement = statement;
+            this.sqlPreparado = sqlPreparado == null ? null : normalizarSql(sqlPreparado);
+            this.metodo = metodo;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String nome = method.getName();
+            if (nome.equals("equals")) {
+                return proxy == args[0];
+            }
+            if (nome.equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+            if (!nome.startsWith("execute")) {
+                return invocar(statement, method, args);
+            }
+
+            String sql = args != null && args.length > 0 && args[0] instanceof String s ? normalizarSql(s)
+                    : sqlPreparado != null ? sqlPreparado : normalizarSql(null);
+            long inicio = System.nanoTime();
+            Object resultado = invocar(statement, method, args);
+            long duracao = System.nanoTime() - inicio;
+
+            long linhas = 0;
+            if (resultado instanceof Integer n) {
+                linhas = Math.max(n, 0);
+            } else if (resultado instanceof Long n) {
+                linhas = Math.max(n, 0);
+            } else if (resultado instanceof int[] lote) {
+                for (int n : lote) {
+                    linhas += n == Statement.SUCCESS_NO_INFO ? 1 : Math.max(n, 0);
+                }
+            }
+            registrarExecucao(metodo, sql, duracao, linhas);
+
+            if (resultado instanceof ResultSet rs) {
+                return Proxy.newProxyInstance(MetricasJdbc.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                        new ResultSetMedido(rs, metodo, sql));
+            }
+            return resultado;
+        }
+    }
+
+    private static final class ResultSetMedido implements InvocationHandler {
+        private final ResultSet resultSet;
+        private final String metodo;
+        private final String sql;
+        private long linhas = 0;
+        private boolean registrado = false;
+
+        private ResultSetMedido(ResultSet resultSet, String metodo, String sql) {
+            this.resultSet = resultSet;
+            this.metodo = metodo;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "next":
+                    Object temLinha = invocar(resultSet, method, args);
+                    if (Boolean.TRUE.equals(temLinha)) {
+                        linhas++;
+                    } else {
+                        registrarLinhas();
+                    }
+                    return temLinha;
+                case "close":
+                    registrarLinhas();
+                    return invocar(resultSet, method, args);
+                default:
+                    return invocar(resultSet, method, args);
+            }
+        }
+
+        private void registrarLinhas() {
+            if (!registrado) {
+                registrado = true;
+                registrarLinhasLidas(metodo, sql, linhas);
+            }
+        }
+    }
+
+    // --- Estruturas de contagem ---
+
+    private static final class Estatistica {
+        private final Histograma histograma = new Histograma();
+        private final LongAdder linhas = new LongAdder();
+
+        private void registrar(long duracaoNanos, long linhasAfetadas) {
+            histograma.registrar(duracaoNanos);
+            linhas.add(linhasAfetadas);
+        }
+    }
+
+    /**
+     * Histograma de latência com faixas fixas (em ms), seguro para várias threads.
+     */
+    private static final class Histograma {
+        private static final double[] LIMITES_MS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000};
+
+        private final AtomicLongArray faixas = new AtomicLongArray(LIMITES_MS.length + 1);
+        private final LongAdder quantidade = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maximoNanos = new AtomicLong();
+
+        private void registrar(long nanos) {
+            double ms = nanos / 1_000_000.0;
+            int faixa = 0;
+            while (faixa < LIMITES_MS.length && ms > LIMITES_MS[faixa]) {
+                faixa++;
+            }
+            faixas.incrementAndGet(faixa);
+            quantidade.increment();
+            totalNanos.add(nanos);
+            maximoNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        private void limpar() {
+            for (int i = 0; i < faixas.length(); i++) {
+                faixas.set(i, 0);
+            }
+            quantidade.reset();
+            totalNanos.reset();
+            maximoNanos.set(0);
+        }
+
+        // Limite superior da faixa onde o percentil cai (o máximo observado, na última faixa)
+        private double percentilMs(double percentil, long total, double maximoMs) {
+            if (total == 0) {
+                return 0;
+            }
+            long alvo = (long) Math.ceil(total * percentil);
+            long acumulado = 0;
+            for (int i = 0; i < faixas.length(); i++) {
+                acumulado += faixas.get(i);
+                if (acumulado >= alvo) {
+                    return i < LIMITES_MS.length ? Math.min(LIMITES_MS[i], maximoMs) : maximoMs;
+                }
+            }
+            return maximoMs;
+        }
+
+        private Resumo resumir(String nome, long linhas) {
+            long total = quantidade.sum();
+            double totalMs = totalNanos.sum() / 1_000_000.0;
+            double maximoMs = maximoNanos.get() / 1_000_000.0;
+            return new Resumo(nome, total, linhas, totalMs, maximoMs,
+                    percentilMs(0.50, total, maximoMs), percentilMs(0.95, total, maximoMs), percentilMs(0.99, total, maximoMs));
+        }
+    }
+
+    /**
+     * Foto instantânea de um histograma (por método, por consulta ou da espera por conexão).
+     * Percentis são aproximados pelo limite superior da faixa do histograma.
+     */
+    public static final class Resumo {
+        private final String nome;
+        private final long chamadas;
+        private final long linhas;
+        private final double totalMs;
+        private final double maximoMs;
+        private final double p50Ms;
+        private final double p95Ms;
+        private final double p99Ms;
+
+        private Resumo(String nome, long chamadas, long linhas, double totalMs, double maximoMs, double p50Ms, double p95Ms, double p99Ms) {
+            this.nome = nome;
+            this.chamadas = chamadas;
+            this.linhas = linhas;
+            this.totalMs = totalMs;
+            this.maximoMs = maximoMs;
+            this.p50Ms = p50Ms;
+            this.p95Ms = p95Ms;
+            this.p99Ms = p99Ms;
+        }
+
+        public String getNome() { return nome; }
+        public long getChamadas() { return chamadas; }
+        public long getLinhas() { return linhas; }
+        public double getTotalMs() { return totalMs; }
+        public double getMaximoMs() { return maximoMs; }
+        public double getP50Ms() { return p50Ms; }
+        public double getP95Ms() { return p95Ms; }
+        public double getP99Ms() { return p99Ms; }
+
+        public double getMediaMs() {
+            return chamadas == 0 ? 0 : totalMs / chamadas;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%6d x  média=%7.2fms p50<=%-5.0f p95<=%-5.0f p99<=%-5.0f max=%8.2fms total=%9.1fms linhas=%-7d %s",
+                    chamadas, getMediaMs(), p50Ms, p95Ms, p99Ms, maximoMs, totalMs, linhas, nome);
+        }
+    }
+}
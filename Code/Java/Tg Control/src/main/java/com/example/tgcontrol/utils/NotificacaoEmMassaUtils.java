@@ -0,0 +1,162 @@
+package com.example.tgcontrol.utils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Utilitário: Envio da mesma notificação para muitos usuários de uma vez (avisos para a turma, orientandos, etc.).
+ * Todas as linhas são gravadas com um único PreparedStatement em lote, numa única conexão e transação:
+ * ou todos os destinatários recebem o aviso, ou nenhum.
+ * O lote vira INSERTs de várias linhas graças a rewriteBatchedStatements=true na URL do DatabaseConnect.
+ */
+public final class NotificacaoEmMassaUtils {
+
+    private static final Logger LOGGER = Logger.getLogger(NotificacaoEmMassaUtils.class.getName());
+
+    // Linhas por executeBatch, para limitar a memória do driver em envios muito grandes
+    private static final int TAMANHO_LOTE = 1000;
+
+    private static final String INSERT_NOTIFICACAO =
+            "INSERT INTO notification (user_email, content, related_task_student_email, related_task_sequence_order) VALUES (?, ?, NULL, NULL)";
+
+    private NotificacaoEmMassaUtils() {
+    }
+
+    /**
+     * Função: Envia uma notificação para todos os alunos de uma turma.
+     * Necessita: Disciplina, ano e semestre da turma e o conteúdo da mensagem.
+     * Retorna: Quantidade de notificações gravadas, ou -1 em caso de erro (nada é gravado).
+     */
+    public static int enviarParaTurma(String disciplina, int year, int semester, String content) {
+        String sql = "SELECT email FROM student WHERE class_disciplina = ? AND class_year = ? AND class_semester = ?";
+        return enviar("Turma " + disciplina + " " + year + "/" + semester, content, conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, disciplina);
+                stmt.setInt(2, year);
+                stmt.setInt(3, semester);
+                return lerEmails(stmt);
+            }
+        });
+    }
+
+    /**
+     * Função: Envia uma notificação para todos os orientandos de um professor.
+     * Necessita: Email do professor orientador e o conteúdo da mensagem.
+     * Retorna: Quantidade de notificações gravadas, ou -1 em caso de erro (nada é gravado).
+     */
+    public static int enviarParaOrientandos(String emailProfessor, String content) {
+        String sql = "SELECT email FROM student WHERE advisor_email = ?";
+        return enviar("Orientandos de " + emailProfessor, content, conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, emailProfessor);
+                return lerEmails(stmt);
+            }
+        });
+    }
+
+    /**
+     * Função: Envia uma notificação para uma lista de emails (repetidos são enviados uma vez só).
+     * Necessita: Os emails dos destinatários e o conteúdo da mensagem.
+     * Retorna: Quantidade de notificações gravadas, ou -1 em caso de erro (nada é gravado).
+     */
+    public static int enviarParaLista(Collection<String> emails, String content) {
+        Set<String> destinatarios = new LinkedHashSet<>();
+        for (String email : emails) {
+            if (email != null && !email.trim().isEmpty()) {
+                destinatarios.add(email.trim());
+            }
+        }
+        return enviar("Lista com " + destinatarios.size() + " emails", content, conn -> new ArrayList<>(destinatarios));
+    }
+
+    @FunctionalInterface
+    private interface BuscaDestinatarios {
+        List<String> buscar(Connection conn) throws SQLException;
+    }
+
+    private static int enviar(String descricao, String content, BuscaDestinatarios busca) {
+        long inicio = System.nanoTime();
+        Connection conn = null;
+        try {
+            conn = DatabaseConnect.getConnection();
+            conn.setAutoCommit(false);
+
+            List<String> destinatarios = busca.buscar(conn);
+            int gravadas = gravarEmLote(conn, destinatarios, content);
+            conn.commit();
+
+            registrarVazao(descricao, gravadas, System.nanoTime() - inicio);
+            if (gravadas > 0) {
+                // Simulação de e-mail: um registro para o envio inteiro, não um por destinatário
+                DatabaseUtils.enviarEmailOpcional(descricao + " (" + gravadas + " destinatários)", "Nova Notificação no TGControl", content);
+            }
+            return gravadas;
+
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "DB FALHA (Notificação em Massa - " + descricao + "): " + e.getMessage(), e);
+            if (conn != null) {
+                try { conn.rollback(); } catch (SQLException ex) { LOGGER.log(Level.SEVERE, "DB FALHA (Rollback): " + ex.getMessage(), ex); }
+            }
+            return -1;
+        } finally {
+            if (conn != null) {
+                try { conn.setAutoCommit(true); conn.close(); } catch (SQLException e) { e.printStackTrace(); }
+            }
+        }
+    }
+
+    private static int gravarEmLote(Connection conn, List<String> destinatarios, String content) throws SQLException {
+        int gravadas = 0;
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_NOTIFICACAO)) {
+            int noLote = 0;
+            for (String email : destinatarios) {
+                stmt.setString(1, email);
+                stmt.setString(2, content);
+                stmt.addBatch();
+                if (++noLote == TAMANHO_LOTE) {
+                    gravadas += contarLinhas(stmt.executeBatch());
+                    noLote = 0;
+                }
+            }
+            if (noLote > 0) {
+                gravadas += contarLinhas(stmt.executeBatch());
+            }
+        }
+        return gravadas;
+    }
+
+    // Com rewriteBatchedStatements o driver pode devolver SUCCESS_NO_INFO (-2) por linha
+    private static int contarLinhas(int[] resultados) {
+        int total = 0;
+        for (int r : resultados) {
+            total += r == PreparedStatement.SUCCESS_NO_INFO ? 1 : Math.max(r, 0);
+        }
+        return total;
+    }
+
+    private static List<String> lerEmails(PreparedStatement stmt) throws SQLException {
+        List<String> emails = new ArrayList<>();
+        try (ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                emails.add(rs.getString("email"));
+            }
+        }
+        return emails;
+    }
+
+    private static void registrarVazao(String descricao, int gravadas, long duracaoNanos) {
+        double duracaoMs = duracaoNanos / 1_000_000.0;
+        double porSegundo = duracaoMs > 0 ? gravadas / (duracaoMs / 1000.0) : 0;
+        LOGGER.log(Level.INFO, String.format("Notificação em massa (%s): %d linhas em %.1f ms (%.0f notificações/s)",
+                descricao, gravadas, duracaoMs, porSegundo));
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.tgcontrol.utils;
+
+import com.example.tgcontrol.model.Notification;
+import javafx.application.Platform;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Utilitário: Verifica em segundo plano se chegaram notificações novas para o usuário logado.
+ * Ao iniciar, lê uma vez o último notification_id e o total de não lidas; depois só pergunta por ids maiores
+ * que o último visto, nunca recarregando a lista inteira.
+ * Intervalo adaptativo: curto com a janela em foco, aumentando enquanto nada chega; longo com a janela sem foco.
+ */
+public final class NotificacaoPoller {
+
+    private static final Logger LOGGER = Logger.getLogger(NotificacaoPoller.class.getName());
+
+    private static final long INTERVALO_MINIMO_MS = 5_000;      // Em foco e recebendo notificações
+    private static final long INTERVALO_MAXIMO_FOCO_MS = 30_000; // Em foco, sem novidades
+    private static final long INTERVALO_SEM_FOCO_MS = 120_000;   // Janela minimizada ou em segundo plano
+    private static final int LIMITE_POR_CONSULTA = 100;
+
+    private static ScheduledExecutorService executor;
+    private static ScheduledFuture<?> proximaVerificacao;
+
+    private static String emailUsuario;
+    private static int ultimoIdVisto;
+    private static int naoLidas;
+    private static boolean janelaEmFoco = true;
+    private static long intervaloAtualMs = INTERVALO_MINIMO_MS;
+    private static IntConsumer ouvinteNaoLidas;
+
+    private NotificacaoPoller() {
+    }
+
+    /**
+     * Função: Começa a verificar as notificações do usuário (reinicia se já estava ativo para outro usuário).
+     * Necessita: Email do usuário e quem recebe o total de não lidas (sempre chamado na thread do JavaFX).
+     */
+    public static synchronized void iniciar(String email, IntConsumer aoMudarNaoLidas) {
+        ouvinteNaoLidas = aoMudarNaoLidas;
+        if (executor != null && email.equals(emailUsuario)) {
+            publicarNaoLidas();
+            return;
+        }
+
+        parar();
+        emailUsuario = email;
+        ultimoIdVisto = -1; // Ainda não sincronizado
+        naoLidas = 0;
+        intervaloAtualMs = INTERVALO_MINIMO_MS;
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "tgcontrol-notificacoes");
+            t.setDaemon(true);
+            return t;
+        });
+        agendar(0);
+    }
+
+    /**
+     * Função: Para as verificações (logout ou fechamento da aplicação).
+     */
+    public static synchronized void parar() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+        proximaVerificacao = null;
+        emailUsuario = null;
+        ouvinteNaoLidas = null;
+    }
+
+    /**
+     * Função: Informa se a janela está em foco. Ao voltar o foco, verifica na hora e volta ao intervalo curto.
+     */
+    public static synchronized void setJanelaEmFoco(boolean emFoco) {
+        boolean recuperouFoco = emFoco && !janelaEmFoco;
+        janelaEmFoco = emFoco;
+        if (recuperouFoco && executor != null) {
+            intervaloAtualMs = INTERVALO_MINIMO_MS;
+            agendar(0);
+        }
+    }
+
+    /**
+     * Função: Corrige o total de não lidas com um valor vindo do banco (ex: tela de notificações).
+     */
+    public static synchronized void setNaoLidas(int total) {
+        naoLidas = Math.max(0, total);
+        publicarNaoLidas();
+    }
+
+    /**
+     * Função: Ajusta o total de não lidas após ações locais (ex: -1 ao marcar uma como lida).
+     */
+    public static synchronized void ajustarNaoLidas(int delta) {
+        setNaoLidas(naoLidas + delta);
+    }
+
+    private static synchronized void agendar(long atrasoMs) {
+        if (executor == null) {
+            return;
+        }
+        if (proximaVerificacao != null) {
+            proximaVerificacao.cancel(false);
+        }
+        proximaVerificacao = executor.schedule(NotificacaoPoller::verificar, atrasoMs, TimeUnit.MILLISECONDS);
+    }
+
+    private static void verificar() {
+        String email;
+        int desdeId;
+        synchronized (NotificacaoPoller.class) {
+            email = emailUsuario;
+            desdeId = ultimoIdVisto;
+        }
+        if (email == null) {
+            return;
+        }
+
+        boolean chegouNovidade = false;
+        try {
+            if (desdeId < 0) {
+                Map<String, Integer> resumo = DatabaseUtils.getResumoNotificacoes(email);
+                if (resumo != null) {
+                    synchronized (NotificacaoPoller.class) {
+                        if (email.equals(emailUsuario)) {
+                            ultimoIdVisto = resumo.get("ultimoId");
+                            naoLidas = resumo.get("naoLidas");
+                            publicarNaoLidas();
+                        }
+                    }
+                }
+            } else {
+                List<Notification> novas = DatabaseUtils.listarNotificacoesApos(email, desdeId, LIMITE_POR_CONSULTA);
+                if (novas != null && !novas.isEmpty()) {
+                    chegouNovidade = true;
+                    synchronized (NotificacaoPoller.class) {
+                        if (email.equals(emailUsuario)) {
+                            ultimoIdVisto = novas.get(novas.size() - 1).getNotificationId();
+                            naoLidas += (int) novas.stream().filter(n -> !n.isIsRead()).count();
+                            publicarNaoLidas();
+                        }
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "Falha ao verificar notificações novas.", e);
+        }
+
+        synchronized (NotificacaoPoller.class) {
+            if (!email.equals(emailUsuario)) {
+                return;
+            }
+            if (!janelaEmFoco) {
+                intervaloAtualMs = INTERVALO_SEM_FOCO_MS;
+            } else if (chegouNovidade) {
+                intervaloAtualMs = INTERVALO_MINIMO_MS;
+            } else {
+                intervaloAtualMs = Math.min(intervaloAtualMs * 2, INTERVALO_MAXIMO_FOCO_MS);
+            }
+            agendar(intervaloAtualMs);
+        }
+    }
+
+    private static void publicarNaoLidas() {
+        IntConsumer ouvinte = ouvinteNaoLidas;
+        int total = naoLidas;
+        if (ouvinte != null) {
+            Platform.runLater(() -> ouvinte.accept(total));
+        }
+    }
+}
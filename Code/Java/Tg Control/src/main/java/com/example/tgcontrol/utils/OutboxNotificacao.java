@@ -0,0 +1,333 @@
+package com.example.tgcontrol.utils;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Utilitário: Caixa de saída (outbox) de notificações e e-mails.
+ * As gravações que geram avisos chamam registrar(conn, ...) dentro da própria transação; o aviso só existe se ela
+ * for confirmada. O despachante lê a tabela outbox_notificacao em lotes e:
+ *   1. grava as notificações no sistema (um INSERT em lote, na mesma transação que marca o lote como gravado);
+ *   2. envia os e-mails pelo SmtpCliente (se tgcontrol.smtp.host estiver configurado), com novas tentativas espaçadas.
+ * Na aplicação o despachante não consulta a tabela periodicamente: ele só roda quando acordar() é chamado após o
+ * commit de uma gravação local. A entrega periódica (e a dos avisos de outras instâncias) fica com o main() desta
+ * classe, executado num processo separado.
+ * Um despachante sem SMTP só grava as notificações: as linhas com e-mail ficam na tabela até um despachante
+ * configurado enviá-las, por no máximo DIAS_ESPERA_SMTP dias. E-mails que falham MAX_TENTATIVAS_EMAIL vezes
+ * são descartados (a notificação no sistema já foi gravada).
+ * SELECT ... FOR UPDATE SKIP LOCKED permite vários despachantes sem entregar a mesma linha duas vezes.
+ * Tabela criada em Code/SQL/20261018_Outbox_Notificacao.sql.
+ */
+public final class OutboxNotificacao {
+
+    private static final Logger LOGGER = Logger.getLogger(OutboxNotificacao.class.getName());
+
+    private static final int TAMANHO_LOTE = 200;
+    private static final long INTERVALO_VERIFICACAO_MS = 2_000;
+    private static final int MAX_TENTATIVAS_EMAIL = 8;
+    // Tempo que um despachante "reserva" as linhas enquanto envia os e-mails, para outro não pegá-las
+    private static final int RESERVA_ENVIO_SEGUNDOS = 120;
+    // Depois disso, e-mails que nenhum despachante com SMTP enviou são descartados
+    private static final int DIAS_ESPERA_SMTP = 7;
+
+    private static ExecutorService executor;
+
+    private OutboxNotificacao() {
+    }
+
+    /**
+     * Função: Registra um aviso na caixa de saída, usando a conexão da transação que o gerou (antes do commit).
+     * Necessita: A conexão em uso, o destinatário, o conteúdo, o assunto do e-mail (null = sem e-mail)
+     *            e, opcionalmente, a task relacionada (sequência <= 0 = nenhuma).
+     */
+    public static void registrar(Connection conn, String destinatarioEmail, String content, String assuntoEmail,
+                                 String relatedTaskStudentEmail, int relatedTaskSequenceOrder) throws SQLException {
+        String sql = "INSERT INTO outbox_notificacao (destinatario_email, content, assunto_email, related_task_student_email, related_task_sequence_order) " +
+                "VALUES (?, ?, ?, ?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, destinatarioEmail);
+            stmt.setString(2, content);
+            stmt.setString(3, assuntoEmail);
+            if (relatedTaskStudentEmail != null && relatedTaskSequenceOrder > 0) {
+                stmt.setString(4, relatedTaskStudentEmail);
+                stmt.setInt(5, relatedTaskSequenceOrder);
+            } else {
+                stmt.setNull(4, Types.VARCHAR);
+                stmt.setNull(5, Types.INTEGER);
+            }
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Função: Entrega, em segundo plano, o que a aplicação acabou de registrar (ex: logo após o commit de uma avaliação).
+     * A thread do despachante é criada na primeira chamada.
+     */
+    public static synchronized void acordar() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "tgcontrol-outbox");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        executor.execute(OutboxNotificacao::drenarComSeguranca);
+    }
+
+    /**
+     * Função: Para o despachante. O que estiver pendente continua na tabela e é entregue na próxima execução.
+     */
+    public static synchronized void encerrar() {
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            executor = null;
+        }
+    }
+
+    private static void drenarComSeguranca() {
+        try {
+            // Continua enquanto os lotes vierem cheios
+            while (drenarLote() == TAMANHO_LOTE) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+            }
+            descartarEmailsExpirados();
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "Falha inesperada no despachante da outbox.", e);
+        }
+    }
+
+    private static final class Item {
+        private final long id;
+        private final String destinatario;
+        private final String content;
+        private final String assuntoEmail;
+        private final int tentativasEmail;
+
+        private Item(long id, String destinatario, String content, String assuntoEmail, int tentativasEmail) {
+            this.id = id;
+            this.destinatario = destinatario;
+            this.content = content;
+            this.assuntoEmail = assuntoEmail;
+            this.tentativasEmail = tentativasEmail;
+        }
+    }
+
+    /**
+     * Função: Entrega um lote da caixa de saída.
+     * Retorna: Quantas linhas foram processadas neste lote (0 se não havia nada ou em caso de erro).
+     */
+    public static int drenarLote() {
+        boolean emailAtivo = SmtpCliente.isConfigurado();
+        List<Item> paraEmail = new ArrayList<>();
+        List<Long> aguardandoSmtp = new ArrayList<>();
+        int processadas;
+
+        // 1. Notificações no sistema: tudo numa transação curta
+        Connection conn = null;
+        try {
+            conn = DatabaseConnect.getConnection();
+            conn.setAutoCommit(false);
+
+            List<Long> semEmail = new ArrayList<>();
+            List<Long> aGravar = new ArrayList<>();
+            List<Item> itens = new ArrayList<>();
+            // Sem SMTP, as linhas já gravadas (só falta o e-mail) ficam para um despachante configurado.
+            // Os dois filtros são o índice idx_outbox_pendentes (notificacao_gravada, proxima_tentativa).
+            String sql = "SELECT outbox_id, destinatario_email, content, assunto_email, related_task_student_email, " +
+                    "related_task_sequence_order, notificacao_gravada, tentativas_email FROM outbox_notificacao " +
+                    (emailAtivo ? "WHERE notificacao_gravada IN (FALSE, TRUE) " : "WHERE notificacao_gravada = FALSE ") +
+                    "AND proxima_tentativa <= NOW(3) " +
+                    "ORDER BY outbox_id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+            try (PreparedStatement select = conn.prepareStatement(sql);
+                 PreparedStatement insert = conn.prepareStatement(
+                         "INSERT INTO notification (user_email, content, related_task_student_email, related_task_sequence_order) VALUES (?, ?, ?, ?)")) {
+                select.setInt(1, TAMANHO_LOTE);
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        Item item = new Item(rs.getLong("outbox_id"), rs.getString("destinatario_email"),
+                                rs.getString("content"), rs.getString("assunto_email"), rs.getInt("tentativas_email"));
+                        itens.add(item);
+
+                        if (!rs.getBoolean("notificacao_gravada")) {
+                            insert.setString(1, item.destinatario);
+                            insert.setString(2, item.content);
+                            insert.setString(3, rs.getString("related_task_student_email"));
+                            insert.setObject(4, rs.getObject("related_task_sequence_order"), Types.INTEGER);
+                            insert.addBatch();
+                            aGravar.add(item.id);
+                        }
+                        if (item.assuntoEmail == null) {
+                            semEmail.add(item.id);
+                        } else if (emailAtivo) {
+                            paraEmail.add(item);
+                        } else {
+                            aguardandoSmtp.add(item.id);
+                        }
+                    }
+                }
+                if (!aGravar.isEmpty()) {
+                    insert.executeBatch();
+                }
+            }
+
+            executarPorIds(conn, "DELETE FROM outbox_notificacao WHERE outbox_id IN ", semEmail);
+            executarPorIds(conn, "UPDATE outbox_notificacao SET notificacao_gravada = TRUE, " +
+                    "proxima_tentativa = TIMESTAMPADD(SECOND, " + RESERVA_ENVIO_SEGUNDOS + ", NOW(3)) WHERE outbox_id IN ", idsDe(paraEmail));
+            executarPorIds(conn, "UPDATE outbox_notificacao SET notificacao_gravada = TRUE WHERE outbox_id IN ", aguardandoSmtp);
+
+            conn.commit();
+            processadas = itens.size();
+
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "DB FALHA (Outbox - Gravar Notificações): " + e.getMessage(), e);
+            if (conn != null) {
+                try { conn.rollback(); } catch (SQLException ex) { LOGGER.log(Level.SEVERE, "DB FALHA (Rollback): " + ex.getMessage(), ex); }
+            }
+            return 0;
+        } finally {
+            if (conn != null) {
+                try { conn.setAutoCommit(true); conn.close(); } catch (SQLException e) { e.printStackTrace(); }
+            }
+        }
+
+        // 2. E-mails: fora da transação, numa única conexão SMTP para o lote
+        if (!paraEmail.isEmpty()) {
+            enviarEmails(paraEmail);
+        }
+        return processadas;
+    }
+
+    private static void enviarEmails(List<Item> itens) {
+        List<Long> enviados = new ArrayList<>();
+        List<Item> falhas = new ArrayList<>();
+        String erro = null;
+
+        SmtpCliente smtp = null;
+        try {
+            for (Item item : itens) {
+                try {
+                    if (smtp == null || !smtp.isConectado()) {
+                        smtp = SmtpCliente.conectar();
+                    }
+                    smtp.enviar(item.destinatario, item.assuntoEmail, item.content);
+                    enviados.add(item.id);
+                } catch (IOException e) {
+                    falhas.add(item);
+                    erro = e.getMessage();
+                    LOGGER.log(Level.WARNING, "Falha ao enviar e-mail para " + item.destinatario + ": " + e.getMessage());
+                }
+            }
+        } finally {
+            if (smtp != null) {
+                try { smtp.close(); } catch (IOException e) { LOGGER.log(Level.FINE, "Falha ao fechar conexão SMTP.", e); }
+            }
+        }
+
+        try (Connection conn = DatabaseConnect.getConnection()) {
+            executarPorIds(conn, "DELETE FROM outbox_notificacao WHERE outbox_id IN ", enviados);
+            if (!falhas.isEmpty()) {
+                // Última tentativa: o e-mail é descartado em vez de ficar na tabela para sempre
+                List<Long> descartados = new ArrayList<>();
+                for (Item item : falhas) {
+                    if (item.tentativasEmail + 1 >= MAX_TENTATIVAS_EMAIL) {
+                        descartados.add(item.id);
+                        LOGGER.log(Level.SEVERE, "E-mail para " + item.destinatario + " descartado após " + MAX_TENTATIVAS_EMAIL + " tentativas: " + erro);
+                    }
+                }
+                executarPorIds(conn, "DELETE FROM outbox_notificacao WHERE outbox_id IN ", descartados);
+                falhas.removeIf(item -> descartados.contains(item.id));
+            }
+            if (!falhas.isEmpty()) {
+                // Espera exponencial: 30s, 60s, 120s... por tentativa
+                // (o MySQL avalia o SET da esquerda para a direita: proxima_tentativa usa o número de tentativas anterior)
+                String sql = "UPDATE outbox_notificacao SET proxima_tentativa = TIMESTAMPADD(SECOND, 30 * POWER(2, tentativas_email), NOW(3)), " +
+                        "tentativas_email = tentativas_email + 1, ultimo_erro = ? WHERE outbox_id IN ";
+                executarPorIds(conn, sql, idsDe(falhas), erro == null ? null : erro.substring(0, Math.min(erro.length(), 500)));
+            }
+        } catch (SQLException e) {
+            // As linhas continuam reservadas e voltam para a fila quando a reserva expirar
+            LOGGER.log(Level.SEVERE, "DB FALHA (Outbox - Resultado dos E-mails): " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Função: Apaga os e-mails que esperam um despachante com SMTP há mais de DIAS_ESPERA_SMTP dias.
+     * As notificações no sistema dessas linhas já foram gravadas.
+     * Retorna: Quantas linhas foram apagadas (0 em caso de erro).
+     */
+    public static int descartarEmailsExpirados() {
+        // proxima_tentativa de uma linha à espera do SMTP é a da criação; com tentativas, no máximo algumas horas à frente
+        String sql = "DELETE FROM outbox_notificacao WHERE notificacao_gravada = TRUE " +
+                "AND proxima_tentativa < TIMESTAMPADD(DAY, -" + DIAS_ESPERA_SMTP + ", NOW(3))";
+        try (Connection conn = DatabaseConnect.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int apagadas = stmt.executeUpdate();
+            if (apagadas > 0) {
+                LOGGER.log(Level.WARNING, apagadas + " e-mails da outbox descartados sem envio após " + DIAS_ESPERA_SMTP + " dias (SMTP não configurado).");
+            }
+            return apagadas;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "DB FALHA (Outbox - Descartar Expirados): " + e.getMessage(), e);
+            return 0;
+        }
+    }
+
+    private static List<Long> idsDe(List<Item> itens) {
+        List<Long> ids = new ArrayList<>(itens.size());
+        for (Item item : itens) {
+            ids.add(item.id);
+        }
+        return ids;
+    }
+
+    // Executa "<sql> (?, ?, ...)" com os ids; parâmetros extras vêm antes dos ids
+    private static void executarPorIds(Connection conn, String sqlSemLista, List<Long> ids, String... parametros) throws SQLException {
+        if (ids.isEmpty()) {
+            return;
+        }
+        String sql = sqlSemLista + "(" + String.join(", ", Collections.nCopies(ids.size(), "?")) + ")";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int i = 1;
+            for (String p : parametros) {
+                stmt.setString(i++, p);
+            }
+            for (Long id : ids) {
+                stmt.setLong(i++, id);
+            }
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Função: Despachante avulso, sem interface. Executar "Run 'OutboxNotificacao.main()'" (com -Dtgcontrol.smtp.host=...)
+     * para entregar a caixa de saída num processo separado da aplicação. É o único que consulta a tabela
+     * periodicamente (a cada INTERVALO_VERIFICACAO_MS).
+     */
+    public static void main(String[] args) throws InterruptedException {
+        LOGGER.log(Level.INFO, "Despachante da outbox iniciado. E-mail " + (SmtpCliente.isConfigurado() ? "ativo." : "desligado (tgcontrol.smtp.host não definido): os e-mails ficam na fila."));
+        while (!Thread.currentThread().isInterrupted()) {
+            drenarComSeguranca();
+            Thread.sleep(INTERVALO_VERIFICACAO_MS);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.tgcontrol.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Utilitário: Manutenção das tabelas de resumo dos dashboards (resumo_aluno, resumo_turma, resumo_orientador).
+ * As gravações que mudam o progresso de um aluno chamam atualizarResumosDoAluno na própria transação:
+ * só a linha do aluno é recalculada; a turma e o orientador recebem a diferença (UPDATE ... SET x = x + ?),
+ * e só quando ela não é zero. Assim gravações de alunos diferentes não disputam locks de faixa nas tabelas base.
+ * Tabelas criadas em Code/SQL/20261018_Tabelas_Resumo_Dashboard.sql.
+ */
+public final class ResumoDashboardUtils {
+
+    private static final Logger LOGGER = Logger.getLogger(ResumoDashboardUtils.class.getName());
+
+    // Tasks em andamento cuja última entrega ainda não tem revisão ou teve revisão solicitada (mesma regra de vw_professor_dashboard)
+    private static final String SQL_PENDENTES_DO_ALUNO =
+            "(SELECT COUNT(*) FROM task tp " +
+            " JOIN task_submission ls ON ls.student_email = tp.student_email AND ls.sequence_order = tp.sequence_order " +
+            " WHERE tp.student_email = s.email AND tp.status = 'in_progress' " +
+            "   AND ls.submission_timestamp = (SELECT MAX(x.submission_timestamp) FROM task_submission x WHERE x.student_email = tp.student_email AND x.sequence_order = tp.sequence_order) " +
+            "   AND COALESCE((SELECT r.status FROM task_review r WHERE r.student_email = ls.student_email AND r.sequence_order = ls.sequence_order " +
+            "                 AND r.submission_timestamp = ls.submission_timestamp ORDER BY r.review_timestamp DESC LIMIT 1), 'revision_requested') = 'revision_requested')";
+
+    private static final String SQL_TG_CONCLUIDO = "CASE WHEN ra.total_tasks > 0 AND ra.completed_tasks = ra.total_tasks THEN 1 ELSE 0 END";
+
+    private static final String INSERT_RESUMO_ALUNO =
+            "INSERT INTO resumo_aluno (student_email, total_tasks, completed_tasks, pendentes_revisao) " +
+            "SELECT s.email, COUNT(t.sequence_order), COALESCE(SUM(CASE WHEN t.status = 'completed' THEN 1 ELSE 0 END), 0), " + SQL_PENDENTES_DO_ALUNO + " " +
+            "FROM student s LEFT JOIN task t ON t.student_email = s.email ";
+
+    private static final String INSERT_RESUMO_TURMA =
+            "INSERT INTO resumo_turma (class_disciplina, class_year, class_semester, numero_alunos, tgs_concluidos, soma_progresso) " +
+            "SELECT c.disciplina, c.year, c.semester, COUNT(ra.student_email), " +
+            "       COALESCE(SUM(" + SQL_TG_CONCLUIDO + "), 0), " +
+            "       COALESCE(SUM(CASE WHEN ra.total_tasks > 0 THEN ra.completed_tasks / ra.total_tasks ELSE 0 END), 0) " +
+            "FROM class c " +
+            "LEFT JOIN student s ON s.class_disciplina = c.disciplina AND s.class_year = c.year AND s.class_semester = c.semester " +
+            "LEFT JOIN resumo_aluno ra ON ra.student_email = s.email ";
+
+    private static final String INSERT_RESUMO_ORIENTADOR =
+            "INSERT INTO resumo_orientador (advisor_email, total_orientandos, tgs_concluidos, pendentes_revisao) " +
+            "SELECT s.advisor_email, COUNT(*), COALESCE(SUM(" + SQL_TG_CONCLUIDO + "), 0), COALESCE(SUM(ra.pendentes_revisao), 0) " +
+            "FROM student s JOIN resumo_aluno ra ON ra.student_email = s.email ";
+
+    private ResumoDashboardUtils() {
+    }
+
+    // Valores de resumo_aluno usados nos totais da turma e do orientador
+    private static final class ResumoAluno {
+        final boolean concluido;
+        final BigDecimal progresso;
+        final int pendentes;
+
+        ResumoAluno(int totalTasks, int completedTasks, int pendentes) {
+            this.concluido = totalTasks > 0 && completedTasks == totalTasks;
+            // Mesma precisão da divisão do MySQL (4 casas) usada por reconstruirResumos
+            this.progresso = totalTasks > 0
+                    ? BigDecimal.valueOf(completedTasks).divide(BigDecimal.valueOf(totalTasks), 4, RoundingMode.HALF_UP)
+                    : BigDecimal.ZERO;
+            this.pendentes = pendentes;
+        }
+    }
+
+    /**
+     * Função: Recalcula o resumo de um aluno e soma a diferença no resumo da turma e do orientador dele.
+     * Deve ser chamado com a conexão da transação que fez a gravação (antes do commit).
+     * A linha do aluno fica bloqueada até o commit: gravações do mesmo aluno esperam e nenhuma diferença se perde.
+     * As linhas da turma e do orientador só são bloqueadas (por chave primária) quando o total muda de fato,
+     * o que numa entrega comum só acontece com o orientador (pendentes de revisão).
+     * Necessita: A conexão em uso e o email do aluno.
+     */
+    public static void atualizarResumosDoAluno(Connection conn, String emailAluno) throws SQLException {
+        ResumoAluno antes = lerResumoAluno(conn, emailAluno, true);
+
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_RESUMO_ALUNO +
+                "WHERE s.email = ? GROUP BY s.email " +
+                "ON DUPLICATE KEY UPDATE total_tasks = VALUES(total_tasks), completed_tasks = VALUES(completed_tasks), pendentes_revisao = VALUES(pendentes_revisao)")) {
+            stmt.setString(1, emailAluno);
+            stmt.executeUpdate();
+        }
+
+        ResumoAluno depois = lerResumoAluno(conn, emailAluno, false);
+        if (depois == null) {
+            return; // Não é aluno
+        }
+
+        String disciplina = null;
+        int ano = 0;
+        int semestre = 0;
+        String emailOrientador = null;
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT class_disciplina, class_year, class_semester, advisor_email FROM student WHERE email = ?")) {
+            stmt.setString(1, emailAluno);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    disciplina = rs.getString("class_disciplina");
+                    ano = rs.getInt("class_year");
+                    semestre = rs.getInt("class_semester");
+                    emailOrientador = rs.getString("advisor_email");
+                }
+            }
+        }
+
+        // Aluno sem linha anterior (cadastro concluído agora) passa a contar na turma e no orientador
+        int novos = antes == null ? 1 : 0;
+        int concluidos = (depois.concluido ? 1 : 0) - (antes != null && antes.concluido ? 1 : 0);
+        BigDecimal progresso = depois.progresso.subtract(antes != null ? antes.progresso : BigDecimal.ZERO);
+        int pendentes = depois.pendentes - (antes != null ? antes.pendentes : 0);
+
+        if (disciplina != null && (novos != 0 || concluidos != 0 || progresso.signum() != 0)) {
+            somarNaTurma(conn, disciplina, ano, semestre, novos, concluidos, progresso);
+        }
+        if (emailOrientador != null && (novos != 0 || concluidos != 0 || pendentes != 0)) {
+            somarNoOrientador(conn, emailOrientador, novos, concluidos, pendentes);
+        }
+    }
+
+    private static ResumoAluno lerResumoAluno(Connection conn, String emailAluno, boolean bloquear) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT total_tasks, completed_tasks, pendentes_revisao FROM resumo_aluno WHERE student_email = ?" +
+                (bloquear ? " FOR UPDATE" : ""))) {
+            stmt.setString(1, emailAluno);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next()
+                        ? new ResumoAluno(rs.getInt("total_tasks"), rs.getInt("completed_tasks"), rs.getInt("pendentes_revisao"))
+                        : null;
+            }
+        }
+    }
+
+    private static void somarNaTurma(Connection conn, String disciplina, int ano, int semestre,
+                                     int alunos, int concluidos, BigDecimal progresso) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "UPDATE resumo_turma SET numero_alunos = numero_alunos + ?, tgs_concluidos = tgs_concluidos + ?, soma_progresso = soma_progresso + ? " +
+                "WHERE class_disciplina = ? AND class_year = ? AND class_semester = ?")) {
+            stmt.setInt(1, alunos);
+            stmt.setInt(2, concluidos);
+            stmt.setBigDecimal(3, progresso);
+            stmt.setString(4, disciplina);
+            stmt.setInt(5, ano);
+            stmt.setInt(6, semestre);
+            if (stmt.executeUpdate() > 0) {
+                return;
+            }
+        }
+        // Primeira vez que a turma aparece (o ON DUPLICATE cobre duas transações criando a mesma linha)
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO resumo_turma (class_disciplina, class_year, class_semester, numero_alunos, tgs_concluidos, soma_progresso) " +
+                "VALUES (?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE numero_alunos = numero_alunos + VALUES(numero_alunos), " +
+                "tgs_concluidos = tgs_concluidos + VALUES(tgs_concluidos), soma_progresso = soma_progresso + VALUES(soma_progresso)")) {
+            stmt.setString(1, disciplina);
+            stmt.setInt(2, ano);
+            stmt.setInt(3, semestre);
+            stmt.setInt(4, alunos);
+            stmt.setInt(5, concluidos);
+            stmt.setBigDecimal(6, progresso);
+            stmt.executeUpdate();
+        }
+    }
+
+    private static void somarNoOrientador(Connection conn, String emailOrientador,
+                                          int orientandos, int concluidos, int pendentes) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "UPDATE resumo_orientador SET total_orientandos = total_orientandos + ?, tgs_concluidos = tgs_concluidos + ?, pendentes_revisao = pendentes_revisao + ? " +
+                "WHERE advisor_email = ?")) {
+            stmt.setInt(1, orientandos);
+            stmt.setInt(2, concluidos);
+            stmt.setInt(3, pendentes);
+            stmt.setString(4, emailOrientador);
+            if (stmt.executeUpdate() > 0) {
+                return;
+            }
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO resumo_orientador (advisor_email, total_orientandos, tgs_concluidos, pendentes_revisao) " +
+                "VALUES (?, ?, ?, ?) ON DUPLICATE KEY UPDATE total_orientandos = total_orientandos + VALUES(total_orientandos), " +
+                "tgs_concluidos = tgs_concluidos + VALUES(tgs_concluidos), pendentes_revisao = pendentes_revisao + VALUES(pendentes_revisao)")) {
+            stmt.setString(1, emailOrientador);
+            stmt.setInt(2, orientandos);
+            stmt.setInt(3, concluidos);
+            stmt.setInt(4, pendentes);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Função: Reconstrói as três tabelas de resumo a partir das tabelas base, numa única transação.
+     * Usado para corrigir divergências (ex: dados alterados direto no banco) e pela carga de dados de teste.
+     * Retorna: true se a reconstrução foi concluída.
+     */
+    public static boolean reconstruirResumos() {
+        Connection conn = null;
+        try {
+            conn = DatabaseConnect.getConnection();
+            conn.setAutoCommit(false);
+
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("DELETE FROM resumo_orientador");
+                stmt.executeUpdate("DELETE FROM resumo_turma");
+                stmt.executeUpdate("DELETE FROM resumo_aluno");
+                stmt.executeUpdate(INSERT_RESUMO_ALUNO + "GROUP BY s.email");
+                stmt.executeUpdate(INSERT_RESUMO_TURMA + "GROUP BY c.disciplina, c.year, c.semester");
+                stmt.executeUpdate(INSERT_RESUMO_ORIENTADOR + "WHERE s.advisor_email IS NOT NULL GROUP BY s.advisor_email");
+            }
+
+            conn.commit();
+            return true;
+
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "DB FALHA (Reconstruir Resumos): " + e.getMessage(), e);
+            if (conn != null) {
+                try { conn.rollback(); } catch (SQLException ex) { LOGGER.log(Level.SEVERE, "DB FALHA (Rollback): " + ex.getMessage(), ex); }
+            }
+            return false;
+        } finally {
+            if (conn != null) {
+                try { conn.setAutoCommit(true); conn.close(); } catch (SQLException e) { e.printStackTrace(); }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,395 @@
+package com.example.tgcontrol.utils;
+
+import com.example.tgcontrol.model.EntregaTG;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Utilitário: Segmento imutável do índice de texto dos TGs (IndiceTextoTG), gravado em um único arquivo.
+ * O arquivo é mapeado em memória (MappedByteBuffer) e lido só com leituras absolutas, então várias buscas
+ * podem ler o mesmo segmento ao mesmo tempo sem lock.
+ *
+ * Formato (inteiros "var" = varint de 7 bits por byte):
+ * - postings, um bloco por termo: var df; por documento: var delta do docId, var tf,
+ *   var tamanho em bytes das posições, var deltas das posições (o tamanho permite pular as posições quando
+ *   a busca não tem frase);
+ * - documentos: int docId, int comprimento, int seção, int versão, email e caminho (UTF);
+ * - termos: short tamanho + bytes UTF-8, long início do bloco de postings; em ordem crescente;
+ * - tabela de termos: um long (início do termo) por termo, para busca binária;
+ * - rodapé: long documentos, long tabela, int qtd. documentos, int qtd. termos, int ASSINATURA.
+ */
+final class SegmentoIndiceTexto {
+
+    private static final int ASSINATURA = 0x54474958; // "TGIX"
+    private static final int TAMANHO_RODAPE = 8 + 8 + 4 + 4 + 4;
+
+    /**
+     * Uma versão indexada: o número interno (docId, crescente em todo o índice) e o total de palavras.
+     */
+    static final class Documento {
+        final int docId;
+        final EntregaTG entrega;
+        final int comprimento;
+
+        Documento(int docId, EntregaTG entrega, int comprimento) {
+            this.docId = docId;
+            this.entrega = entrega;
+            this.comprimento = comprimento;
+        }
+    }
+
+    /**
+     * Lista de ocorrências de um termo, em ordem crescente de docId.
+     * posicoes fica null quando a busca não pediu posições.
+     */
+    static final class Postings {
+        static final Postings VAZIO = new Postings(new int[0], new int[0], null);
+
+        final int[] docIds;
+        final int[] frequencias;
+        final int[][] posicoes;
+
+        Postings(int[] docIds, int[] frequencias, int[][] posicoes) {
+            this.docIds = docIds;
+            this.frequencias = frequencias;
+            this.posicoes = posicoes;
+        }
+
+        int tamanho() {
+            return docIds.length;
+        }
+    }
+
+    private final Path arquivo;
+    private final MappedByteBuffer dados;
+    private final Map<Integer, Documento> documentos;
+    private final long somaComprimentos;
+    private final long inicioTabela;
+    private final int quantidadeTermos;
+
+    private SegmentoIndiceTexto(Path arquivo, MappedByteBuffer dados, Map<Integer, Documento> documentos,
+                                long somaComprimentos, long inicioTabela, int quantidadeTermos) {
+        this.arquivo = arquivo;
+        this.dados = dados;
+        this.documentos = documentos;
+        this.somaComprimentos = somaComprimentos;
+        this.inicioTabela = inicioTabela;
+        this.quantidadeTermos = quantidadeTermos;
+    }
+
+    /**
+     * Função: Abre um segmento já gravado, mapeando o arquivo em memória.
+     * Os documentos (poucos, comparados aos termos) são lidos para a memória; os termos e postings ficam no mapeamento.
+     */
+    static SegmentoIndiceTexto abrir(Path arquivo) throws IOException {
+        MappedByteBuffer dados;
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            dados = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+        }
+
+        int fim = dados.capacity();
+        if (fim < TAMANHO_RODAPE || dados.getInt(fim - 4) != ASSINATURA) {
+            throw new IOException("Segmento de índice inválido: " + arquivo);
+        }
+        long inicioDocumentos = dados.getLong(fim - TAMANHO_RODAPE);
+        long inicioTabela = dados.getLong(fim - TAMANHO_RODAPE + 8);
+        int quantidadeDocumentos = dados.getInt(fim - TAMANHO_RODAPE + 16);
+        int quantidadeTermos = dados.getInt(fim - TAMANHO_RODAPE + 20);
+
+        Map<Integer, Documento> documentos = new HashMap<>(quantidadeDocumentos * 2);
+        long somaComprimentos = 0;
+        int[] pos = {(int) inicioDocumentos};
+        for (int i = 0; i < quantidadeDocumentos; i++) {
+            int docId = lerInt(dados, pos);
+            int comprimento = lerInt(dados, pos);
+            int sequencia = lerInt(dados, pos);
+            int versao = lerInt(dados, pos);
+            String email = lerTexto(dados, pos);
+            String caminho = lerTexto(dados, pos);
+            documentos.put(docId, new Documento(docId, new EntregaTG(email, sequencia, versao, caminho), comprimento));
+            somaComprimentos += comprimento;
+        }
+
+        return new SegmentoIndiceTexto(arquivo, dados, Collections.unmodifiableMap(documentos), somaComprimentos,
+                inicioTabela, quantidadeTermos);
+    }
+
+    Path getArquivo() {
+        return arquivo;
+    }
+
+    Map<Integer, Documento> getDocumentos() {
+        return documentos;
+    }
+
+    // Soma dos comprimentos de todos os documentos do segmento (para o comprimento médio do BM25)
+    long getSomaComprimentos() {
+        return somaComprimentos;
+    }
+
+    int getQuantidadeTermos() {
+        return quantidadeTermos;
+    }
+
+    /**
+     * Retorna: O termo na posição informada da tabela (ordem crescente), usado pela junção de segmentos.
+     */
+    String getTermo(int indice) {
+        int[] pos = {(int) dados.getLong((int) (inicioTabela + (long) indice * 8))};
+        return lerTexto(dados, pos);
+    }
+
+    /**
+     * Função: Lê as ocorrências de um termo.
+     * Necessita: O termo já normalizado e se as posições são necessárias (só para frases).
+     * Retorna: As ocorrências, ou Postings.VAZIO se o termo não existe no segmento.
+     */
+    Postings lerPostings(String termo, boolean comPosicoes) {
+        int indice = buscarTermo(termo);
+        return indice < 0 ? Postings.VAZIO : lerPostings(indice, comPosicoes);
+    }
+
+    Postings lerPostings(int indiceTermo, boolean comPosicoes) {
+        int[] pos = {(int) dados.getLong((int) (inicioTabela + (long) indiceTermo * 8))};
+        pos[0] += 2 + (dados.getShort(pos[0]) & 0xFFFF);
+        pos[0] = (int) dados.getLong(pos[0]);
+
+        int df = lerVar(dados, pos);
+        int[] docIds = new int[df];
+        int[] frequencias = new int[df];
+        int[][] posicoes = comPosicoes ? new int[df][] : null;
+        int docId = 0;
+        for (int i = 0; i < df; i++) {
+            docId += lerVar(dados, pos);
+            docIds[i] = docId;
+            frequencias[i] = lerVar(dados, pos);
+            int bytesPosicoes = lerVar(dados, pos);
+            if (comPosicoes) {
+                int[] lista = new int[frequencias[i]];
+                int posicao = 0;
+                for (int j = 0; j < lista.length; j++) {
+                    posicao += lerVar(dados, pos);
+                    lista[j] = posicao;
+                }
+                posicoes[i] = lista;
+            } else {
+                pos[0] += bytesPosicoes;
+            }
+        }
+        return new Postings(docIds, frequencias, posicoes);
+    }
+
+    private int buscarTermo(String termo) {
+        int inicio = 0;
+        int fim = quantidadeTermos - 1;
+        while (inicio <= fim) {
+            int meio = (inicio + fim) >>> 1;
+            int comparacao = getTermo(meio).compareTo(termo);
+            if (comparacao < 0) {
+                inicio = meio + 1;
+            } else if (comparacao > 0) {
+                fim = meio - 1;
+            } else {
+                return meio;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gravação de um segmento em fluxo: os termos chegam em ordem crescente, cada um com todas as suas ocorrências.
+     * Só a lista de termos (e seus inícios) fica em memória; as postings vão direto para o disco.
+     * O arquivo só passa a valer quando o IndiceTextoTG o inclui na lista de segmentos.
+     */
+    static final class Escritor implements AutoCloseable {
+        private final ContadorSaida contador;
+        private final DataOutputStream saida;
+        private final List<String> termos = new ArrayList<>();
+        private final List<Long> inicioPostings = new ArrayList<>();
+        private final byte[] bufferVar = new byte[5];
+        private String ultimoTermo;
+
+        Escritor(Path arquivo) throws IOException {
+            this.contador = new ContadorSaida(new BufferedOutputStream(Files.newOutputStream(arquivo), 1 << 16));
+            this.saida = new DataOutputStream(contador);
+        }
+
+        /**
+         * Função: Grava as ocorrências de um termo. Termos sem ocorrências são ignorados.
+         * Necessita: Termos em ordem crescente e postings com posições.
+         */
+        void adicionarTermo(String termo, Postings postings) throws IOException {
+            if (postings.tamanho() == 0) {
+                return;
+            }
+            if (ultimoTermo != null && ultimoTermo.compareTo(termo) >= 0) {
+                throw new IllegalArgumentException("Termos fora de ordem: " + ultimoTermo + " / " + termo);
+            }
+            ultimoTermo = termo;
+            termos.add(termo);
+            inicioPostings.add(contador.posicao);
+
+            escreverVar(postings.tamanho());
+            int docAnterior = 0;
+            for (int i = 0; i < postings.tamanho(); i++) {
+                escreverVar(postings.docIds[i] - docAnterior);
+                docAnterior = postings.docIds[i];
+                escreverVar(postings.frequencias[i]);
+
+                int[] lista = postings.posicoes[i];
+                int bytesPosicoes = 0;
+                int anterior = 0;
+                for (int posicao : lista) {
+                    bytesPosicoes += tamanhoVar(posicao - anterior);
+                    anterior = posicao;
+                }
+                escreverVar(bytesPosicoes);
+                anterior = 0;
+                for (int posicao : lista) {
+                    escreverVar(posicao - anterior);
+                    anterior = posicao;
+                }
+            }
+        }
+
+        /**
+         * Função: Grava a lista de documentos, a tabela de termos e o rodapé, e fecha o arquivo.
+         * Necessita: Os documentos do segmento (já sem os removidos).
+         */
+        void concluir(List<Documento> documentos) throws IOException {
+            long inicioDocumentos = contador.posicao;
+            for (Documento documento : documentos) {
+                saida.writeInt(documento.docId);
+                saida.writeInt(documento.comprimento);
+                saida.writeInt(documento.entrega.getSequencia());
+                saida.writeInt(documento.entrega.getVersao());
+                escreverTexto(documento.entrega.getEmailAluno());
+                escreverTexto(documento.entrega.getCaminhoArquivo());
+            }
+
+            long[] inicioTermos = new long[termos.size()];
+            for (int i = 0; i < termos.size(); i++) {
+                inicioTermos[i] = contador.posicao;
+                escreverTexto(termos.get(i));
+                saida.writeLong(inicioPostings.get(i));
+            }
+
+            long inicioTabela = contador.posicao;
+            for (long inicio : inicioTermos) {
+                saida.writeLong(inicio);
+            }
+
+            saida.writeLong(inicioDocumentos);
+            saida.writeLong(inicioTabela);
+            saida.writeInt(documentos.size());
+            saida.writeInt(termos.size());
+            saida.writeInt(ASSINATURA);
+            saida.close();
+
+            // O mapeamento usa posições int: segmentos acima de 2 GB não são suportados
+            if (contador.posicao > Integer.MAX_VALUE) {
+                throw new IOException("Segmento de índice maior que 2 GB.");
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            saida.close();
+        }
+
+        private void escreverTexto(String texto) throws IOException {
+            byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+            saida.writeShort(bytes.length);
+            saida.write(bytes);
+        }
+
+        private void escreverVar(int valor) throws IOException {
+            int tamanho = 0;
+            while ((valor & ~0x7F) != 0) {
+                bufferVar[tamanho++] = (byte) ((valor & 0x7F) | 0x80);
+                valor >>>= 7;
+            }
+            bufferVar[tamanho++] = (byte) valor;
+            saida.write(bufferVar, 0, tamanho);
+        }
+
+        private static int tamanhoVar(int valor) {
+            int tamanho = 1;
+            while ((valor & ~0x7F) != 0) {
+                tamanho++;
+                valor >>>= 7;
+            }
+            return tamanho;
+        }
+    }
+
+    // Conta os bytes gravados para saber o início de cada bloco sem consultar o arquivo
+    private static final class ContadorSaida extends FilterOutputStream {
+        private long posicao;
+
+        ContadorSaida(OutputStream destino) {
+            super(destino);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            posicao++;
+        }
+
+        @Override
+        public void write(byte[] b, int inicio, int tamanho) throws IOException {
+            out.write(b, inicio, tamanho);
+            posicao += tamanho;
+        }
+    }
+
+    private static int lerVar(ByteBuffer dados, int[] pos) {
+        int valor = 0;
+        int deslocamento = 0;
+        byte b;
+        do {
+            b = dados.get(pos[0]++);
+            valor |= (b & 0x7F) << deslocamento;
+            deslocamento += 7;
+        } while ((b & 0x80) != 0);
+        return valor;
+    }
+
+    private static int lerInt(ByteBuffer dados, int[] pos) {
+        int valor = dados.getInt(pos[0]);
+        pos[0] += 4;
+        return valor;
+    }
+
+    private static String lerTexto(ByteBuffer dados, int[] pos) {
+        int tamanho = dados.getShort(pos[0]) & 0xFFFF;
+        byte[] bytes = new byte[tamanho];
+        for (int i = 0; i < tamanho; i++) {
+            bytes[i] = dados.get(pos[0] + 2 + i);
+        }
+        pos[0] += 2 + tamanho;
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        return arquivo.getFileName() + " (" + documentos.size() + " documentos, " + quantidadeTermos + " termos)";
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.tgcontrol.utils;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Base64;
+
+/**
+ * Utilitário: Cliente SMTP mínimo (sem TLS e sem autenticação), para um relay interno ou um servidor SMTP falso local.
+ * Uma instância mantém a conexão aberta para enviar vários e-mails em sequência (um lote do OutboxNotificacao).
+ * Configuração por propriedades do sistema:
+ *   tgcontrol.smtp.host (sem ela o envio de e-mail fica desligado), tgcontrol.smtp.port (padrão 25)
+ *   e tgcontrol.smtp.remetente (padrão nao-responda@tgcontrol.local).
+ */
+public final class SmtpCliente implements Closeable {
+
+    private static final int TIMEOUT_MS = 10_000;
+
+    private final Socket socket;
+    private final BufferedReader entrada;
+    private final Writer saida;
+    private final String remetente;
+
+    /**
+     * Função: Indica se há um servidor SMTP configurado.
+     */
+    public static boolean isConfigurado() {
+        String host = System.getProperty("tgcontrol.smtp.host");
+        return host != null && !host.isBlank();
+    }
+
+    /**
+     * Função: Conecta ao servidor configurado e se apresenta (EHLO).
+     * Retorna: O cliente pronto para enviar. Lança IOException se o servidor recusar ou não responder.
+     */
+    public static SmtpCliente conectar() throws IOException {
+        String host = System.getProperty("tgcontrol.smtp.host");
+        int porta = Integer.getInteger("tgcontrol.smtp.port", 25);
+        String remetente = System.getProperty("tgcontrol.smtp.remetente", "nao-responda@tgcontrol.local");
+        return new SmtpCliente(host, porta, remetente);
+    }
+
+    private SmtpCliente(String host, int porta, String remetente) throws IOException {
+        this.remetente = remetente;
+        this.socket = new Socket();
+        try {
+            socket.connect(new InetSocketAddress(host, porta), TIMEOUT_MS);
+            socket.setSoTimeout(TIMEOUT_MS);
+            this.entrada = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            this.saida = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+            esperar(220);
+            comando("EHLO tgcontrol", 250);
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Função: Envia um e-mail de texto simples.
+     * Necessita: Destinatário, assunto e corpo.
+     * Lança IOException se o servidor recusar a mensagem (a conexão continua utilizável após RSET).
+     */
+    public void enviar(String destinatario, String assunto, String corpo) throws IOException {
+        try {
+            comando("MAIL FROM:<" + remetente + ">", 250);
+            comando("RCPT TO:<" + destinatario + ">", 250, 251);
+            comando("DATA", 354);
+
+            StringBuilder mensagem = new StringBuilder();
+            mensagem.append("From: TGControl <").append(remetente).append(">\r\n");
+            mensagem.append("To: <").append(destinatario).append(">\r\n");
+            mensagem.append("Subject: =?UTF-8?B?").append(Base64.getEncoder().encodeToString(assunto.getBytes(StandardCharsets.UTF_8))).append("?=\r\n");
+            mensagem.append("Date: ").append(DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now())).append("\r\n");
+            mensagem.append("MIME-Version: 1.0\r\n");
+            mensagem.append("Content-Type: text/plain; charset=UTF-8\r\n");
+            mensagem.append("Content-Transfer-Encoding: 8bit\r\n\r\n");
+            for (String linha : corpo.split("\r?\n", -1)) {
+                // Linhas começando com "." precisam ser duplicadas (RFC 5321, 4.5.2)
+                mensagem.append(linha.startsWith(".") ? "." + linha : linha).append("\r\n");
+            }
+            mensagem.append(".");
+            comando(mensagem.toString(), 250);
+        } catch (IOException e) {
+            if (!socket.isClosed()) {
+                try { comando("RSET", 250); } catch (IOException ignorada) { socket.close(); }
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Função: Indica se a conexão ainda pode ser usada (após uma falha grave ela é fechada).
+     */
+    public boolean isConectado() {
+        return !socket.isClosed();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (!socket.isClosed()) {
+                comando("QUIT", 221);
+            }
+        } finally {
+            socket.close();
+        }
+    }
+
+    private void comando(String linha, int... codigosEsperados) throws IOException {
+        saida.write(linha + "\r\n");
+        saida.flush();
+        esperar(codigosEsperados);
+    }
+
+    // Lê a resposta (inclusive respostas de várias linhas "250-...") e confere o código
+    private void esperar(int... codigosEsperados) throws IOException {
+        String linha;
+        do {
+            linha = entrada.readLine();
+            if (linha == null) {
+                throw new IOException("Servidor SMTP fechou a conexão.");
+            }
+        } while (linha.length() > 3 && linha.charAt(3) == '-');
+
+        int codigo;
+        try {
+            codigo = Integer.parseInt(linha.substring(0, 3));
+        } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+            throw new IOException("Resposta SMTP inválida: " + linha);
+        }
+        for (int esperado : codigosEsperados) {
+            if (codigo == esperado) {
+                return;
+            }
+        }
+        throw new IOException("Resposta SMTP inesperada: " + linha);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.tgcontrol.utils;
+
+import com.example.tgcontrol.model.TipoUsuario;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Utilitário: Cache em memória do TipoUsuario (papel) de cada email, compartilhado por todas as telas.
+ * O papel só muda ao completar o cadastro, então a entrada é invalidada nesse momento.
+ */
+public final class TipoUsuarioCache {
+
+    private static final Map<String, TipoUsuario> CACHE = new ConcurrentHashMap<>();
+
+    private TipoUsuarioCache() {
+    }
+
+    /**
+     * Função: Retorna o papel do usuário, consultando o banco apenas na primeira vez.
+     * Necessita: Email do usuário.
+     * Retorna: O TipoUsuario; NAO_AUTENTICADO se o usuário não existir ou em caso de erro (nesse caso não é guardado).
+     */
+    public static TipoUsuario getTipo(String email) {
+        if (email == null || email.isEmpty()) {
+            return TipoUsuario.NAO_AUTENTICADO;
+        }
+
+        TipoUsuario tipo = CACHE.get(email);
+        if (tipo != null) {
+            return tipo;
+        }
+
+        tipo = DatabaseUtils.resolverTipoUsuario(email);
+        registrar(email, tipo);
+        return tipo;
+    }
+
+    /**
+     * Função: Guarda um papel já conhecido (ex: resultado do login), evitando uma nova consulta.
+     */
+    public static void registrar(String email, TipoUsuario tipo) {
+        if (email != null && tipo != null && tipo != TipoUsuario.NAO_AUTENTICADO) {
+            CACHE.put(email, tipo);
+        }
+    }
+
+    /**
+     * Função: Remove o papel guardado de um usuário. Chamar sempre que o papel puder ter mudado.
+     */
+    public static void invalidar(String email) {
+        if (email != null) {
+            CACHE.remove(email);
+        }
+    }
+
+    /**
+     * Função: Esvazia o cache inteiro.
+     */
+    public static void limpar() {
+        CACHE.clear();
+    }
+}
@@ -33,6 +33,7 @@ public final class UIUtils {
             return;
         }
 
+        MetricasJdbc.setTelaAtual(fxmlPath);
         try {
             URL fxmlLocation = UIUtils.class.getResource(FXML_BASE_PATH + fxmlPath);
 
@@ -80,6 +81,7 @@ public final class UIUtils {
     }
 
     public static void loadNewScene(Stage stage, String fxmlPath) {
+        MetricasJdbc.setTelaAtual(fxmlPath);
         try {
             URL fxmlLocation = UIUtils.class.getResource(FXML_BASE_PATH + fxmlPath);
 
@@ -0,0 +1,95 @@
+package com.example.tgcontrol.h2;
+
+import com.example.tgcontrol.utils.DatabaseConnect;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Banco H2 em memória (modo MySQL) com o esquema do TGControl (h2/schema.sql), para os testes e os benchmarks.
+ * Aponta o DatabaseConnect para o H2 pelas propriedades tgcontrol.db.*.
+ */
+public final class BancoTesteH2 {
+
+    private BancoTesteH2() {
+    }
+
+    /**
+     * Função: Cria (ou recria vazio) o banco em memória com o esquema e reinicia o pool do DatabaseConnect apontando para ele.
+     * Necessita: Nome do banco.
+     */
+    public static void criar(String nome) throws SQLException {
+        System.setProperty("tgcontrol.db.url", "jdbc:h2:mem:" + nome +
+                ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE;NON_KEYWORDS=USER,YEAR;DB_CLOSE_DELAY=-1");
+        System.setProperty("tgcontrol.db.user", "sa");
+        System.setProperty("tgcontrol.db.password", "");
+        DatabaseConnect.encerrarPool();
+
+        try (Connection conn = DatabaseConnect.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP ALL OBJECTS");
+            stmt.execute("RUNSCRIPT FROM 'classpath:/h2/schema.sql'");
+        }
+    }
+
+    /**
+     * Função: Insere um professor (orientador ou coordenador).
+     */
+    public static void inserirProfessor(Connection conn, String email, boolean coordenador) throws SQLException {
+        inserirUsuario(conn, email);
+        try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO teacher (email, is_coordinator) VALUES (?, ?)")) {
+            stmt.setString(1, email);
+            stmt.setBoolean(2, coordenador);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Função: Insere a turma, se ainda não existir.
+     */
+    public static void inserirTurma(Connection conn, String disciplina, int ano, int semestre) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO class (disciplina, year, semester, min_tasks, max_tasks) VALUES (?, ?, ?, 1, 6) " +
+                "ON DUPLICATE KEY UPDATE min_tasks = min_tasks")) {
+            stmt.setString(1, disciplina);
+            stmt.setInt(2, ano);
+            stmt.setInt(3, semestre);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Função: Insere um aluno na turma com uma task em andamento (sequence_order 1).
+     * Necessita: A turma já inserida; o orientador pode ser null.
+     */
+    public static void inserirAluno(Connection conn, String email, String emailOrientador,
+                                    String disciplina, int ano, int semestre) throws SQLException {
+        inserirUsuario(conn, email);
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO student (email, advisor_email, class_disciplina, class_year, class_semester) VALUES (?, ?, ?, ?, ?)")) {
+            stmt.setString(1, email);
+            stmt.setString(2, emailOrientador);
+            stmt.setString(3, disciplina);
+            stmt.setInt(4, ano);
+            stmt.setInt(5, semestre);
+            stmt.executeUpdate();
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO task (student_email, sequence_order, title, due_date, status) VALUES (?, 1, 'Seção 1', CURRENT_DATE, 'in_progress')")) {
+            stmt.setString(1, email);
+            stmt.executeUpdate();
+        }
+    }
+
+    private static void inserirUsuario(Connection conn, String email) throws SQLException {
+        String nome = email.substring(0, email.indexOf('@'));
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO user (email, FirstName, LastName, passwordHASH) VALUES (?, ?, 'Teste', 'senha')")) {
+            stmt.setString(1, email);
+            stmt.setString(2, nome);
+            stmt.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.tgcontrol.h2;
+
+import org.h2.api.Trigger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Versão H2 do trigger trg_complete_task_on_approval (Code/SQL/20251122_Ajuste_Triggers_Feedback.sql):
+ * ao inserir uma revisão 'approved', conclui a task e desbloqueia a próxima se o aluno já estiver no estágio dela.
+ * Sem ele, as aprovações dos testes e do simulador de carga não mudariam o estado das tasks como no MySQL.
+ */
+public class GatilhoAprovacaoH2 implements Trigger {
+
+    // Colunas de task_review, na ordem do CREATE TABLE
+    private static final int COLUNA_ALUNO = 0;
+    private static final int COLUNA_SEQUENCIA = 1;
+    private static final int COLUNA_STATUS = 5;
+
+    @Override
+    public void init(Connection conn, String schemaName, String triggerName, String tableName, boolean before, int type) {
+    }
+
+    @Override
+    public void fire(Connection conn, Object[] oldRow, Object[] newRow) throws SQLException {
+        if (!"approved".equals(String.valueOf(newRow[COLUNA_STATUS]))) {
+            return;
+        }
+        String aluno = (String) newRow[COLUNA_ALUNO];
+        int sequencia = ((Number) newRow[COLUNA_SEQUENCIA]).intValue();
+
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "UPDATE task SET status = 'completed' WHERE student_email = ? AND sequence_order = ? AND status <> 'completed'")) {
+            stmt.setString(1, aluno);
+            stmt.setInt(2, sequencia);
+            stmt.executeUpdate();
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "UPDATE task SET status = 'in_progress' WHERE student_email = ? AND sequence_order = ? AND status = 'locked' " +
+                        "AND estagio_task <= (SELECT estagio_tg_atual FROM student WHERE email = ?)")) {
+            stmt.setString(1, aluno);
+            stmt.setInt(2, sequencia + 1);
+            stmt.setString(3, aluno);
+            stmt.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.tgcontrol.utils;
+
+import com.example.tgcontrol.h2.BancoTesteH2;
+import com.example.tgcontrol.model.UsuarioResumo;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Testes: filtro por nome de DatabaseUtils.buscarUsuarios (prefixo do nome, do sobrenome, do nome completo ou do email).
+ */
+class BuscarUsuariosTest {
+
+    @BeforeAll
+    static void criarBanco() throws Exception {
+        BancoTesteH2.criar("buscar_usuarios");
+        try (Connection conn = DatabaseConnect.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "INSERT INTO user (email, FirstName, LastName, passwordHASH) VALUES (?, ?, ?, 'senha')")) {
+            String[][] usuarios = {
+                    {"ana.silva@fatec.sp.gov.br", "Ana", "Silva"},
+                    {"ana.souza@fatec.sp.gov.br", "Ana", "Souza"},
+                    {"mariana.lima@fatec.sp.gov.br", "Mariana", "Lima"},
+                    {"maria.clara@fatec.sp.gov.br", "Maria Clara", "Souza"},
+                    {"bruno.ana@fatec.sp.gov.br", "Bruno", "Ana Costa"}
+            };
+            for (String[] usuario : usuarios) {
+                stmt.setString(1, usuario[0]);
+                stmt.setString(2, usuario[1]);
+                stmt.setString(3, usuario[2]);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    @AfterAll
+    static void fecharPool() {
+        DatabaseConnect.encerrarPool();
+    }
+
+    @Test
+    void umaPalavraBuscaNoInicioDoNomeDoSobrenomeEDoEmail() {
+        assertEquals(List.of("ana.silva@fatec.sp.gov.br", "ana.souza@fatec.sp.gov.br", "bruno.ana@fatec.sp.gov.br"), buscar("Ana"));
+        assertEquals(List.of("maria.clara@fatec.sp.gov.br"), buscar("maria.c"));
+    }
+
+    @Test
+    void variasPalavrasBuscamNoNomeCompleto() {
+        assertEquals(List.of("ana.silva@fatec.sp.gov.br"), buscar("Ana Sil"));
+        assertEquals(List.of("ana.souza@fatec.sp.gov.br"), buscar("  Ana   Souza "));
+        assertEquals(List.of("maria.clara@fatec.sp.gov.br"), buscar("Maria Clara So"));
+        assertEquals(List.of("maria.clara@fatec.sp.gov.br"), buscar("Maria Cl"));
+        assertEquals(List.of("bruno.ana@fatec.sp.gov.br"), buscar("Bruno Ana C"));
+    }
+
+    @Test
+    void curingasDoLikeSaoTratadosComoTexto() {
+        assertEquals(List.of(), buscar("_na"));
+        assertEquals(List.of(), buscar("%Silva"));
+    }
+
+    private static List<String> buscar(String texto) {
+        return DatabaseUtils.buscarUsuarios(texto, null, null, null, 50).stream().map(UsuarioResumo::getEmail).toList();
+    }
+}
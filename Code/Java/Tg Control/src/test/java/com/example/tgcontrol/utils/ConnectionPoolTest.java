@@ -0,0 +1,64 @@
+package com.example.tgcontrol.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes: devolução de conexões ao ConnectionPool (statements esquecidos abertos e getConnection() dos statements).
+ */
+class ConnectionPoolTest {
+
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void criarPool() {
+        pool = new ConnectionPool("jdbc:h2:mem:connection_pool;DB_CLOSE_DELAY=-1", "sa", "", 1, 1, 1_000, 60_000, 60_000);
+    }
+
+    @AfterEach
+    void encerrarPool() {
+        pool.encerrar();
+    }
+
+    @Test
+    void statementsEsquecidosAbertosSaoFechadosNaDevolucao() throws Exception {
+        PreparedStatement esquecido;
+        ResultSet rs;
+        try (Connection conn = pool.getConnection()) {
+            esquecido = conn.prepareStatement("SELECT 1");
+            rs = esquecido.executeQuery();
+            assertTrue(rs.next());
+        }
+
+        assertTrue(esquecido.isClosed());
+        assertTrue(rs.isClosed());
+    }
+
+    @Test
+    void getConnectionDoStatementDevolveOProxyDoPool() throws Exception {
+        Connection conn = pool.getConnection();
+        try (Statement stmt = conn.createStatement()) {
+            assertSame(conn, stmt.getConnection());
+            // Fechar pelo statement devolve ao pool em vez de fechar a conexão física
+            stmt.getConnection().close();
+        }
+
+        assertEquals(1, pool.getEstatisticas().getOciosas());
+        try (Connection outra = pool.getConnection();
+             Statement stmt = outra.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT 1")) {
+            assertTrue(rs.next());
+        }
+        assertEquals(1, pool.getEstatisticas().getTotalCriadas());
+    }
+}
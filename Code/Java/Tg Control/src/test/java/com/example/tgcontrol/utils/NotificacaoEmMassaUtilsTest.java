@@ -0,0 +1,109 @@
+package com.example.tgcontrol.utils;
+
+import com.example.tgcontrol.h2.BancoTesteH2;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Testes: envio em lote do NotificacaoEmMassaUtils (destinatários de cada tipo, lotes maiores que TAMANHO_LOTE
+ * e transação única).
+ */
+class NotificacaoEmMassaUtilsTest {
+
+    private static final String ORIENTADOR = "orientador.massa@fatec.sp.gov.br";
+    private static final int USUARIOS_AVULSOS = 1500; // mais de um lote de 1000
+
+    private static final List<String> avulsos = new ArrayList<>();
+
+    @BeforeAll
+    static void criarBanco() throws Exception {
+        BancoTesteH2.criar("notificacao_em_massa");
+        try (Connection conn = DatabaseConnect.getConnection()) {
+            BancoTesteH2.inserirProfessor(conn, ORIENTADOR, false);
+            BancoTesteH2.inserirTurma(conn, "TG1", 2026, 2);
+            BancoTesteH2.inserirTurma(conn, "TG2", 2026, 2);
+            BancoTesteH2.inserirAluno(conn, "a1.massa@fatec.sp.gov.br", ORIENTADOR, "TG1", 2026, 2);
+            BancoTesteH2.inserirAluno(conn, "a2.massa@fatec.sp.gov.br", null, "TG1", 2026, 2);
+            BancoTesteH2.inserirAluno(conn, "a3.massa@fatec.sp.gov.br", ORIENTADOR, "TG2", 2026, 2);
+
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "INSERT INTO user (email, FirstName, LastName, passwordHASH) VALUES (?, 'Avulso', 'Teste', 'senha')")) {
+                for (int i = 0; i < USUARIOS_AVULSOS; i++) {
+                    String email = "avulso" + i + "@fatec.sp.gov.br";
+                    avulsos.add(email);
+                    stmt.setString(1, email);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+        }
+    }
+
+    @AfterAll
+    static void fecharPool() {
+        DatabaseConnect.encerrarPool();
+    }
+
+    @Test
+    void enviarParaTurmaGravaUmaNotificacaoPorAlunoDaTurma() throws Exception {
+        String conteudo = "Aviso para a turma TG1";
+
+        assertEquals(2, NotificacaoEmMassaUtils.enviarParaTurma("TG1", 2026, 2, conteudo));
+        assertEquals(List.of("a1.massa@fatec.sp.gov.br", "a2.massa@fatec.sp.gov.br"), destinatariosGravados(conteudo));
+    }
+
+    @Test
+    void enviarParaOrientandosGravaUmaNotificacaoPorOrientando() throws Exception {
+        String conteudo = "Aviso para os orientandos";
+
+        assertEquals(2, NotificacaoEmMassaUtils.enviarParaOrientandos(ORIENTADOR, conteudo));
+        assertEquals(List.of("a1.massa@fatec.sp.gov.br", "a3.massa@fatec.sp.gov.br"), destinatariosGravados(conteudo));
+    }
+
+    @Test
+    void enviarParaListaIgnoraRepetidosEVaziosEGravaTodosOsLotes() throws Exception {
+        String conteudo = "Aviso para a lista";
+        List<String> emails = new ArrayList<>(avulsos);
+        emails.add(" " + avulsos.get(0) + " ");
+        emails.add(avulsos.get(USUARIOS_AVULSOS - 1));
+        emails.add("");
+        emails.add(null);
+
+        assertEquals(USUARIOS_AVULSOS, NotificacaoEmMassaUtils.enviarParaLista(emails, conteudo));
+        assertEquals(USUARIOS_AVULSOS, destinatariosGravados(conteudo).size());
+    }
+
+    @Test
+    void falhaEmUmDestinatarioNaoGravaNenhumaNotificacao() throws Exception {
+        String conteudo = "Aviso que deve ser desfeito";
+        List<String> emails = new ArrayList<>(avulsos); // o primeiro lote de 1000 já foi executado quando o erro acontece
+        emails.add("nao.cadastrado@fatec.sp.gov.br");
+
+        assertEquals(-1, NotificacaoEmMassaUtils.enviarParaLista(emails, conteudo));
+        assertEquals(List.of(), destinatariosGravados(conteudo));
+    }
+
+    private static List<String> destinatariosGravados(String conteudo) throws Exception {
+        List<String> emails = new ArrayList<>();
+        try (Connection conn = DatabaseConnect.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "SELECT user_email FROM notification WHERE content = ? ORDER BY user_email")) {
+            stmt.setString(1, conteudo);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    emails.add(rs.getString("user_email"));
+                }
+            }
+        }
+        return emails;
+    }
+}
@@ -0,0 +1,251 @@
+package com.example.tgcontrol.utils;
+
+import com.example.tgcontrol.h2.BancoTesteH2;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes: entrega e descarte da outbox_notificacao com e sem SMTP configurado, usando um servidor SMTP falso local.
+ */
+class OutboxNotificacaoTest {
+
+    private static final String ALUNO = "aluno.outbox@fatec.sp.gov.br";
+    private static final String RECUSADO = "recusado.outbox@fatec.sp.gov.br";
+    private static final String ASSUNTO = "Nova Notificação no TGControl";
+
+    private SmtpFalso smtp;
+
+    @BeforeAll
+    static void criarBanco() throws Exception {
+        BancoTesteH2.criar("outbox_notificacao");
+        try (Connection conn = DatabaseConnect.getConnection()) {
+            BancoTesteH2.inserirTurma(conn, "TG1", 2026, 2);
+            BancoTesteH2.inserirAluno(conn, ALUNO, null, "TG1", 2026, 2);
+            BancoTesteH2.inserirAluno(conn, RECUSADO, null, "TG1", 2026, 2);
+        }
+    }
+
+    @AfterAll
+    static void fecharPool() {
+        DatabaseConnect.encerrarPool();
+    }
+
+    @BeforeEach
+    void limparFilas() throws Exception {
+        try (Connection conn = DatabaseConnect.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DELETE FROM outbox_notificacao");
+            stmt.executeUpdate("DELETE FROM notification");
+        }
+    }
+
+    @AfterEach
+    void desligarSmtp() throws IOException {
+        System.clearProperty("tgcontrol.smtp.host");
+        System.clearProperty("tgcontrol.smtp.port");
+        if (smtp != null) {
+            smtp.close();
+            smtp = null;
+        }
+    }
+
+    @Test
+    void semSmtpGravaNotificacoesEMantemOsEmailsNaFila() throws Exception {
+        registrar(ALUNO, "Só no sistema", null);
+        registrar(ALUNO, "Com e-mail", ASSUNTO);
+
+        assertEquals(2, OutboxNotificacao.drenarLote());
+        assertEquals(2, contar("SELECT COUNT(*) FROM notification"));
+        assertEquals(1, contar("SELECT COUNT(*) FROM outbox_notificacao WHERE notificacao_gravada = TRUE AND assunto_email IS NOT NULL"));
+        assertEquals(1, contar("SELECT COUNT(*) FROM outbox_notificacao"));
+
+        // A linha que aguarda o SMTP não volta para este despachante nem duplica a notificação
+        assertEquals(0, OutboxNotificacao.drenarLote());
+        assertEquals(2, contar("SELECT COUNT(*) FROM notification"));
+    }
+
+    @Test
+    void despachanteConfiguradoEnviaOsEmailsDeixadosPorUmSemSmtp() throws Exception {
+        registrar(ALUNO, "Sua seção foi avaliada.\n.Linha com ponto", ASSUNTO);
+        assertEquals(1, OutboxNotificacao.drenarLote());
+
+        ligarSmtp();
+        assertEquals(1, OutboxNotificacao.drenarLote());
+
+        assertEquals(List.of(ALUNO), smtp.destinatarios);
+        assertTrue(smtp.mensagens.get(0).contains("\r\n..Linha com ponto\r\n"), "Linhas com ponto devem ser duplicadas");
+        assertEquals(0, contar("SELECT COUNT(*) FROM outbox_notificacao"));
+        assertEquals(1, contar("SELECT COUNT(*) FROM notification"), "A notificação não deve ser gravada de novo");
+    }
+
+    @Test
+    void emailRecusadoFicaNaFilaParaNovaTentativa() throws Exception {
+        ligarSmtp();
+        registrar(ALUNO, "Aviso", ASSUNTO);
+        registrar(RECUSADO, "Aviso", ASSUNTO);
+
+        assertEquals(2, OutboxNotificacao.drenarLote());
+
+        assertEquals(List.of(ALUNO), smtp.destinatarios);
+        assertEquals(2, contar("SELECT COUNT(*) FROM notification"));
+        assertEquals(1, contar("SELECT COUNT(*) FROM outbox_notificacao WHERE destinatario_email = '" + RECUSADO + "' " +
+                "AND tentativas_email = 1 AND proxima_tentativa > NOW(3) AND ultimo_erro IS NOT NULL"));
+        assertEquals(1, contar("SELECT COUNT(*) FROM outbox_notificacao"));
+
+        // Só volta depois da espera
+        assertEquals(0, OutboxNotificacao.drenarLote());
+        assertFalse(smtp.destinatarios.contains(RECUSADO));
+    }
+
+    @Test
+    void emailRecusadoNaUltimaTentativaEDescartado() throws Exception {
+        ligarSmtp();
+        registrar(RECUSADO, "Aviso", ASSUNTO);
+        executar("UPDATE outbox_notificacao SET tentativas_email = 7");
+
+        assertEquals(1, OutboxNotificacao.drenarLote());
+
+        assertEquals(1, contar("SELECT COUNT(*) FROM notification"));
+        assertEquals(0, contar("SELECT COUNT(*) FROM outbox_notificacao"));
+    }
+
+    @Test
+    void emailSemSmtpEDescartadoDepoisDoPrazo() throws Exception {
+        registrar(ALUNO, "Recente", ASSUNTO);
+        registrar(ALUNO, "Antigo", ASSUNTO);
+        assertEquals(2, OutboxNotificacao.drenarLote());
+        executar("UPDATE outbox_notificacao SET proxima_tentativa = TIMESTAMPADD(DAY, -8, NOW(3)) WHERE content = 'Antigo'");
+
+        assertEquals(1, OutboxNotificacao.descartarEmailsExpirados());
+
+        assertEquals(1, contar("SELECT COUNT(*) FROM outbox_notificacao WHERE content = 'Recente'"));
+        assertEquals(1, contar("SELECT COUNT(*) FROM outbox_notificacao"));
+        assertEquals(2, contar("SELECT COUNT(*) FROM notification"));
+    }
+
+    private void ligarSmtp() throws IOException {
+        smtp = new SmtpFalso(Set.of(RECUSADO));
+        System.setProperty("tgcontrol.smtp.host", "127.0.0.1");
+        System.setProperty("tgcontrol.smtp.port", String.valueOf(smtp.getPorta()));
+    }
+
+    private static void registrar(String destinatario, String conteudo, String assunto) throws Exception {
+        try (Connection conn = DatabaseConnect.getConnection()) {
+            OutboxNotificacao.registrar(conn, destinatario, conteudo, assunto, null, 0);
+        }
+    }
+
+    private static void executar(String sql) throws Exception {
+        try (Connection conn = DatabaseConnect.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate(sql);
+        }
+    }
+
+    private static int contar(String sql) throws Exception {
+        try (Connection conn = DatabaseConnect.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    /**
+     * Servidor SMTP falso: aceita conexões em sequência, guarda destinatários e mensagens
+     * e recusa (550) os destinatários informados.
+     */
+    private static final class SmtpFalso implements AutoCloseable {
+        private final ServerSocket servidor;
+        private final Set<String> recusados;
+        private final List<String> destinatarios = new CopyOnWriteArrayList<>();
+        private final List<String> mensagens = new CopyOnWriteArrayList<>();
+
+        private SmtpFalso(Set<String> recusados) throws IOException {
+            this.recusados = recusados;
+            this.servidor = new ServerSocket(0, 5, InetAddress.getLoopbackAddress());
+            Thread thread = new Thread(this::atender, "smtp-falso");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private int getPorta() {
+            return servidor.getLocalPort();
+        }
+
+        private void atender() {
+            while (!servidor.isClosed()) {
+                try (Socket socket = servidor.accept()) {
+                    conversar(socket);
+                } catch (IOException e) {
+                    // Servidor fechado no fim do teste ou cliente desconectado
+                }
+            }
+        }
+
+        private void conversar(Socket socket) throws IOException {
+            BufferedReader entrada = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            Writer saida = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+            responder(saida, "220 smtp-falso");
+
+            String destinatario = null;
+            String linha;
+            while ((linha = entrada.readLine()) != null) {
+                if (linha.startsWith("EHLO")) {
+                    responder(saida, "250-smtp-falso\r\n250 OK");
+                } else if (linha.startsWith("RCPT TO:<")) {
+                    destinatario = linha.substring(9, linha.length() - 1);
+                    responder(saida, recusados.contains(destinatario) ? "550 Caixa inexistente" : "250 OK");
+                } else if (linha.equals("DATA")) {
+                    responder(saida, "354 Fim com <CRLF>.<CRLF>");
+                    StringBuilder mensagem = new StringBuilder();
+                    while (!(linha = entrada.readLine()).equals(".")) {
+                        mensagem.append(linha).append("\r\n");
+                    }
+                    mensagens.add(mensagem.toString());
+                    destinatarios.add(destinatario);
+                    responder(saida, "250 OK");
+                } else if (linha.equals("QUIT")) {
+                    responder(saida, "221 Tchau");
+                    return;
+                } else {
+                    responder(saida, "250 OK"); // MAIL FROM, RSET
+                }
+            }
+        }
+
+        private static void responder(Writer saida, String resposta) throws IOException {
+            saida.write(resposta + "\r\n");
+            saida.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            servidor.close();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.tgcontrol.utils;
+
+import com.example.tgcontrol.h2.BancoTesteH2;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes: numeração das versões em DatabaseUtils.uploadNovaVersao com entregas simultâneas
+ * (muitas na mesma task, e tasks diferentes sem esperar uma pela outra).
+ */
+class UploadNovaVersaoTest {
+
+    private static final String ORIENTADOR = "orientador.upload@fatec.sp.gov.br";
+    private static final String ALUNO = "aluno.upload@fatec.sp.gov.br";
+    private static final String OUTRO_ALUNO = "outro.upload@fatec.sp.gov.br";
+    private static final String ALUNO_BLOQUEADO = "bloqueado.upload@fatec.sp.gov.br";
+    private static final String ALUNO_LIVRE = "livre.upload@fatec.sp.gov.br";
+    private static final int ENTREGAS_SIMULTANEAS = 100;
+
+    @BeforeAll
+    static void criarBanco() throws Exception {
+        BancoTesteH2.criar("upload_nova_versao");
+        try (Connection conn = DatabaseConnect.getConnection()) {
+            BancoTesteH2.inserirProfessor(conn, ORIENTADOR, false);
+            BancoTesteH2.inserirTurma(conn, "TG1", 2026, 2);
+            for (String aluno : List.of(ALUNO, OUTRO_ALUNO, ALUNO_BLOQUEADO, ALUNO_LIVRE)) {
+                BancoTesteH2.inserirAluno(conn, aluno, ORIENTADOR, "TG1", 2026, 2);
+            }
+        }
+    }
+
+    @AfterAll
+    static void fecharPool() {
+        DatabaseConnect.encerrarPool();
+    }
+
+    @Test
+    void cemEntregasSimultaneasNaMesmaTaskRecebemVersoesDeUmACem() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2 * ENTREGAS_SIMULTANEAS);
+        try {
+            // Todas saem juntas do latch: 100 na task de ALUNO e, ao mesmo tempo, 100 na de OUTRO_ALUNO
+            CountDownLatch largada = new CountDownLatch(1);
+            List<Future<Integer>> daTask = new ArrayList<>();
+            List<Future<Integer>> daOutraTask = new ArrayList<>();
+            for (int i = 0; i < ENTREGAS_SIMULTANEAS; i++) {
+                daTask.add(enviarApos(executor, largada, ALUNO, "entrega" + i + ".md"));
+                daOutraTask.add(enviarApos(executor, largada, OUTRO_ALUNO, "entrega" + i + ".md"));
+            }
+            largada.countDown();
+
+            List<Integer> esperadas = IntStream.rangeClosed(1, ENTREGAS_SIMULTANEAS).boxed().collect(Collectors.toList());
+            assertEquals(esperadas, versoesRetornadas(daTask), "Cada entrega deve receber um número distinto, sem buracos");
+            assertEquals(esperadas, versoesRetornadas(daOutraTask));
+            assertEquals(esperadas, versoesGravadas(ALUNO), "Cada número retornado deve corresponder a uma entrega gravada");
+            assertEquals(esperadas, versoesGravadas(OUTRO_ALUNO));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void entregaDeOutraTaskNaoEsperaATaskBloqueada() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (Connection conn = DatabaseConnect.getConnection()) {
+            // Transação aberta segurando o contador da task de ALUNO_BLOQUEADO, como um upload em andamento
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "INSERT INTO task_versao_contador (student_email, sequence_order, ultima_versao) VALUES (?, 1, 1) " +
+                    "ON DUPLICATE KEY UPDATE ultima_versao = ultima_versao + 1")) {
+                stmt.setString(1, ALUNO_BLOQUEADO);
+                stmt.executeUpdate();
+            }
+
+            Future<Integer> livre = executor.submit(() -> DatabaseUtils.uploadNovaVersao(ALUNO_LIVRE, 1, "livre.md", "Server/livre.md"));
+            // Bem abaixo do tempo de espera por lock: se esperasse a outra task, não terminaria a tempo
+            assertEquals(1, livre.get(500, TimeUnit.MILLISECONDS));
+
+            conn.rollback();
+            conn.setAutoCommit(true);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertTrue(versoesGravadas(ALUNO_BLOQUEADO).isEmpty());
+    }
+
+    private static Future<Integer> enviarApos(ExecutorService executor, CountDownLatch largada, String aluno, String arquivo) {
+        return executor.submit(() -> {
+            largada.await();
+            return DatabaseUtils.uploadNovaVersao(aluno, 1, arquivo, "Server/" + aluno + "/" + arquivo);
+        });
+    }
+
+    private static List<Integer> versoesRetornadas(List<Future<Integer>> entregas) throws Exception {
+        List<Integer> versoes = new ArrayList<>();
+        for (Future<Integer> entrega : entregas) {
+            versoes.add(entrega.get(60, TimeUnit.SECONDS));
+        }
+        Collections.sort(versoes);
+        return versoes;
+    }
+
+    private static List<Integer> versoesGravadas(String aluno) throws Exception {
+        List<Integer> versoes = new ArrayList<>();
+        try (Connection conn = DatabaseConnect.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "SELECT attempt_number FROM task_submission WHERE student_email = ? AND sequence_order = 1 ORDER BY attempt_number")) {
+            stmt.setString(1, aluno);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    versoes.add(rs.getInt("attempt_number"));
+                }
+            }
+        }
+        return versoes;
+    }
+}
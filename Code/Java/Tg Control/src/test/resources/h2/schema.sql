@@ -0,0 +1,368 @@
+-- ========================================================================== --
+-- ESQUEMA TGControl PARA O H2 (modo MySQL) - usado pelos testes e benchmarks --
+-- Tradução de Code/SQL/"TG Control Database.sql" + migrações 20261018_*:      --
+--   - sem crases (identificadores em minúsculas, DATABASE_TO_LOWER=TRUE);     --
+--   - VIEWs com subconsultas no lugar de WITH;                                --
+--   - divisões com CAST para DOUBLE (no H2, INT / INT é divisão inteira);     --
+--   - TRIGGERs do MySQL viram classes Java (só trg_complete_task_on_approval, --
+--     em GatilhoAprovacaoH2; os de versão de dados de referência ficam fora). --
+-- Ao alterar o esquema MySQL, atualize também este arquivo.                   --
+-- ========================================================================== --
+
+CREATE TABLE user (
+    email               VARCHAR(255) NOT NULL,
+    FirstName           VARCHAR(255) NOT NULL,
+    LastName            VARCHAR(255) NOT NULL,
+    passwordHASH        VARCHAR(255) NOT NULL,
+    profile_picture_url VARCHAR(255),
+    status              ENUM('Active', 'Inactive') NOT NULL DEFAULT 'Active',
+    registration_timestamp TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (email)
+);
+
+CREATE TABLE teacher (
+    email          VARCHAR(255) NOT NULL,
+    is_coordinator BOOLEAN NOT NULL DEFAULT FALSE,
+    PRIMARY KEY (email),
+    FOREIGN KEY (email) REFERENCES user (email) ON DELETE CASCADE
+);
+
+CREATE TABLE class (
+    disciplina VARCHAR(255) NOT NULL,
+    year       INT NOT NULL,
+    semester   INT NOT NULL,
+    min_tasks  INT NOT NULL DEFAULT 1,
+    max_tasks  INT,
+    PRIMARY KEY (disciplina, year, semester),
+    CHECK (semester BETWEEN 1 AND 2),
+    CHECK (max_tasks IN (5, 6))
+);
+
+CREATE TABLE student (
+    email                  VARCHAR(255) NOT NULL,
+    personal_email         VARCHAR(255) NULL,
+    advisor_email          VARCHAR(255),
+    agreement_document_url VARCHAR(255) NULL,
+    class_disciplina       VARCHAR(255) NOT NULL,
+    class_year             INT NOT NULL,
+    class_semester         INT NOT NULL,
+    estagio_tg_atual       INT NOT NULL DEFAULT 1,
+    PRIMARY KEY (email),
+    FOREIGN KEY (email) REFERENCES user (email) ON DELETE CASCADE,
+    FOREIGN KEY (advisor_email) REFERENCES teacher (email),
+    FOREIGN KEY (class_disciplina, class_year, class_semester) REFERENCES class (disciplina, year, semester) ON DELETE RESTRICT
+);
+
+CREATE TABLE task (
+    student_email  VARCHAR(255) NOT NULL,
+    sequence_order INT NOT NULL,
+    title          VARCHAR(255) NOT NULL,
+    description    TEXT,
+    due_date       DATE NOT NULL,
+    status         ENUM('locked', 'in_progress', 'completed') NOT NULL DEFAULT 'locked',
+    estagio_task   INT NOT NULL DEFAULT 1,
+    PRIMARY KEY (student_email, sequence_order),
+    FOREIGN KEY (student_email) REFERENCES student (email) ON DELETE CASCADE
+);
+
+CREATE TABLE task_submission (
+    student_email        VARCHAR(255) NOT NULL,
+    sequence_order       INT NOT NULL,
+    submission_timestamp DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    file_path            VARCHAR(255) NOT NULL,
+    submission_title     VARCHAR(255),
+    attempt_number       INT NOT NULL,
+    PRIMARY KEY (student_email, sequence_order, submission_timestamp),
+    CONSTRAINT uk_submission_versao UNIQUE (student_email, sequence_order, attempt_number),
+    FOREIGN KEY (student_email, sequence_order) REFERENCES task (student_email, sequence_order) ON DELETE CASCADE
+);
+CREATE INDEX idx_submission_data ON task_submission (submission_timestamp);
+
+CREATE TABLE task_review (
+    student_email        VARCHAR(255) NOT NULL,
+    sequence_order       INT NOT NULL,
+    submission_timestamp DATETIME(3) NOT NULL,
+    reviewer_email       VARCHAR(255) NOT NULL,
+    review_timestamp     DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    status               ENUM('revision_requested', 'approved') NOT NULL,
+    review_comment       TEXT NULL DEFAULT NULL,
+    PRIMARY KEY (student_email, sequence_order, submission_timestamp, reviewer_email, review_timestamp),
+    FOREIGN KEY (student_email, sequence_order, submission_timestamp)
+        REFERENCES task_submission (student_email, sequence_order, submission_timestamp) ON DELETE CASCADE,
+    FOREIGN KEY (reviewer_email) REFERENCES teacher (email)
+);
+
+CREATE TABLE notification (
+    notification_id             INT NOT NULL AUTO_INCREMENT,
+    user_email                  VARCHAR(255) NOT NULL,
+    timestamp                   DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    content                     TEXT NOT NULL,
+    related_task_student_email  VARCHAR(255),
+    related_task_sequence_order INT,
+    is_read                     BOOLEAN NOT NULL DEFAULT FALSE,
+    PRIMARY KEY (notification_id),
+    FOREIGN KEY (user_email) REFERENCES user (email) ON DELETE CASCADE,
+    FOREIGN KEY (related_task_student_email, related_task_sequence_order) REFERENCES task (student_email, sequence_order) ON DELETE SET NULL
+);
+CREATE INDEX idx_notification_user_time ON notification (user_email, timestamp);
+CREATE INDEX idx_notification_user_id ON notification (user_email, notification_id);
+CREATE INDEX idx_user_nome ON user (FirstName, LastName, email);
+CREATE INDEX idx_user_sobrenome ON user (LastName);
+CREATE INDEX idx_user_cadastro ON user (registration_timestamp);
+
+CREATE TABLE tg_coordenacao_turma (
+    teacher_email        VARCHAR(255) NOT NULL,
+    class_disciplina     VARCHAR(255) NOT NULL,
+    class_year           INT NOT NULL,
+    class_semester       INT NOT NULL,
+    etapa_supervisionada INT NOT NULL,
+    PRIMARY KEY (teacher_email, class_disciplina, class_year, class_semester, etapa_supervisionada),
+    FOREIGN KEY (teacher_email) REFERENCES teacher (email),
+    FOREIGN KEY (class_disciplina, class_year, class_semester) REFERENCES class (disciplina, year, semester) ON DELETE CASCADE,
+    CHECK (etapa_supervisionada IN (1, 2))
+);
+
+CREATE TABLE defesa_tg (
+    student_email    VARCHAR(255) NOT NULL,
+    scheduler_email  VARCHAR(255) NOT NULL,
+    data_hora_defesa DATETIME NOT NULL,
+    local_defesa     VARCHAR(255) NOT NULL,
+    banca_avaliadora TEXT,
+    status_defesa    ENUM('Agendada', 'Concluida', 'Cancelada') NOT NULL DEFAULT 'Agendada',
+    PRIMARY KEY (student_email),
+    FOREIGN KEY (student_email) REFERENCES student (email) ON DELETE CASCADE,
+    FOREIGN KEY (scheduler_email) REFERENCES teacher (email),
+    CONSTRAINT uq_defesa_data_local UNIQUE (data_hora_defesa, local_defesa)
+);
+
+-- Migrações 20261018_*
+
+CREATE TABLE resumo_aluno (
+    student_email     VARCHAR(255) NOT NULL,
+    total_tasks       INT NOT NULL DEFAULT 0,
+    completed_tasks   INT NOT NULL DEFAULT 0,
+    pendentes_revisao INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (student_email),
+    FOREIGN KEY (student_email) REFERENCES student (email) ON DELETE CASCADE
+);
+
+CREATE TABLE resumo_turma (
+    class_disciplina VARCHAR(255) NOT NULL,
+    class_year       INT NOT NULL,
+    class_semester   INT NOT NULL,
+    numero_alunos    INT NOT NULL DEFAULT 0,
+    tgs_concluidos   INT NOT NULL DEFAULT 0,
+    soma_progresso   DECIMAL(12, 4) NOT NULL DEFAULT 0,
+    PRIMARY KEY (class_disciplina, class_year, class_semester),
+    FOREIGN KEY (class_disciplina, class_year, class_semester) REFERENCES class (disciplina, year, semester) ON DELETE CASCADE
+);
+
+CREATE TABLE resumo_orientador (
+    advisor_email     VARCHAR(255) NOT NULL,
+    total_orientandos INT NOT NULL DEFAULT 0,
+    tgs_concluidos    INT NOT NULL DEFAULT 0,
+    pendentes_revisao INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (advisor_email),
+    FOREIGN KEY (advisor_email) REFERENCES teacher (email) ON DELETE CASCADE
+);
+
+CREATE TABLE task_versao_contador (
+    student_email  VARCHAR(255) NOT NULL,
+    sequence_order INT NOT NULL,
+    ultima_versao  INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (student_email, sequence_order),
+    FOREIGN KEY (student_email, sequence_order) REFERENCES task (student_email, sequence_order) ON DELETE CASCADE
+);
+
+CREATE TABLE outbox_notificacao (
+    outbox_id                   BIGINT NOT NULL AUTO_INCREMENT,
+    destinatario_email          VARCHAR(255) NOT NULL,
+    content                     TEXT NOT NULL,
+    assunto_email               VARCHAR(255) NULL,
+    related_task_student_email  VARCHAR(255) NULL,
+    related_task_sequence_order INT NULL,
+    criado_em                   DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    notificacao_gravada         BOOLEAN NOT NULL DEFAULT FALSE,
+    tentativas_email            INT NOT NULL DEFAULT 0,
+    proxima_tentativa           DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    ultimo_erro                 VARCHAR(500) NULL,
+    PRIMARY KEY (outbox_id),
+    FOREIGN KEY (destinatario_email) REFERENCES user (email) ON DELETE CASCADE,
+    FOREIGN KEY (related_task_student_email, related_task_sequence_order) REFERENCES task (student_email, sequence_order) ON DELETE SET NULL
+);
+CREATE INDEX idx_outbox_pendentes ON outbox_notificacao (notificacao_gravada, proxima_tentativa);
+
+-- ========================================================================== --
+-- TRIGGERS                                                                   --
+-- ========================================================================== --
+
+CREATE TRIGGER trg_complete_task_on_approval AFTER INSERT ON task_review FOR EACH ROW
+    CALL "com.example.tgcontrol.h2.GatilhoAprovacaoH2";
+
+-- ========================================================================== --
+-- VIEWS                                                                      --
+-- ========================================================================== --
+
+CREATE VIEW vw_secoes_aluno AS
+SELECT
+    t.student_email AS emailAluno,
+    t.sequence_order AS taskSequence,
+    t.title AS titulo,
+    t.status AS status,
+    t.due_date AS dataEntrega,
+    CASE WHEN t.status = 'completed' THEN 'Aprovado'
+         WHEN lr.status IS NOT NULL THEN CAST(lr.status AS VARCHAR)
+         WHEN ls.submission_timestamp IS NOT NULL THEN 'Pendente'
+         ELSE '---'
+        END AS statusRevisao,
+    lr.review_timestamp AS dataUltimaRevisao
+FROM task t
+         LEFT JOIN (
+             SELECT ts.student_email, ts.sequence_order, ts.submission_timestamp,
+                    ROW_NUMBER() OVER (PARTITION BY ts.student_email, ts.sequence_order ORDER BY ts.submission_timestamp DESC) AS rn
+             FROM task_submission ts
+         ) ls ON t.student_email = ls.student_email AND t.sequence_order = ls.sequence_order AND ls.rn = 1
+         LEFT JOIN (
+             SELECT tr.student_email, tr.sequence_order, tr.submission_timestamp, tr.status, tr.review_timestamp,
+                    ROW_NUMBER() OVER (PARTITION BY tr.student_email, tr.sequence_order, tr.submission_timestamp ORDER BY tr.review_timestamp DESC) AS rn
+             FROM task_review tr
+         ) lr ON ls.student_email = lr.student_email AND ls.sequence_order = lr.sequence_order AND ls.submission_timestamp = ls.submission_timestamp AND lr.rn = 1;
+
+CREATE VIEW vw_professor_dashboard AS
+SELECT
+    s.advisor_email AS teacher_email,
+    (CAST(COALESCE(sp.completed_tasks, 0) AS DOUBLE) / NULLIF(sp.total_tasks, 0)) AS progresso,
+    CONCAT(u.FirstName, ' ', u.LastName) AS nomeAluno, s.email AS emailAluno, c.disciplina AS turma, CONCAT(c.year, '/', c.semester) AS semestre,
+    CASE WHEN lr.status = 'revision_requested' THEN 'Revisão Solicitada' ELSE 'Pendente de Revisão' END AS status,
+    t.student_email, t.sequence_order, ls.submission_timestamp
+FROM task t
+         JOIN student s ON t.student_email = s.email
+         JOIN user u ON s.email = u.email
+         JOIN class c ON s.class_disciplina = c.disciplina AND s.class_year = c.year AND s.class_semester = c.semester
+         LEFT JOIN (
+             SELECT student_email, COUNT(*) AS total_tasks, SUM(CASE WHEN status = 'completed' THEN 1 ELSE 0 END) AS completed_tasks
+             FROM task GROUP BY student_email
+         ) sp ON s.email = sp.student_email
+         JOIN (
+             SELECT ts.student_email, ts.sequence_order, ts.submission_timestamp,
+                    ROW_NUMBER() OVER (PARTITION BY ts.student_email, ts.sequence_order ORDER BY ts.submission_timestamp DESC) AS rn
+             FROM task_submission ts
+         ) ls ON t.student_email = ls.student_email AND t.sequence_order = ls.sequence_order AND ls.rn = 1
+         LEFT JOIN (
+             SELECT tr.student_email, tr.sequence_order, tr.submission_timestamp, tr.status,
+                    ROW_NUMBER() OVER (PARTITION BY tr.student_email, tr.sequence_order, tr.submission_timestamp ORDER BY tr.review_timestamp DESC) AS rn
+             FROM task_review tr
+         ) lr ON ls.student_email = lr.student_email AND ls.sequence_order = lr.sequence_order AND ls.submission_timestamp = lr.submission_timestamp AND lr.rn = 1
+WHERE s.advisor_email IS NOT NULL AND t.status = 'in_progress' AND (lr.status IS NULL OR lr.status = 'revision_requested');
+
+CREATE VIEW vw_student_details AS
+SELECT
+    s.email,
+    s.personal_email,
+    u.FirstName,
+    u.LastName,
+    CONCAT(u.FirstName, ' ', u.LastName) AS nomeCompleto,
+    u.profile_picture_url,
+    u.status AS user_status,
+    s.advisor_email,
+    s.agreement_document_url,
+    s.class_disciplina,
+    s.class_year,
+    s.class_semester,
+    s.estagio_tg_atual,
+    CONCAT(c.disciplina, ' - ', c.year, '/', c.semester) AS turma_descricao
+FROM student s
+         JOIN user u ON s.email = u.email
+         JOIN class c ON s.class_disciplina = c.disciplina AND s.class_year = c.year AND s.class_semester = c.semester;
+
+CREATE VIEW vw_teacher_details AS
+SELECT
+    t.email,
+    u.FirstName,
+    u.LastName,
+    CONCAT(u.FirstName, ' ', u.LastName) AS nomeCompleto,
+    u.profile_picture_url,
+    u.status AS user_status,
+    t.is_coordinator,
+    CASE WHEN t.is_coordinator THEN 'Coordenador TG' ELSE 'Professor/Orientador' END AS tipoProfessor
+FROM teacher t
+         JOIN user u ON t.email = u.email;
+
+CREATE VIEW vw_class_summary AS
+SELECT
+    c.disciplina,
+    c.year,
+    c.semester,
+    COUNT(DISTINCT stp.student_email) AS numero_alunos,
+    SUM(CASE WHEN stp.progresso_individual = 1.0 THEN 1 ELSE 0 END) AS tgs_concluidos,
+    AVG(stp.progresso_individual) AS progresso_medio_turma
+FROM class c
+         LEFT JOIN (
+             SELECT s.email AS student_email, s.class_disciplina, s.class_year, s.class_semester,
+                    COALESCE(AVG(CASE WHEN t.status = 'completed' THEN 1.0 ELSE 0.0 END), 0.0) AS progresso_individual
+             FROM student s
+                      LEFT JOIN task t ON s.email = t.student_email
+             GROUP BY s.email, s.class_disciplina, s.class_year, s.class_semester
+         ) stp ON c.disciplina = stp.class_disciplina AND c.year = stp.class_year AND c.semester = stp.class_semester
+GROUP BY c.disciplina, c.year, c.semester;
+
+CREATE VIEW vw_professortg_dashboard_tasks AS
+SELECT
+    CONCAT(u.FirstName, ' ', u.LastName) AS nomeAluno,
+    s.email AS emailAluno,
+    c.disciplina AS turma_disciplina, c.year AS turma_year, c.semester AS turma_semester,
+    s.estagio_tg_atual AS estagio_aluno,
+    t.sequence_order, t.title AS task_title, t.status AS task_status, t.estagio_task,
+    (CAST(COALESCE(sp.completed_tasks, 0) AS DOUBLE) / NULLIF(sp.total_tasks, 0)) AS progresso_geral_aluno,
+    CASE WHEN t.status = 'completed' THEN 'Aprovado'
+         WHEN lr.status IS NOT NULL THEN CAST(lr.status AS VARCHAR)
+         WHEN ls.submission_timestamp IS NOT NULL THEN 'Pendente'
+         ELSE '---'
+        END AS status_revisao_ultima_submissao,
+    ls.submission_timestamp AS timestamp_ultima_submissao,
+    lr.review_timestamp AS timestamp_ultima_revisao,
+    s.advisor_email
+FROM task t
+         JOIN student s ON t.student_email = s.email
+         JOIN user u ON s.email = u.email
+         JOIN class c ON s.class_disciplina = c.disciplina AND s.class_year = c.year AND s.class_semester = c.semester
+         LEFT JOIN (
+             SELECT student_email, COUNT(*) AS total_tasks, SUM(CASE WHEN status = 'completed' THEN 1 ELSE 0 END) AS completed_tasks
+             FROM task GROUP BY student_email
+         ) sp ON s.email = sp.student_email
+         LEFT JOIN (
+             SELECT ts.student_email, ts.sequence_order, ts.submission_timestamp,
+                    ROW_NUMBER() OVER (PARTITION BY ts.student_email, ts.sequence_order ORDER BY ts.submission_timestamp DESC) AS rn
+             FROM task_submission ts
+         ) ls ON t.student_email = ls.student_email AND t.sequence_order = ls.sequence_order AND ls.rn = 1
+         LEFT JOIN (
+             SELECT tr.student_email, tr.sequence_order, tr.submission_timestamp, tr.status, tr.review_timestamp,
+                    ROW_NUMBER() OVER (PARTITION BY tr.student_email, tr.sequence_order, tr.submission_timestamp ORDER BY tr.review_timestamp DESC) AS rn
+             FROM task_review tr
+         ) lr ON ls.student_email = lr.student_email AND ls.sequence_order = lr.sequence_order AND ls.submission_timestamp = ls.submission_timestamp AND lr.rn = 1;
+
+CREATE VIEW vw_professortg_recent_activity AS
+SELECT
+    'SUBMISSION' AS event_type,
+    ts.student_email,
+    ts.submission_timestamp AS event_timestamp,
+    s.class_disciplina, s.class_year, s.class_semester,
+    CONCAT(u.FirstName, ' ', u.LastName) AS nomeCompleto,
+    CONCAT('Enviou a tentativa ', ts.attempt_number, ' para "', t.title, '"') AS acao_descricao
+FROM task_submission ts
+         JOIN task t ON ts.student_email = t.student_email AND ts.sequence_order = t.sequence_order
+         JOIN student s ON ts.student_email = s.email
+         JOIN user u ON ts.student_email = u.email
+UNION ALL
+SELECT
+    'REVIEW' AS event_type,
+    tr.student_email,
+    tr.review_timestamp AS event_timestamp,
+    s.class_disciplina, s.class_year, s.class_semester,
+    CONCAT(u.FirstName, ' ', u.LastName) AS nomeCompleto,
+    CONCAT('Teve a seção "', t.title, '" ', CASE tr.status WHEN 'approved' THEN 'aprovada' WHEN 'revision_requested' THEN 'marcada para revisão' ELSE 'revisada' END, ' pelo orientador') AS acao_descricao
+FROM task_review tr
+         JOIN task_submission ts ON tr.student_email = ts.student_email AND tr.sequence_order = ts.sequence_order AND tr.submission_timestamp = ts.submission_timestamp
+         JOIN task t ON ts.student_email = t.student_email AND ts.sequence_order = t.sequence_order
+         JOIN student s ON tr.student_email = s.email
+         JOIN user u ON tr.student_email = u.email;
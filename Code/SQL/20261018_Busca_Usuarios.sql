@@ -0,0 +1,16 @@
+USE TGControl;
+
+-- COLUNA: Data de cadastro exibida na listagem de usuários (TelaMonstrarAlunosC / TelaUsuarioEspecificoC).
+-- Usuários já existentes recebem a data de execução deste script.
+ALTER TABLE `user`
+    ADD COLUMN `registration_timestamp` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+-- ÍNDICES: A busca da listagem filtra por prefixo (LIKE 'texto%') de nome, sobrenome ou email,
+-- e o nome completo por FirstName = 'Ana' AND LastName LIKE 'Sil%' (intervalo em idx_user_nome),
+-- e pagina por cursor em ORDER BY FirstName, LastName, email. O email já é coberto pela PK.
+-- O diretório em memória (DiretorioCache) busca periodicamente os cadastrados desde a última leitura
+-- (registration_timestamp >= ?): idx_user_cadastro evita ler a tabela inteira a cada ciclo.
+ALTER TABLE `user`
+    ADD INDEX `idx_user_nome` (`FirstName`, `LastName`, `email`),
+    ADD INDEX `idx_user_sobrenome` (`LastName`),
+    ADD INDEX `idx_user_cadastro` (`registration_timestamp`);
@@ -0,0 +1,47 @@
+USE TGControl;
+
+-- ========================================================================== --
+-- NUMERAÇÃO DE VERSÕES SEM CONCORRÊNCIA                                      --
+-- uploadNovaVersao reserva o número da versão incrementando uma linha de     --
+-- contador por task (na mesma transação do INSERT), em vez de MAX()+1.       --
+-- Uploads de tasks diferentes não disputam a mesma linha.                    --
+-- ========================================================================== --
+
+-- 1. CONTADOR POR TASK
+-- PK: (student_email, sequence_order)
+CREATE TABLE IF NOT EXISTS `task_versao_contador` (
+    `student_email`  VARCHAR(255) NOT NULL,
+    `sequence_order` INT NOT NULL,
+    `ultima_versao`  INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (`student_email`, `sequence_order`),
+    FOREIGN KEY (`student_email`, `sequence_order`) REFERENCES `task`(`student_email`, `sequence_order`) ON DELETE CASCADE
+    );
+
+-- Carga inicial a partir das versões já existentes
+INSERT INTO task_versao_contador (student_email, sequence_order, ultima_versao)
+SELECT student_email, sequence_order, MAX(attempt_number)
+FROM task_submission
+GROUP BY student_email, sequence_order
+ON DUPLICATE KEY UPDATE ultima_versao = GREATEST(ultima_versao, VALUES(ultima_versao));
+
+-- 2. GARANTIA NO BANCO: nunca duas entregas com o mesmo número de versão na mesma task.
+-- Se este ALTER falhar, existem duplicadas antigas; liste-as com:
+--   SELECT student_email, sequence_order, attempt_number, COUNT(*) FROM task_submission
+--   GROUP BY student_email, sequence_order, attempt_number HAVING COUNT(*) > 1;
+ALTER TABLE task_submission
+    ADD UNIQUE KEY `uk_submission_versao` (`student_email`, `sequence_order`, `attempt_number`);
+
+-- 3. MILISSEGUNDOS NO HORÁRIO DA ENTREGA
+-- submission_timestamp faz parte da PK; com precisão de segundos, dois envios da mesma task
+-- no mesmo segundo colidiam. task_review referencia a coluna, então a FK é recriada.
+ALTER TABLE task_review DROP FOREIGN KEY task_review_ibfk_1;
+
+ALTER TABLE task_submission
+    MODIFY `submission_timestamp` DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3);
+
+ALTER TABLE task_review
+    MODIFY `submission_timestamp` DATETIME(3) NOT NULL;
+
+ALTER TABLE task_review
+    ADD CONSTRAINT task_review_ibfk_1 FOREIGN KEY (`student_email`, `sequence_order`, `submission_timestamp`)
+        REFERENCES `task_submission`(`student_email`, `sequence_order`, `submission_timestamp`) ON DELETE CASCADE;
@@ -0,0 +1,6 @@
+USE TGControl;
+
+-- ÍNDICE: Permite ao índice de texto dos TGs (IndiceTextoTG) ler só as versões entregues desde a última
+-- leitura (WHERE submission_timestamp >= ?), a cada poucos segundos, sem percorrer toda a task_submission.
+ALTER TABLE task_submission
+    ADD INDEX `idx_submission_data` (`submission_timestamp`);
@@ -0,0 +1,6 @@
+USE TGControl;
+
+-- ÍNDICE: Permite ao NotificacaoPoller buscar só as notificações novas de um usuário
+-- (WHERE user_email = ? AND notification_id > ?) sem percorrer todo o histórico dele.
+ALTER TABLE notification
+    ADD INDEX `idx_notification_user_id` (`user_email`, `notification_id`);
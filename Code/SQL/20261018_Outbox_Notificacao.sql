@@ -0,0 +1,27 @@
+USE TGControl;
+
+-- TABELA: Caixa de saída (outbox) de notificações.
+-- Gravada na MESMA transação da avaliação/agendamento que gera o aviso: se a transação falhar, nenhum aviso
+-- fica pendente; se for confirmada, o aviso não se perde.
+-- O OutboxNotificacao lê esta tabela em lotes, grava as linhas em `notification` e envia o e-mail. A aplicação só
+-- entrega o que ela mesma acabou de gravar; a leitura periódica é do despachante avulso (OutboxNotificacao.main).
+-- Linhas entregues são apagadas; linhas com falha de e-mail ficam com nova tentativa agendada e são apagadas
+-- após 8 tentativas. Sem SMTP configurado, a linha fica com notificacao_gravada = 1 à espera de um despachante
+-- com SMTP e é apagada após 7 dias.
+CREATE TABLE IF NOT EXISTS `outbox_notificacao` (
+    `outbox_id`                   BIGINT NOT NULL AUTO_INCREMENT,
+    `destinatario_email`          VARCHAR(255) NOT NULL,
+    `content`                     TEXT NOT NULL,
+    `assunto_email`               VARCHAR(255) NULL COMMENT 'NULL = somente notificação no sistema, sem e-mail',
+    `related_task_student_email`  VARCHAR(255) NULL,
+    `related_task_sequence_order` INT NULL,
+    `criado_em`                   DATETIME(3) NOT NULL DEFAULT NOW(3),
+    `notificacao_gravada`         BOOLEAN NOT NULL DEFAULT 0,
+    `tentativas_email`            INT NOT NULL DEFAULT 0,
+    `proxima_tentativa`           DATETIME(3) NOT NULL DEFAULT NOW(3),
+    `ultimo_erro`                 VARCHAR(500) NULL,
+    PRIMARY KEY (`outbox_id`),
+    FOREIGN KEY (`destinatario_email`) REFERENCES `user`(`email`) ON DELETE CASCADE,
+    FOREIGN KEY (`related_task_student_email`, `related_task_sequence_order`) REFERENCES `task`(`student_email`, `sequence_order`) ON DELETE SET NULL,
+    INDEX `idx_outbox_pendentes` (`notificacao_gravada`, `proxima_tentativa`)
+);
@@ -0,0 +1,85 @@
+USE TGControl;
+
+-- ========================================================================== --
+-- TABELAS DE RESUMO DOS DASHBOARDS                                           --
+-- Mantidas pela aplicação (ResumoDashboardUtils) na mesma transação das      --
+-- gravações de entrega, avaliação e cadastro de aluno. Os dashboards leem    --
+-- estas tabelas por chave primária em vez de agregar as VIEWs a cada acesso. --
+-- Para corrigir divergências: repetir a PARTE 2 deste script (mesma conta   --
+-- de ResumoDashboardUtils.reconstruirResumos()).                             --
+-- ========================================================================== --
+
+-- 1. TABELAS
+
+-- Tabela: Progresso de cada aluno.
+-- PK: student_email
+CREATE TABLE IF NOT EXISTS `resumo_aluno` (
+    `student_email`     VARCHAR(255) NOT NULL,
+    `total_tasks`       INT NOT NULL DEFAULT 0,
+    `completed_tasks`   INT NOT NULL DEFAULT 0,
+    `pendentes_revisao` INT NOT NULL DEFAULT 0, -- Tasks em andamento com entrega aguardando (ou pedindo) revisão
+    PRIMARY KEY (`student_email`),
+    FOREIGN KEY (`student_email`) REFERENCES `student`(`email`) ON DELETE CASCADE
+    );
+
+-- Tabela: Totais de cada turma (substitui a leitura de vw_class_summary).
+-- PK: (class_disciplina, class_year, class_semester)
+CREATE TABLE IF NOT EXISTS `resumo_turma` (
+    `class_disciplina` VARCHAR(255) NOT NULL,
+    `class_year`       INT NOT NULL,
+    `class_semester`   INT NOT NULL,
+    `numero_alunos`    INT NOT NULL DEFAULT 0,
+    `tgs_concluidos`   INT NOT NULL DEFAULT 0,
+    `soma_progresso`   DECIMAL(12, 4) NOT NULL DEFAULT 0, -- progresso médio = soma_progresso / numero_alunos
+    PRIMARY KEY (`class_disciplina`, `class_year`, `class_semester`),
+    FOREIGN KEY (`class_disciplina`, `class_year`, `class_semester`) REFERENCES `class`(`disciplina`, `year`, `semester`) ON DELETE CASCADE
+    );
+
+-- Tabela: Totais de cada orientador.
+-- PK: advisor_email
+CREATE TABLE IF NOT EXISTS `resumo_orientador` (
+    `advisor_email`     VARCHAR(255) NOT NULL,
+    `total_orientandos` INT NOT NULL DEFAULT 0,
+    `tgs_concluidos`    INT NOT NULL DEFAULT 0,
+    `pendentes_revisao` INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (`advisor_email`),
+    FOREIGN KEY (`advisor_email`) REFERENCES `teacher`(`email`) ON DELETE CASCADE
+    );
+
+-- 2. CARGA INICIAL (mesmas consultas de ResumoDashboardUtils.reconstruirResumos)
+DELETE FROM resumo_orientador;
+DELETE FROM resumo_turma;
+DELETE FROM resumo_aluno;
+
+INSERT INTO resumo_aluno (student_email, total_tasks, completed_tasks, pendentes_revisao)
+SELECT s.email,
+       COUNT(t.sequence_order),
+       COALESCE(SUM(CASE WHEN t.status = 'completed' THEN 1 ELSE 0 END), 0),
+       (SELECT COUNT(*) FROM task tp
+            JOIN task_submission ls ON ls.student_email = tp.student_email AND ls.sequence_order = tp.sequence_order
+            WHERE tp.student_email = s.email AND tp.status = 'in_progress'
+              AND ls.submission_timestamp = (SELECT MAX(x.submission_timestamp) FROM task_submission x WHERE x.student_email = tp.student_email AND x.sequence_order = tp.sequence_order)
+              AND COALESCE((SELECT r.status FROM task_review r WHERE r.student_email = ls.student_email AND r.sequence_order = ls.sequence_order AND r.submission_timestamp = ls.submission_timestamp ORDER BY r.review_timestamp DESC LIMIT 1), 'revision_requested') = 'revision_requested')
+FROM student s
+         LEFT JOIN task t ON t.student_email = s.email
+GROUP BY s.email;
+
+INSERT INTO resumo_turma (class_disciplina, class_year, class_semester, numero_alunos, tgs_concluidos, soma_progresso)
+SELECT c.disciplina, c.year, c.semester,
+       COUNT(ra.student_email),
+       COALESCE(SUM(CASE WHEN ra.total_tasks > 0 AND ra.completed_tasks = ra.total_tasks THEN 1 ELSE 0 END), 0),
+       COALESCE(SUM(CASE WHEN ra.total_tasks > 0 THEN ra.completed_tasks / ra.total_tasks ELSE 0 END), 0)
+FROM class c
+         LEFT JOIN student s ON s.class_disciplina = c.disciplina AND s.class_year = c.year AND s.class_semester = c.semester
+         LEFT JOIN resumo_aluno ra ON ra.student_email = s.email
+GROUP BY c.disciplina, c.year, c.semester;
+
+INSERT INTO resumo_orientador (advisor_email, total_orientandos, tgs_concluidos, pendentes_revisao)
+SELECT s.advisor_email,
+       COUNT(*),
+       COALESCE(SUM(CASE WHEN ra.total_tasks > 0 AND ra.completed_tasks = ra.total_tasks THEN 1 ELSE 0 END), 0),
+       COALESCE(SUM(ra.pendentes_revisao), 0)
+FROM student s
+         JOIN resumo_aluno ra ON ra.student_email = s.email
+WHERE s.advisor_email IS NOT NULL
+GROUP BY s.advisor_email;
@@ -0,0 +1,48 @@
+USE TGControl;
+
+-- ========================================================================== --
+-- VERSÃO DOS DADOS DE REFERÊNCIA (turmas)                                    --
+-- A aplicação guarda a lista em memória (DadosReferenciaCache) e, em        --
+-- segundo plano, compara a versão; só recarrega quando ela mudar.            --
+-- ========================================================================== --
+
+-- Tabela: Contador de alterações por lista de referência.
+-- PK: nome ('turmas')
+CREATE TABLE IF NOT EXISTS `dados_referencia_versao` (
+    `nome`   VARCHAR(50) NOT NULL,
+    `versao` BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (`nome`)
+    );
+
+INSERT IGNORE INTO dados_referencia_versao (nome, versao) VALUES ('turmas', 0);
+
+-- A versão 'professores' não é mais lida: remove o que uma execução anterior deste script tenha criado
+DELETE FROM dados_referencia_versao WHERE nome = 'professores';
+
+DROP TRIGGER IF EXISTS trg_versao_turmas_insert;
+DROP TRIGGER IF EXISTS trg_versao_turmas_update;
+DROP TRIGGER IF EXISTS trg_versao_turmas_delete;
+DROP TRIGGER IF EXISTS trg_versao_professores_insert;
+DROP TRIGGER IF EXISTS trg_versao_professores_update;
+DROP TRIGGER IF EXISTS trg_versao_professores_delete;
+DROP TRIGGER IF EXISTS trg_versao_professores_nome;
+
+DELIMITER //
+
+-- TRIGGERS: Qualquer alteração em class muda a versão de 'turmas'.
+CREATE TRIGGER trg_versao_turmas_insert AFTER INSERT ON class FOR EACH ROW
+BEGIN
+    UPDATE dados_referencia_versao SET versao = versao + 1 WHERE nome = 'turmas';
+END //
+
+CREATE TRIGGER trg_versao_turmas_update AFTER UPDATE ON class FOR EACH ROW
+BEGIN
+    UPDATE dados_referencia_versao SET versao = versao + 1 WHERE nome = 'turmas';
+END //
+
+CREATE TRIGGER trg_versao_turmas_delete AFTER DELETE ON class FOR EACH ROW
+BEGIN
+    UPDATE dados_referencia_versao SET versao = versao + 1 WHERE nome = 'turmas';
+END //
+
+DELIMITER ;